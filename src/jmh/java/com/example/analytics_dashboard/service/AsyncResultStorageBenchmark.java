@@ -0,0 +1,82 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding a result into compressed chunks, and reading a stored result back
+ * through {@link AsyncQueryExecutionService#getResultRows}, whole or as a
+ * 100-row page from the middle of the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsyncResultStorageBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int resultRows;
+
+    private ObjectMapper objectMapper;
+    private AsyncQueryExecutionService asyncService;
+    private List<List<Object>> rows;
+    private QueryExecution storedExecution;
+
+    private final ResultChunkRepository discardingRepository = new ResultChunkRepository(null) {
+        @Override
+        public void save(UUID executionId, int chunkIndex, long firstRow, int rowCount, byte[] data) {
+        }
+    };
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) throws IOException {
+        objectMapper = app.bean(ObjectMapper.class);
+        asyncService = app.bean(AsyncQueryExecutionService.class);
+        rows = app.bean(QueryExecutionService.class)
+                .executeQuery(app.query("SELECT * FROM passengers LIMIT " + resultRows)).getRows();
+
+        storedExecution = new QueryExecution(0L);
+        storedExecution.setId(UUID.randomUUID());
+        storedExecution.setRowCount((long) rows.size());
+        storedExecution.setChunkRows(1000);
+        new ChunkedResultWriter(storedExecution.getId(), app.bean(ResultChunkRepository.class), objectMapper, 1000)
+                .writeAll(rows);
+    }
+
+    @Benchmark
+    public long writeChunks() throws IOException {
+        ChunkedResultWriter writer = new ChunkedResultWriter(UUID.randomUUID(), discardingRepository, objectMapper, 1000);
+        writer.writeAll(rows);
+        return writer.getBytes();
+    }
+
+    @Benchmark
+    public List<List<Object>> readChunks() {
+        return asyncService.getResultRows(storedExecution);
+    }
+
+    @Benchmark
+    public List<List<Object>> readPage() {
+        return asyncService.getResultRows(storedExecution, rows.size() / 2, 100);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.AnalyticsDashboardApplication;
+import com.example.analytics_dashboard.model.StoredQuery;
+import com.example.analytics_dashboard.sql.SqlFingerprinter;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Boots the application without the web layer under the {@code synthetic}
+ * profile, with {@code datasetRows} generated passengers.
+ * Override the size with {@code -Djmh.args="-p datasetRows=1000000"}.
+ * The disk result cache lives in a fresh temporary directory per trial, so
+ * trials do not reuse each other's results.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkApplication {
+
+    @Param("100000")
+    public int datasetRows;
+
+    private ConfigurableApplicationContext context;
+    private Path resultCacheDirectory;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        resultCacheDirectory = Files.createTempDirectory("result-cache");
+        context = new SpringApplicationBuilder(AnalyticsDashboardApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("synthetic")
+                // Arguments, as default properties would lose to application.properties
+                .run("--analytics.synthetic.rows=" + datasetRows,
+                        "--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--analytics.cache.disk.enabled=true",
+                        "--analytics.cache.disk.directory=" + resultCacheDirectory);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws IOException {
+        context.close();
+        try (Stream<Path> files = Files.walk(resultCacheDirectory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public <T> T bean(String name, Class<T> type) {
+        return context.getBean(name, type);
+    }
+
+    /**
+     * An unsaved query with its fingerprint set, as {@link QueryService#addQuery} would store it,
+     * bound without parameters.
+     */
+    public BoundQuery query(String sql) {
+        StoredQuery storedQuery = new StoredQuery(sql);
+        storedQuery.setFingerprint(bean(SqlFingerprinter.class).fingerprint(sql));
+        return BoundQuery.of(storedQuery);
+    }
+
+    /**
+     * The bean behind its caching proxy, for benchmarks that must bypass the cache.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T target(Class<T> type) {
+        T bean = bean(type);
+        Object target = AopProxyUtils.getSingletonTarget(bean);
+        return target != null ? (T) target : bean;
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.cache.DiskResultCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link QueryExecutionService#executeQuery} through the Spring {@code @Cacheable}
+ * proxy. Misses use a fresh SQL text per call, once for a query that H2 runs
+ * and once for one the columnar engine answers; their time includes
+ * fingerprinting the new text and writing the result to the disk tier.
+ * {@code diskHit} reads and decodes the hit result from its memory-mapped
+ * segment, as after a restart or for results kept off the heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryCacheBenchmark {
+    private static final String HIT_SQL = "SELECT Pclass, Sex, AVG(Fare) FROM passengers GROUP BY Pclass, Sex";
+
+    private BenchmarkApplication app;
+    private QueryExecutionService executionService;
+    private BoundQuery hitQuery;
+    private String hitKey;
+    private DiskResultCache diskCache;
+    private long counter;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) {
+        this.app = app;
+        executionService = app.bean(QueryExecutionService.class);
+        hitQuery = app.query(HIT_SQL);
+        executionService.executeQuery(hitQuery);
+        hitKey = app.bean(DatasetVersion.class).qualify(hitQuery.getCacheKey());
+        diskCache = app.bean(DiskResultCache.class);
+    }
+
+    @Benchmark
+    public QueryResult hit() {
+        return executionService.executeQuery(hitQuery);
+    }
+
+    @Benchmark
+    public QueryResult diskHit() {
+        return diskCache.get(hitKey).orElseThrow();
+    }
+
+    @Benchmark
+    public QueryResult missOnH2() {
+        return executionService.executeQuery(app.query(
+                "SELECT Name, Ticket FROM passengers WHERE PassengerId = " + (++counter % 1000)));
+    }
+
+    @Benchmark
+    public QueryResult missOnColumnarEngine() {
+        return executionService.executeQuery(app.query(
+                "SELECT Pclass, COUNT(*) FROM passengers WHERE Age > " + (++counter % 80) + " GROUP BY Pclass"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.sql.ReadOnlySqlValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReadOnlySqlValidator#isReadOnly} on long SELECT statements. Runs once per
+ * query when it is saved; executions reuse the stored verdict.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReadOnlyValidationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int sqlLength;
+
+    private ReadOnlySqlValidator validator;
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) {
+        validator = app.bean(ReadOnlySqlValidator.class);
+
+        StringBuilder builder = new StringBuilder("SELECT Name, Age, Fare FROM passengers WHERE Pclass = 1");
+        int i = 0;
+        while (builder.length() < sqlLength) {
+            builder.append(" AND (Age > ").append(i).append(" OR Name LIKE '%Mr").append(i).append("%')");
+            i++;
+        }
+        sql = builder.toString();
+    }
+
+    @Benchmark
+    public boolean isReadOnly() {
+        return validator.isReadOnly(sql);
+    }
+}
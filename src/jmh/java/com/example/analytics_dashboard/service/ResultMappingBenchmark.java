@@ -0,0 +1,50 @@
+package com.example.analytics_dashboard.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code SELECT * ... LIMIT n} through {@link QueryExecutionService#mapResultSetTo2DArray},
+ * without the cache or the columnar engine in front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultMappingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int resultRows;
+
+    private JdbcTemplate jdbcTemplate;
+    private QueryExecutionService executionService;
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) {
+        jdbcTemplate = app.bean("syncJdbcTemplate", JdbcTemplate.class);
+        executionService = app.target(QueryExecutionService.class);
+        sql = "SELECT * FROM passengers LIMIT " + resultRows;
+    }
+
+    @Benchmark
+    public List<List<Object>> mapResultSet() {
+        return jdbcTemplate.query(sql, executionService::mapResultSetTo2DArray);
+    }
+}
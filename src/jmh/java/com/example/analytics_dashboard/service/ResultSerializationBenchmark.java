@@ -0,0 +1,49 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.dto.ExecutionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link ExecutionResponse} with the application's ObjectMapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResultSerializationBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    public int resultRows;
+
+    private ObjectMapper objectMapper;
+    private ExecutionResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkApplication app) {
+        objectMapper = app.bean(ObjectMapper.class);
+        response = new ExecutionResponse(app.bean(QueryExecutionService.class)
+                .executeQuery(app.query("SELECT * FROM passengers LIMIT " + resultRows)).getRows());
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
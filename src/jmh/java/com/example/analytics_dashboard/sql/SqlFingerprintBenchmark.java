@@ -0,0 +1,52 @@
+package com.example.analytics_dashboard.sql;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link SqlFingerprinter#fingerprint} on commented, mixed-case SQL of different lengths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlFingerprintBenchmark {
+
+    @Param({"1000", "100000"})
+    public int sqlLength;
+
+    private SqlFingerprinter fingerprinter;
+    private String sql;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fingerprinter = new SqlFingerprinter();
+
+        StringBuilder builder = new StringBuilder("select Name,  \"AGE\", fare -- columns\nFROM passengers WHERE Pclass = 1");
+        int i = 0;
+        while (builder.length() < sqlLength) {
+            builder.append("\n  and (Age > ").append(i).append(" OR name like '%Mr").append(i).append("%') /* ").append(i).append(" */");
+            i++;
+        }
+        sql = builder.toString();
+    }
+
+    @Benchmark
+    public String fingerprint() {
+        return fingerprinter.fingerprint(sql);
+    }
+}
@@ -0,0 +1,442 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.DatasetVersion;
+import com.example.analytics_dashboard.service.QueryResult;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Query results persisted in memory-mapped segment files, encoded with
+ * {@link ResultCodec}, so they survive a restart and large ones can be kept
+ * outside the heap.
+ * <p>
+ * Records are appended to the newest segment of {@code segmentBytes}; when it
+ * is full a new one is started, and once the segments exceed {@code maxBytes}
+ * the oldest is deleted with everything in it. Keys are the result cache keys
+ * as given, which {@link DatasetVersion#qualify} already prefixes with the
+ * dataset version. On startup the segments are scanned to rebuild the index
+ * from the records of the current version only, so results of a different
+ * dataset are never returned and age out with their segments; the scan stops
+ * at the first record whose checksum does not match (a write cut short by a
+ * crash).
+ * <p>
+ * Only one process can use a directory: if another holds its lock the cache
+ * stays unavailable and every lookup misses.
+ */
+public class DiskResultCache implements Closeable, MeterBinder {
+    private static final Logger log = LoggerFactory.getLogger(DiskResultCache.class);
+
+    private static final int MAGIC = 0x52534C54;
+    // magic, key length, payload length, written at (epoch millis), CRC32 of key and payload
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 4;
+    private static final int TOMBSTONE = -1;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("results-(\\d+)\\.seg");
+
+    private final Path directory;
+    private final DatasetVersion datasetVersion;
+    private final int segmentBytes;
+    private final long maxBytes;
+    private final Duration expireAfterWrite;
+
+    private final ConcurrentHashMap<String, Entry> index = new ConcurrentHashMap<>();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    // Guarded by this
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private Segment active;
+    private int writePosition;
+    private FileChannel lockChannel;
+    private FileLock lock;
+
+    private volatile boolean available;
+
+    public DiskResultCache(Path directory, DatasetVersion datasetVersion, long segmentBytes, long maxBytes,
+                           Duration expireAfterWrite) {
+        if (segmentBytes < HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentBytes must be between " + HEADER_BYTES + " and 2GB");
+        }
+        this.directory = directory;
+        this.datasetVersion = datasetVersion;
+        this.segmentBytes = (int) segmentBytes;
+        this.maxBytes = maxBytes;
+        this.expireAfterWrite = expireAfterWrite;
+        try {
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open result cache in " + directory, e);
+        }
+    }
+
+    private synchronized void open() throws IOException {
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            log.warn("Result cache directory {} is in use by another instance; disk cache disabled", directory);
+            return;
+        }
+
+        for (Path path : segmentFiles()) {
+            Segment segment = map(path, sequence(path));
+            segments.addLast(segment);
+            writePosition = scan(segment);
+            active = segment;
+        }
+        if (active == null) {
+            roll();
+        }
+        dropOldSegments();
+        available = true;
+        log.info("Result cache in {} opened with {} entries for dataset {}", directory, index.size(), datasetVersion.get());
+    }
+
+    /**
+     * The result stored for a cache key.
+     */
+    public Optional<QueryResult> get(String cacheKey) {
+        if (!available) {
+            return Optional.empty();
+        }
+        Entry entry = index.get(cacheKey);
+        if (entry == null) {
+            missCount.increment();
+            return Optional.empty();
+        }
+        if (isExpired(entry.writtenAt(), System.currentTimeMillis())) {
+            index.remove(cacheKey, entry);
+            missCount.increment();
+            return Optional.empty();
+        }
+
+        byte[] payload = new byte[entry.payloadLength()];
+        entry.segment().buffer().get(entry.payloadOffset(), payload);
+        try {
+            QueryResult result = ResultCodec.decode(payload);
+            hitCount.increment();
+            return Optional.of(result);
+        } catch (RuntimeException e) {
+            log.warn("Dropping unreadable cached result in {}: {}", entry.segment().path(), e.toString());
+            index.remove(cacheKey, entry);
+            missCount.increment();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Persists a result, replacing any earlier one for the key.
+     * @return false if it was not stored: the cache is unavailable, the result
+     *         contains values {@link ResultCodec} cannot encode, or it does not
+     *         fit into a segment
+     */
+    public boolean put(String cacheKey, QueryResult result) {
+        if (!available) {
+            return false;
+        }
+        byte[] payload;
+        try {
+            payload = ResultCodec.encode(result);
+        } catch (IllegalArgumentException e) {
+            log.debug("Not persisting result for {}: {}", cacheKey, e.getMessage());
+            return false;
+        }
+
+        synchronized (this) {
+            Entry entry = available ? append(cacheKey, payload) : null;
+            if (entry == null) {
+                return false;
+            }
+            index.put(cacheKey, entry);
+            return true;
+        }
+    }
+
+    public void remove(String cacheKey) {
+        if (!available) {
+            return;
+        }
+        synchronized (this) {
+            // A tombstone keeps the result from coming back after a restart
+            if (index.remove(cacheKey) != null && available) {
+                append(cacheKey, null);
+            }
+        }
+    }
+
+    /**
+     * Deletes every segment.
+     */
+    public synchronized void clear() {
+        if (!available) {
+            return;
+        }
+        index.clear();
+        while (!segments.isEmpty()) {
+            delete(segments.removeFirst());
+        }
+        active = null;
+        try {
+            roll();
+        } catch (IOException e) {
+            available = false;
+            log.warn("Cannot start a new result cache segment in {}; disk cache disabled", directory, e);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        available = false;
+        for (Segment segment : segments) {
+            segment.buffer().force();
+            closeQuietly(segment.channel());
+        }
+        segments.clear();
+        index.clear();
+        if (lockChannel != null) {
+            // Closing the channel releases the lock
+            closeQuietly(lockChannel);
+        }
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public long getEntryCount() {
+        return index.size();
+    }
+
+    /**
+     * Encoded size of the results that can currently be returned.
+     */
+    public long getStoredBytes() {
+        return index.values().stream().mapToLong(Entry::payloadLength).sum();
+    }
+
+    public synchronized long getFileBytes() {
+        return segments.stream().mapToLong(segment -> segment.buffer().capacity()).sum();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("analytics.cache.disk.gets", hitCount, LongAdder::sum)
+                .description("Lookups in the disk result cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("analytics.cache.disk.gets", missCount, LongAdder::sum)
+                .description("Lookups in the disk result cache")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("analytics.cache.disk.entries", this, DiskResultCache::getEntryCount)
+                .description("Results in the disk result cache")
+                .register(registry);
+        Gauge.builder("analytics.cache.disk.size", this, DiskResultCache::getStoredBytes)
+                .description("Encoded size of the results in the disk result cache")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        Gauge.builder("analytics.cache.disk.files", this, DiskResultCache::getFileBytes)
+                .description("Size of the disk result cache's segment files")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+    }
+
+    private boolean isExpired(long writtenAt, long now) {
+        return now - writtenAt > expireAfterWrite.toMillis();
+    }
+
+    /**
+     * Writes a record (a tombstone if {@code payload} is null) to the active
+     * segment, starting a new one if it does not fit.
+     * @return where the payload was written, or null if the record is larger than a segment
+     */
+    private Entry append(String cacheKey, byte[] payload) {
+        byte[] key = cacheKey.getBytes(StandardCharsets.UTF_8);
+        int payloadLength = payload == null ? TOMBSTONE : payload.length;
+        long recordBytes = (long) HEADER_BYTES + key.length + Math.max(0, payloadLength);
+        if (recordBytes > segmentBytes) {
+            log.debug("Not persisting result for {}: {} bytes do not fit into a segment", cacheKey, recordBytes);
+            return null;
+        }
+        try {
+            if (writePosition + recordBytes > active.buffer().capacity()) {
+                roll();
+            }
+        } catch (IOException e) {
+            log.warn("Cannot start a new result cache segment in {}", directory, e);
+            return null;
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(key);
+        if (payload != null) {
+            crc.update(payload);
+        }
+        long writtenAt = System.currentTimeMillis();
+        int position = writePosition;
+        MappedByteBuffer buffer = active.buffer();
+        buffer.putInt(position + 4, key.length);
+        buffer.putInt(position + 8, payloadLength);
+        buffer.putLong(position + 12, writtenAt);
+        buffer.putInt(position + 20, (int) crc.getValue());
+        buffer.put(position + HEADER_BYTES, key);
+        if (payload != null) {
+            buffer.put(position + HEADER_BYTES + key.length, payload);
+        }
+        buffer.putInt(position, MAGIC);
+        writePosition += (int) recordBytes;
+        return new Entry(active, position + HEADER_BYTES + key.length, payloadLength, writtenAt);
+    }
+
+    /**
+     * Reads the records of a segment into the index.
+     * @return the position after the last intact record
+     */
+    private int scan(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        String versionPrefix = DatasetVersion.qualify(datasetVersion.get(), "");
+        long now = System.currentTimeMillis();
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity() && buffer.getInt(position) == MAGIC) {
+            int keyLength = buffer.getInt(position + 4);
+            int payloadLength = buffer.getInt(position + 8);
+            long writtenAt = buffer.getLong(position + 12);
+            int checksum = buffer.getInt(position + 20);
+            long bodyBytes = (long) keyLength + Math.max(0, payloadLength);
+            if (keyLength < 0 || payloadLength < TOMBSTONE
+                    || position + HEADER_BYTES + bodyBytes > buffer.capacity()) {
+                break;
+            }
+
+            int bodyStart = position + HEADER_BYTES;
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(bodyStart).limit(bodyStart + (int) bodyBytes));
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Result cache segment {} is damaged after {} bytes; ignoring the rest", segment.path(), position);
+                break;
+            }
+
+            byte[] key = new byte[keyLength];
+            buffer.get(bodyStart, key);
+            String cacheKey = new String(key, StandardCharsets.UTF_8);
+            if (payloadLength == TOMBSTONE) {
+                index.remove(cacheKey);
+            } else if (cacheKey.startsWith(versionPrefix) && !isExpired(writtenAt, now)) {
+                index.put(cacheKey, new Entry(segment, bodyStart + keyLength, payloadLength, writtenAt));
+            }
+            position = bodyStart + (int) bodyBytes;
+        }
+        return position;
+    }
+
+    private void roll() throws IOException {
+        long sequence = active == null ? segments.stream().mapToLong(Segment::sequence).max().orElse(0) + 1
+                : active.sequence() + 1;
+        Segment segment = map(directory.resolve("results-" + sequence + ".seg"), sequence);
+        segments.addLast(segment);
+        active = segment;
+        writePosition = 0;
+        dropOldSegments();
+    }
+
+    private void dropOldSegments() {
+        while (segments.size() > 1 && getFileBytes() > maxBytes) {
+            Segment oldest = segments.removeFirst();
+            index.values().removeIf(entry -> entry.segment() == oldest);
+            delete(oldest);
+        }
+    }
+
+    private Segment map(Path path, long sequence) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = Math.min(Integer.MAX_VALUE, Math.max(segmentBytes, channel.size()));
+            return new Segment(sequence, path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // The mapping stays valid for readers still holding an entry of the segment
+    // until it is garbage collected; on Linux the file can be deleted meanwhile.
+    private void delete(Segment segment) {
+        closeQuietly(segment.channel());
+        try {
+            Files.deleteIfExists(segment.path());
+        } catch (IOException e) {
+            log.warn("Cannot delete result cache segment {}", segment.path(), e);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(directory)) {
+            list.filter(path -> SEGMENT_FILE.matcher(path.getFileName().toString()).matches()).forEach(files::add);
+        }
+        files.sort(Comparator.comparingLong(DiskResultCache::sequence));
+        return files;
+    }
+
+    private static long sequence(Path path) {
+        Matcher matcher = SEGMENT_FILE.matcher(path.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Cannot close {}", channel, e);
+        }
+    }
+
+    private record Segment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private record Entry(Segment segment, int payloadOffset, int payloadLength, long writtenAt) {
+    }
+}
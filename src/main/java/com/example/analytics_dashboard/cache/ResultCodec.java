@@ -0,0 +1,257 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.QueryResult;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a {@link QueryResult}. Integers use zig-zag
+ * varints, decimals whose unscaled value fits a long are stored as two varints,
+ * and a string that was already written in the same result is stored as a
+ * reference to its first occurrence, which also shares the instance when
+ * decoding. Only the value types H2 and the columnar engine return are
+ * supported; anything else makes {@link #encode} fail.
+ */
+public final class ResultCodec {
+    private static final int FORMAT_VERSION = 1;
+
+    // Strings longer than this are not worth remembering for back-references
+    private static final int MAX_SHARED_STRING_LENGTH = 64;
+    private static final int MAX_SHARED_STRINGS = 1 << 16;
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte SHORT = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte FLOAT = 7;
+    private static final byte SMALL_DECIMAL = 8;
+    private static final byte DECIMAL = 9;
+    private static final byte STRING = 10;
+    private static final byte STRING_REF = 11;
+    private static final byte SQL_DATE = 12;
+    private static final byte SQL_TIMESTAMP = 13;
+    private static final byte LOCAL_DATE = 14;
+    private static final byte LOCAL_DATE_TIME = 15;
+
+    private ResultCodec() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if a value has a type that cannot be
+     *         encoded or the rows differ in length
+     */
+    public static byte[] encode(QueryResult result) {
+        List<List<Object>> rows = result.getRows();
+        int columnCount = rows.isEmpty() ? 0 : rows.get(0).size();
+
+        Writer out = new Writer();
+        out.varLong(FORMAT_VERSION);
+        out.varLong(result.getExecutionNanos());
+        out.varLong(rows.size());
+        out.varLong(columnCount);
+        for (List<Object> row : rows) {
+            if (row.size() != columnCount) {
+                throw new IllegalArgumentException("Rows differ in length: " + row.size() + " and " + columnCount);
+            }
+            for (Object value : row) {
+                out.value(value);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * @throws IllegalArgumentException if the bytes are not a result in this format
+     */
+    public static QueryResult decode(byte[] bytes) {
+        Reader in = new Reader(ByteBuffer.wrap(bytes));
+        long version = in.varLong();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported result format version " + version);
+        }
+        long executionNanos = in.varLong();
+        int rowCount = Math.toIntExact(in.varLong());
+        int columnCount = Math.toIntExact(in.varLong());
+
+        List<List<Object>> rows = new ArrayList<>(rowCount);
+        for (int r = 0; r < rowCount; r++) {
+            Object[] row = new Object[columnCount];
+            for (int c = 0; c < columnCount; c++) {
+                row[c] = in.value();
+            }
+            rows.add(Arrays.asList(row));
+        }
+        return new QueryResult(rows, executionNanos);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        private final Map<String, Integer> sharedStrings = new HashMap<>();
+
+        void value(Object value) {
+            switch (value) {
+                case null -> bytes.write(NULL);
+                case Boolean b -> bytes.write(b ? TRUE : FALSE);
+                case Integer i -> tagged(INT, zigZag(i));
+                case Long l -> tagged(LONG, zigZag(l));
+                case Short s -> tagged(SHORT, zigZag(s));
+                case Double d -> fixed64(DOUBLE, Double.doubleToRawLongBits(d));
+                case Float f -> tagged(FLOAT, Integer.toUnsignedLong(Float.floatToRawIntBits(f)));
+                case BigDecimal d -> decimal(d);
+                case String s -> string(s);
+                case java.sql.Timestamp t -> dateTime(SQL_TIMESTAMP, t.toLocalDateTime());
+                case java.sql.Date d -> tagged(SQL_DATE, zigZag(d.toLocalDate().toEpochDay()));
+                case LocalDate d -> tagged(LOCAL_DATE, zigZag(d.toEpochDay()));
+                case LocalDateTime t -> dateTime(LOCAL_DATE_TIME, t);
+                default -> throw new IllegalArgumentException("Cannot encode values of type " + value.getClass().getName());
+            }
+        }
+
+        private void decimal(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                tagged(SMALL_DECIMAL, zigZag(value.scale()));
+                varLong(zigZag(unscaled.longValueExact()));
+                return;
+            }
+            byte[] magnitude = unscaled.toByteArray();
+            tagged(DECIMAL, zigZag(value.scale()));
+            varLong(magnitude.length);
+            bytes.writeBytes(magnitude);
+        }
+
+        private void string(String value) {
+            Integer index = sharedStrings.get(value);
+            if (index != null) {
+                tagged(STRING_REF, index);
+                return;
+            }
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            tagged(STRING, utf8.length);
+            bytes.writeBytes(utf8);
+            // Decoder numbers strings in the same order, so only register what it will register
+            if (value.length() <= MAX_SHARED_STRING_LENGTH && sharedStrings.size() < MAX_SHARED_STRINGS) {
+                sharedStrings.put(value, sharedStrings.size());
+            }
+        }
+
+        private void dateTime(byte tag, LocalDateTime value) {
+            tagged(tag, zigZag(value.toLocalDate().toEpochDay()));
+            varLong(value.toLocalTime().toNanoOfDay());
+        }
+
+        private void tagged(byte tag, long varLong) {
+            bytes.write(tag);
+            varLong(varLong);
+        }
+
+        private void fixed64(byte tag, long bits) {
+            bytes.write(tag);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes.write((int) (bits >>> shift));
+            }
+        }
+
+        void varLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+    }
+
+    private static final class Reader {
+        private final ByteBuffer buffer;
+        private final List<String> sharedStrings = new ArrayList<>();
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        Object value() {
+            byte tag = buffer.get();
+            return switch (tag) {
+                case NULL -> null;
+                case FALSE -> Boolean.FALSE;
+                case TRUE -> Boolean.TRUE;
+                case INT -> (int) unZigZag(varLong());
+                case LONG -> unZigZag(varLong());
+                case SHORT -> (short) unZigZag(varLong());
+                case DOUBLE -> buffer.getDouble();
+                case FLOAT -> Float.intBitsToFloat((int) varLong());
+                case SMALL_DECIMAL -> {
+                    int scale = (int) unZigZag(varLong());
+                    yield BigDecimal.valueOf(unZigZag(varLong()), scale);
+                }
+                case DECIMAL -> {
+                    int scale = (int) unZigZag(varLong());
+                    byte[] magnitude = new byte[Math.toIntExact(varLong())];
+                    buffer.get(magnitude);
+                    yield new BigDecimal(new BigInteger(magnitude), scale);
+                }
+                case STRING -> string();
+                case STRING_REF -> sharedStrings.get(Math.toIntExact(varLong()));
+                case SQL_DATE -> java.sql.Date.valueOf(LocalDate.ofEpochDay(unZigZag(varLong())));
+                case SQL_TIMESTAMP -> java.sql.Timestamp.valueOf(dateTime());
+                case LOCAL_DATE -> LocalDate.ofEpochDay(unZigZag(varLong()));
+                case LOCAL_DATE_TIME -> dateTime();
+                default -> throw new IllegalArgumentException("Unknown value tag " + tag);
+            };
+        }
+
+        private String string() {
+            int length = Math.toIntExact(varLong());
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            if (value.length() <= MAX_SHARED_STRING_LENGTH && sharedStrings.size() < MAX_SHARED_STRINGS) {
+                sharedStrings.add(value);
+            }
+            return value;
+        }
+
+        private LocalDateTime dateTime() {
+            LocalDate date = LocalDate.ofEpochDay(unZigZag(varLong()));
+            return LocalDateTime.of(date, LocalTime.ofNanoOfDay(varLong()));
+        }
+
+        long varLong() {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                byte b = buffer.get();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.QueryResult;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import java.util.Optional;
+
+/**
+ * The Caffeine result cache with a {@link DiskResultCache} behind it. Results
+ * are written to both tiers, except that results estimated above
+ * {@code heapThreshold} bytes go to disk only; a Caffeine miss falls back to
+ * disk and moves the result into Caffeine if it is small enough. Still a
+ * {@link CaffeineCache}, so heap statistics and the native cache work as before.
+ */
+public class TieredResultCache extends CaffeineCache {
+    private final DiskResultCache diskCache;
+    private final long heapThreshold;
+
+    public TieredResultCache(String name, Cache<Object, Object> cache, DiskResultCache diskCache, long heapThreshold) {
+        super(name, cache);
+        this.diskCache = diskCache;
+        this.heapThreshold = heapThreshold;
+    }
+
+    public DiskResultCache getDiskCache() {
+        return diskCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value != null || !(key instanceof String cacheKey)) {
+            return value;
+        }
+        Optional<QueryResult> persisted = diskCache.get(cacheKey);
+        persisted.filter(this::fitsOnHeap).ifPresent(result -> super.put(key, result));
+        return persisted.orElse(null);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (key instanceof String cacheKey && value instanceof QueryResult result
+                && diskCache.put(cacheKey, result) && !fitsOnHeap(result)) {
+            super.evict(key);
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        super.evict(key);
+        if (key instanceof String cacheKey) {
+            diskCache.remove(cacheKey);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = super.evictIfPresent(key);
+        if (key instanceof String cacheKey) {
+            diskCache.remove(cacheKey);
+        }
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        diskCache.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = super.invalidate();
+        diskCache.clear();
+        return notEmpty;
+    }
+
+    private boolean fitsOnHeap(QueryResult result) {
+        return result.getEstimatedBytes() <= heapThreshold;
+    }
+}
@@ -0,0 +1,244 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * Per-group state of one aggregate. State lives in primitive arrays indexed by
+ * group id that are sized once per query, so {@link #accumulate} never allocates.
+ * Result types follow H2: COUNT and SUM(INT) are BIGINT, AVG(INT) is DOUBLE,
+ * SUM/AVG/MIN/MAX over DECIMAL keep the column scale (AVG adds 10 digits).
+ */
+abstract class Accumulator {
+
+    abstract void accumulate(int[] sel, int count, int[] gid);
+
+    abstract Object result(int group);
+
+    static Accumulator create(AggregateFunction function, Column argument, int groups) {
+        if (function == AggregateFunction.COUNT) {
+            return argument == null ? new CountAll(groups) : new CountNonNull(argument, groups);
+        }
+        if (argument instanceof DecimalColumn decimal) {
+            return new DecimalAggregate(function, decimal, groups);
+        }
+        if (argument instanceof IntColumn ints) {
+            return new IntAggregate(function, ints.values, IntColumn.NULL, null, groups);
+        }
+        DictionaryColumn dictionary = (DictionaryColumn) argument;
+        return new IntAggregate(function, dictionary.codes, DictionaryColumn.NULL, dictionary, groups);
+    }
+
+    static final class CountAll extends Accumulator {
+        private final long[] counts;
+
+        CountAll(int groups) {
+            this.counts = new long[groups];
+        }
+
+        @Override
+        void accumulate(int[] sel, int count, int[] gid) {
+            long[] c = counts;
+            for (int k = 0; k < count; k++) {
+                c[gid[k]]++;
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            return counts[group];
+        }
+    }
+
+    static final class CountNonNull extends Accumulator {
+        private final Column column;
+        private final long[] counts;
+
+        CountNonNull(Column column, int groups) {
+            this.column = column;
+            this.counts = new long[groups];
+        }
+
+        @Override
+        void accumulate(int[] sel, int count, int[] gid) {
+            long[] c = counts;
+            if (column instanceof IntColumn ints) {
+                int[] v = ints.values;
+                for (int k = 0; k < count; k++) {
+                    if (v[sel[k]] != IntColumn.NULL) c[gid[k]]++;
+                }
+            } else if (column instanceof DecimalColumn decimal) {
+                double[] v = decimal.values;
+                for (int k = 0; k < count; k++) {
+                    if (!Double.isNaN(v[sel[k]])) c[gid[k]]++;
+                }
+            } else {
+                int[] v = ((DictionaryColumn) column).codes;
+                for (int k = 0; k < count; k++) {
+                    if (v[sel[k]] != DictionaryColumn.NULL) c[gid[k]]++;
+                }
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            return counts[group];
+        }
+    }
+
+    /**
+     * SUM/AVG/MIN/MAX over an int array: {@link IntColumn} values or, for
+     * MIN/MAX only, sorted {@link DictionaryColumn} codes.
+     */
+    static final class IntAggregate extends Accumulator {
+        private final AggregateFunction function;
+        private final int[] values;
+        private final int nullValue;
+        private final DictionaryColumn dictionary;
+        private final long[] counts;
+        private final long[] sums;
+        private final int[] extremes;
+
+        IntAggregate(AggregateFunction function, int[] values, int nullValue, DictionaryColumn dictionary, int groups) {
+            this.function = function;
+            this.values = values;
+            this.nullValue = nullValue;
+            this.dictionary = dictionary;
+            this.counts = new long[groups];
+            this.sums = function == AggregateFunction.SUM || function == AggregateFunction.AVG ? new long[groups] : null;
+            this.extremes = function == AggregateFunction.MIN || function == AggregateFunction.MAX ? new int[groups] : null;
+            if (function == AggregateFunction.MIN) Arrays.fill(extremes, Integer.MAX_VALUE);
+            if (function == AggregateFunction.MAX) Arrays.fill(extremes, Integer.MIN_VALUE);
+        }
+
+        @Override
+        void accumulate(int[] sel, int count, int[] gid) {
+            int[] v = values;
+            long[] c = counts;
+            int nul = nullValue;
+            switch (function) {
+                case SUM, AVG -> {
+                    long[] s = sums;
+                    for (int k = 0; k < count; k++) {
+                        int x = v[sel[k]];
+                        if (x != nul) {
+                            int g = gid[k];
+                            s[g] += x;
+                            c[g]++;
+                        }
+                    }
+                }
+                case MIN -> {
+                    int[] e = extremes;
+                    for (int k = 0; k < count; k++) {
+                        int x = v[sel[k]];
+                        if (x != nul) {
+                            int g = gid[k];
+                            if (x < e[g]) e[g] = x;
+                            c[g]++;
+                        }
+                    }
+                }
+                case MAX -> {
+                    int[] e = extremes;
+                    for (int k = 0; k < count; k++) {
+                        int x = v[sel[k]];
+                        if (x != nul) {
+                            int g = gid[k];
+                            if (x > e[g]) e[g] = x;
+                            c[g]++;
+                        }
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected aggregate " + function);
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            if (counts[group] == 0) return null;
+            return switch (function) {
+                case SUM -> sums[group];
+                case AVG -> (double) sums[group] / counts[group];
+                default -> dictionary != null ? dictionary.valueOf(extremes[group]) : (Object) extremes[group];
+            };
+        }
+    }
+
+    /**
+     * SUM/AVG/MIN/MAX over a {@link DecimalColumn}. Sums are kept as unscaled
+     * longs so they are exact, unlike a running double.
+     */
+    static final class DecimalAggregate extends Accumulator {
+        private final AggregateFunction function;
+        private final DecimalColumn column;
+        private final long[] counts;
+        private final long[] unscaledSums;
+        private final double[] extremes;
+
+        DecimalAggregate(AggregateFunction function, DecimalColumn column, int groups) {
+            this.function = function;
+            this.column = column;
+            this.counts = new long[groups];
+            this.unscaledSums = function == AggregateFunction.SUM || function == AggregateFunction.AVG ? new long[groups] : null;
+            this.extremes = function == AggregateFunction.MIN || function == AggregateFunction.MAX ? new double[groups] : null;
+            if (function == AggregateFunction.MIN) Arrays.fill(extremes, Double.POSITIVE_INFINITY);
+            if (function == AggregateFunction.MAX) Arrays.fill(extremes, Double.NEGATIVE_INFINITY);
+        }
+
+        @Override
+        void accumulate(int[] sel, int count, int[] gid) {
+            double[] v = column.values;
+            long[] c = counts;
+            switch (function) {
+                case SUM, AVG -> {
+                    long[] s = unscaledSums;
+                    double factor = column.scaleFactor;
+                    for (int k = 0; k < count; k++) {
+                        double x = v[sel[k]];
+                        if (x == x) {
+                            int g = gid[k];
+                            s[g] += Math.round(x * factor);
+                            c[g]++;
+                        }
+                    }
+                }
+                case MIN -> {
+                    double[] e = extremes;
+                    for (int k = 0; k < count; k++) {
+                        double x = v[sel[k]];
+                        if (x == x) {
+                            int g = gid[k];
+                            if (x < e[g]) e[g] = x;
+                            c[g]++;
+                        }
+                    }
+                }
+                case MAX -> {
+                    double[] e = extremes;
+                    for (int k = 0; k < count; k++) {
+                        double x = v[sel[k]];
+                        if (x == x) {
+                            int g = gid[k];
+                            if (x > e[g]) e[g] = x;
+                            c[g]++;
+                        }
+                    }
+                }
+                default -> throw new IllegalStateException("Unexpected aggregate " + function);
+            }
+        }
+
+        @Override
+        Object result(int group) {
+            if (counts[group] == 0) return null;
+            return switch (function) {
+                case SUM -> BigDecimal.valueOf(unscaledSums[group], column.scale);
+                case AVG -> BigDecimal.valueOf(unscaledSums[group], column.scale)
+                        .divide(BigDecimal.valueOf(counts[group]), column.scale + 10, RoundingMode.HALF_DOWN);
+                default -> column.toDecimal(extremes[group]);
+            };
+        }
+    }
+}
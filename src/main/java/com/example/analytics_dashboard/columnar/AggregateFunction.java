@@ -0,0 +1,5 @@
+package com.example.analytics_dashboard.columnar;
+
+enum AggregateFunction {
+    COUNT, SUM, AVG, MIN, MAX
+}
@@ -0,0 +1,22 @@
+package com.example.analytics_dashboard.columnar;
+
+/**
+ * A single column of a {@link ColumnarTable}. Values live in primitive arrays
+ * indexed by row number; each subclass picks its own null sentinel.
+ */
+public abstract class Column {
+    private final String name;
+
+    protected Column(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Upper-case column name, as H2 reports unquoted identifiers.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public abstract boolean isNull(int row);
+}
@@ -0,0 +1,206 @@
+package com.example.analytics_dashboard.columnar;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps an in-memory, column-oriented copy of the {@code passengers} table for
+ * {@link ColumnarQueryEngine}. Text columns other than Sex/Embarked/Cabin are
+ * not loaded; queries touching them fall back to H2.
+ */
+@Component
+public class ColumnarPassengerStore {
+    private static final Logger log = LoggerFactory.getLogger(ColumnarPassengerStore.class);
+
+    static final String TABLE_NAME = "PASSENGERS";
+
+    private static final String[] INT_COLUMNS = {"PASSENGERID", "SURVIVED", "PCLASS", "SIBSP", "PARCH"};
+    private static final String[] DECIMAL_COLUMNS = {"AGE", "FARE"};
+    private static final String[] DICTIONARY_COLUMNS = {"SEX", "EMBARKED", "CABIN"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.columnar.enabled:true}")
+    private boolean enabled = true;
+
+    private volatile ColumnarTable table;
+
+    public ColumnarPassengerStore(@Qualifier("metadataJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Before the cache warm-up, so aggregate queries are warmed from the columnar engine
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Columnar engine disabled, all queries go to H2");
+            return;
+        }
+        refresh();
+    }
+
+    /**
+     * Loads the passengers table again after its data changed. If that fails
+     * the old snapshot is dropped, so queries go to H2 rather than to stale data.
+     */
+    public void refresh() {
+        if (enabled) {
+            install(prepare(TABLE_NAME));
+        }
+    }
+
+    /**
+     * Reads a table with the passengers columns, e.g. {@code passengers_staging}
+     * before its rows are swapped in, without changing the current snapshot.
+     * @return the snapshot, or {@code null} if the store is disabled or the table cannot be read
+     */
+    public ColumnarTable prepare(String sourceTable) {
+        if (!enabled) {
+            return null;
+        }
+        try {
+            return read(sourceTable);
+        } catch (DataAccessException e) {
+            log.warn("Could not load {} into the columnar store, all queries go to H2", sourceTable, e);
+            return null;
+        }
+    }
+
+    /**
+     * Makes a snapshot from {@link #prepare} the current one; {@code null}
+     * drops the current snapshot, so queries go to H2.
+     */
+    public void install(ColumnarTable snapshot) {
+        this.table = snapshot;
+    }
+
+    /**
+     * Reads the whole passengers table and replaces the current snapshot.
+     */
+    public void load() {
+        this.table = read(TABLE_NAME);
+    }
+
+    /**
+     * @return the current snapshot, or {@code null} if nothing has been loaded
+     */
+    public ColumnarTable getTable() {
+        return table;
+    }
+
+    private ColumnarTable readTable(ResultSet rs) throws SQLException {
+        int capacity = 1024;
+        int[][] ints = new int[INT_COLUMNS.length][capacity];
+        double[][] decimals = new double[DECIMAL_COLUMNS.length][capacity];
+        int[][] codes = new int[DICTIONARY_COLUMNS.length][capacity];
+        List<Map<String, Integer>> dictionaries = new ArrayList<>();
+        for (int i = 0; i < DICTIONARY_COLUMNS.length; i++) {
+            dictionaries.add(new HashMap<>());
+        }
+
+        int decimalOffset = INT_COLUMNS.length + 1;
+        int dictionaryOffset = decimalOffset + DECIMAL_COLUMNS.length;
+        int[] scales = new int[DECIMAL_COLUMNS.length];
+        for (int i = 0; i < DECIMAL_COLUMNS.length; i++) {
+            scales[i] = rs.getMetaData().getScale(decimalOffset + i);
+        }
+
+        int rows = 0;
+        while (rs.next()) {
+            if (rows == capacity) {
+                capacity *= 2;
+                for (int i = 0; i < ints.length; i++) ints[i] = Arrays.copyOf(ints[i], capacity);
+                for (int i = 0; i < decimals.length; i++) decimals[i] = Arrays.copyOf(decimals[i], capacity);
+                for (int i = 0; i < codes.length; i++) codes[i] = Arrays.copyOf(codes[i], capacity);
+            }
+
+            for (int i = 0; i < INT_COLUMNS.length; i++) {
+                int value = rs.getInt(i + 1);
+                ints[i][rows] = rs.wasNull() ? IntColumn.NULL : value;
+            }
+            for (int i = 0; i < DECIMAL_COLUMNS.length; i++) {
+                BigDecimal value = rs.getBigDecimal(decimalOffset + i);
+                decimals[i][rows] = value == null ? Double.NaN : value.doubleValue();
+            }
+            for (int i = 0; i < DICTIONARY_COLUMNS.length; i++) {
+                String value = rs.getString(dictionaryOffset + i);
+                if (value == null) {
+                    codes[i][rows] = DictionaryColumn.NULL;
+                } else {
+                    Map<String, Integer> dictionary = dictionaries.get(i);
+                    Integer code = dictionary.get(value);
+                    if (code == null) {
+                        code = dictionary.size();
+                        dictionary.put(value, code);
+                    }
+                    codes[i][rows] = code;
+                }
+            }
+            rows++;
+        }
+
+        List<Column> columns = new ArrayList<>();
+        for (int i = 0; i < INT_COLUMNS.length; i++) {
+            columns.add(new IntColumn(INT_COLUMNS[i], Arrays.copyOf(ints[i], rows)));
+        }
+        for (int i = 0; i < DECIMAL_COLUMNS.length; i++) {
+            columns.add(new DecimalColumn(DECIMAL_COLUMNS[i], Arrays.copyOf(decimals[i], rows), scales[i]));
+        }
+        for (int i = 0; i < DICTIONARY_COLUMNS.length; i++) {
+            columns.add(sortedDictionaryColumn(DICTIONARY_COLUMNS[i], Arrays.copyOf(codes[i], rows), dictionaries.get(i)));
+        }
+        return new ColumnarTable(TABLE_NAME, rows, columns);
+    }
+
+    private ColumnarTable read(String sourceTable) {
+        long start = System.nanoTime();
+        String sql = "SELECT " + String.join(", ", INT_COLUMNS) + ", "
+                + String.join(", ", DECIMAL_COLUMNS) + ", "
+                + String.join(", ", DICTIONARY_COLUMNS) + " FROM " + sourceTable;
+
+        ColumnarTable loaded = jdbcTemplate.query(sql, (ResultSetExtractor<ColumnarTable>) this::readTable);
+
+        log.info("Loaded {} passengers from {} into the columnar store in {} ms",
+                loaded.getRowCount(), sourceTable, (System.nanoTime() - start) / 1_000_000);
+        return loaded;
+    }
+
+    /**
+     * Re-numbers codes so that code order matches string order.
+     */
+    private static DictionaryColumn sortedDictionaryColumn(String name, int[] codes, Map<String, Integer> dictionary) {
+        String[] sorted = dictionary.keySet().toArray(new String[0]);
+        Arrays.sort(sorted);
+
+        int[] remap = new int[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            remap[dictionary.get(sorted[i])] = i;
+        }
+        for (int row = 0; row < codes.length; row++) {
+            if (codes[row] != DictionaryColumn.NULL) {
+                codes[row] = remap[codes[row]];
+            }
+        }
+        return new DictionaryColumn(name, codes, sorted);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.util.List;
+
+/**
+ * Plan of an aggregate query resolved against one {@link ColumnarTable}
+ * snapshot, produced by {@link ColumnarQueryParser}.
+ */
+final class ColumnarQuery {
+
+    /**
+     * One value of the output row: either a GROUP BY column or an aggregate.
+     */
+    static final class Output {
+        final String alias;
+        final int groupPosition;
+        final AggregateFunction function;
+        final Column argument;
+
+        private Output(String alias, int groupPosition, AggregateFunction function, Column argument) {
+            this.alias = alias;
+            this.groupPosition = groupPosition;
+            this.function = function;
+            this.argument = argument;
+        }
+
+        static Output group(String alias, int groupPosition) {
+            return new Output(alias, groupPosition, null, null);
+        }
+
+        /**
+         * @param argument the aggregated column, or {@code null} for COUNT(*)
+         */
+        static Output aggregate(String alias, AggregateFunction function, Column argument) {
+            return new Output(alias, -1, function, argument);
+        }
+
+        boolean isAggregate() {
+            return function != null;
+        }
+
+        boolean sameExpression(Output other) {
+            return groupPosition == other.groupPosition
+                    && function == other.function
+                    && argument == other.argument;
+        }
+    }
+
+    record SortKey(int output, boolean descending, boolean nullsFirst) {
+    }
+
+    final RowFilter[] filters;
+    final Column[] groupBy;
+    final List<Output> outputs;
+    final int visibleOutputs;
+    final List<SortKey> orderBy;
+    final long offset;
+    final long limit;
+
+    ColumnarQuery(RowFilter[] filters, Column[] groupBy, List<Output> outputs, int visibleOutputs,
+                  List<SortKey> orderBy, long offset, long limit) {
+        this.filters = filters;
+        this.groupBy = groupBy;
+        this.outputs = outputs;
+        this.visibleOutputs = visibleOutputs;
+        this.orderBy = orderBy;
+        this.offset = offset;
+        this.limit = limit;
+    }
+
+    static long domainSize(Column column) {
+        if (column instanceof IntColumn ints) {
+            return ints.domainSize();
+        }
+        if (column instanceof DictionaryColumn dictionary) {
+            return dictionary.dictionary.length + 1L;
+        }
+        return Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.analytics_dashboard.columnar;
+
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Answers filter + GROUP BY + aggregate queries over {@link ColumnarPassengerStore}
+ * without going through H2. Rows are processed in blocks: every WHERE predicate
+ * narrows a selection vector, group ids are computed column by column and each
+ * aggregate then runs one tight loop over the selection. All buffers are
+ * allocated once per query, never per row.
+ */
+@Service
+public class ColumnarQueryEngine {
+    static final int BLOCK_SIZE = 4096;
+
+    private final ColumnarPassengerStore store;
+
+    public ColumnarQueryEngine(ColumnarPassengerStore store) {
+        this.store = store;
+    }
+
+    /**
+     * @return the result rows, or empty if the query is not supported here and has to run on H2
+     */
+    public Optional<List<List<Object>>> tryExecute(String sql) {
+        ColumnarTable table = store.getTable();
+        if (table == null || sql == null) {
+            return Optional.empty();
+        }
+
+        ColumnarQuery query = ColumnarQueryParser.parse(sql, table);
+        if (query == null) {
+            return Optional.empty();
+        }
+        return Optional.of(execute(query, table));
+    }
+
+    List<List<Object>> execute(ColumnarQuery query, ColumnarTable table) {
+        Column[] groupBy = query.groupBy;
+        int[] domains = new int[groupBy.length];
+        int[] strides = new int[groupBy.length];
+        int groups = 1;
+        for (int i = groupBy.length - 1; i >= 0; i--) {
+            domains[i] = (int) ColumnarQuery.domainSize(groupBy[i]);
+            strides[i] = groups;
+            groups *= domains[i];
+        }
+
+        List<ColumnarQuery.Output> outputs = query.outputs;
+        Accumulator[] accumulators = new Accumulator[outputs.size()];
+        for (int i = 0; i < accumulators.length; i++) {
+            ColumnarQuery.Output output = outputs.get(i);
+            if (output.isAggregate()) {
+                accumulators[i] = Accumulator.create(output.function, output.argument, groups);
+            }
+        }
+
+        long[] groupRows = new long[groups];
+        RowFilter[] filters = query.filters;
+        int[] sel = new int[BLOCK_SIZE];
+        int[] gid = new int[BLOCK_SIZE];
+        int rowCount = table.getRowCount();
+
+        for (int from = 0; from < rowCount; from += BLOCK_SIZE) {
+            int to = Math.min(from + BLOCK_SIZE, rowCount);
+
+            int count;
+            if (filters.length == 0) {
+                count = to - from;
+                for (int k = 0; k < count; k++) sel[k] = from + k;
+            } else {
+                count = filters[0].select(from, to, sel);
+                for (int f = 1; f < filters.length && count > 0; f++) {
+                    count = filters[f].refine(sel, count);
+                }
+            }
+            if (count == 0) continue;
+
+            computeGroupIds(groupBy, strides, sel, count, gid);
+            for (int k = 0; k < count; k++) groupRows[gid[k]]++;
+            for (Accumulator accumulator : accumulators) {
+                if (accumulator != null) accumulator.accumulate(sel, count, gid);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int group = 0; group < groups; group++) {
+            // Without GROUP BY an aggregate query always returns its single row
+            if (groupBy.length > 0 && groupRows[group] == 0) continue;
+
+            Object[] row = new Object[outputs.size()];
+            for (int i = 0; i < row.length; i++) {
+                ColumnarQuery.Output output = outputs.get(i);
+                row[i] = output.isAggregate()
+                        ? accumulators[i].result(group)
+                        : groupValue(groupBy[output.groupPosition], (group / strides[output.groupPosition]) % domains[output.groupPosition]);
+            }
+            rows.add(row);
+        }
+
+        if (!query.orderBy.isEmpty()) {
+            rows.sort(comparator(query.orderBy));
+        }
+
+        List<List<Object>> result = new ArrayList<>();
+        long end = query.limit < 0 ? rows.size() : Math.min(rows.size(), query.offset + query.limit);
+        for (long i = query.offset; i < end; i++) {
+            result.add(Arrays.asList(Arrays.copyOf(rows.get((int) i), query.visibleOutputs)));
+        }
+        return result;
+    }
+
+    /**
+     * Dense group id: each GROUP BY column contributes its slot (0 for NULL)
+     * times its stride, so ids are ordered like the group keys with NULL first.
+     */
+    private static void computeGroupIds(Column[] groupBy, int[] strides, int[] sel, int count, int[] gid) {
+        Arrays.fill(gid, 0, count, 0);
+        for (int i = 0; i < groupBy.length; i++) {
+            int stride = strides[i];
+            if (groupBy[i] instanceof IntColumn ints) {
+                int[] v = ints.values;
+                int base = ints.min - 1;
+                for (int k = 0; k < count; k++) {
+                    int x = v[sel[k]];
+                    gid[k] += (x == IntColumn.NULL ? 0 : x - base) * stride;
+                }
+            } else {
+                int[] v = ((DictionaryColumn) groupBy[i]).codes;
+                for (int k = 0; k < count; k++) {
+                    gid[k] += (v[sel[k]] + 1) * stride;
+                }
+            }
+        }
+    }
+
+    private static Object groupValue(Column column, int slot) {
+        if (slot == 0) return null;
+        if (column instanceof IntColumn ints) {
+            return ints.min + slot - 1;
+        }
+        return ((DictionaryColumn) column).valueOf(slot - 1);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object[]> comparator(List<ColumnarQuery.SortKey> orderBy) {
+        return (a, b) -> {
+            for (ColumnarQuery.SortKey key : orderBy) {
+                Object x = a[key.output()];
+                Object y = b[key.output()];
+                int c;
+                if (x == null || y == null) {
+                    if (x == y) continue;
+                    c = (x == null) == key.nullsFirst() ? -1 : 1;
+                    return c;
+                }
+                c = ((Comparable) x).compareTo(y);
+                if (c != 0) return key.descending() ? -c : c;
+            }
+            return 0;
+        };
+    }
+}
@@ -0,0 +1,641 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Recognizes the aggregate query shapes the columnar engine can answer:
+ * <pre>
+ * SELECT group columns and COUNT/SUM/AVG/MIN/MAX
+ * FROM passengers [alias]
+ * [WHERE col op literal [AND ...]]   -- =, &lt;&gt;, !=, &lt;, &lt;=, &gt;, &gt;=, BETWEEN, IN, IS [NOT] NULL
+ * [GROUP BY col, ...]
+ * [ORDER BY output [ASC|DESC] [NULLS FIRST|LAST], ...]
+ * [LIMIT n [OFFSET m]]
+ * </pre>
+ * Anything else, including invalid SQL, yields {@code null} so that H2 runs
+ * the query and reports errors exactly as before.
+ */
+final class ColumnarQueryParser {
+
+    /** Upper bound on dense group slots (product of GROUP BY column domains). */
+    static final int MAX_GROUPS = 1 << 16;
+
+    /** Upper bound on the value range of an INT column used in IN / &lt;&gt; / IS NULL. */
+    static final int MAX_SET_DOMAIN = 1 << 20;
+
+    private static final Set<String> RESERVED = Set.of(
+            "SELECT", "FROM", "WHERE", "GROUP", "BY", "ORDER", "LIMIT", "OFFSET", "AND", "OR", "NOT",
+            "AS", "ASC", "DESC", "NULLS", "FIRST", "LAST", "IS", "NULL", "IN", "BETWEEN", "HAVING",
+            "DISTINCT", "JOIN", "ON", "UNION", "FETCH", "WITH");
+
+    private enum TokenType { IDENT, QUOTED_IDENT, NUMBER, STRING, SYMBOL, EOF }
+
+    private record Token(TokenType type, String text) {
+    }
+
+    private static final class Unsupported extends RuntimeException {
+        private static final Unsupported INSTANCE = new Unsupported();
+
+        private Unsupported() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final ColumnarTable table;
+    private final List<Token> tokens;
+    private int pos;
+    private String tableAlias;
+
+    private ColumnarQueryParser(ColumnarTable table, List<Token> tokens) {
+        this.table = table;
+        this.tokens = tokens;
+    }
+
+    /**
+     * @return the plan, or {@code null} if the query has to run on H2
+     */
+    static ColumnarQuery parse(String sql, ColumnarTable table) {
+        try {
+            return new ColumnarQueryParser(table, tokenize(sql)).parseQuery();
+        } catch (Unsupported e) {
+            return null;
+        }
+    }
+
+    private record SelectItem(String alias, AggregateFunction function, Column column) {
+    }
+
+    private ColumnarQuery parseQuery() {
+        // The table alias is needed to resolve qualified names in the select list
+        int selectStart = pos;
+        while (peek().type != TokenType.EOF && !(peek().type == TokenType.IDENT && peek().text.equals("FROM"))) {
+            pos++;
+        }
+        parseFromClause();
+        int afterFrom = pos;
+
+        pos = selectStart;
+        expectKeyword("SELECT");
+        List<SelectItem> items = new ArrayList<>();
+        do {
+            items.add(parseSelectItem());
+        } while (acceptSymbol(","));
+        if (!(peek().type == TokenType.IDENT && peek().text.equals("FROM"))) throw Unsupported.INSTANCE;
+        pos = afterFrom;
+
+        List<RowFilter> filters = new ArrayList<>();
+        if (acceptKeyword("WHERE")) {
+            do {
+                filters.add(parsePredicate());
+            } while (acceptKeyword("AND"));
+        }
+
+        List<Column> groupBy = new ArrayList<>();
+        if (acceptKeyword("GROUP")) {
+            expectKeyword("BY");
+            do {
+                Column column = parseColumnRef();
+                if (ColumnarQuery.domainSize(column) > MAX_GROUPS) throw Unsupported.INSTANCE;
+                if (!groupBy.contains(column)) groupBy.add(column);
+            } while (acceptSymbol(","));
+        }
+
+        long groups = 1;
+        for (Column column : groupBy) {
+            groups *= ColumnarQuery.domainSize(column);
+            if (groups > MAX_GROUPS) throw Unsupported.INSTANCE;
+        }
+
+        List<ColumnarQuery.Output> outputs = new ArrayList<>();
+        boolean hasAggregate = false;
+        for (SelectItem item : items) {
+            if (item.function != null) {
+                hasAggregate = true;
+                outputs.add(ColumnarQuery.Output.aggregate(item.alias, item.function, item.column));
+            } else {
+                int position = groupBy.indexOf(item.column);
+                if (position < 0) throw Unsupported.INSTANCE;
+                outputs.add(ColumnarQuery.Output.group(item.alias, position));
+            }
+        }
+        if (!hasAggregate && groupBy.isEmpty()) throw Unsupported.INSTANCE;
+        int visibleOutputs = outputs.size();
+
+        List<ColumnarQuery.SortKey> orderBy = new ArrayList<>();
+        if (acceptKeyword("ORDER")) {
+            expectKeyword("BY");
+            do {
+                int output = parseOrderTarget(outputs, visibleOutputs, groupBy);
+                boolean descending = false;
+                if (acceptKeyword("DESC")) {
+                    descending = true;
+                } else {
+                    acceptKeyword("ASC");
+                }
+                // H2 sorts NULL as the lowest value unless told otherwise
+                boolean nullsFirst = !descending;
+                if (acceptKeyword("NULLS")) {
+                    if (acceptKeyword("FIRST")) {
+                        nullsFirst = true;
+                    } else {
+                        expectKeyword("LAST");
+                        nullsFirst = false;
+                    }
+                }
+                orderBy.add(new ColumnarQuery.SortKey(output, descending, nullsFirst));
+            } while (acceptSymbol(","));
+        }
+
+        long limit = -1;
+        long offset = 0;
+        if (acceptKeyword("LIMIT")) {
+            limit = parseCount();
+            if (acceptKeyword("OFFSET")) {
+                offset = parseCount();
+            }
+        }
+
+        acceptSymbol(";");
+        if (peek().type != TokenType.EOF) throw Unsupported.INSTANCE;
+
+        return new ColumnarQuery(filters.toArray(new RowFilter[0]), groupBy.toArray(new Column[0]),
+                outputs, visibleOutputs, orderBy, offset, limit);
+    }
+
+    private void parseFromClause() {
+        expectKeyword("FROM");
+        Token tableName = next();
+        if (!table.getName().equals(identifier(tableName))) throw Unsupported.INSTANCE;
+        if (acceptKeyword("AS")) {
+            tableAlias = identifier(next());
+        } else if (peek().type == TokenType.QUOTED_IDENT
+                || (peek().type == TokenType.IDENT && !RESERVED.contains(peek().text))) {
+            tableAlias = identifier(next());
+        }
+    }
+
+    private SelectItem parseSelectItem() {
+        AggregateFunction function = null;
+        Column column;
+
+        Token token = peek();
+        if (token.type == TokenType.IDENT && isAggregateName(token.text) && peekAt(1).text.equals("(")) {
+            function = AggregateFunction.valueOf(token.text);
+            pos += 2;
+            if (function == AggregateFunction.COUNT && acceptSymbol("*")) {
+                column = null;
+            } else {
+                column = parseColumnRef();
+                if ((function == AggregateFunction.SUM || function == AggregateFunction.AVG)
+                        && column instanceof DictionaryColumn) {
+                    throw Unsupported.INSTANCE;
+                }
+            }
+            expectSymbol(")");
+        } else {
+            column = parseColumnRef();
+        }
+
+        String alias = null;
+        if (acceptKeyword("AS")) {
+            alias = identifier(next());
+        } else if (peek().type == TokenType.QUOTED_IDENT
+                || (peek().type == TokenType.IDENT && !RESERVED.contains(peek().text))) {
+            alias = identifier(next());
+        }
+        return new SelectItem(alias, function, column);
+    }
+
+    private int parseOrderTarget(List<ColumnarQuery.Output> outputs, int visibleOutputs, List<Column> groupBy) {
+        Token token = peek();
+        if (token.type == TokenType.NUMBER) {
+            long ordinal = parseCount();
+            if (ordinal < 1 || ordinal > visibleOutputs) throw Unsupported.INSTANCE;
+            return (int) ordinal - 1;
+        }
+
+        ColumnarQuery.Output target;
+        if ((token.type == TokenType.IDENT || token.type == TokenType.QUOTED_IDENT) && !peekAt(1).text.equals(".")
+                && !peekAt(1).text.equals("(")) {
+            String name = identifier(token);
+            for (int i = 0; i < visibleOutputs; i++) {
+                if (name.equals(outputs.get(i).alias)) {
+                    pos++;
+                    return i;
+                }
+            }
+        }
+
+        SelectItem item = parseSelectItemExpression();
+        if (item.function != null) {
+            target = ColumnarQuery.Output.aggregate(null, item.function, item.column);
+        } else {
+            int position = groupBy.indexOf(item.column);
+            if (position < 0) throw Unsupported.INSTANCE;
+            target = ColumnarQuery.Output.group(null, position);
+        }
+
+        for (int i = 0; i < outputs.size(); i++) {
+            if (outputs.get(i).sameExpression(target)) return i;
+        }
+        outputs.add(target);
+        return outputs.size() - 1;
+    }
+
+    private SelectItem parseSelectItemExpression() {
+        SelectItem item = parseSelectItem();
+        // ORDER BY items cannot carry an alias
+        if (item.alias != null) throw Unsupported.INSTANCE;
+        return item;
+    }
+
+    private RowFilter parsePredicate() {
+        if (isLiteralStart(peek())) {
+            Object literal = parseLiteral();
+            String op = parseComparisonOperator();
+            Column column = parseColumnRef();
+            return comparison(column, flip(op), literal);
+        }
+
+        Column column = parseColumnRef();
+        if (acceptKeyword("IS")) {
+            boolean negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            return negated ? notNull(column) : isNull(column);
+        }
+        if (acceptKeyword("BETWEEN")) {
+            Object low = parseLiteral();
+            expectKeyword("AND");
+            Object high = parseLiteral();
+            return between(column, low, high);
+        }
+        if (acceptKeyword("IN")) {
+            expectSymbol("(");
+            List<Object> values = new ArrayList<>();
+            do {
+                values.add(parseLiteral());
+            } while (acceptSymbol(","));
+            expectSymbol(")");
+            return in(column, values);
+        }
+        String op = parseComparisonOperator();
+        Object literal = parseLiteral();
+        return comparison(column, op, literal);
+    }
+
+    // ---- predicate compilation ----
+
+    private RowFilter comparison(Column column, String op, Object literal) {
+        if (column instanceof DictionaryColumn dictionary) {
+            String value = stringLiteral(literal);
+            boolean[] accept = new boolean[dictionary.dictionary.length];
+            for (int code = 0; code < accept.length; code++) {
+                accept[code] = compare(dictionary.dictionary[code].compareTo(value), op);
+            }
+            return new RowFilter.CodeSet(dictionary.codes, DictionaryColumn.NULL, 0, accept, false);
+        }
+
+        BigDecimal value = numericLiteral(literal);
+        if (column instanceof DecimalColumn decimal) {
+            double v = value.doubleValue();
+            return switch (op) {
+                case "=" -> new RowFilter.DecimalRange(decimal.values, v, true, v, true);
+                case "<>" -> new RowFilter.DecimalSet(decimal.values, new double[]{v}, true, false);
+                case "<" -> new RowFilter.DecimalRange(decimal.values, Double.NEGATIVE_INFINITY, true, v, false);
+                case "<=" -> new RowFilter.DecimalRange(decimal.values, Double.NEGATIVE_INFINITY, true, v, true);
+                case ">" -> new RowFilter.DecimalRange(decimal.values, v, false, Double.POSITIVE_INFINITY, true);
+                case ">=" -> new RowFilter.DecimalRange(decimal.values, v, true, Double.POSITIVE_INFINITY, true);
+                default -> throw Unsupported.INSTANCE;
+            };
+        }
+
+        IntColumn ints = (IntColumn) column;
+        return switch (op) {
+            case "=" -> isIntegral(value)
+                    ? intRange(ints, bound(value), bound(value))
+                    : intRange(ints, 1, 0);
+            case "<>" -> intSet(ints, List.of(value), true, false);
+            case "<" -> intRange(ints, Long.MIN_VALUE, bound(value.setScale(0, RoundingMode.CEILING)) - 1);
+            case "<=" -> intRange(ints, Long.MIN_VALUE, bound(value.setScale(0, RoundingMode.FLOOR)));
+            case ">" -> intRange(ints, bound(value.setScale(0, RoundingMode.FLOOR)) + 1, Long.MAX_VALUE);
+            case ">=" -> intRange(ints, bound(value.setScale(0, RoundingMode.CEILING)), Long.MAX_VALUE);
+            default -> throw Unsupported.INSTANCE;
+        };
+    }
+
+    private RowFilter between(Column column, Object low, Object high) {
+        if (column instanceof DictionaryColumn dictionary) {
+            String lo = stringLiteral(low);
+            String hi = stringLiteral(high);
+            boolean[] accept = new boolean[dictionary.dictionary.length];
+            for (int code = 0; code < accept.length; code++) {
+                String value = dictionary.dictionary[code];
+                accept[code] = value.compareTo(lo) >= 0 && value.compareTo(hi) <= 0;
+            }
+            return new RowFilter.CodeSet(dictionary.codes, DictionaryColumn.NULL, 0, accept, false);
+        }
+
+        BigDecimal lo = numericLiteral(low);
+        BigDecimal hi = numericLiteral(high);
+        if (column instanceof DecimalColumn decimal) {
+            return new RowFilter.DecimalRange(decimal.values, lo.doubleValue(), true, hi.doubleValue(), true);
+        }
+        return intRange((IntColumn) column,
+                bound(lo.setScale(0, RoundingMode.CEILING)), bound(hi.setScale(0, RoundingMode.FLOOR)));
+    }
+
+    private RowFilter in(Column column, List<Object> values) {
+        if (column instanceof DictionaryColumn dictionary) {
+            boolean[] accept = new boolean[dictionary.dictionary.length];
+            for (Object value : values) {
+                int code = dictionary.codeOf(stringLiteral(value));
+                if (code >= 0) accept[code] = true;
+            }
+            return new RowFilter.CodeSet(dictionary.codes, DictionaryColumn.NULL, 0, accept, false);
+        }
+
+        List<BigDecimal> numbers = new ArrayList<>();
+        for (Object value : values) {
+            numbers.add(numericLiteral(value));
+        }
+        if (column instanceof DecimalColumn decimal) {
+            double[] set = new double[numbers.size()];
+            for (int i = 0; i < set.length; i++) {
+                set[i] = numbers.get(i).doubleValue();
+            }
+            return new RowFilter.DecimalSet(decimal.values, set, false, false);
+        }
+        return intSet((IntColumn) column, numbers, false, false);
+    }
+
+    private RowFilter isNull(Column column) {
+        if (column instanceof DictionaryColumn dictionary) {
+            return new RowFilter.CodeSet(dictionary.codes, DictionaryColumn.NULL, 0,
+                    new boolean[dictionary.dictionary.length], true);
+        }
+        if (column instanceof DecimalColumn decimal) {
+            return new RowFilter.DecimalSet(decimal.values, new double[0], false, true);
+        }
+        return intSet((IntColumn) column, List.of(), false, true);
+    }
+
+    private RowFilter notNull(Column column) {
+        if (column instanceof DictionaryColumn dictionary) {
+            boolean[] accept = new boolean[dictionary.dictionary.length];
+            Arrays.fill(accept, true);
+            return new RowFilter.CodeSet(dictionary.codes, DictionaryColumn.NULL, 0, accept, false);
+        }
+        if (column instanceof DecimalColumn decimal) {
+            return new RowFilter.DecimalRange(decimal.values, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true);
+        }
+        return intRange((IntColumn) column, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * Inclusive range with bounds clamped to the non-null INT range; an empty
+     * range becomes {@code [1, 0]}.
+     */
+    private static RowFilter intRange(IntColumn column, long lo, long hi) {
+        long from = Math.max(lo, IntColumn.NULL + 1L);
+        long to = Math.min(hi, Integer.MAX_VALUE);
+        if (from > to) {
+            return new RowFilter.IntRange(column.values, 1, 0);
+        }
+        return new RowFilter.IntRange(column.values, (int) from, (int) to);
+    }
+
+    /**
+     * Builds a membership filter over {@code [min, max]} of an INT column.
+     * With {@code negate} every non-null value except the listed ones matches.
+     */
+    private RowFilter intSet(IntColumn column, List<BigDecimal> values, boolean negate, boolean acceptNull) {
+        long size = (long) column.max - column.min + 1;
+        if (size > MAX_SET_DOMAIN) throw Unsupported.INSTANCE;
+
+        boolean[] accept = new boolean[(int) Math.max(size, 0)];
+        if (negate) Arrays.fill(accept, true);
+        for (BigDecimal value : values) {
+            if (!isIntegral(value)) continue;
+            long v = value.longValue();
+            if (v >= column.min && v <= column.max) {
+                accept[(int) (v - column.min)] = !negate;
+            }
+        }
+        return new RowFilter.CodeSet(column.values, IntColumn.NULL, column.min, accept, acceptNull);
+    }
+
+    private static boolean compare(int comparison, String op) {
+        return switch (op) {
+            case "=" -> comparison == 0;
+            case "<>" -> comparison != 0;
+            case "<" -> comparison < 0;
+            case "<=" -> comparison <= 0;
+            case ">" -> comparison > 0;
+            case ">=" -> comparison >= 0;
+            default -> throw Unsupported.INSTANCE;
+        };
+    }
+
+    private static String flip(String op) {
+        return switch (op) {
+            case "<" -> ">";
+            case "<=" -> ">=";
+            case ">" -> "<";
+            case ">=" -> "<=";
+            default -> op;
+        };
+    }
+
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+
+    /**
+     * Integral value clamped just outside the INT range, so that {@code +1}/{@code -1} cannot overflow.
+     */
+    private static long bound(BigDecimal value) {
+        if (value.compareTo(BigDecimal.valueOf(Integer.MAX_VALUE + 1L)) > 0) return Integer.MAX_VALUE + 1L;
+        if (value.compareTo(BigDecimal.valueOf(Integer.MIN_VALUE - 1L)) < 0) return Integer.MIN_VALUE - 1L;
+        return value.longValue();
+    }
+
+    private static String stringLiteral(Object literal) {
+        if (literal instanceof String s) return s;
+        throw Unsupported.INSTANCE;
+    }
+
+    private static BigDecimal numericLiteral(Object literal) {
+        if (literal instanceof BigDecimal d) return d;
+        throw Unsupported.INSTANCE;
+    }
+
+    // ---- token helpers ----
+
+    private Column parseColumnRef() {
+        Token first = next();
+        String name = identifier(first);
+        if (acceptSymbol(".")) {
+            if (!name.equals(table.getName()) && !name.equals(tableAlias)) throw Unsupported.INSTANCE;
+            name = identifier(next());
+        }
+        Column column = table.getColumn(name);
+        if (column == null) throw Unsupported.INSTANCE;
+        return column;
+    }
+
+    private String parseComparisonOperator() {
+        Token token = next();
+        if (token.type != TokenType.SYMBOL) throw Unsupported.INSTANCE;
+        return switch (token.text) {
+            case "=", "<>", "<", "<=", ">", ">=" -> token.text;
+            case "!=" -> "<>";
+            default -> throw Unsupported.INSTANCE;
+        };
+    }
+
+    private static boolean isLiteralStart(Token token) {
+        return token.type == TokenType.NUMBER || token.type == TokenType.STRING
+                || (token.type == TokenType.SYMBOL && token.text.equals("-"));
+    }
+
+    private Object parseLiteral() {
+        Token token = next();
+        if (token.type == TokenType.STRING) return token.text;
+        boolean negative = false;
+        if (token.type == TokenType.SYMBOL && token.text.equals("-")) {
+            negative = true;
+            token = next();
+        }
+        if (token.type != TokenType.NUMBER) throw Unsupported.INSTANCE;
+        try {
+            BigDecimal value = new BigDecimal(token.text);
+            return negative ? value.negate() : value;
+        } catch (NumberFormatException e) {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private long parseCount() {
+        Token token = next();
+        if (token.type != TokenType.NUMBER) throw Unsupported.INSTANCE;
+        try {
+            long value = Long.parseLong(token.text);
+            if (value < 0) throw Unsupported.INSTANCE;
+            return value;
+        } catch (NumberFormatException e) {
+            throw Unsupported.INSTANCE;
+        }
+    }
+
+    private static String identifier(Token token) {
+        if (token.type == TokenType.IDENT && !RESERVED.contains(token.text)) return token.text;
+        if (token.type == TokenType.QUOTED_IDENT) return token.text;
+        throw Unsupported.INSTANCE;
+    }
+
+    private static boolean isAggregateName(String text) {
+        return text.equals("COUNT") || text.equals("SUM") || text.equals("AVG")
+                || text.equals("MIN") || text.equals("MAX");
+    }
+
+    private Token peek() {
+        return tokens.get(pos);
+    }
+
+    private Token peekAt(int ahead) {
+        return tokens.get(Math.min(pos + ahead, tokens.size() - 1));
+    }
+
+    private Token next() {
+        Token token = tokens.get(pos);
+        if (token.type != TokenType.EOF) pos++;
+        return token;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        Token token = peek();
+        if (token.type == TokenType.IDENT && token.text.equals(keyword)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) {
+        if (!acceptKeyword(keyword)) throw Unsupported.INSTANCE;
+    }
+
+    private boolean acceptSymbol(String symbol) {
+        Token token = peek();
+        if (token.type == TokenType.SYMBOL && token.text.equals(symbol)) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expectSymbol(String symbol) {
+        if (!acceptSymbol(symbol)) throw Unsupported.INSTANCE;
+    }
+
+    private static List<Token> tokenize(String sql) {
+        List<Token> tokens = new ArrayList<>();
+        int i = 0;
+        int n = sql.length();
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '-' && i + 1 < n && sql.charAt(i + 1) == '-') {
+                while (i < n && sql.charAt(i) != '\n') i++;
+            } else if (c == '/' && i + 1 < n && sql.charAt(i + 1) == '*') {
+                int end = sql.indexOf("*/", i + 2);
+                if (end < 0) throw Unsupported.INSTANCE;
+                i = end + 2;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < n && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '_')) i++;
+                tokens.add(new Token(TokenType.IDENT, sql.substring(start, i).toUpperCase()));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < n && Character.isDigit(sql.charAt(i + 1)))) {
+                int start = i;
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) i++;
+                if (i < n && (Character.isLetter(sql.charAt(i)) || sql.charAt(i) == '_')) throw Unsupported.INSTANCE;
+                tokens.add(new Token(TokenType.NUMBER, sql.substring(start, i)));
+            } else if (c == '\'' || c == '"') {
+                StringBuilder value = new StringBuilder();
+                i++;
+                while (true) {
+                    if (i >= n) throw Unsupported.INSTANCE;
+                    char d = sql.charAt(i++);
+                    if (d == c) {
+                        if (i < n && sql.charAt(i) == c) {
+                            value.append(c);
+                            i++;
+                        } else {
+                            break;
+                        }
+                    } else {
+                        value.append(d);
+                    }
+                }
+                tokens.add(new Token(c == '\'' ? TokenType.STRING : TokenType.QUOTED_IDENT, value.toString()));
+            } else if ((c == '<' || c == '>' || c == '!') && i + 1 < n
+                    && (sql.charAt(i + 1) == '=' || (c == '<' && sql.charAt(i + 1) == '>'))) {
+                tokens.add(new Token(TokenType.SYMBOL, sql.substring(i, i + 2)));
+                i += 2;
+            } else if ("(),.*=<>;-".indexOf(c) >= 0) {
+                tokens.add(new Token(TokenType.SYMBOL, String.valueOf(c)));
+                i++;
+            } else {
+                throw Unsupported.INSTANCE;
+            }
+        }
+        tokens.add(new Token(TokenType.EOF, ""));
+        return tokens;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a table held column by column.
+ */
+public final class ColumnarTable {
+    private final String name;
+    private final int rowCount;
+    private final Map<String, Column> columns;
+
+    public ColumnarTable(String name, int rowCount, List<Column> columns) {
+        this.name = name;
+        this.rowCount = rowCount;
+        Map<String, Column> byName = new LinkedHashMap<>();
+        for (Column column : columns) {
+            byName.put(column.getName(), column);
+        }
+        this.columns = Collections.unmodifiableMap(byName);
+    }
+
+    /**
+     * Upper-case table name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @param name upper-case column name
+     * @return the column, or {@code null} if it is not held in memory
+     */
+    public Column getColumn(String name) {
+        return columns.get(name);
+    }
+
+    public Map<String, Column> getColumns() {
+        return columns;
+    }
+}
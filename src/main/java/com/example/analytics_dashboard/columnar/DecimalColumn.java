@@ -0,0 +1,34 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.math.BigDecimal;
+
+/**
+ * DECIMAL column stored as {@code double[]} with NaN for NULL. The declared
+ * scale is kept so sums and results can be turned back into the exact
+ * {@link BigDecimal} values H2 would return.
+ */
+public final class DecimalColumn extends Column {
+    final double[] values;
+    final int scale;
+    final double scaleFactor;
+
+    public DecimalColumn(String name, double[] values, int scale) {
+        super(name);
+        this.values = values;
+        this.scale = scale;
+        this.scaleFactor = Math.pow(10, scale);
+    }
+
+    long toUnscaled(double value) {
+        return Math.round(value * scaleFactor);
+    }
+
+    BigDecimal toDecimal(double value) {
+        return BigDecimal.valueOf(toUnscaled(value), scale);
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return Double.isNaN(values[row]);
+    }
+}
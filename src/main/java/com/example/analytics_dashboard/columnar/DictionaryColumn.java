@@ -0,0 +1,37 @@
+package com.example.analytics_dashboard.columnar;
+
+import java.util.Arrays;
+
+/**
+ * VARCHAR column stored as dictionary codes. The dictionary is sorted, so code
+ * order equals string order and comparisons or MIN/MAX can work on the codes.
+ * Code {@code -1} marks NULL.
+ */
+public final class DictionaryColumn extends Column {
+    public static final int NULL = -1;
+
+    final int[] codes;
+    final String[] dictionary;
+
+    public DictionaryColumn(String name, int[] codes, String[] dictionary) {
+        super(name);
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    /**
+     * @return the code of the value, or a negative insertion point as in {@link Arrays#binarySearch}
+     */
+    int codeOf(String value) {
+        return Arrays.binarySearch(dictionary, value);
+    }
+
+    String valueOf(int code) {
+        return code == NULL ? null : dictionary[code];
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return codes[row] == NULL;
+    }
+}
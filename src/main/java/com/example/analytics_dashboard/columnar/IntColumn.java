@@ -0,0 +1,41 @@
+package com.example.analytics_dashboard.columnar;
+
+/**
+ * INT column stored as {@code int[]}. {@link #NULL} marks SQL NULL, so the
+ * non-null range is {@code [Integer.MIN_VALUE + 1, Integer.MAX_VALUE]}.
+ */
+public final class IntColumn extends Column {
+    public static final int NULL = Integer.MIN_VALUE;
+
+    final int[] values;
+    final int min;
+    final int max;
+
+    public IntColumn(String name, int[] values) {
+        super(name);
+        this.values = values;
+
+        int lo = Integer.MAX_VALUE;
+        int hi = Integer.MIN_VALUE;
+        for (int v : values) {
+            if (v == NULL) continue;
+            if (v < lo) lo = v;
+            if (v > hi) hi = v;
+        }
+        // An all-NULL column gets an empty range so min > max
+        this.min = lo <= hi ? lo : 0;
+        this.max = lo <= hi ? hi : -1;
+    }
+
+    /**
+     * Number of distinct group slots: one per value in {@code [min, max]} plus one for NULL.
+     */
+    long domainSize() {
+        return (long) max - min + 2;
+    }
+
+    @Override
+    public boolean isNull(int row) {
+        return values[row] == NULL;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.analytics_dashboard.columnar;
+
+/**
+ * A single WHERE predicate evaluated over a block of rows. Implementations keep
+ * their loops free of allocation and virtual calls; NULL never matches unless
+ * the filter explicitly accepts it (IS NULL).
+ */
+abstract class RowFilter {
+
+    /**
+     * Writes the matching row numbers of {@code [from, to)} into {@code sel}.
+     * @return number of matching rows
+     */
+    abstract int select(int from, int to, int[] sel);
+
+    /**
+     * Compacts the first {@code count} entries of {@code sel} to the rows that match.
+     * @return number of rows left
+     */
+    abstract int refine(int[] sel, int count);
+
+    /**
+     * Inclusive range over an {@link IntColumn}. A lower bound above
+     * {@link IntColumn#NULL} keeps NULLs out without an extra check.
+     */
+    static final class IntRange extends RowFilter {
+        private final int[] values;
+        private final int lo;
+        private final int hi;
+
+        IntRange(int[] values, int lo, int hi) {
+            this.values = values;
+            this.lo = Math.max(lo, IntColumn.NULL + 1);
+            this.hi = hi;
+        }
+
+        @Override
+        int select(int from, int to, int[] sel) {
+            int[] v = values;
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                int x = v[row];
+                if (x >= lo && x <= hi) sel[n++] = row;
+            }
+            return n;
+        }
+
+        @Override
+        int refine(int[] sel, int count) {
+            int[] v = values;
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = sel[k];
+                int x = v[row];
+                if (x >= lo && x <= hi) sel[n++] = row;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Membership test over small-domain integer codes: {@link IntColumn} values
+     * offset by their minimum, or {@link DictionaryColumn} codes. Used for IN,
+     * {@code <>}, IS NULL and every string comparison.
+     */
+    static final class CodeSet extends RowFilter {
+        private final int[] values;
+        private final int nullValue;
+        private final int offset;
+        private final boolean[] accept;
+        private final boolean acceptNull;
+
+        CodeSet(int[] values, int nullValue, int offset, boolean[] accept, boolean acceptNull) {
+            this.values = values;
+            this.nullValue = nullValue;
+            this.offset = offset;
+            this.accept = accept;
+            this.acceptNull = acceptNull;
+        }
+
+        @Override
+        int select(int from, int to, int[] sel) {
+            int[] v = values;
+            boolean[] a = accept;
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                int x = v[row];
+                if (x == nullValue ? acceptNull : a[x - offset]) sel[n++] = row;
+            }
+            return n;
+        }
+
+        @Override
+        int refine(int[] sel, int count) {
+            int[] v = values;
+            boolean[] a = accept;
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = sel[k];
+                int x = v[row];
+                if (x == nullValue ? acceptNull : a[x - offset]) sel[n++] = row;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Range over a {@link DecimalColumn}; NaN (NULL) fails every comparison.
+     */
+    static final class DecimalRange extends RowFilter {
+        private final double[] values;
+        private final double lo;
+        private final boolean loInclusive;
+        private final double hi;
+        private final boolean hiInclusive;
+
+        DecimalRange(double[] values, double lo, boolean loInclusive, double hi, boolean hiInclusive) {
+            this.values = values;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+        }
+
+        private boolean matches(double x) {
+            return (loInclusive ? x >= lo : x > lo) && (hiInclusive ? x <= hi : x < hi);
+        }
+
+        @Override
+        int select(int from, int to, int[] sel) {
+            double[] v = values;
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                if (matches(v[row])) sel[n++] = row;
+            }
+            return n;
+        }
+
+        @Override
+        int refine(int[] sel, int count) {
+            double[] v = values;
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = sel[k];
+                if (matches(v[row])) sel[n++] = row;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * IN / NOT EQUAL / IS NULL over a {@link DecimalColumn}.
+     */
+    static final class DecimalSet extends RowFilter {
+        private final double[] values;
+        private final double[] set;
+        private final boolean negate;
+        private final boolean acceptNull;
+
+        DecimalSet(double[] values, double[] set, boolean negate, boolean acceptNull) {
+            this.values = values;
+            this.set = set;
+            this.negate = negate;
+            this.acceptNull = acceptNull;
+        }
+
+        private boolean matches(double x) {
+            if (Double.isNaN(x)) return acceptNull;
+            boolean found = false;
+            for (double candidate : set) {
+                if (x == candidate) {
+                    found = true;
+                    break;
+                }
+            }
+            return found != negate;
+        }
+
+        @Override
+        int select(int from, int to, int[] sel) {
+            double[] v = values;
+            int n = 0;
+            for (int row = from; row < to; row++) {
+                if (matches(v[row])) sel[n++] = row;
+            }
+            return n;
+        }
+
+        @Override
+        int refine(int[] sel, int count) {
+            double[] v = values;
+            int n = 0;
+            for (int k = 0; k < count; k++) {
+                int row = sel[k];
+                if (matches(v[row])) sel[n++] = row;
+            }
+            return n;
+        }
+    }
+}
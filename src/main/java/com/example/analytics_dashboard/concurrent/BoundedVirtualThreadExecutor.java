@@ -0,0 +1,95 @@
+package com.example.analytics_dashboard.concurrent;
+
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs each task on its own virtual thread, with at most {@code maxConcurrency}
+ * running at once and at most {@code queueCapacity} more waiting (FIFO) for a
+ * slot. Anything beyond that is rejected immediately with a
+ * {@link TaskRejectedException} instead of piling up.
+ */
+public class BoundedVirtualThreadExecutor implements TaskExecutor {
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final Semaphore admitted;
+    private final Semaphore running;
+    private final ThreadFactory threadFactory;
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency, int queueCapacity) {
+        if (maxConcurrency < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive and queueCapacity not negative");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.queueCapacity = queueCapacity;
+        this.admitted = new Semaphore(maxConcurrency + queueCapacity);
+        this.running = new Semaphore(maxConcurrency, true);
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            rejectedCount.incrementAndGet();
+            throw new TaskRejectedException("Executor is at capacity: " + maxConcurrency
+                    + " running and " + queueCapacity + " queued");
+        }
+        try {
+            threadFactory.newThread(() -> runWhenSlotFree(task)).start();
+        } catch (RuntimeException | Error e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    private void runWhenSlotFree(Runnable task) {
+        try {
+            running.acquire();
+        } catch (InterruptedException e) {
+            admitted.release();
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        activeCount.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            activeCount.decrementAndGet();
+            running.release();
+            admitted.release();
+        }
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getActiveCount() {
+        return activeCount.get();
+    }
+
+    /**
+     * Tasks accepted but still waiting for a free slot.
+     */
+    public int getQueueDepth() {
+        int inFlight = maxConcurrency + queueCapacity - admitted.availablePermits();
+        return Math.max(0, inFlight - activeCount.get());
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.analytics_dashboard.config;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class AsyncConfig {
+    static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Executor for async query executions. Concurrency defaults to the size of
+     * the async connection pool, so every running job has a connection and
+     * queued jobs wait here rather than inside the pool.
+     */
+    @Bean(name = "queryExecutor")
+    public BoundedVirtualThreadExecutor queryExecutor(
+            @Qualifier("asyncDataSource") DataSource asyncDataSource,
+            @Value("${analytics.async.max-concurrency:0}") int maxConcurrency,
+            @Value("${analytics.async.queue-capacity:100}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : poolSize(asyncDataSource);
+
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("query-exec-", concurrency, queueCapacity);
+
+        Gauge.builder("analytics.async.active", executor, BoundedVirtualThreadExecutor::getActiveCount)
+                .description("Async query executions currently running")
+                .register(meterRegistry);
+        Gauge.builder("analytics.async.queue.depth", executor, BoundedVirtualThreadExecutor::getQueueDepth)
+                .description("Async query executions waiting for a free slot")
+                .register(meterRegistry);
+        FunctionCounter.builder("analytics.async.rejected", executor, BoundedVirtualThreadExecutor::getRejectedCount)
+                .description("Async query executions rejected because the queue was full")
+                .register(meterRegistry);
+
+        return executor;
+    }
+
+    /**
+     * Runs the cache misses of {@code POST /queries/execute/batch}. They use the
+     * sync pool, so at most that many run at once; the rest wait here instead
+     * of timing out waiting for a connection.
+     */
+    @Bean(name = "batchQueryExecutor")
+    public BoundedVirtualThreadExecutor batchQueryExecutor(
+            @Qualifier("syncDataSource") DataSource syncDataSource,
+            @Value("${analytics.batch.queue-capacity:200}") int queueCapacity) {
+        return new BoundedVirtualThreadExecutor("batch-exec-", poolSize(syncDataSource), queueCapacity);
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getMaximumPoolSize() > 0) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
@@ -1,28 +1,98 @@
 package com.example.analytics_dashboard.config;
 
+import com.example.analytics_dashboard.cache.DiskResultCache;
+import com.example.analytics_dashboard.cache.TieredResultCache;
+import com.example.analytics_dashboard.service.DatasetVersion;
+import com.example.analytics_dashboard.service.QueryResult;
+import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
-import java.util.concurrent.TimeUnit;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    /**
+     * Upper bound on how much cheaper an expensive result is weighed, so the
+     * heap held by the cache stays within this multiple of the maximum weight.
+     */
+    static final int MAX_COST_DISCOUNT = 4;
+
+    @Value("${analytics.cache.max-weight:64MB}")
+    private DataSize maxWeight = DataSize.ofMegabytes(64);
+
+    @Value("${analytics.cache.cost-unit:100ms}")
+    private Duration costUnit = Duration.ofMillis(100);
+
+    @Value("${analytics.cache.expire-after-write:24h}")
+    private Duration expireAfterWrite = Duration.ofHours(24);
+
+    @Value("${analytics.cache.disk.directory:${user.home}/.analytics-dashboard/result-cache}")
+    private Path diskDirectory;
+
+    @Value("${analytics.cache.disk.segment-size:64MB}")
+    private DataSize diskSegmentSize = DataSize.ofMegabytes(64);
+
+    @Value("${analytics.cache.disk.max-size:1GB}")
+    private DataSize diskMaxSize = DataSize.ofGigabytes(1);
+
+    @Value("${analytics.cache.disk.heap-threshold:4MB}")
+    private DataSize heapThreshold = DataSize.ofMegabytes(4);
+
+    /**
+     * Second tier behind Caffeine that keeps results across restarts. Opt-in,
+     * since it writes query results to disk.
+     */
     @Bean
-    public CacheManager cacheManager() {
-        // "queryResults" it's name of out cache magazine
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("queryResults");
+    @ConditionalOnProperty(name = "analytics.cache.disk.enabled", havingValue = "true")
+    public DiskResultCache diskResultCache(DatasetVersion datasetVersion) {
+        return new DiskResultCache(diskDirectory, datasetVersion, diskSegmentSize.toBytes(), diskMaxSize.toBytes(),
+                expireAfterWrite);
+    }
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<DiskResultCache> diskResultCache) {
+        DiskResultCache diskCache = diskResultCache.getIfAvailable();
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return diskCache != null
+                        ? new TieredResultCache(name, cache, diskCache, heapThreshold.toBytes())
+                        : super.adaptCaffeineCache(name, cache);
+            }
+        };
 
+        // Entries are weighed by their estimated size in bytes, discounted by the
+        // time it took to compute them: a result that cost several cost units
+        // counts for less and is kept over cheap results of the same size.
         cacheManager.setCaffeine(Caffeine.newBuilder()
-                .maximumSize(100)
-                .expireAfterWrite(24, TimeUnit.HOURS)
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((key, value) -> weigh(value, costUnit.toNanos()))
+                .expireAfterWrite(expireAfterWrite)
                 .recordStats());
+        // "queryResults" it's name of out cache magazine
+        cacheManager.setCacheNames(List.of("queryResults"));
 
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    static int weigh(Object value, long costUnitNanos) {
+        if (!(value instanceof QueryResult result)) {
+            return 1;
+        }
+        long discount = Math.min(MAX_COST_DISCOUNT, 1 + result.getExecutionNanos() / Math.max(1, costUnitNanos));
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, result.getEstimatedBytes() / discount));
+    }
+}
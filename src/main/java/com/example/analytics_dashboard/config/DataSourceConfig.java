@@ -1,6 +1,9 @@
 package com.example.analytics_dashboard.config;
 
+import com.zaxxer.hikari.HikariDataSource;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,34 +12,107 @@ import org.springframework.jdbc.core.JdbcTemplate;
 
 import javax.sql.DataSource;
 
+/**
+ * One read-write pool for the application's own tables, and separate read-only
+ * pools (bulkheads) per workload so one kind of traffic cannot take every
+ * connection from another:
+ * <ul>
+ *   <li>{@code sync} - interactive executions ({@code GET /queries/execute})</li>
+ *   <li>{@code async} - background executions; its size also bounds async concurrency</li>
+ *   <li>{@code metadata} - housekeeping reads such as loading the columnar store</li>
+ * </ul>
+ * Pools are configured under {@code analytics.datasource.<name>.hikari.*};
+ * Actuator publishes {@code hikaricp.connections.*} metrics tagged with each pool name.
+ */
 @Configuration
 public class DataSourceConfig {
+    // H2 keeps this many parsed statements per connection and reuses them for
+    // identical SQL, so parameterised queries are parsed once per pooled
+    // connection. H2 only honours it on the URL that opens the database.
+    private static final String STATEMENT_CACHE = "QUERY_CACHE_SIZE=64";
+
+    // Embedded H2 otherwise builds the whole result before returning the first
+    // row and ignores the fetch size; lazily, rows are produced as they are
+    // read, so streamed results start at once and do not fill the heap
+    private static final String LAZY_RESULTS = "LAZY_QUERY_EXECUTION=TRUE;";
+
+    // The in-memory database every pool connects to; tests that load a
+    // different dataset use their own name so they do not share tables
+    @Value("${analytics.datasource.database:titanicdb}")
+    private String database = "titanicdb";
 
     @Primary
     @Bean(name = "primaryDataSource")
     public DataSource primaryDataSource() {
         return DataSourceBuilder.create()
-                .url("jdbc:h2:mem:titanicdb;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+                .url(url(""))
                 .driverClassName("org.h2.Driver")
                 .username("sa")
                 .password("")
                 .build();
     }
 
-    @Bean(name = "readOnlyDataSource")
-    public DataSource readOnlyDataSource(){
-        return DataSourceBuilder.create()
-                .url("jdbc:h2:mem:titanicdb;ACCESS_MODE_DATA=r;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+    @Bean(name = "syncDataSource")
+    @ConfigurationProperties("analytics.datasource.sync.hikari")
+    public HikariDataSource syncDataSource() {
+        return readOnlyPool("sync-read");
+    }
+
+    @Bean(name = "asyncDataSource")
+    @ConfigurationProperties("analytics.datasource.async.hikari")
+    public HikariDataSource asyncDataSource() {
+        return readOnlyPool("async-read");
+    }
+
+    @Bean(name = "metadataDataSource")
+    @ConfigurationProperties("analytics.datasource.metadata.hikari")
+    public HikariDataSource metadataDataSource() {
+        return readOnlyPool("metadata-read");
+    }
+
+    @Bean(name = "primaryJdbcTemplate")
+    public JdbcTemplate primaryJdbcTemplate(@Qualifier("primaryDataSource") DataSource primaryDataSource){
+        return new JdbcTemplate(primaryDataSource);
+    }
+
+    @Bean(name = "syncJdbcTemplate")
+    public JdbcTemplate syncJdbcTemplate(@Qualifier("syncDataSource") DataSource syncDataSource,
+                                         @Value("${analytics.datasource.sync.fetch-size:100}") int fetchSize){
+        return readOnlyTemplate(syncDataSource, fetchSize);
+    }
+
+    @Bean(name = "asyncJdbcTemplate")
+    public JdbcTemplate asyncJdbcTemplate(@Qualifier("asyncDataSource") DataSource asyncDataSource,
+                                          @Value("${analytics.datasource.async.fetch-size:1000}") int fetchSize){
+        return readOnlyTemplate(asyncDataSource, fetchSize);
+    }
+
+    @Bean(name = "metadataJdbcTemplate")
+    public JdbcTemplate metadataJdbcTemplate(@Qualifier("metadataDataSource") DataSource metadataDataSource,
+                                             @Value("${analytics.datasource.metadata.fetch-size:1000}") int fetchSize){
+        return readOnlyTemplate(metadataDataSource, fetchSize);
+    }
+
+    private String url(String options) {
+        return "jdbc:h2:mem:" + database + ";" + options + "DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;" + STATEMENT_CACHE;
+    }
+
+    private HikariDataSource readOnlyPool(String poolName) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url("ACCESS_MODE_DATA=r;" + LAZY_RESULTS))
                 .driverClassName("org.h2.Driver")
                 .username("sa")
                 .password("")
                 .build();
+        dataSource.setPoolName(poolName);
+        dataSource.setReadOnly(true);
+        return dataSource;
     }
 
-    @Bean(name = "readOnlyJdbcTemplate")
-    public JdbcTemplate readOnlyJdbcTemplate(@Qualifier("readOnlyDataSource") DataSource readOnlyDataSource){
-        return new JdbcTemplate(readOnlyDataSource);
+    private static JdbcTemplate readOnlyTemplate(DataSource dataSource, int fetchSize) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        return jdbcTemplate;
     }
-
-
 }
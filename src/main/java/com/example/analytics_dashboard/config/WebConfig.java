@@ -0,0 +1,21 @@
+package com.example.analytics_dashboard.config;
+
+import com.example.analytics_dashboard.controller.ColumnarResultHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Added last, so it is only picked when the client asks for the columnar
+     * format and JSON remains the default for {@code Accept: *}{@code /*}.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ColumnarResultHttpMessageConverter());
+    }
+}
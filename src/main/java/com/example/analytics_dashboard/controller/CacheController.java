@@ -0,0 +1,35 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.CacheStatsResponse;
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.service.CacheWarmupService;
+import com.example.analytics_dashboard.service.QueryCacheService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/queries/cache")
+public class CacheController {
+    private final QueryCacheService queryCacheService;
+    private final CacheWarmupService cacheWarmupService;
+
+    public CacheController(QueryCacheService queryCacheService, CacheWarmupService cacheWarmupService) {
+        this.queryCacheService = queryCacheService;
+        this.cacheWarmupService = cacheWarmupService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<CacheStatsResponse> getStats() {
+        return ResponseEntity.ok(queryCacheService.getStats());
+    }
+
+    /**
+     * Outcome of the startup warm-up: how long it took and how many queries it cached.
+     */
+    @GetMapping("/warmup")
+    public ResponseEntity<CacheWarmupResponse> getWarmupReport() {
+        return ResponseEntity.ok(cacheWarmupService.getReport());
+    }
+}
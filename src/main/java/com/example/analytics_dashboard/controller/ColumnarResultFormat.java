@@ -0,0 +1,427 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.ColumnDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Columnar binary encoding of a result ({@value #MEDIA_TYPE}). All numbers are
+ * little-endian, strings are a u32 byte length followed by UTF-8.
+ * <pre>
+ * "ADCF" u8 version
+ * u16 metadata entries, each string key, string value
+ * u32 column count, u32 row count
+ * per column: string name, string SQL type ("" if unknown), u8 type, u8 flags (1 = has nulls)
+ * per column, in order:
+ *   validity bitmap, ceil(rows / 8) bytes, bit set = value present (only if it has nulls)
+ *   INT32       rows x i32
+ *   DATE        rows x i32, days since 1970-01-01
+ *   INT64       rows x i64
+ *   TIMESTAMP   rows x i64, local date-time in micros since 1970-01-01T00:00
+ *   FLOAT64     rows x f64
+ *   DECIMAL     u8 scale, rows x i64 unscaled value
+ *   BOOLEAN     ceil(rows / 8) bytes, bit set = true
+ *   STRING      u32 dictionary size, dictionary strings, u8 code width (1, 2 or 4), rows x code
+ *   NULL        nothing
+ * </pre>
+ * Null slots hold zero. The type of a column is picked from its values: mixed
+ * integer widths widen to INT64, integers next to decimals or doubles take
+ * their type, and decimals with a scale above 18 or an unscaled value that
+ * does not fit a long, like values of any other type, are written as strings.
+ */
+public final class ColumnarResultFormat {
+    public static final String MEDIA_TYPE = "application/vnd.analytics.columnar";
+
+    private static final byte[] MAGIC = {'A', 'D', 'C', 'F'};
+    private static final int FORMAT_VERSION = 1;
+    private static final int HAS_NULLS = 1;
+    private static final int MAX_DECIMAL_SCALE = 18;
+
+    public enum Type { NULL, BOOLEAN, INT32, INT64, FLOAT64, DECIMAL, STRING, DATE, TIMESTAMP }
+
+    /**
+     * A decoded result; values use the Java types listed in {@link #decode}.
+     */
+    public record Decoded(Map<String, String> metadata, List<ColumnDefinition> columns, List<Type> types,
+                          List<List<Object>> rows) {
+    }
+
+    private ColumnarResultFormat() {
+    }
+
+    /**
+     * @param columns names and SQL types of the columns, or empty if unknown
+     *        (then they are named column1, column2, ...)
+     * @param metadata written as-is into the header, e.g. the status of an async execution
+     */
+    public static byte[] encode(List<ColumnDefinition> columns, List<List<Object>> rows, Map<String, String> metadata) {
+        int columnCount = rows.isEmpty() ? columns.size() : rows.get(0).size();
+        Writer out = new Writer(64 + rows.size() * columnCount * 4);
+        out.bytes(MAGIC);
+        out.u8(FORMAT_VERSION);
+        out.u16(metadata.size());
+        metadata.forEach((key, value) -> {
+            out.string(key);
+            out.string(value);
+        });
+        out.u32(columnCount);
+        out.u32(rows.size());
+
+        Type[] types = new Type[columnCount];
+        boolean[] nullable = new boolean[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            types[c] = typeOf(rows, c);
+            for (List<Object> row : rows) {
+                if (row.get(c) == null) {
+                    nullable[c] = true;
+                    break;
+                }
+            }
+            ColumnDefinition column = c < columns.size() ? columns.get(c) : null;
+            out.string(column != null && column.getName() != null ? column.getName() : "column" + (c + 1));
+            out.string(column != null && column.getType() != null ? column.getType() : "");
+            out.u8(types[c].ordinal());
+            out.u8(nullable[c] ? HAS_NULLS : 0);
+        }
+
+        for (int c = 0; c < columnCount; c++) {
+            if (nullable[c]) {
+                int column = c;
+                out.bitmap(rows, row -> row.get(column) != null);
+            }
+            writeValues(out, rows, c, types[c]);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads what {@link #encode} wrote. Values come back as Integer (INT32),
+     * Long (INT64), Double (FLOAT64), BigDecimal (DECIMAL), Boolean, String,
+     * LocalDate (DATE) and LocalDateTime (TIMESTAMP).
+     * @throws IllegalArgumentException if the data is not in this format
+     */
+    public static Decoded decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[MAGIC.length];
+        in.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || Byte.toUnsignedInt(in.get()) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a columnar result");
+        }
+        Map<String, String> metadata = new LinkedHashMap<>();
+        for (int i = Short.toUnsignedInt(in.getShort()); i > 0; i--) {
+            metadata.put(readString(in), readString(in));
+        }
+        int columnCount = in.getInt();
+        int rowCount = in.getInt();
+        List<ColumnDefinition> columns = new ArrayList<>(columnCount);
+        List<Type> types = new ArrayList<>(columnCount);
+        boolean[] nullable = new boolean[columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            columns.add(new ColumnDefinition(readString(in), readString(in)));
+            types.add(Type.values()[in.get()]);
+            nullable[c] = (in.get() & HAS_NULLS) != 0;
+        }
+
+        Object[][] values = new Object[rowCount][columnCount];
+        for (int c = 0; c < columnCount; c++) {
+            byte[] present = nullable[c] ? readBitmap(in, rowCount) : null;
+            readValues(in, values, c, types.get(c));
+            if (present != null) {
+                for (int r = 0; r < rowCount; r++) {
+                    if (!isSet(present, r)) {
+                        values[r][c] = null;
+                    }
+                }
+            }
+        }
+        List<List<Object>> rows = new ArrayList<>(rowCount);
+        for (Object[] row : values) {
+            rows.add(Arrays.asList(row));
+        }
+        return new Decoded(metadata, columns, types, rows);
+    }
+
+    private static Type typeOf(List<List<Object>> rows, int column) {
+        Type type = Type.NULL;
+        int maxScale = 0;
+        for (List<Object> row : rows) {
+            Object value = row.get(column);
+            if (value == null) {
+                continue;
+            }
+            Type valueType = switch (value) {
+                case Boolean ignored -> Type.BOOLEAN;
+                case Integer ignored -> Type.INT32;
+                case Short ignored -> Type.INT32;
+                case Byte ignored -> Type.INT32;
+                case Long ignored -> Type.INT64;
+                case Double ignored -> Type.FLOAT64;
+                case Float ignored -> Type.FLOAT64;
+                case BigDecimal decimal -> {
+                    maxScale = Math.max(maxScale, decimal.scale());
+                    yield Type.DECIMAL;
+                }
+                case Date ignored -> Type.DATE;
+                case LocalDate ignored -> Type.DATE;
+                case Timestamp ignored -> Type.TIMESTAMP;
+                case LocalDateTime ignored -> Type.TIMESTAMP;
+                default -> Type.STRING;
+            };
+            type = combine(type, valueType);
+            if (type == Type.STRING) {
+                return Type.STRING;
+            }
+        }
+        if (type == Type.DECIMAL && (maxScale > MAX_DECIMAL_SCALE || !decimalsFitLong(rows, column, maxScale))) {
+            return Type.STRING;
+        }
+        return type;
+    }
+
+    private static Type combine(Type current, Type next) {
+        if (current == Type.NULL || current == next) {
+            return next;
+        }
+        if (isInteger(current) && isInteger(next)) {
+            return Type.INT64;
+        }
+        if ((current == Type.DECIMAL && isInteger(next)) || (isInteger(current) && next == Type.DECIMAL)) {
+            return Type.DECIMAL;
+        }
+        if ((current == Type.FLOAT64 && isInteger(next)) || (isInteger(current) && next == Type.FLOAT64)) {
+            return Type.FLOAT64;
+        }
+        return Type.STRING;
+    }
+
+    private static boolean isInteger(Type type) {
+        return type == Type.INT32 || type == Type.INT64;
+    }
+
+    private static boolean decimalsFitLong(List<List<Object>> rows, int column, int scale) {
+        for (List<Object> row : rows) {
+            Object value = row.get(column);
+            if (value != null && unscaled(value, scale).bitLength() > 63) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BigInteger unscaled(Object value, int scale) {
+        BigDecimal decimal = value instanceof BigDecimal d ? d : BigDecimal.valueOf(((Number) value).longValue());
+        // Only ever raises the scale, so no rounding
+        return decimal.setScale(scale).unscaledValue();
+    }
+
+    private static void writeValues(Writer out, List<List<Object>> rows, int column, Type type) {
+        switch (type) {
+            case NULL -> {
+            }
+            case BOOLEAN -> out.bitmap(rows, row -> Boolean.TRUE.equals(row.get(column)));
+            case INT32 -> rows.forEach(row -> out.i32(row.get(column) instanceof Number n ? n.intValue() : 0));
+            case INT64 -> rows.forEach(row -> out.i64(row.get(column) instanceof Number n ? n.longValue() : 0));
+            case FLOAT64 -> rows.forEach(row -> out.i64(Double.doubleToRawLongBits(
+                    row.get(column) instanceof Number n ? n.doubleValue() : 0)));
+            case DECIMAL -> {
+                int scale = 0;
+                for (List<Object> row : rows) {
+                    if (row.get(column) instanceof BigDecimal decimal) {
+                        scale = Math.max(scale, decimal.scale());
+                    }
+                }
+                out.u8(scale);
+                for (List<Object> row : rows) {
+                    Object value = row.get(column);
+                    out.i64(value == null ? 0 : unscaled(value, scale).longValue());
+                }
+            }
+            case DATE -> rows.forEach(row -> out.i32(row.get(column) == null ? 0 : (int) toLocalDate(row.get(column)).toEpochDay()));
+            case TIMESTAMP -> rows.forEach(row -> out.i64(row.get(column) == null ? 0
+                    : ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), toLocalDateTime(row.get(column)))));
+            case STRING -> writeDictionary(out, rows, column);
+        }
+    }
+
+    private static void writeDictionary(Writer out, List<List<Object>> rows, int column) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> dictionary = new ArrayList<>();
+        int[] rowCodes = new int[rows.size()];
+        for (int r = 0; r < rows.size(); r++) {
+            Object value = rows.get(r).get(column);
+            if (value == null) {
+                continue;
+            }
+            String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+            rowCodes[r] = codes.computeIfAbsent(text, key -> {
+                dictionary.add(key);
+                return dictionary.size() - 1;
+            });
+        }
+        out.u32(dictionary.size());
+        dictionary.forEach(out::string);
+        int width = dictionary.size() <= 256 ? 1 : dictionary.size() <= 65536 ? 2 : 4;
+        out.u8(width);
+        for (int code : rowCodes) {
+            switch (width) {
+                case 1 -> out.u8(code);
+                case 2 -> out.u16(code);
+                default -> out.i32(code);
+            }
+        }
+    }
+
+    private static void readValues(ByteBuffer in, Object[][] values, int column, Type type) {
+        int rowCount = values.length;
+        switch (type) {
+            case NULL -> {
+            }
+            case BOOLEAN -> {
+                byte[] bits = readBitmap(in, rowCount);
+                for (int r = 0; r < rowCount; r++) {
+                    values[r][column] = isSet(bits, r);
+                }
+            }
+            case INT32 -> {
+                for (Object[] row : values) {
+                    row[column] = in.getInt();
+                }
+            }
+            case INT64 -> {
+                for (Object[] row : values) {
+                    row[column] = in.getLong();
+                }
+            }
+            case FLOAT64 -> {
+                for (Object[] row : values) {
+                    row[column] = in.getDouble();
+                }
+            }
+            case DECIMAL -> {
+                int scale = Byte.toUnsignedInt(in.get());
+                for (Object[] row : values) {
+                    row[column] = BigDecimal.valueOf(in.getLong(), scale);
+                }
+            }
+            case DATE -> {
+                for (Object[] row : values) {
+                    row[column] = LocalDate.ofEpochDay(in.getInt());
+                }
+            }
+            case TIMESTAMP -> {
+                LocalDateTime epoch = LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC);
+                for (Object[] row : values) {
+                    row[column] = epoch.plus(in.getLong(), ChronoUnit.MICROS);
+                }
+            }
+            case STRING -> {
+                String[] dictionary = new String[in.getInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    dictionary[i] = readString(in);
+                }
+                int width = Byte.toUnsignedInt(in.get());
+                for (Object[] row : values) {
+                    int code = switch (width) {
+                        case 1 -> Byte.toUnsignedInt(in.get());
+                        case 2 -> Short.toUnsignedInt(in.getShort());
+                        default -> in.getInt();
+                    };
+                    row[column] = dictionary.length == 0 ? null : dictionary[code];
+                }
+            }
+        }
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date date ? date.toLocalDate() : (LocalDate) value;
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBitmap(ByteBuffer in, int rowCount) {
+        byte[] bits = new byte[(rowCount + 7) / 8];
+        in.get(bits);
+        return bits;
+    }
+
+    private static boolean isSet(byte[] bits, int index) {
+        return (bits[index >>> 3] & (1 << (index & 7))) != 0;
+    }
+
+    private static final class Writer extends ByteArrayOutputStream {
+        Writer(int size) {
+            super(size);
+        }
+
+        void bytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        void u8(int value) {
+            write(value);
+        }
+
+        void u16(int value) {
+            write(value);
+            write(value >>> 8);
+        }
+
+        void u32(int value) {
+            i32(value);
+        }
+
+        void i32(int value) {
+            write(value);
+            write(value >>> 8);
+            write(value >>> 16);
+            write(value >>> 24);
+        }
+
+        void i64(long value) {
+            i32((int) value);
+            i32((int) (value >>> 32));
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            u32(bytes.length);
+            bytes(bytes);
+        }
+
+        void bitmap(List<List<Object>> rows, Predicate<List<Object>> bit) {
+            byte[] bits = new byte[(rows.size() + 7) / 8];
+            for (int r = 0; r < rows.size(); r++) {
+                if (bit.test(rows.get(r))) {
+                    bits[r >>> 3] |= (byte) (1 << (r & 7));
+                }
+            }
+            bytes(bits);
+        }
+    }
+}
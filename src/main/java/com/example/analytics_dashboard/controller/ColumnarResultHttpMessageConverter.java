@@ -0,0 +1,83 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.AsyncExecutionStatusResponse;
+import com.example.analytics_dashboard.dto.ColumnDefinition;
+import com.example.analytics_dashboard.dto.ExecutionResponse;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes {@link ExecutionResponse} and {@link AsyncExecutionStatusResponse} in
+ * {@link ColumnarResultFormat} for clients that ask for it in {@code Accept}.
+ * The async status fields go into the format's metadata. Registered after
+ * Jackson, so JSON stays the default.
+ */
+public class ColumnarResultHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+    public static final MediaType COLUMNAR = MediaType.parseMediaType(ColumnarResultFormat.MEDIA_TYPE);
+
+    public ColumnarResultHttpMessageConverter() {
+        super(COLUMNAR);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ExecutionResponse.class.isAssignableFrom(clazz) || AsyncExecutionStatusResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Columnar results can only be written", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        byte[] encoded = switch (body) {
+            case ExecutionResponse response -> ColumnarResultFormat.encode(
+                    columns(response.getColumns()), rows(response.getResult()), Map.of());
+            case AsyncExecutionStatusResponse response -> ColumnarResultFormat.encode(
+                    columns(response.getColumns()), rows(response.getResult()), metadata(response));
+            default -> throw new IllegalArgumentException("Unsupported body " + body.getClass());
+        };
+        outputMessage.getHeaders().setContentLength(encoded.length);
+        outputMessage.getBody().write(encoded);
+    }
+
+    private static Map<String, String> metadata(AsyncExecutionStatusResponse response) {
+        Map<String, String> metadata = new LinkedHashMap<>();
+        metadata.put("executionId", response.getExecutionId());
+        metadata.put("status", response.getStatus());
+        putIfPresent(metadata, "totalRows", response.getTotalRows());
+        putIfPresent(metadata, "offset", response.getOffset());
+        putIfPresent(metadata, "rowsFetched", response.getRowsFetched());
+        putIfPresent(metadata, "elapsedMs", response.getElapsedMs());
+        putIfPresent(metadata, "error", response.getError());
+        return metadata;
+    }
+
+    private static void putIfPresent(Map<String, String> metadata, String key, Object value) {
+        if (value != null) {
+            metadata.put(key, value.toString());
+        }
+    }
+
+    private static List<ColumnDefinition> columns(List<ColumnDefinition> columns) {
+        return columns != null ? columns : List.of();
+    }
+
+    private static List<List<Object>> rows(List<List<Object>> rows) {
+        return rows != null ? rows : List.of();
+    }
+}
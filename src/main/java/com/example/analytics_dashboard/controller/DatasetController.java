@@ -0,0 +1,27 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.DatasetReloadResponse;
+import com.example.analytics_dashboard.service.DatasetReloadService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/dataset")
+public class DatasetController {
+    private final DatasetReloadService datasetReloadService;
+
+    public DatasetController(DatasetReloadService datasetReloadService) {
+        this.datasetReloadService = datasetReloadService;
+    }
+
+    /**
+     * Loads {@code analytics.dataset.reload-source} into the passengers table
+     * while queries keep running, then switches to it.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<DatasetReloadResponse> reload() {
+        return ResponseEntity.ok(datasetReloadService.reload());
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.service.ResultRowHandler;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes each row as a JSON array followed by a newline (application/x-ndjson).
+ * The first row is flushed right away so clients see data as early as possible;
+ * after that the generator and servlet buffers decide when bytes go out.
+ */
+class NdjsonRowWriter implements ResultRowHandler {
+    private final JsonGenerator generator;
+    private boolean firstRowFlushed;
+    private long rowCount;
+    private long bytesWritten;
+
+    NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(new FilterOutputStream(out) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                bytesWritten++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                bytesWritten += len;
+            }
+        });
+        this.generator.setRootValueSeparator(null);
+    }
+
+    @Override
+    public void onRow(Object[] row) throws IOException {
+        generator.writeStartArray();
+        for (Object value : row) {
+            generator.writeObject(value);
+        }
+        generator.writeEndArray();
+        generator.writeRaw('\n');
+        rowCount++;
+
+        if (!firstRowFlushed) {
+            generator.flush();
+            firstRowFlushed = true;
+        }
+    }
+
+    @Override
+    public void onComplete(long rowCount) throws IOException {
+        generator.flush();
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Bytes passed on to the response so far; complete once the stream has ended.
+     */
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+}
@@ -3,16 +3,34 @@ package com.example.analytics_dashboard.controller;
 import com.example.analytics_dashboard.dto.*;
 import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.service.AsyncQueryExecutionService;
+import com.example.analytics_dashboard.service.BatchExecutionService;
+import com.example.analytics_dashboard.service.BoundQuery;
+import com.example.analytics_dashboard.service.DatasetVersion;
+import com.example.analytics_dashboard.service.ExecutionEventService;
+import com.example.analytics_dashboard.service.ExecutionMetrics;
+import com.example.analytics_dashboard.service.ExecutionProgress;
+import com.example.analytics_dashboard.service.QueryCancellation;
 import com.example.analytics_dashboard.service.QueryExecutionService;
 import com.example.analytics_dashboard.service.QueryService;
+import com.example.analytics_dashboard.service.QueryWorkload;
 import com.example.analytics_dashboard.model.QueryExecution;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 
 @RestController
@@ -21,19 +39,41 @@ public class QueryController {
     private final QueryService queryService;
     private final QueryExecutionService executionService;
     private final AsyncQueryExecutionService asyncExecutionService;
+    private final ExecutionEventService executionEventService;
+    private final ExecutionMetrics executionMetrics;
+    private final BatchExecutionService batchExecutionService;
+    private final DatasetVersion datasetVersion;
+    private final ObjectMapper objectMapper;
 
+    @Value("${analytics.async.max-wait:30s}")
+    private Duration maxWait = Duration.ofSeconds(30);
+
+    // How long clients may reuse a completed async result without asking again
+    @Value("${analytics.http.async-result-max-age:1h}")
+    private Duration asyncResultMaxAge = Duration.ofHours(1);
 
     public QueryController(QueryService queryService,
                            QueryExecutionService executionService,
-                           AsyncQueryExecutionService asyncExecutionService) {
+                           AsyncQueryExecutionService asyncExecutionService,
+                           ExecutionEventService executionEventService,
+                           ExecutionMetrics executionMetrics,
+                           BatchExecutionService batchExecutionService,
+                           DatasetVersion datasetVersion,
+                           ObjectMapper objectMapper) {
         this.queryService = queryService;
         this.executionService = executionService;
         this.asyncExecutionService = asyncExecutionService;
+        this.executionEventService = executionEventService;
+        this.executionMetrics = executionMetrics;
+        this.batchExecutionService = batchExecutionService;
+        this.datasetVersion = datasetVersion;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
     public ResponseEntity<QueryResponse> addQuery(@RequestBody QueryRequest queryRequest) {
-        QueryResponse response = queryService.addQuery(queryRequest.getQuery());
+        QueryResponse response = queryService.addQuery(
+                queryRequest.getQuery(), queryRequest.getTimeoutSeconds(), queryRequest.getParameters());
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
@@ -43,36 +83,134 @@ public class QueryController {
         return ResponseEntity.ok(queries);
     }
 
+    /**
+     * H2's plan for a stored query and its estimated cost (rows read), both
+     * computed when the query was saved.
+     */
+    @GetMapping("/{id}/plan")
+    public ResponseEntity<QueryPlanResponse> getQueryPlan(@PathVariable("id") Long queryId) {
+        return ResponseEntity.ok(queryService.getQueryPlan(queryId));
+    }
+
+    /**
+     * Runs a stored query. Values for its declared parameters are passed as
+     * further request params, e.g. {@code ?query=3&pclass=1}. Answers JSON, or
+     * the binary {@link ColumnarResultFormat} when the client accepts it.
+     * <p>
+     * The ETag covers the query, its parameter values, the dataset version and
+     * the requested representation, so a matching {@code If-None-Match} is
+     * answered with 304 without executing the query.
+     */
     @GetMapping("/execute")
-    public ResponseEntity<ExecutionResponse> executeQuery(@RequestParam("query") Long queryId) {
+    public ResponseEntity<ExecutionResponse> executeQuery(@RequestParam("query") Long queryId,
+                                                          @RequestParam Map<String, String> params,
+                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         StoredQuery storedQuery = queryService.getQueryById(queryId);
 
-        if(!executionService.isReadOnlyQuery(storedQuery.getQueryText())){
-            throw new IllegalArgumentException("Only SELECT queries are allowed");
+        requireReadOnly(storedQuery);
+
+        BoundQuery query = BoundQuery.bind(storedQuery, params);
+        String eTag = ResultETags.of(queryId, query.getCacheKey(), datasetVersion.get(), accept);
+        // Revalidate on every use: the result only changes when the dataset does
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ResultETags.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag, cacheControl);
         }
 
-        List<List<Object>> result = executionService.executeQuery(storedQuery.getQueryText());
-        ExecutionResponse response = new ExecutionResponse(result);
+        List<List<Object>> result = executionMetrics.timeSync(queryId, () -> executionService.executeQuery(query)).getRows();
+        ExecutionResponse response = new ExecutionResponse(result, queryService.getResultColumns(storedQuery));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(response);
     }
 
-    @PostMapping("/execute/async")
-    public ResponseEntity<AsyncExecutionResponse> executeQueryAsync(@RequestParam("query") Long queryId) {
+    /**
+     * Runs several stored queries in one request, e.g. every widget of a
+     * dashboard page. Answers 200 with a result or an error per query, in
+     * request order; see {@link BatchExecutionService}.
+     */
+    @PostMapping("/execute/batch")
+    public ResponseEntity<BatchExecutionResponse> executeBatch(@RequestBody BatchExecutionRequest request) {
+        return ResponseEntity.ok(new BatchExecutionResponse(batchExecutionService.execute(request.getQueries())));
+    }
+
+    /**
+     * Streaming variant of {@link #executeQuery}, selected with
+     * {@code Accept: application/x-ndjson}. Rows are written one JSON array per
+     * line while they are read from the database, bypassing the result cache.
+     * Carries the same kind of ETag, so a matching {@code If-None-Match} is
+     * answered with 304 before the query starts.
+     */
+    @GetMapping(value = "/execute", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamQuery(@RequestParam("query") Long queryId,
+                                                             @RequestParam Map<String, String> params,
+                                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
         StoredQuery storedQuery = queryService.getQueryById(queryId);
 
-        if(!executionService.isReadOnlyQuery(storedQuery.getQueryText())){
-            throw new IllegalArgumentException("Only SELECT queries are allowed");
+        requireReadOnly(storedQuery);
+
+        BoundQuery query = BoundQuery.bind(storedQuery, params);
+        String eTag = ResultETags.of(queryId, query.getCacheKey(), datasetVersion.get(), accept);
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        if (ResultETags.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag, cacheControl);
         }
 
-        String executionId = asyncExecutionService.startExecution((storedQuery));
+        StreamingResponseBody body = out -> {
+            NdjsonRowWriter writer = new NdjsonRowWriter(objectMapper, out);
+            executionMetrics.timeStream(queryId,
+                    () -> executionService.streamQuery(query, QueryWorkload.INTERACTIVE, new QueryCancellation(), writer),
+                    writer::getRowCount, writer::getBytesWritten);
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    @PostMapping("/execute/async")
+    public ResponseEntity<AsyncExecutionResponse> executeQueryAsync(@RequestParam("query") Long queryId,
+                                                                    @RequestParam Map<String, String> params) {
+        StoredQuery storedQuery = queryService.getQueryById(queryId);
+
+        requireReadOnly(storedQuery);
+
+        String executionId = asyncExecutionService.startExecution(BoundQuery.bind(storedQuery, params));
 
         return ResponseEntity.accepted()
                 .body(new AsyncExecutionResponse(executionId, "PENDING"));
     }
 
+    /**
+     * Status of an async execution, with the requested page of its result once
+     * it has completed. A completed result never changes, so it gets an ETag
+     * (per page and representation) and may be cached for
+     * {@code analytics.http.async-result-max-age}; a matching
+     * {@code If-None-Match} is answered with 304 without reading the stored chunks.
+     */
     @GetMapping("/execute/async/{executionId}")
-    public ResponseEntity<AsyncExecutionStatusResponse> getExecutionStatus(@PathVariable("executionId") String executionId) {
+    public ResponseEntity<AsyncExecutionStatusResponse> getExecutionStatus(
+            @PathVariable("executionId") String executionId,
+            @RequestParam(value = "offset", defaultValue = "0") long offset,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        // Pending or running here: answer from memory without touching the database
+        Optional<ExecutionProgress> progress = asyncExecutionService.getProgress(executionId);
+        if (progress.isPresent() && !progress.get().isFinished()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    .body(progress.get().toStatusResponse());
+        }
+
         QueryExecution execution = asyncExecutionService.getExecution(executionId);
 
         AsyncExecutionStatusResponse response = new AsyncExecutionStatusResponse(
@@ -81,16 +219,86 @@ public class QueryController {
         );
 
         if (execution.getStatus() == QueryExecution.ExecutionStatus.COMPLETED) {
-            try {
-                response.setResult(asyncExecutionService.parseResult(execution.getResult()));
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Error parsing result", e);
+            String eTag = ResultETags.of(execution.getId(), offset, limit, accept);
+            CacheControl cacheControl = CacheControl.maxAge(asyncResultMaxAge).cachePrivate();
+            if (ResultETags.matches(ifNoneMatch, eTag)) {
+                return notModified(eTag, cacheControl);
             }
+
+            response.setTotalRows(execution.getRowCount());
+            response.setOffset(offset);
+            response.setResult(asyncExecutionService.getResultRows(execution, offset, limit));
+            response.setColumns(queryService.getResultColumns(execution.getQueryId()));
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(response);
         } else if (execution.getStatus() == QueryExecution.ExecutionStatus.FAILED) {
             response.setError(execution.getErrorMessage());
         }
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+    }
+
+    /**
+     * Long-poll variant of {@link #getExecutionStatus}: answers as soon as the
+     * execution finishes, or with its current state after {@code waitMs}
+     * (capped at {@code analytics.async.max-wait}). No request thread is held
+     * while waiting.
+     */
+    @GetMapping(value = "/execute/async/{executionId}", params = "waitMs")
+    public CompletableFuture<ResponseEntity<AsyncExecutionStatusResponse>> awaitExecutionStatus(
+            @PathVariable("executionId") String executionId,
+            @RequestParam("waitMs") long waitMs,
+            @RequestParam(value = "offset", defaultValue = "0") long offset,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (waitMs < 0) {
+            throw new IllegalArgumentException("waitMs must not be negative");
+        }
+        Duration wait = Duration.ofMillis(Math.min(waitMs, maxWait.toMillis()));
+
+        return asyncExecutionService.awaitCompletion(executionId, wait)
+                .thenApply(ignored -> getExecutionStatus(executionId, offset, limit, ifNoneMatch, accept));
+    }
+
+    /**
+     * Server-Sent Events stream of status changes and progress for an execution.
+     */
+    @GetMapping(value = "/execute/async/{executionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamExecutionEvents(@PathVariable("executionId") String executionId) {
+        return executionEventService.subscribe(executionId);
+    }
+
+    /**
+     * Cancels a pending or running execution: its JDBC statement is cancelled
+     * and it ends as CANCELLED. Answers 202 with the state at the time of the
+     * request; the final state follows on the status and events endpoints.
+     */
+    @DeleteMapping("/execute/async/{executionId}")
+    public ResponseEntity<AsyncExecutionStatusResponse> cancelExecution(@PathVariable("executionId") String executionId) {
+        ExecutionProgress progress = asyncExecutionService.cancelExecution(executionId);
+        return ResponseEntity.accepted().body(progress.toStatusResponse());
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
     }
 
+    /**
+     * Uses the verdict stored with the query, so executing does no SQL analysis.
+     */
+    private static void requireReadOnly(StoredQuery storedQuery) {
+        if (!Boolean.TRUE.equals(storedQuery.getReadOnly())) {
+            throw new IllegalArgumentException("Only SELECT queries are allowed");
+        }
+    }
 }
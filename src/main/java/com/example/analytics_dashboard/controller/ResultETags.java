@@ -0,0 +1,53 @@
+package com.example.analytics_dashboard.controller;
+
+import org.springframework.http.ETag;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Strong ETags for query results, computed from what determines the result
+ * rather than from the result itself, so a matching {@code If-None-Match} can
+ * be answered with 304 before anything is executed or serialized.
+ */
+final class ResultETags {
+
+    private ResultETags() {
+    }
+
+    /**
+     * @return a quoted strong ETag over the given parts; a null part counts as absent
+     */
+    static String of(Object... parts) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (Object part : parts) {
+            sha256.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            // Separator, so ("ab", "c") and ("a", "bc") differ
+            sha256.update((byte) 0);
+        }
+        return "\"" + HexFormat.of().formatHex(sha256.digest(), 0, 16) + "\"";
+    }
+
+    /**
+     * Weak comparison, as RFC 9110 prescribes for {@code If-None-Match}.
+     */
+    static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        for (ETag candidate : ETag.parse(ifNoneMatch)) {
+            if (candidate.isWildcard() || candidate.compare(current, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.analytics_dashboard.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
@@ -12,12 +13,28 @@ public class AsyncExecutionStatusResponse {
     @JsonProperty("status")
     private String status;
 
+    @JsonProperty("rowsFetched")
+    private Long rowsFetched;
+
+    @JsonProperty("elapsedMs")
+    private Long elapsedMs;
+
+    @JsonProperty("totalRows")
+    private Long totalRows;
+
+    @JsonProperty("offset")
+    private Long offset;
+
     @JsonProperty("result")
     private List<List<Object>> result;
 
     @JsonProperty("error")
     private String error;
 
+    // Only written by the binary columnar format; JSON stays rows only
+    @JsonIgnore
+    private List<ColumnDefinition> columns;
+
     public AsyncExecutionStatusResponse(String executionId, String status) {
         this.executionId = executionId;
         this.status = status;
@@ -36,6 +53,34 @@ public class AsyncExecutionStatusResponse {
         this.status = status;
     }
 
+    public Long getRowsFetched() {
+        return rowsFetched;
+    }
+    public void setRowsFetched(Long rowsFetched) {
+        this.rowsFetched = rowsFetched;
+    }
+
+    public Long getElapsedMs() {
+        return elapsedMs;
+    }
+    public void setElapsedMs(Long elapsedMs) {
+        this.elapsedMs = elapsedMs;
+    }
+
+    public Long getTotalRows() {
+        return totalRows;
+    }
+    public void setTotalRows(Long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public Long getOffset() {
+        return offset;
+    }
+    public void setOffset(Long offset) {
+        this.offset = offset;
+    }
+
     public List<List<Object>> getResult() {
         return result;
     }
@@ -50,4 +95,11 @@ public class AsyncExecutionStatusResponse {
         this.error = error;
     }
 
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+    public void setColumns(List<ColumnDefinition> columns) {
+        this.columns = columns;
+    }
+
 }
@@ -0,0 +1,24 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BatchExecutionRequest {
+    @JsonProperty("queries")
+    private List<BatchQueryRequest> queries;
+
+    public BatchExecutionRequest() {}
+
+    public BatchExecutionRequest(List<BatchQueryRequest> queries) {
+        this.queries = queries;
+    }
+
+    public List<BatchQueryRequest> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<BatchQueryRequest> queries) {
+        this.queries = queries;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public class BatchExecutionResponse {
+    // In the order of the request
+    @JsonProperty("results")
+    private List<BatchQueryResult> results;
+
+    public BatchExecutionResponse() {}
+
+    public BatchExecutionResponse(List<BatchQueryResult> results) {
+        this.results = results;
+    }
+
+    public List<BatchQueryResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BatchQueryResult> results) {
+        this.results = results;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * One stored query of a batch, with values for its declared parameters.
+ */
+public class BatchQueryRequest {
+    @JsonProperty("query")
+    private Long query;
+
+    @JsonProperty("params")
+    private Map<String, String> params;
+
+    public BatchQueryRequest() {}
+
+    public BatchQueryRequest(Long query) {
+        this.query = query;
+    }
+
+    public BatchQueryRequest(Long query, Map<String, String> params) {
+        this.query = query;
+        this.params = params;
+    }
+
+    public Long getQuery() {
+        return query;
+    }
+
+    public void setQuery(Long query) {
+        this.query = query;
+    }
+
+    public Map<String, String> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, String> params) {
+        this.params = params;
+    }
+}
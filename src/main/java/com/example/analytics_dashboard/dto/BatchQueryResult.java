@@ -0,0 +1,75 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Outcome of one query of a batch. {@code status} is the HTTP status the
+ * query would have got from {@code GET /queries/execute}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchQueryResult {
+    @JsonProperty("query")
+    private Long query;
+
+    @JsonProperty("status")
+    private int status;
+
+    @JsonProperty("result")
+    private List<List<Object>> result;
+
+    @JsonProperty("error")
+    private String error;
+
+    public BatchQueryResult() {}
+
+    public static BatchQueryResult success(Long query, List<List<Object>> result) {
+        BatchQueryResult outcome = new BatchQueryResult();
+        outcome.query = query;
+        outcome.status = 200;
+        outcome.result = result;
+        return outcome;
+    }
+
+    public static BatchQueryResult failure(Long query, int status, String error) {
+        BatchQueryResult outcome = new BatchQueryResult();
+        outcome.query = query;
+        outcome.status = status;
+        outcome.error = error;
+        return outcome;
+    }
+
+    public Long getQuery() {
+        return query;
+    }
+
+    public void setQuery(Long query) {
+        this.query = query;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public List<List<Object>> getResult() {
+        return result;
+    }
+
+    public void setResult(List<List<Object>> result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class CacheStatsResponse {
+    @JsonProperty("entries")
+    private Long entries;
+
+    @JsonProperty("estimatedBytes")
+    private Long estimatedBytes;
+
+    @JsonProperty("weightedSize")
+    private Long weightedSize;
+
+    @JsonProperty("maximumWeight")
+    private Long maximumWeight;
+
+    @JsonProperty("hitCount")
+    private Long hitCount;
+
+    @JsonProperty("missCount")
+    private Long missCount;
+
+    @JsonProperty("hitRate")
+    private Double hitRate;
+
+    @JsonProperty("evictionCount")
+    private Long evictionCount;
+
+    @JsonProperty("evictionWeight")
+    private Long evictionWeight;
+
+    // Disk tier, absent when it is disabled
+    @JsonProperty("diskEntries")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long diskEntries;
+
+    @JsonProperty("diskStoredBytes")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long diskStoredBytes;
+
+    @JsonProperty("diskFileBytes")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long diskFileBytes;
+
+    @JsonProperty("diskHitCount")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long diskHitCount;
+
+    @JsonProperty("diskMissCount")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long diskMissCount;
+
+    public CacheStatsResponse() {}
+
+    public Long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(Long entries) {
+        this.entries = entries;
+    }
+
+    public Long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public void setEstimatedBytes(Long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    public Long getWeightedSize() {
+        return weightedSize;
+    }
+
+    public void setWeightedSize(Long weightedSize) {
+        this.weightedSize = weightedSize;
+    }
+
+    public Long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public void setMaximumWeight(Long maximumWeight) {
+        this.maximumWeight = maximumWeight;
+    }
+
+    public Long getHitCount() {
+        return hitCount;
+    }
+
+    public void setHitCount(Long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    public Long getMissCount() {
+        return missCount;
+    }
+
+    public void setMissCount(Long missCount) {
+        this.missCount = missCount;
+    }
+
+    public Double getHitRate() {
+        return hitRate;
+    }
+
+    public void setHitRate(Double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    public Long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public void setEvictionCount(Long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    public Long getEvictionWeight() {
+        return evictionWeight;
+    }
+
+    public void setEvictionWeight(Long evictionWeight) {
+        this.evictionWeight = evictionWeight;
+    }
+
+    public Long getDiskEntries() {
+        return diskEntries;
+    }
+
+    public void setDiskEntries(Long diskEntries) {
+        this.diskEntries = diskEntries;
+    }
+
+    public Long getDiskStoredBytes() {
+        return diskStoredBytes;
+    }
+
+    public void setDiskStoredBytes(Long diskStoredBytes) {
+        this.diskStoredBytes = diskStoredBytes;
+    }
+
+    public Long getDiskFileBytes() {
+        return diskFileBytes;
+    }
+
+    public void setDiskFileBytes(Long diskFileBytes) {
+        this.diskFileBytes = diskFileBytes;
+    }
+
+    public Long getDiskHitCount() {
+        return diskHitCount;
+    }
+
+    public void setDiskHitCount(Long diskHitCount) {
+        this.diskHitCount = diskHitCount;
+    }
+
+    public Long getDiskMissCount() {
+        return diskMissCount;
+    }
+
+    public void setDiskMissCount(Long diskMissCount) {
+        this.diskMissCount = diskMissCount;
+    }
+}
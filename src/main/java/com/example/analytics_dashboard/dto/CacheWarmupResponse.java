@@ -0,0 +1,94 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CacheWarmupResponse {
+    // NOT_STARTED, RUNNING, COMPLETED, TIMED_OUT or DISABLED
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("startedAt")
+    private Instant startedAt;
+
+    @JsonProperty("durationMs")
+    private Long durationMs;
+
+    @JsonProperty("candidates")
+    private Integer candidates;
+
+    @JsonProperty("warmed")
+    private Integer warmed;
+
+    @JsonProperty("failed")
+    private Integer failed;
+
+    // Still running when the warm-up timeout passed
+    @JsonProperty("pending")
+    private Integer pending;
+
+    public CacheWarmupResponse() {}
+
+    public CacheWarmupResponse(String status) {
+        this.status = status;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public Integer getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(Integer candidates) {
+        this.candidates = candidates;
+    }
+
+    public Integer getWarmed() {
+        return warmed;
+    }
+
+    public void setWarmed(Integer warmed) {
+        this.warmed = warmed;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+
+    public Integer getPending() {
+        return pending;
+    }
+
+    public void setPending(Integer pending) {
+        this.pending = pending;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DatasetReloadResponse {
+    // RELOADED, or UNCHANGED when the source has the data already loaded
+    @JsonProperty("status")
+    private String status;
+
+    @JsonProperty("previousVersion")
+    private String previousVersion;
+
+    @JsonProperty("version")
+    private String version;
+
+    @JsonProperty("rows")
+    private Long rows;
+
+    @JsonProperty("rowsPerSecond")
+    private Long rowsPerSecond;
+
+    @JsonProperty("durationMs")
+    private Long durationMs;
+
+    // Results cached for the new version before switching to it
+    @JsonProperty("warmup")
+    private CacheWarmupResponse warmup;
+
+    public DatasetReloadResponse() {}
+
+    public DatasetReloadResponse(String status, String previousVersion, String version) {
+        this.status = status;
+        this.previousVersion = previousVersion;
+        this.version = version;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getPreviousVersion() {
+        return previousVersion;
+    }
+
+    public void setPreviousVersion(String previousVersion) {
+        this.previousVersion = previousVersion;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public void setVersion(String version) {
+        this.version = version;
+    }
+
+    public Long getRows() {
+        return rows;
+    }
+
+    public void setRows(Long rows) {
+        this.rows = rows;
+    }
+
+    public Long getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(Long rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public Long getDurationMs() {
+        return durationMs;
+    }
+
+    public void setDurationMs(Long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    public CacheWarmupResponse getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(CacheWarmupResponse warmup) {
+        this.warmup = warmup;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.analytics_dashboard.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.util.List;
@@ -8,12 +9,21 @@ public class ExecutionResponse {
     @JsonProperty("result")
     private List<List<Object>>  result;
 
+    // Only written by the binary columnar format; JSON stays rows only
+    @JsonIgnore
+    private List<ColumnDefinition> columns;
+
     public ExecutionResponse() {}
 
     public ExecutionResponse(List<List<Object>> result) {
         this.result = result;
     }
 
+    public ExecutionResponse(List<List<Object>> result, List<ColumnDefinition> columns) {
+        this.result = result;
+        this.columns = columns;
+    }
+
     public List<List<Object>> getResult() {
         return result;
     }
@@ -21,4 +31,12 @@ public class ExecutionResponse {
     public void setResult(List<List<Object>> result) {
         this.result = result;
     }
+
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<ColumnDefinition> columns) {
+        this.columns = columns;
+    }
 }
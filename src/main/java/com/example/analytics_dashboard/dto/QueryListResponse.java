@@ -1,7 +1,10 @@
 package com.example.analytics_dashboard.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 public class QueryListResponse {
     @JsonProperty("id")
     private Long id;
@@ -9,6 +12,18 @@ public class QueryListResponse {
     @JsonProperty("query")
     private String query;
 
+    @JsonProperty("parameters")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<QueryParameterDefinition> parameters;
+
+    @JsonProperty("columns")
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private List<ColumnDefinition> columns;
+
+    @JsonProperty("estimatedCost")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long estimatedCost;
+
     public QueryListResponse() {}
 
     public QueryListResponse(Long id, String query) {
@@ -16,6 +31,12 @@ public class QueryListResponse {
         this.query = query;
     }
 
+    public QueryListResponse(Long id, String query, List<QueryParameterDefinition> parameters) {
+        this.id = id;
+        this.query = query;
+        this.parameters = parameters;
+    }
+
     public Long getId() {
         return id;
     }
@@ -32,5 +53,27 @@ public class QueryListResponse {
         this.query = query;
     }
 
+    public List<QueryParameterDefinition> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(List<QueryParameterDefinition> parameters) {
+        this.parameters = parameters;
+    }
 
+    public List<ColumnDefinition> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<ColumnDefinition> columns) {
+        this.columns = columns;
+    }
+
+    public Long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(Long estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class QueryParameterDefinition {
+    @JsonProperty("name")
+    private String name;
+
+    // INTEGER, DECIMAL, STRING, BOOLEAN or DATE
+    @JsonProperty("type")
+    private String type;
+
+    public QueryParameterDefinition() {}
+
+    public QueryParameterDefinition(String name, String type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+}
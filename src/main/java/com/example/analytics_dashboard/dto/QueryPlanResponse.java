@@ -0,0 +1,46 @@
+package com.example.analytics_dashboard.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class QueryPlanResponse {
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("plan")
+    private String plan;
+
+    @JsonProperty("estimatedCost")
+    private Long estimatedCost;
+
+    public QueryPlanResponse() {}
+
+    public QueryPlanResponse(Long id, String plan, Long estimatedCost) {
+        this.id = id;
+        this.plan = plan;
+        this.estimatedCost = estimatedCost;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPlan() {
+        return plan;
+    }
+
+    public void setPlan(String plan) {
+        this.plan = plan;
+    }
+
+    public Long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(Long estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+}
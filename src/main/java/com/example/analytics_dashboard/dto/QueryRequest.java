@@ -2,10 +2,18 @@ package com.example.analytics_dashboard.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
+import java.util.List;
+
 public class QueryRequest {
     @JsonProperty("query")
     private String query;
 
+    @JsonProperty("timeoutSeconds")
+    private Integer timeoutSeconds;
+
+    @JsonProperty("parameters")
+    private List<QueryParameterDefinition> parameters;
+
     public QueryRequest() {}
 
     public QueryRequest(String query) {
@@ -18,4 +26,20 @@ public class QueryRequest {
     public void setQuery(String query) {
         this.query = query;
     }
+
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(Integer timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public List<QueryParameterDefinition> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(List<QueryParameterDefinition> parameters) {
+        this.parameters = parameters;
+    }
 }
@@ -0,0 +1,10 @@
+package com.example.analytics_dashboard.exception;
+
+/**
+ * Thrown when a dataset reload is requested while another one is still running.
+ */
+public class DatasetReloadInProgressException extends RuntimeException {
+    public DatasetReloadInProgressException(String message) {
+        super(message);
+    }
+}
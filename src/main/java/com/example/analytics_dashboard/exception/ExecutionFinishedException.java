@@ -0,0 +1,11 @@
+package com.example.analytics_dashboard.exception;
+
+/**
+ * Thrown when an operation needs a pending or running execution but the
+ * execution has already finished.
+ */
+public class ExecutionFinishedException extends RuntimeException {
+    public ExecutionFinishedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,382 @@
+package com.example.analytics_dashboard.loader;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk-loads a CSV file with a header row into a table on the primary data
+ * source, instead of H2's single-threaded {@code CSVREAD}.
+ * <p>
+ * The file is memory-mapped and split into chunks of about
+ * {@code analytics.loader.chunk-size} that end on record boundaries (the split
+ * only tracks quotes, so it runs at memory speed). Up to
+ * {@code analytics.loader.parallelism} chunks are parsed at once, each on its
+ * own connection, inserted in JDBC batches of {@code analytics.loader.batch-size}
+ * and committed when the chunk is done. Non-unique secondary indexes of the
+ * table are dropped for the load and created again afterwards.
+ * <p>
+ * Header names pick the table columns, ignoring case. Values are converted to
+ * the column types while parsing, and empty unquoted fields become NULL. A
+ * failed load keeps the chunks that were already committed, so load into an
+ * empty or staging table.
+ */
+@Component
+public class CsvBulkLoader {
+    private static final Logger log = LoggerFactory.getLogger(CsvBulkLoader.class);
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    // Bytes mapped at a time while looking for chunk boundaries
+    private static final int SCAN_WINDOW = 64 << 20;
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${analytics.loader.chunk-size:8MB}")
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    // 0 = one per available processor
+    @Value("${analytics.loader.parallelism:0}")
+    private int parallelism = 0;
+
+    @Value("${analytics.loader.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public CsvBulkLoader(@Qualifier("primaryJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public record LoadReport(String table, long rows, int chunks, int parallelism, long durationNanos) {
+        public long durationMs() {
+            return durationNanos / 1_000_000;
+        }
+
+        public long rowsPerSecond() {
+            return durationNanos == 0 ? rows : rows * 1_000_000_000L / durationNanos;
+        }
+    }
+
+    /**
+     * Appends the records of a CSV file to a table.
+     * @param table an unquoted table name
+     * @throws IllegalArgumentException if the header names a column the table
+     *         does not have, or a record is malformed or has a value of the wrong type
+     * @throws UncheckedIOException if the file cannot be read
+     */
+    public LoadReport load(Resource csv, String table) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        long chunkBytes = Math.max(1, Math.min(chunkSize.toBytes(), MAX_CHUNK_BYTES));
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        try (Source source = Source.open(csv)) {
+            List<Chunk> chunks = split(source, chunkBytes);
+            if (chunks.isEmpty()) {
+                throw new IllegalArgumentException(csv.getDescription() + " is empty");
+            }
+
+            // The header is the first record of the first chunk
+            Chunk first = chunks.getFirst();
+            CsvRecordReader headerReader = new CsvRecordReader(source.slice(first.start(), first.length()), first.start());
+            List<String> header = headerReader.next();
+            chunks.set(0, new Chunk(first.start() + headerReader.position(), first.length() - headerReader.position()));
+
+            Insert insert = prepareInsert(table, header, csv);
+            List<String> deferredIndexes = dropSecondaryIndexes(table);
+            long rows;
+            try {
+                rows = insertChunks(source, chunks, insert, threads);
+            } finally {
+                deferredIndexes.forEach(jdbcTemplate::execute);
+            }
+
+            LoadReport report = new LoadReport(table, rows, chunks.size(), threads, System.nanoTime() - start);
+            log.info("Loaded {} rows into {} from {} in {} ms ({} rows/s, {} chunks, {} threads)",
+                    rows, table, csv.getDescription(), report.durationMs(), report.rowsPerSecond(),
+                    chunks.size(), threads);
+            return report;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + csv.getDescription(), e);
+        }
+    }
+
+    private long insertChunks(Source source, List<Chunk> chunks, Insert insert, int threads) {
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("csv-load-", threads, chunks.size());
+        AtomicBoolean failed = new AtomicBoolean();
+        List<CompletableFuture<Long>> tasks = new ArrayList<>(chunks.size());
+        for (Chunk chunk : chunks) {
+            tasks.add(CompletableFuture.supplyAsync(() -> {
+                // Chunks not started yet are skipped once one has failed
+                if (failed.get()) {
+                    return 0L;
+                }
+                try {
+                    return insertChunk(source, chunk, insert);
+                } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                }
+            }, executor));
+        }
+
+        // Wait for every chunk, so nothing is still inserting when the caller cleans up after a failure
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
+        try {
+            long rows = 0;
+            for (CompletableFuture<Long> task : tasks) {
+                rows += task.join();
+            }
+            return rows;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private long insertChunk(Source source, Chunk chunk, Insert insert) {
+        CsvRecordReader reader = new CsvRecordReader(source.slice(chunk.start(), chunk.length()), chunk.start());
+        int columnCount = insert.sqlTypes().length;
+        String[] fields = new String[columnCount];
+
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(insert.sql())) {
+                long rows = 0;
+                int batched = 0;
+                while (reader.next(fields)) {
+                    for (int i = 0; i < columnCount; i++) {
+                        if (fields[i] == null) {
+                            ps.setNull(i + 1, insert.sqlTypes()[i]);
+                        } else {
+                            ps.setObject(i + 1, convert(insert, i, fields[i], chunk));
+                        }
+                    }
+                    ps.addBatch();
+                    rows++;
+                    if (++batched == batchSize) {
+                        ps.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    ps.executeBatch();
+                }
+                con.commit();
+                return rows;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private static Object convert(Insert insert, int column, String value, Chunk chunk) {
+        try {
+            return insert.converters().get(column).apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value '" + value + "' for column " + insert.columns().get(column)
+                    + " in the chunk starting at byte " + chunk.start());
+        }
+    }
+
+    private Insert prepareInsert(String table, List<String> header, Resource csv) {
+        if (header == null) {
+            throw new IllegalArgumentException(csv.getDescription() + " has no header row");
+        }
+        Map<String, Integer> tableColumns = jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            Map<String, Integer> columns = new LinkedHashMap<>();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.put(metaData.getColumnName(i).toUpperCase(Locale.ROOT), metaData.getColumnType(i));
+            }
+            return columns;
+        });
+
+        List<String> columns = new ArrayList<>(header.size());
+        int[] sqlTypes = new int[header.size()];
+        List<Function<String, Object>> converters = new ArrayList<>(header.size());
+        StringJoiner names = new StringJoiner(", ", "INSERT INTO " + table + " (", ")");
+        StringJoiner values = new StringJoiner(", ", " VALUES (", ")");
+        for (String name : header) {
+            String column = name == null ? "" : name.strip().toUpperCase(Locale.ROOT);
+            Integer sqlType = tableColumns.get(column);
+            if (sqlType == null || columns.contains(column)) {
+                throw new IllegalArgumentException("Column '" + name + "' of " + csv.getDescription()
+                        + (sqlType == null ? " is not a column of " + table : " appears twice"));
+            }
+            sqlTypes[columns.size()] = sqlType;
+            columns.add(column);
+            converters.add(converter(sqlType));
+            names.add(column);
+            values.add("?");
+        }
+        return new Insert(names + values.toString(), List.copyOf(columns), sqlTypes, List.copyOf(converters));
+    }
+
+    private static Function<String, Object> converter(int sqlType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> Integer::valueOf;
+            case Types.BIGINT -> Long::valueOf;
+            case Types.DECIMAL, Types.NUMERIC -> BigDecimal::new;
+            case Types.REAL, Types.FLOAT, Types.DOUBLE -> Double::valueOf;
+            case Types.BOOLEAN, Types.BIT -> Boolean::valueOf;
+            // H2 converts strings to the column type itself
+            default -> value -> value;
+        };
+    }
+
+    /**
+     * Drops the table's non-unique indexes that were created explicitly.
+     * Unique and primary key indexes stay, as they enforce constraints.
+     * @return the statements that create them again
+     */
+    private List<String> dropSecondaryIndexes(String table) {
+        Map<String, StringJoiner> indexes = new LinkedHashMap<>();
+        jdbcTemplate.query("""
+                SELECT i.INDEX_NAME, c.COLUMN_NAME, c.ORDERING_SPECIFICATION
+                FROM INFORMATION_SCHEMA.INDEXES i
+                JOIN INFORMATION_SCHEMA.INDEX_COLUMNS c
+                  ON c.INDEX_SCHEMA = i.INDEX_SCHEMA AND c.INDEX_NAME = i.INDEX_NAME
+                WHERE i.TABLE_SCHEMA = SCHEMA() AND i.TABLE_NAME = ?
+                  AND i.INDEX_TYPE_NAME = 'INDEX' AND NOT i.IS_GENERATED
+                ORDER BY i.INDEX_NAME, c.ORDINAL_POSITION""", rs -> {
+            indexes.computeIfAbsent(rs.getString(1), name -> new StringJoiner(", "))
+                    .add(quote(rs.getString(2)) + " " + rs.getString(3));
+        }, table.toUpperCase(Locale.ROOT));
+        if (indexes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> recreate = new ArrayList<>(indexes.size());
+        indexes.forEach((name, columns) -> {
+            jdbcTemplate.execute("DROP INDEX " + quote(name));
+            recreate.add("CREATE INDEX " + quote(name) + " ON " + table + " (" + columns + ")");
+        });
+        log.debug("Deferred indexes {} of {} until the load is done", indexes.keySet(), table);
+        return recreate;
+    }
+
+    private static String quote(String identifier) {
+        return '"' + identifier.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Splits the file at the first line break outside quotes after every
+     * {@code chunkBytes}.
+     */
+    private static List<Chunk> split(Source source, long chunkBytes) {
+        List<Chunk> chunks = new ArrayList<>();
+        long size = source.size();
+        long chunkStart = 0;
+        long target = chunkBytes;
+        boolean quoted = false;
+        for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW) {
+            int windowLength = (int) Math.min(SCAN_WINDOW, size - windowStart);
+            ByteBuffer window = source.slice(windowStart, windowLength);
+            for (int i = 0; i < windowLength; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted && windowStart + i + 1 >= target) {
+                    long end = windowStart + i + 1;
+                    chunks.add(new Chunk(chunkStart, (int) (end - chunkStart)));
+                    chunkStart = end;
+                    target = end + chunkBytes;
+                }
+            }
+        }
+        if (chunkStart < size) {
+            chunks.add(new Chunk(chunkStart, (int) (size - chunkStart)));
+        }
+        return chunks;
+    }
+
+    private record Chunk(long start, int length) {}
+
+    private record Insert(String sql, List<String> columns, int[] sqlTypes,
+                          List<Function<String, Object>> converters) {}
+
+    /**
+     * The CSV bytes: a mapped file, or the content of a resource that is not
+     * a file (such as one inside the application jar).
+     */
+    private static final class Source implements Closeable {
+        private final FileChannel channel;
+        private final byte[] content;
+        private final long size;
+
+        private Source(FileChannel channel, byte[] content, long size) {
+            this.channel = channel;
+            this.content = content;
+            this.size = size;
+        }
+
+        static Source open(Resource resource) throws IOException {
+            if (resource.isFile()) {
+                FileChannel channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+                return new Source(channel, null, channel.size());
+            }
+            byte[] content = resource.getContentAsByteArray();
+            return new Source(null, content, content.length);
+        }
+
+        long size() {
+            return size;
+        }
+
+        ByteBuffer slice(long start, int length) {
+            if (channel == null) {
+                return ByteBuffer.wrap(content, (int) start, length).slice();
+            }
+            try {
+                return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+            }
+        }
+    }
+}
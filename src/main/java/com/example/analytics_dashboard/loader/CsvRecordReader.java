@@ -0,0 +1,160 @@
+package com.example.analytics_dashboard.loader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads comma-separated records from a buffer that starts and ends on record
+ * boundaries. Fields may be quoted, with {@code ""} for a quote and with
+ * commas and line breaks inside the quotes. Empty unquoted fields are read as
+ * {@code null}, like H2's CSVREAD does. Lines end with LF or CRLF; blank
+ * lines are skipped.
+ */
+final class CsvRecordReader {
+    private final ByteBuffer buffer;
+    private final long offset;
+    private final int limit;
+    private int position;
+    private byte[] scratch = new byte[256];
+
+    /**
+     * @param offset where the buffer starts in the file, for error messages
+     */
+    CsvRecordReader(ByteBuffer buffer, long offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.limit = buffer.limit();
+    }
+
+    /**
+     * Reads the next record into {@code fields}.
+     * @return {@code false} at the end of the buffer
+     * @throws IllegalArgumentException if the record does not have exactly
+     *         {@code fields.length} fields or is malformed
+     */
+    boolean next(String[] fields) {
+        if (!skipBlankLines()) {
+            return false;
+        }
+        long recordStart = offset + position;
+        int count = 0;
+        do {
+            String value = readField(recordStart);
+            if (count < fields.length) {
+                fields[count] = value;
+            }
+            count++;
+        } while (endOfField());
+        if (count != fields.length) {
+            throw new IllegalArgumentException("Record at byte " + recordStart + " has " + count
+                    + " fields, expected " + fields.length);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next record, however many fields it has.
+     * @return the fields, or {@code null} at the end of the buffer
+     */
+    List<String> next() {
+        if (!skipBlankLines()) {
+            return null;
+        }
+        long recordStart = offset + position;
+        List<String> fields = new ArrayList<>();
+        do {
+            fields.add(readField(recordStart));
+        } while (endOfField());
+        return fields;
+    }
+
+    /**
+     * @return the position in the buffer after the last record read
+     */
+    int position() {
+        return position;
+    }
+
+    private boolean skipBlankLines() {
+        while (position < limit && (buffer.get(position) == '\n' || buffer.get(position) == '\r')) {
+            position++;
+        }
+        return position < limit;
+    }
+
+    /**
+     * Consumes the separator after a field.
+     * @return {@code true} if another field of the same record follows
+     */
+    private boolean endOfField() {
+        if (position < limit && buffer.get(position) == ',') {
+            position++;
+            return true;
+        }
+        if (position < limit && buffer.get(position) == '\r') {
+            position++;
+        }
+        if (position < limit && buffer.get(position) == '\n') {
+            position++;
+        }
+        return false;
+    }
+
+    private String readField(long recordStart) {
+        if (position < limit && buffer.get(position) == '"') {
+            return readQuotedField(recordStart);
+        }
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == ',' || b == '\n' || b == '\r') {
+                break;
+            }
+            position++;
+        }
+        int length = position - start;
+        if (length == 0) {
+            return null;
+        }
+        ensureScratch(length);
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private String readQuotedField(long recordStart) {
+        position++;
+        int length = 0;
+        while (true) {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Record at byte " + recordStart + " has an unterminated quoted field");
+            }
+            byte b = buffer.get(position++);
+            if (b == '"') {
+                if (position < limit && buffer.get(position) == '"') {
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            ensureScratch(length + 1);
+            scratch[length++] = b;
+        }
+        if (position < limit) {
+            byte next = buffer.get(position);
+            if (next != ',' && next != '\n' && next != '\r') {
+                throw new IllegalArgumentException("Record at byte " + recordStart
+                        + " has characters after the closing quote of a field");
+            }
+        }
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void ensureScratch(int length) {
+        if (length > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(length, scratch.length * 2));
+        }
+    }
+}
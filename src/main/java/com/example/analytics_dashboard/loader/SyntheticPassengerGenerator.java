@@ -0,0 +1,301 @@
+package com.example.analytics_dashboard.loader;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
+
+/**
+ * Generates passenger rows with the columns of {@code passengers} and
+ * distributions modelled on the Titanic data: the class, sex and port skew,
+ * ages and fares by class, survival by sex and class, and cabins mostly
+ * missing outside first class. Names contain commas and sometimes quotes,
+ * like the real ones.
+ * <p>
+ * Row {@code n} depends only on the seed and {@code n}, so the same seed always
+ * gives the same dataset, and ranges of rows can be generated in parallel.
+ * Rows are streamed to a CSV file or into a table, so memory use does not
+ * depend on the number of rows.
+ */
+public final class SyntheticPassengerGenerator {
+    private static final Logger log = LoggerFactory.getLogger(SyntheticPassengerGenerator.class);
+
+    public static final List<String> COLUMNS = List.of("PassengerId", "Survived", "Pclass", "Name", "Sex", "Age",
+            "SibSp", "Parch", "Ticket", "Fare", "Cabin", "Embarked");
+
+    // Changes whenever the rows generated for a seed change, so datasets of
+    // different revisions get different versions
+    public static final int REVISION = 2;
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    // SplittableRandom steps its state by this same constant, so seeds of
+    // neighbouring rows must be mixed or their streams are shifted copies
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    // Per class (1st, 2nd, 3rd) unless noted
+    private static final double[] CLASS_WEIGHTS = {0.24, 0.21, 0.55};
+    private static final double[] FEMALE_SHARE = {0.44, 0.41, 0.29};
+    private static final double[] FEMALE_SURVIVAL = {0.97, 0.92, 0.50};
+    // Men; boys under 15 survive at CHILD_SURVIVAL
+    private static final double[] MALE_SURVIVAL = {0.33, 0.09, 0.12};
+    private static final double CHILD_SURVIVAL = 0.5;
+    private static final double[] AGE_MEAN = {38, 30, 25};
+    private static final double[] AGE_DEVIATION = {14, 14, 12};
+    private static final double AGE_MISSING = 0.20;
+    private static final double[] FARE_MEDIAN = {60.29, 14.25, 8.05};
+    private static final double[] FARE_SIGMA = {0.7, 0.45, 0.45};
+    private static final double[] FARE_MAX = {512.3292, 73.5, 69.55};
+    private static final double FREE_FARE = 0.015;
+    private static final double[] CABIN_SHARE = {0.81, 0.09, 0.02};
+    private static final String[][] DECKS = {{"A", "B", "B", "C", "C", "D", "E"}, {"D", "E", "F"}, {"E", "F", "G"}};
+    private static final String[] PORTS = {"S", "C", "Q", null};
+    private static final double[][] PORT_WEIGHTS = {{0.59, 0.39, 0.01, 0.01}, {0.89, 0.09, 0.02, 0}, {0.72, 0.13, 0.15, 0}};
+    private static final int[] SIBSP = {0, 1, 2, 3, 4, 5, 8};
+    private static final double[] SIBSP_WEIGHTS = {0.68, 0.235, 0.031, 0.018, 0.02, 0.006, 0.01};
+    private static final int[] PARCH = {0, 1, 2, 3, 4, 5, 6};
+    private static final double[] PARCH_WEIGHTS = {0.76, 0.13, 0.09, 0.006, 0.004, 0.006, 0.004};
+
+    private static final String[] SURNAMES = {"Andersson", "Sage", "Johnson", "Goodwin", "Carter", "Skoog", "Brown",
+            "Panula", "Rice", "Asplund", "Smith", "Williams", "Kelly", "Allison", "Baclini", "Fortune", "Harper",
+            "Graham", "Hickman", "Moran", "O'Brien", "Lefebre", "Palsson", "Ryerson", "Thayer", "Vander Planke"};
+    private static final String[] MALE_NAMES = {"John", "William", "Charles", "George", "James", "Thomas", "Henry",
+            "Edward", "Arthur", "Frederick", "Karl", "Johan", "Patrick", "Owen", "Ernst", "Leo"};
+    private static final String[] FEMALE_NAMES = {"Mary", "Anna", "Elizabeth", "Margaret", "Ellen", "Alice", "Helen",
+            "Bertha", "Emily", "Maria", "Kate", "Laina", "Florence", "Edith", "Ida", "Hilda"};
+    private static final String[] TICKET_PREFIXES = {"PC ", "A/5 ", "C.A. ", "STON/O2. ", "SOTON/O.Q. ", "W./C. ",
+            "F.C.C. ", "S.O.C. "};
+
+    private final long seed;
+
+    public SyntheticPassengerGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * The values of one passenger in {@link #COLUMNS} order, as they would be
+     * read from {@code passengers}: integers, strings and decimals, with
+     * {@code null} for missing ages, cabins and ports.
+     */
+    public Object[] row(int passengerId) {
+        SplittableRandom random = new SplittableRandom(mix64(seed + passengerId * GOLDEN_GAMMA));
+        int pclass = pick(random, CLASS_WEIGHTS) + 1;
+        int c = pclass - 1;
+        boolean female = random.nextDouble() < FEMALE_SHARE[c];
+        BigDecimal age = random.nextDouble() < AGE_MISSING ? null : age(random, c);
+        boolean child = age != null && age.intValue() < 15;
+        int sibSp = SIBSP[pick(random, SIBSP_WEIGHTS)];
+        int parch = PARCH[pick(random, PARCH_WEIGHTS)];
+        double survival = female ? FEMALE_SURVIVAL[c] : child ? CHILD_SURVIVAL : MALE_SURVIVAL[c];
+
+        return new Object[]{
+                passengerId,
+                random.nextDouble() < survival ? 1 : 0,
+                pclass,
+                name(random, female, child),
+                female ? "female" : "male",
+                age,
+                sibSp,
+                parch,
+                ticket(random, c),
+                fare(random, c),
+                random.nextDouble() < CABIN_SHARE[c] ? cabin(random, c) : null,
+                PORTS[pick(random, PORT_WEIGHTS[c])]
+        };
+    }
+
+    /**
+     * Writes a header row and passengers {@code 1..rows} in the format of
+     * {@code titanic.csv}.
+     */
+    public void writeCsv(Path file, int rows) throws IOException {
+        long start = System.nanoTime();
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writeCsv(out, rows);
+        }
+        log.info("Wrote {} synthetic passengers to {} in {} ms", rows, file, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void writeCsv(Writer out, int rows) throws IOException {
+        out.write(String.join(",", COLUMNS));
+        out.write('\n');
+        StringBuilder line = new StringBuilder(128);
+        for (int id = 1; id <= rows; id++) {
+            Object[] row = row(id);
+            line.setLength(0);
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                appendCsv(line, row[i], i == 3);
+            }
+            out.append(line).append('\n');
+        }
+    }
+
+    /**
+     * Inserts passengers {@code 1..rows} into a table with the columns of
+     * {@code passengers}, in ranges on up to {@code parallelism} connections
+     * (0 for one per processor), committing every {@code batchSize} rows.
+     * @return the number of rows inserted
+     */
+    public long insert(JdbcTemplate jdbcTemplate, String table, int rows, int batchSize, int parallelism) {
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid table name: " + table);
+        }
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", COLUMNS) + ") VALUES ("
+                + String.join(", ", COLUMNS.stream().map(column -> "?").toList()) + ")";
+        int threads = Math.max(1, Math.min(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                rows / Math.max(1, batchSize) + 1));
+        int rangeSize = (rows + threads - 1) / threads;
+
+        long start = System.nanoTime();
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("synthetic-", threads, threads);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(threads);
+        for (int first = 1; first <= rows; first += rangeSize) {
+            int from = first;
+            int to = (int) Math.min((long) first + rangeSize - 1, rows);
+            tasks.add(CompletableFuture.runAsync(() -> insertRange(jdbcTemplate, sql, from, to, batchSize), executor));
+        }
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+
+        long nanos = System.nanoTime() - start;
+        log.info("Inserted {} synthetic passengers into {} in {} ms ({} rows/s, {} threads)",
+                rows, table, nanos / 1_000_000, nanos == 0 ? rows : rows * 1_000_000_000L / nanos, threads);
+        return rows;
+    }
+
+    private void insertRange(JdbcTemplate jdbcTemplate, String sql, int from, int to, int batchSize) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            boolean autoCommit = con.getAutoCommit();
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement(sql)) {
+                int batched = 0;
+                for (int id = from; id <= to; id++) {
+                    Object[] row = row(id);
+                    for (int i = 0; i < row.length; i++) {
+                        ps.setObject(i + 1, row[i]);
+                    }
+                    ps.addBatch();
+                    // Committing each batch keeps H2's undo log, and so memory, small
+                    if (++batched == batchSize || id == to) {
+                        ps.executeBatch();
+                        con.commit();
+                        batched = 0;
+                    }
+                }
+                return null;
+            } catch (SQLException | RuntimeException e) {
+                con.rollback();
+                throw e;
+            } finally {
+                con.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private static BigDecimal age(SplittableRandom random, int c) {
+        double age = Math.clamp(AGE_MEAN[c] + random.nextGaussian() * AGE_DEVIATION[c], 0.42, 80);
+        if (age < 1) {
+            return BigDecimal.valueOf(age).setScale(2, RoundingMode.HALF_UP);
+        }
+        // Estimated ages are given as xx.5
+        return random.nextDouble() < 0.03
+                ? BigDecimal.valueOf((int) age).add(new BigDecimal("0.5"))
+                : BigDecimal.valueOf(Math.round(age));
+    }
+
+    private static BigDecimal fare(SplittableRandom random, int c) {
+        if (random.nextDouble() < FREE_FARE) {
+            return BigDecimal.ZERO;
+        }
+        double fare = Math.min(FARE_MEDIAN[c] * Math.exp(random.nextGaussian() * FARE_SIGMA[c]), FARE_MAX[c]);
+        return BigDecimal.valueOf(fare).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    private static String name(SplittableRandom random, boolean female, boolean child) {
+        String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+        String[] givenNames = female ? FEMALE_NAMES : MALE_NAMES;
+        String given = givenNames[random.nextInt(givenNames.length)];
+        if (female && !child && random.nextDouble() < 0.6) {
+            String husband = MALE_NAMES[random.nextInt(MALE_NAMES.length)];
+            return surname + ", Mrs. " + husband + " (" + given + " " + SURNAMES[random.nextInt(SURNAMES.length)] + ")";
+        }
+        String title = female ? "Miss" : child ? "Master" : "Mr";
+        String middle = random.nextDouble() < 0.3 ? " " + MALE_NAMES[random.nextInt(MALE_NAMES.length)] : "";
+        String nickname = random.nextDouble() < 0.03
+                ? " (\"" + givenNames[random.nextInt(givenNames.length)] + "\")"
+                : "";
+        return surname + ", " + title + ". " + given + middle + nickname;
+    }
+
+    private static String ticket(SplittableRandom random, int c) {
+        String number = Integer.toString(random.nextInt(1000, c == 2 ? 3_500_000 : 400_000));
+        if (random.nextDouble() < (c == 0 ? 0.45 : 0.25)) {
+            return (c == 0 ? "PC " : TICKET_PREFIXES[random.nextInt(TICKET_PREFIXES.length)]) + number;
+        }
+        return number;
+    }
+
+    private static String cabin(SplittableRandom random, int c) {
+        String deck = DECKS[c][random.nextInt(DECKS[c].length)];
+        int number = random.nextInt(1, 149);
+        // Families in first class often booked adjoining cabins
+        if (c == 0 && random.nextDouble() < 0.05) {
+            return deck + number + " " + deck + (number + 2);
+        }
+        return deck + number;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int pick(SplittableRandom random, double[] weights) {
+        double r = random.nextDouble();
+        for (int i = 0; i < weights.length - 1; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    private static void appendCsv(StringBuilder line, Object value, boolean alwaysQuote) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (alwaysQuote || text.indexOf(',') >= 0 || text.indexOf('"') >= 0) {
+            line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            line.append(text);
+        }
+    }
+}
@@ -5,10 +5,15 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "query_executions")
+@Table(name = "query_executions", indexes = {
+        // Per-query history, newest first (also used to keep the last N per query)
+        @Index(name = "idx_query_executions_query_status_completed", columnList = "query_id, status, completed_at"),
+        // Retention purge by status and age
+        @Index(name = "idx_query_executions_status_completed", columnList = "status, completed_at")
+})
 public class QueryExecution {
     public enum ExecutionStatus {
-        PENDING, RUNNING, COMPLETED, FAILED
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
     }
 
     @Id
@@ -22,8 +27,18 @@ public class QueryExecution {
     @Enumerated(EnumType.STRING)
     private ExecutionStatus status;
 
-    @Column(name = "result", columnDefinition = "TEXT")
-    private String result;
+    // Manifest of the result stored in query_result_chunks
+    @Column(name = "row_count")
+    private Long rowCount;
+
+    @Column(name = "chunk_count")
+    private Integer chunkCount;
+
+    @Column(name = "chunk_rows")
+    private Integer chunkRows;
+
+    @Column(name = "result_bytes")
+    private Long resultBytes;
 
     @Column(name = "error_message", columnDefinition = "TEXT")
     private String errorMessage;
@@ -31,6 +46,10 @@ public class QueryExecution {
     @Column(name = "started_at")
     private LocalDateTime startedAt;
 
+    // When a worker picked the execution up (PENDING -> RUNNING)
+    @Column(name = "running_at")
+    private LocalDateTime runningAt;
+
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
 
@@ -67,12 +86,36 @@ public class QueryExecution {
         this.status = status;
     }
 
-    public String getResult() {
-        return result;
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public Integer getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(Integer chunkCount) {
+        this.chunkCount = chunkCount;
     }
 
-    public void setResult(String result) {
-        this.result = result;
+    public Integer getChunkRows() {
+        return chunkRows;
+    }
+
+    public void setChunkRows(Integer chunkRows) {
+        this.chunkRows = chunkRows;
+    }
+
+    public Long getResultBytes() {
+        return resultBytes;
+    }
+
+    public void setResultBytes(Long resultBytes) {
+        this.resultBytes = resultBytes;
     }
 
     public String getErrorMessage() {
@@ -91,6 +134,14 @@ public class QueryExecution {
         this.startedAt = startedAt;
     }
 
+    public LocalDateTime getRunningAt() {
+        return runningAt;
+    }
+
+    public void setRunningAt(LocalDateTime runningAt) {
+        this.runningAt = runningAt;
+    }
+
     public LocalDateTime getCompletedAt() {
         return completedAt;
     }
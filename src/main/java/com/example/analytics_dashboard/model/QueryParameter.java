@@ -0,0 +1,44 @@
+package com.example.analytics_dashboard.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A named bind parameter declared by a stored query and referenced in its SQL
+ * as {@code :name}.
+ */
+@Embeddable
+public class QueryParameter {
+    public enum Type {
+        INTEGER, DECIMAL, STRING, BOOLEAN, DATE
+    }
+
+    @Column(name = "param_name", nullable = false, length = 64)
+    private String name;
+
+    @Column(name = "param_type", nullable = false, length = 16)
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    public QueryParameter() {}
+
+    public QueryParameter(String name, Type type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.analytics_dashboard.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Label and SQL type of one column in a stored query's result, as reported by
+ * H2 when the query was prepared.
+ */
+@Embeddable
+public class ResultColumn {
+    @Column(name = "column_name", nullable = false)
+    private String name;
+
+    @Column(name = "column_type", nullable = false, length = 64)
+    private String type;
+
+    public ResultColumn() {}
+
+    public ResultColumn(String name, String type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+}
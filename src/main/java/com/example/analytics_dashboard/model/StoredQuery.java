@@ -1,7 +1,11 @@
 package com.example.analytics_dashboard.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "stored_" +
@@ -14,6 +18,39 @@ public class StoredQuery {
     @Column(name = "query_text", nullable = false, columnDefinition = "TEXT")
     private String queryText;
 
+    @Column(name = "fingerprint", length = 64)
+    private String fingerprint;
+
+    // Whether the SQL is a single read-only statement, decided when the query is saved
+    @Column(name = "read_only")
+    private Boolean readOnly;
+
+    // Null means analytics.query.default-timeout
+    @Column(name = "timeout_seconds")
+    private Integer timeoutSeconds;
+
+    // Bind parameters referenced in the SQL as :name. SUBSELECT loads them for
+    // every query of a findAll/findAllById in one statement instead of one per query
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "stored_query_parameters", joinColumns = @JoinColumn(name = "query_id"))
+    @OrderColumn(name = "param_index")
+    private List<QueryParameter> parameters = new ArrayList<>();
+
+    // Filled in when a read-only query is prepared on save; empty for older rows
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Fetch(FetchMode.SUBSELECT)
+    @CollectionTable(name = "stored_query_columns", joinColumns = @JoinColumn(name = "query_id"))
+    @OrderColumn(name = "column_index")
+    private List<ResultColumn> resultColumns = new ArrayList<>();
+
+    @Column(name = "query_plan", columnDefinition = "TEXT")
+    private String queryPlan;
+
+    // Estimated rows read, from the plan and the tables' row count estimates
+    @Column(name = "estimated_cost")
+    private Long estimatedCost;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
@@ -46,6 +83,62 @@ public class StoredQuery {
         this.queryText = queryText;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public Boolean getReadOnly() {
+        return readOnly;
+    }
+
+    public void setReadOnly(Boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    public Integer getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    public void setTimeoutSeconds(Integer timeoutSeconds) {
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    public List<QueryParameter> getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(List<QueryParameter> parameters) {
+        this.parameters = parameters;
+    }
+
+    public List<ResultColumn> getResultColumns() {
+        return resultColumns;
+    }
+
+    public void setResultColumns(List<ResultColumn> resultColumns) {
+        this.resultColumns = resultColumns;
+    }
+
+    public String getQueryPlan() {
+        return queryPlan;
+    }
+
+    public void setQueryPlan(String queryPlan) {
+        this.queryPlan = queryPlan;
+    }
+
+    public Long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    public void setEstimatedCost(Long estimatedCost) {
+        this.estimatedCost = estimatedCost;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -1,10 +1,37 @@
 package com.example.analytics_dashboard.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 import com.example.analytics_dashboard.model.QueryExecution;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface QueryExecutionRepository extends JpaRepository<QueryExecution, UUID> {
+
+    /**
+     * Executions with the given status that finished before {@code cutoff}, oldest first.
+     */
+    @Query("SELECT e.id FROM QueryExecution e WHERE e.status = :status AND e.completedAt < :cutoff ORDER BY e.completedAt")
+    List<UUID> findIdsCompletedBefore(@Param("status") QueryExecution.ExecutionStatus status,
+                                      @Param("cutoff") LocalDateTime cutoff,
+                                      Limit limit);
+
+    /**
+     * Finished executions beyond the newest {@code keep} of their stored query.
+     */
+    @Query("""
+            SELECT ranked.id FROM (
+                SELECT e.id AS id,
+                       ROW_NUMBER() OVER (PARTITION BY e.queryId ORDER BY e.completedAt DESC, e.id) AS position
+                FROM QueryExecution e
+                WHERE e.status IN (COMPLETED, FAILED, CANCELLED)
+            ) ranked
+            WHERE ranked.position > :keep
+            """)
+    List<UUID> findIdsBeyondNewest(@Param("keep") long keep, Limit limit);
 }
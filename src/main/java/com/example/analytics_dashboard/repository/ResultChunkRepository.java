@@ -0,0 +1,46 @@
+package com.example.analytics_dashboard.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compressed result chunks of async executions, stored next to the
+ * {@code query_executions} row that holds their manifest.
+ */
+@Repository
+public class ResultChunkRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResultChunkRepository(@Qualifier("primaryJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void save(UUID executionId, int chunkIndex, long firstRow, int rowCount, byte[] data) {
+        jdbcTemplate.update(
+                "INSERT INTO query_result_chunks (execution_id, chunk_index, first_row, row_count, data) VALUES (?, ?, ?, ?, ?)",
+                executionId, chunkIndex, firstRow, rowCount, data);
+    }
+
+    /**
+     * @return payloads of chunks {@code fromChunk..toChunk} (inclusive) in row order
+     */
+    public List<byte[]> findData(UUID executionId, int fromChunk, int toChunk) {
+        return jdbcTemplate.query(
+                "SELECT data FROM query_result_chunks WHERE execution_id = ? AND chunk_index BETWEEN ? AND ? ORDER BY chunk_index",
+                (rs, rowNum) -> rs.getBytes(1),
+                executionId, fromChunk, toChunk);
+    }
+
+    public void deleteByExecutionId(UUID executionId) {
+        jdbcTemplate.update("DELETE FROM query_result_chunks WHERE execution_id = ?", executionId);
+    }
+
+    public void deleteByExecutionIds(List<UUID> executionIds) {
+        jdbcTemplate.batchUpdate("DELETE FROM query_result_chunks WHERE execution_id = ?",
+                executionIds.stream().map(id -> new Object[]{id}).toList());
+    }
+}
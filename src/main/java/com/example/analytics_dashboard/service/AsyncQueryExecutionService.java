@@ -1,25 +1,45 @@
 package com.example.analytics_dashboard.service;
 
+import com.example.analytics_dashboard.exception.ExecutionFinishedException;
 import com.example.analytics_dashboard.model.QueryExecution;
-import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.repository.QueryExecutionRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AsyncQueryExecutionService {
     private final QueryExecutionRepository executionRepository;
     private final QueryExecutionService queryExecutionService;
+    private final ResultChunkRepository resultChunkRepository;
+    private final QueryCacheService queryCacheService;
     private final ObjectMapper objectMapper;
+    private final ExecutionProgressRegistry progressRegistry;
+    private final ExecutionMetrics executionMetrics;
+
+    // Resumes long-poll waiters off the thread that finished the execution
+    private static final Executor WAITER_EXECUTOR = task -> Thread.ofVirtual().name("execution-waiter").start(task);
+
+    @Value("${analytics.async.result-chunk-rows:1000}")
+    private int resultChunkRows = 1000;
 
     @Autowired
     @Lazy
@@ -28,48 +48,112 @@ public class AsyncQueryExecutionService {
     public AsyncQueryExecutionService(
             QueryExecutionRepository executionRepository,
             QueryExecutionService queryExecutionService,
-            ObjectMapper objectMapper){
+            ResultChunkRepository resultChunkRepository,
+            QueryCacheService queryCacheService,
+            ObjectMapper objectMapper,
+            ExecutionProgressRegistry progressRegistry,
+            ExecutionMetrics executionMetrics){
         this.executionRepository = executionRepository;
         this.queryExecutionService = queryExecutionService;
+        this.resultChunkRepository = resultChunkRepository;
+        this.queryCacheService = queryCacheService;
         this.objectMapper = objectMapper;
+        this.progressRegistry = progressRegistry;
+        this.executionMetrics = executionMetrics;
     }
 
-    public String startExecution(StoredQuery storedQuery) {
-        QueryExecution execution = new QueryExecution(storedQuery.getId());
+    public String startExecution(BoundQuery query) {
+        QueryExecution execution = new QueryExecution(query.getStoredQuery().getId());
         execution = executionRepository.save(execution);
 
         String executionIdStr = execution.getId().toString();
-
-        self.executeAsync(executionIdStr, storedQuery.getQueryText());
+        progressRegistry.register(execution.getId());
+
+        try {
+            self.executeAsync(executionIdStr, query);
+        } catch (TaskRejectedException e) {
+            // Never ran, so don't leave a PENDING execution behind
+            progressRegistry.remove(execution.getId());
+            executionRepository.delete(execution);
+            throw e;
+        }
 
         return executionIdStr;
     }
 
-    @Async
-    @Transactional
-    public void executeAsync(String executionIdStr, String queryText) {
+    /**
+     * Runs the query and stores its result as compressed chunks while rows are
+     * read, so memory use does not grow with the result. This relies on the
+     * async pool executing queries lazily; a query H2 must evaluate in full
+     * first (a sort without an index, a grouping) is still built in memory
+     * before its first chunk. Not transactional: the
+     * RUNNING status and each chunk are committed as soon as they are written.
+     */
+    @Async("queryExecutor")
+    public void executeAsync(String executionIdStr, BoundQuery query) {
         UUID executionId = UUID.fromString(executionIdStr);
         QueryExecution execution = executionRepository.findById(executionId)
                 .orElseThrow(() -> new IllegalArgumentException("Execution not found"));
+        ChunkedResultWriter writer = new ChunkedResultWriter(executionId, resultChunkRepository, objectMapper, resultChunkRows);
+        QueryCancellation cancellation = progressRegistry.find(executionId)
+                .map(ExecutionProgress::getCancellation)
+                .orElseGet(QueryCancellation::new);
 
         try{
-            execution.setStatus(QueryExecution.ExecutionStatus.RUNNING);
-            executionRepository.save(execution);
+            // Cancelled while still queued
+            cancellation.throwIfCancelled();
 
-            // Thread.sleep(5000) to see running status
+            execution.setStatus(QueryExecution.ExecutionStatus.RUNNING);
+            execution.setRunningAt(LocalDateTime.now());
+            execution = executionRepository.save(execution);
+            progressRegistry.running(executionId, writer::getRowCount);
 
-            List<List<Object>> result = queryExecutionService.executeQuery(queryText);
-            String resultJson = objectMapper.writeValueAsString(result);
+            Optional<QueryResult> cached = queryCacheService.getCachedResult(query.getCacheKey());
+            if (cached.isPresent()) {
+                writer.writeAll(cached.get().getRows());
+            } else {
+                queryExecutionService.streamQuery(query, QueryWorkload.BATCH, cancellation, writer);
+            }
 
             execution.setStatus(QueryExecution.ExecutionStatus.COMPLETED);
-            execution.setResult(resultJson);
+            execution.setRowCount(writer.getRowCount());
+            execution.setChunkCount(writer.getChunkCount());
+            execution.setChunkRows(writer.getChunkRows());
+            execution.setResultBytes(writer.getBytes());
 
         }catch(Exception e){
-            execution.setStatus(QueryExecution.ExecutionStatus.FAILED);
-            execution.setErrorMessage(e.getMessage());
+            resultChunkRepository.deleteByExecutionId(executionId);
+            if (cancellation.isCancelled()) {
+                execution.setStatus(QueryExecution.ExecutionStatus.CANCELLED);
+            } else {
+                execution.setStatus(QueryExecution.ExecutionStatus.FAILED);
+                execution.setErrorMessage(e.getMessage());
+            }
         }
         execution.setCompletedAt(LocalDateTime.now());
-        executionRepository.save(execution);
+        try {
+            executionRepository.save(execution);
+        } finally {
+            progressRegistry.finish(execution);
+        }
+        executionMetrics.recordAsync(execution);
+    }
+
+    /**
+     * Asks a pending or running execution to stop. A running query has its
+     * JDBC statement cancelled; a queued one ends as soon as it gets a slot.
+     * Either way it ends as CANCELLED, which is published like any other
+     * final state.
+     * @throws ExecutionFinishedException if the execution has already finished
+     */
+    public ExecutionProgress cancelExecution(String executionIdStr) {
+        Optional<ExecutionProgress> progress = getProgress(executionIdStr);
+        if (progress.isEmpty()) {
+            QueryExecution execution = getExecution(executionIdStr);
+            throw new ExecutionFinishedException("Execution is already " + execution.getStatus());
+        }
+        progress.get().getCancellation().cancel();
+        return progress.get();
     }
 
     @Transactional(readOnly = true)
@@ -78,9 +162,69 @@ public class AsyncQueryExecutionService {
                 .orElseThrow(() -> new IllegalArgumentException("Execution not found"));
     }
 
-    public List<List<Object>> parseResult(String resultJson) throws JsonProcessingException {
-        if (resultJson == null) return List.of();
-        return objectMapper.readValue(resultJson, List.class);
+    /**
+     * Live progress of an execution that is still pending or running on this
+     * instance; empty once it has finished (or if it is unknown here).
+     */
+    public Optional<ExecutionProgress> getProgress(String executionIdStr) {
+        return progressRegistry.find(UUID.fromString(executionIdStr));
+    }
+
+    /**
+     * Completes when the execution has finished or {@code maxWait} has passed,
+     * whichever is first. Unknown executions fail with IllegalArgumentException.
+     * The returned stage never completes on the query worker thread.
+     */
+    public CompletableFuture<Void> awaitCompletion(String executionIdStr, Duration maxWait) {
+        Optional<ExecutionProgress> progress = getProgress(executionIdStr);
+        if (progress.isEmpty()) {
+            getExecution(executionIdStr);
+            return CompletableFuture.completedFuture(null);
+        }
+        return progress.get().finished().copy()
+                .completeOnTimeout(progress.get(), maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                .thenAcceptAsync(ignored -> {}, WAITER_EXECUTOR);
+    }
+
+    /**
+     * Reads the whole stored result of a completed execution back into memory.
+     */
+    public List<List<Object>> getResultRows(QueryExecution execution) {
+        return getResultRows(execution, 0, null);
+    }
+
+    /**
+     * Reads rows {@code offset .. offset + limit - 1} of a completed execution.
+     * Only the chunks overlapping that range are loaded and decoded.
+     * @param limit maximum number of rows, or {@code null} for all rows from offset
+     */
+    public List<List<Object>> getResultRows(QueryExecution execution, long offset, Integer limit) {
+        if (offset < 0 || (limit != null && limit < 0)) {
+            throw new IllegalArgumentException("offset and limit must not be negative");
+        }
+        long totalRows = execution.getRowCount() != null ? execution.getRowCount() : 0;
+        long end = limit == null ? totalRows : Math.min(totalRows, offset + limit);
+        if (offset >= end) {
+            return new ArrayList<>();
+        }
+
+        int chunkRows = execution.getChunkRows();
+        int firstChunk = (int) (offset / chunkRows);
+        int lastChunk = (int) ((end - 1) / chunkRows);
+
+        List<List<Object>> rows = new ArrayList<>((int) (end - offset));
+        long chunkStart = (long) firstChunk * chunkRows;
+        try {
+            for (byte[] chunk : resultChunkRepository.findData(execution.getId(), firstChunk, lastChunk)) {
+                int skip = (int) Math.max(0, offset - chunkStart);
+                int take = (int) (Math.min(end, chunkStart + chunkRows) - chunkStart) - skip;
+                ChunkedResultWriter.readChunk(objectMapper, chunk, skip, take, rows);
+                chunkStart += chunkRows;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading stored result", e);
+        }
+        return rows;
     }
 
 }
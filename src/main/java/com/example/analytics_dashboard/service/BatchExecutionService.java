@@ -0,0 +1,127 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import com.example.analytics_dashboard.dto.BatchQueryRequest;
+import com.example.analytics_dashboard.dto.BatchQueryResult;
+import com.example.analytics_dashboard.model.StoredQuery;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Runs the stored queries of a dashboard page in one request. The stored
+ * queries are loaded together, cache hits are answered straight away and the
+ * misses run in parallel on {@code batchQueryExecutor}, so the response takes
+ * about as long as the slowest query. Each query gets its own status; one
+ * failing query does not fail the others.
+ */
+@Service
+public class BatchExecutionService {
+    private final QueryService queryService;
+    private final QueryExecutionService queryExecutionService;
+    private final QueryCacheService queryCacheService;
+    private final ExecutionMetrics executionMetrics;
+    private final BoundedVirtualThreadExecutor executor;
+
+    @Value("${analytics.batch.max-queries:50}")
+    private int maxQueries = 50;
+
+    public BatchExecutionService(QueryService queryService,
+                                 QueryExecutionService queryExecutionService,
+                                 QueryCacheService queryCacheService,
+                                 ExecutionMetrics executionMetrics,
+                                 @Qualifier("batchQueryExecutor") BoundedVirtualThreadExecutor executor) {
+        this.queryService = queryService;
+        this.queryExecutionService = queryExecutionService;
+        this.queryCacheService = queryCacheService;
+        this.executionMetrics = executionMetrics;
+        this.executor = executor;
+    }
+
+    /**
+     * @return one result per requested query, in request order
+     * @throws IllegalArgumentException if the batch is empty, too large or names no query id
+     */
+    public List<BatchQueryResult> execute(List<BatchQueryRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one query");
+        }
+        if (requests.size() > maxQueries) {
+            throw new IllegalArgumentException("Batch may contain at most " + maxQueries + " queries");
+        }
+        List<Long> ids = new ArrayList<>(requests.size());
+        for (BatchQueryRequest request : requests) {
+            if (request == null || request.getQuery() == null) {
+                throw new IllegalArgumentException("Every batch entry needs a query id");
+            }
+            ids.add(request.getQuery());
+        }
+
+        Map<Long, StoredQuery> storedQueries = queryService.getQueriesByIds(ids);
+        List<CompletableFuture<BatchQueryResult>> results = new ArrayList<>(requests.size());
+        for (BatchQueryRequest request : requests) {
+            results.add(start(request, storedQueries.get(request.getQuery())));
+        }
+        return results.stream().map(CompletableFuture::join).toList();
+    }
+
+    private CompletableFuture<BatchQueryResult> start(BatchQueryRequest request, StoredQuery storedQuery) {
+        Long queryId = request.getQuery();
+        BoundQuery query;
+        try {
+            if (storedQuery == null) {
+                throw new IllegalArgumentException("Query with id " + queryId + " not found");
+            }
+            if (!Boolean.TRUE.equals(storedQuery.getReadOnly())) {
+                throw new IllegalArgumentException("Only SELECT queries are allowed");
+            }
+            query = BoundQuery.bind(storedQuery, request.getParams() != null ? request.getParams() : Map.of());
+        } catch (IllegalArgumentException e) {
+            return CompletableFuture.completedFuture(failure(queryId, e));
+        }
+
+        Optional<QueryResult> cached = queryCacheService.getCachedResult(query.getCacheKey());
+        if (cached.isPresent()) {
+            QueryResult result = executionMetrics.timeBatch(queryId, cached::get);
+            return CompletableFuture.completedFuture(BatchQueryResult.success(queryId, result.getRows()));
+        }
+
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> executionMetrics.timeBatch(queryId, () -> queryExecutionService.executeQuery(query)),
+                            executor)
+                    .handle((result, failure) -> failure == null
+                            ? BatchQueryResult.success(queryId, result.getRows())
+                            : failure(queryId, failure instanceof CompletionException ? failure.getCause() : failure));
+        } catch (TaskRejectedException e) {
+            return CompletableFuture.completedFuture(failure(queryId, e));
+        }
+    }
+
+    // Same statuses and messages as GlobalExceptionHandler gives a single execution
+    static BatchQueryResult failure(Long queryId, Throwable failure) {
+        if (failure instanceof IllegalArgumentException) {
+            return BatchQueryResult.failure(queryId, 400, failure.getMessage());
+        }
+        if (failure instanceof QueryTimeoutException) {
+            return BatchQueryResult.failure(queryId, 504, failure.getMessage());
+        }
+        if (failure instanceof DataAccessException) {
+            return BatchQueryResult.failure(queryId, 400, "Query execution failed: " + failure.getMessage());
+        }
+        if (failure instanceof TaskRejectedException) {
+            return BatchQueryResult.failure(queryId, 429, "Too many queries in progress, retry later");
+        }
+        return BatchQueryResult.failure(queryId, 500, "An unexpected error occurred: " + failure.getMessage());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryParameter;
+import com.example.analytics_dashboard.model.StoredQuery;
+import com.example.analytics_dashboard.sql.NamedParameterSql;
+
+import java.math.BigDecimal;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * A stored query together with the values for its bind parameters, ready to
+ * run as a JDBC prepared statement. The cache key is the query's fingerprint
+ * followed by the parameter values in canonical form, so each set of values
+ * is cached separately and equal values written differently ({@code 1.50}
+ * and {@code 1.5}) share an entry.
+ */
+public final class BoundQuery {
+    private final StoredQuery storedQuery;
+    private final String jdbcSql;
+    private final List<Object> values;
+    private final String cacheKey;
+
+    private BoundQuery(StoredQuery storedQuery, String jdbcSql, List<Object> values, String cacheKey) {
+        this.storedQuery = storedQuery;
+        this.jdbcSql = jdbcSql;
+        this.values = values;
+        this.cacheKey = cacheKey;
+    }
+
+    /**
+     * Binds a query that declares no parameters.
+     */
+    public static BoundQuery of(StoredQuery storedQuery) {
+        return bind(storedQuery, Map.of());
+    }
+
+    /**
+     * Binds the query's declared parameters from request values. Values for
+     * names the query does not declare are ignored.
+     * @throws IllegalArgumentException if a declared parameter is missing or
+     *         its value cannot be converted to the declared type
+     */
+    public static BoundQuery bind(StoredQuery storedQuery, Map<String, String> rawValues) {
+        String baseKey = storedQuery.getFingerprint() != null ? storedQuery.getFingerprint() : storedQuery.getQueryText();
+        List<QueryParameter> declared = storedQuery.getParameters();
+        if (declared.isEmpty()) {
+            return new BoundQuery(storedQuery, storedQuery.getQueryText(), List.of(), baseKey);
+        }
+
+        Map<String, Object> converted = new HashMap<>();
+        StringJoiner cacheKey = new StringJoiner("&", baseKey + "?", "");
+        for (QueryParameter parameter : declared) {
+            String raw = rawValues.get(parameter.getName());
+            if (raw == null) {
+                throw new IllegalArgumentException("Missing value for parameter '" + parameter.getName() + "'");
+            }
+            Object value = convert(parameter, raw);
+            converted.put(parameter.getName(), value);
+            cacheKey.add(parameter.getName() + "=" + URLEncoder.encode(canonical(value), StandardCharsets.UTF_8));
+        }
+
+        NamedParameterSql sql = NamedParameterSql.parse(storedQuery.getQueryText());
+        List<Object> values = new ArrayList<>(sql.getParameterNames().size());
+        for (String name : sql.getParameterNames()) {
+            values.add(converted.get(name));
+        }
+        return new BoundQuery(storedQuery, sql.getJdbcSql(), List.copyOf(values), cacheKey.toString());
+    }
+
+    private static Object convert(QueryParameter parameter, String raw) {
+        try {
+            return switch (parameter.getType()) {
+                case INTEGER -> Long.parseLong(raw.trim());
+                case DECIMAL -> new BigDecimal(raw.trim());
+                case STRING -> raw;
+                case BOOLEAN -> parseBoolean(raw.trim());
+                case DATE -> LocalDate.parse(raw.trim());
+            };
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Parameter '" + parameter.getName() + "' must be of type "
+                    + parameter.getType() + ", got '" + raw + "'");
+        }
+    }
+
+    private static Boolean parseBoolean(String raw) {
+        if (raw.equalsIgnoreCase("true")) {
+            return Boolean.TRUE;
+        }
+        if (raw.equalsIgnoreCase("false")) {
+            return Boolean.FALSE;
+        }
+        throw new NumberFormatException(raw);
+    }
+
+    private static String canonical(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.stripTrailingZeros().toPlainString();
+        }
+        return value.toString();
+    }
+
+    public StoredQuery getStoredQuery() {
+        return storedQuery;
+    }
+
+    /**
+     * @return the SQL with {@code ?} placeholders
+     */
+    public String getJdbcSql() {
+        return jdbcSql;
+    }
+
+    /**
+     * @return the value for each {@code ?} in {@link #getJdbcSql()}, in order
+     */
+    public List<Object> getValues() {
+        return values;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public boolean hasParameters() {
+        return !values.isEmpty();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoundQuery other)) return false;
+        return storedQuery == other.storedQuery && values.equals(other.values) && cacheKey.equals(other.cacheKey);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(System.identityHashCode(storedQuery), values, cacheKey);
+    }
+}
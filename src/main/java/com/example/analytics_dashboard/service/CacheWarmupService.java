@@ -0,0 +1,182 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.model.StoredQuery;
+import com.example.analytics_dashboard.repository.QueryRepository;
+import com.example.analytics_dashboard.sql.SqlFingerprinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fills the result cache from the stored queries when the application starts,
+ * so the first dashboard user after a restart does not pay the H2 cost.
+ * <p>
+ * Runs in an {@link ApplicationReadyEvent} listener: Boot only reports the
+ * readiness probe as accepting traffic after every such listener has returned,
+ * so the warm-up finishes (or hits {@code analytics.warmup.timeout}) before
+ * traffic is routed here. Up to {@code analytics.warmup.max-queries} read-only
+ * queries without parameters are run, cheapest first by their estimated cost,
+ * with {@code analytics.warmup.parallelism} running at once. Queries estimated
+ * above {@code analytics.warmup.max-cost} rows are skipped.
+ */
+@Service
+public class CacheWarmupService {
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    public enum Status { NOT_STARTED, RUNNING, COMPLETED, TIMED_OUT, DISABLED }
+
+    private final QueryRepository queryRepository;
+    private final QueryExecutionService queryExecutionService;
+    private final SqlFingerprinter sqlFingerprinter;
+
+    @Value("${analytics.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${analytics.warmup.max-queries:50}")
+    private int maxQueries = 50;
+
+    @Value("${analytics.warmup.parallelism:4}")
+    private int parallelism = 4;
+
+    @Value("${analytics.warmup.timeout:60s}")
+    private Duration timeout = Duration.ofSeconds(60);
+
+    @Value("${analytics.warmup.max-cost:10000000}")
+    private long maxCost = 10_000_000;
+
+    private volatile CacheWarmupResponse report = new CacheWarmupResponse(Status.NOT_STARTED.name());
+
+    public CacheWarmupService(QueryRepository queryRepository,
+                              QueryExecutionService queryExecutionService,
+                              SqlFingerprinter sqlFingerprinter) {
+        this.queryRepository = queryRepository;
+        this.queryExecutionService = queryExecutionService;
+        this.sqlFingerprinter = sqlFingerprinter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            report = new CacheWarmupResponse(Status.DISABLED.name());
+            return;
+        }
+        warmUp();
+    }
+
+    /**
+     * Runs the selected queries through the caching execution path and waits
+     * for them, at most {@code analytics.warmup.timeout}. Queries still running
+     * at the deadline are left to finish in the background.
+     */
+    public CacheWarmupResponse warmUp() {
+        return warmUp(queryExecutionService::executeQuery);
+    }
+
+    /**
+     * Like {@link #warmUp()}, but caches the results under the given dataset
+     * version's keys, whatever the current version is by the time each
+     * query completes.
+     */
+    public CacheWarmupResponse warmUp(String datasetVersion) {
+        if (!enabled) {
+            return new CacheWarmupResponse(Status.DISABLED.name());
+        }
+        return warmUp(query -> queryExecutionService.precompute(query, datasetVersion));
+    }
+
+    private CacheWarmupResponse warmUp(Consumer<BoundQuery> execution) {
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        List<StoredQuery> candidates = selectCandidates();
+        report = progress(Status.RUNNING, startedAt, start, candidates.size(), 0, 0);
+
+        AtomicInteger warmed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        BoundedVirtualThreadExecutor executor =
+                new BoundedVirtualThreadExecutor("cache-warmup-", Math.max(1, parallelism), candidates.size());
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>(candidates.size());
+        for (StoredQuery storedQuery : candidates) {
+            tasks.add(CompletableFuture.runAsync(() -> {
+                try {
+                    execution.accept(BoundQuery.of(storedQuery));
+                    warmed.incrementAndGet();
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    log.warn("Warm-up of query {} failed: {}", storedQuery.getId(), e.getMessage());
+                }
+            }, executor));
+        }
+
+        Status status = Status.COMPLETED;
+        try {
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            status = Status.TIMED_OUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = Status.TIMED_OUT;
+        } catch (ExecutionException e) {
+            // Failures are counted per query
+        }
+
+        CacheWarmupResponse finished = progress(status, startedAt, start, candidates.size(), warmed.get(), failed.get());
+        report = finished;
+        log.info("Cache warm-up {} in {} ms: {} of {} queries cached, {} failed, {} still running",
+                status, finished.getDurationMs(), finished.getWarmed(), finished.getCandidates(),
+                finished.getFailed(), finished.getPending());
+        return finished;
+    }
+
+    public CacheWarmupResponse getReport() {
+        return report;
+    }
+
+    private List<StoredQuery> selectCandidates() {
+        List<StoredQuery> candidates = queryRepository.findAll().stream()
+                .filter(q -> Boolean.TRUE.equals(q.getReadOnly()))
+                .filter(q -> q.getParameters().isEmpty())
+                .filter(q -> q.getEstimatedCost() == null || q.getEstimatedCost() <= maxCost)
+                .sorted(Comparator.comparing(StoredQuery::getEstimatedCost, Comparator.nullsLast(Comparator.naturalOrder())))
+                .limit(Math.max(0, maxQueries))
+                .toList();
+
+        // Same cache key as an execution through QueryService.getQueryById
+        for (StoredQuery storedQuery : candidates) {
+            if (storedQuery.getFingerprint() == null) {
+                storedQuery.setFingerprint(sqlFingerprinter.fingerprint(storedQuery.getQueryText()));
+            }
+        }
+        return candidates;
+    }
+
+    private static CacheWarmupResponse progress(Status status, Instant startedAt, long startNanos,
+                                                int candidates, int warmed, int failed) {
+        CacheWarmupResponse response = new CacheWarmupResponse(status.name());
+        response.setStartedAt(startedAt);
+        response.setDurationMs((System.nanoTime() - startNanos) / 1_000_000);
+        response.setCandidates(candidates);
+        response.setWarmed(warmed);
+        response.setFailed(failed);
+        response.setPending(candidates - warmed - failed);
+        return response;
+    }
+}
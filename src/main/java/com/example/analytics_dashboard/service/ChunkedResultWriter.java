@@ -0,0 +1,140 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes an async result to {@link ResultChunkRepository} while it is being
+ * read. Rows are serialized straight into a Deflate stream as a JSON array;
+ * every {@code chunkRows} rows the compressed chunk is stored and the buffer
+ * reused, so at most one chunk is held in memory at a time.
+ */
+class ChunkedResultWriter implements ResultRowHandler {
+    private final UUID executionId;
+    private final ResultChunkRepository chunkRepository;
+    private final ObjectMapper objectMapper;
+    private final int chunkRows;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private Deflater deflater;
+    private JsonGenerator generator;
+    private int rowsInChunk;
+    // Read by progress reporting on other threads
+    private volatile long rowCount;
+    private int chunkCount;
+    private long bytes;
+
+    ChunkedResultWriter(UUID executionId, ResultChunkRepository chunkRepository, ObjectMapper objectMapper, int chunkRows) {
+        this.executionId = executionId;
+        this.chunkRepository = chunkRepository;
+        this.objectMapper = objectMapper;
+        this.chunkRows = chunkRows;
+    }
+
+    @Override
+    public void onRow(Object[] row) throws IOException {
+        if (generator == null) {
+            startChunk();
+        }
+        generator.writeStartArray();
+        for (Object value : row) {
+            generator.writeObject(value);
+        }
+        generator.writeEndArray();
+        rowsInChunk++;
+        rowCount++;
+
+        if (rowsInChunk == chunkRows) {
+            finishChunk();
+        }
+    }
+
+    @Override
+    public void onComplete(long rowCount) throws IOException {
+        if (generator != null) {
+            finishChunk();
+        }
+    }
+
+    /**
+     * Writes an already materialized result, e.g. one taken from the cache.
+     */
+    void writeAll(List<List<Object>> rows) throws IOException {
+        for (List<Object> row : rows) {
+            onRow(row.toArray());
+        }
+        onComplete(rows.size());
+    }
+
+    long getRowCount() {
+        return rowCount;
+    }
+
+    int getChunkCount() {
+        return chunkCount;
+    }
+
+    int getChunkRows() {
+        return chunkRows;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void startChunk() throws IOException {
+        buffer.reset();
+        deflater = new Deflater(Deflater.BEST_SPEED);
+        generator = objectMapper.getFactory().createGenerator(new DeflaterOutputStream(buffer, deflater));
+        generator.writeStartArray();
+    }
+
+    private void finishChunk() throws IOException {
+        generator.writeEndArray();
+        generator.close();
+        deflater.end();
+        generator = null;
+
+        byte[] data = buffer.toByteArray();
+        chunkRepository.save(executionId, chunkCount, rowCount - rowsInChunk, rowsInChunk, data);
+        chunkCount++;
+        bytes += data.length;
+        rowsInChunk = 0;
+    }
+
+    /**
+     * Decodes rows {@code skip .. skip + limit - 1} of a chunk into {@code into}.
+     * Rows before the range are skipped by the parser without being materialized
+     * and decoding stops after the last requested row.
+     */
+    @SuppressWarnings("unchecked")
+    static void readChunk(ObjectMapper objectMapper, byte[] data, int skip, int limit, List<List<Object>> into) throws IOException {
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(data));
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Result chunk is not a JSON array");
+            }
+            int end = skip + limit;
+            for (int index = 0; index < end && parser.nextToken() == JsonToken.START_ARRAY; index++) {
+                if (index < skip) {
+                    parser.skipChildren();
+                } else {
+                    into.add(parser.readValueAs(List.class));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.loader.CsvBulkLoader;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads {@code analytics.dataset.csv} into the passengers table at startup,
+ * once {@code schema.sql} has created it and before the application takes
+ * any traffic.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class DatasetInitializer implements InitializingBean {
+    private final CsvBulkLoader csvBulkLoader;
+
+    @Value("${analytics.dataset.csv:classpath:titanic.csv}")
+    private Resource csv;
+
+    @Value("${analytics.dataset.load-on-startup:true}")
+    private boolean enabled = true;
+
+    public DatasetInitializer(CsvBulkLoader csvBulkLoader) {
+        this.csvBulkLoader = csvBulkLoader;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            csvBulkLoader.load(csv, "passengers");
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.columnar.ColumnarPassengerStore;
+import com.example.analytics_dashboard.columnar.ColumnarTable;
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.dto.DatasetReloadResponse;
+import com.example.analytics_dashboard.exception.DatasetReloadInProgressException;
+import com.example.analytics_dashboard.loader.CsvBulkLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Replaces the passengers data without a restart. The new CSV is loaded into
+ * {@code passengers_staging} while queries keep reading {@code passengers},
+ * then the rows are swapped in one transaction: readers on other connections
+ * see the old rows until it commits and the new rows after, never an empty
+ * table. (H2 commits DDL immediately, so swapping by renaming tables would
+ * leave a moment with no {@code passengers} at all.)
+ * <p>
+ * The columnar snapshot is built from the staging rows before the swap. Right
+ * after the commit that snapshot is installed and {@link DatasetVersion} moves
+ * on, so new results are cached under the new version's keys. Cached results
+ * are not dropped: the old version's entries are no longer looked up and age
+ * out of the cache. The warm-up queries then run for the new version. A
+ * request that arrives before they finish computes its result on demand
+ * against the new rows, sharing the execution with the warm-up when it is
+ * for the same query.
+ * <p>
+ * Between the commit and the version switch, only the prepared snapshot is
+ * installed, and no query work happens. A request that reads the old version
+ * in that window may still see the new rows. It is then cached and tagged
+ * under the old version, which nothing looks up once the switch is done.
+ */
+@Service
+public class DatasetReloadService {
+    private static final Logger log = LoggerFactory.getLogger(DatasetReloadService.class);
+
+    public enum Status { RELOADED, UNCHANGED }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CsvBulkLoader csvBulkLoader;
+    private final TransactionTemplate transactionTemplate;
+    private final DatasetVersion datasetVersion;
+    private final ColumnarPassengerStore columnarStore;
+    private final CacheWarmupService cacheWarmupService;
+    private final ReentrantLock reloading = new ReentrantLock();
+
+    // Any resource location; files are memory-mapped, anything else is read into memory first
+    @Value("${analytics.dataset.reload-source:${analytics.dataset.csv:classpath:titanic.csv}}")
+    private Resource source;
+
+    public DatasetReloadService(@Qualifier("primaryJdbcTemplate") JdbcTemplate jdbcTemplate,
+                                CsvBulkLoader csvBulkLoader,
+                                PlatformTransactionManager transactionManager,
+                                DatasetVersion datasetVersion,
+                                ColumnarPassengerStore columnarStore,
+                                CacheWarmupService cacheWarmupService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.csvBulkLoader = csvBulkLoader;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.datasetVersion = datasetVersion;
+        this.columnarStore = columnarStore;
+        this.cacheWarmupService = cacheWarmupService;
+    }
+
+    /**
+     * Reloads the passengers table from {@code analytics.dataset.reload-source}.
+     */
+    public DatasetReloadResponse reload() {
+        return reload(source);
+    }
+
+    /**
+     * Reloads the passengers table from a CSV file with the same columns as
+     * {@code titanic.csv}. Nothing changes if the file is the one loaded last.
+     * @throws IllegalArgumentException if the file is missing, empty or not valid passengers data
+     * @throws DatasetReloadInProgressException if another reload is running
+     */
+    public DatasetReloadResponse reload(Resource csv) {
+        if (!reloading.tryLock()) {
+            throw new DatasetReloadInProgressException("A dataset reload is already running");
+        }
+        try {
+            long start = System.nanoTime();
+            if (!csv.exists()) {
+                throw new IllegalArgumentException("Dataset source " + csv.getDescription() + " does not exist");
+            }
+            String previousVersion = datasetVersion.get();
+            String version = datasetVersion.of(csv);
+            DatasetReloadResponse response = new DatasetReloadResponse(Status.UNCHANGED.name(), previousVersion, version);
+            if (version.equals(previousVersion)) {
+                response.setDurationMs((System.nanoTime() - start) / 1_000_000);
+                return response;
+            }
+
+            CsvBulkLoader.LoadReport load = loadStaging(csv);
+            ColumnarTable snapshot = columnarStore.prepare("passengers_staging");
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM passengers");
+                jdbcTemplate.update("INSERT INTO passengers SELECT * FROM passengers_staging");
+            });
+            try {
+                columnarStore.install(snapshot);
+            } finally {
+                // The new rows are committed: whatever happens next, results must be keyed by their version
+                datasetVersion.set(version);
+            }
+            jdbcTemplate.execute("TRUNCATE TABLE passengers_staging");
+
+            CacheWarmupResponse warmup = cacheWarmupService.warmUp(version);
+
+            response.setStatus(Status.RELOADED.name());
+            response.setRows(load.rows());
+            response.setRowsPerSecond(load.rowsPerSecond());
+            response.setWarmup(warmup);
+            response.setDurationMs((System.nanoTime() - start) / 1_000_000);
+            log.info("Reloaded {} passengers from {} in {} ms, dataset version {} -> {}",
+                    load.rows(), csv.getDescription(), response.getDurationMs(), previousVersion, version);
+            return response;
+        } finally {
+            reloading.unlock();
+        }
+    }
+
+    private CsvBulkLoader.LoadReport loadStaging(Resource csv) {
+        jdbcTemplate.execute("TRUNCATE TABLE passengers_staging");
+        CsvBulkLoader.LoadReport load;
+        try {
+            load = csvBulkLoader.load(csv, "passengers_staging");
+        } catch (DataAccessException | IllegalArgumentException | UncheckedIOException e) {
+            jdbcTemplate.execute("TRUNCATE TABLE passengers_staging");
+            String cause = e instanceof DataAccessException dataAccess
+                    ? dataAccess.getMostSpecificCause().getMessage()
+                    : e.getMessage();
+            throw new IllegalArgumentException("Cannot load dataset from " + csv.getDescription() + ": " + cause, e);
+        }
+        if (load.rows() == 0) {
+            throw new IllegalArgumentException("Dataset source " + csv.getDescription() + " contains no rows");
+        }
+        return load;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.analytics_dashboard.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Identifies the data the passengers table was loaded from, so cached and
+ * persisted results are only reused while the data is the same. The version of
+ * a CSV file is a SHA-256 digest over the schema and the file; at startup it is
+ * that of {@code analytics.dataset.csv}, and {@link DatasetReloadService} moves
+ * it on when it loads new data.
+ */
+@Component
+public class DatasetVersion {
+    private final Resource[] schema;
+    private volatile String version;
+
+    @Autowired
+    public DatasetVersion(@Value("${spring.sql.init.schema-locations:classpath:schema.sql}") Resource[] schema,
+                          @Value("${analytics.dataset.csv:classpath:titanic.csv}") Resource csv) {
+        this.schema = schema;
+        this.version = of(csv);
+    }
+
+    public DatasetVersion(String version) {
+        this.schema = new Resource[0];
+        this.version = version;
+    }
+
+    public String get() {
+        return version;
+    }
+
+    /**
+     * Result cache key of a query for the current version, so results of
+     * earlier versions are no longer found once the version moves on.
+     */
+    public String qualify(String cacheKey) {
+        return qualify(version, cacheKey);
+    }
+
+    public static String qualify(String version, String cacheKey) {
+        return version + '/' + cacheKey;
+    }
+
+    /**
+     * The version the passengers data has when loaded from a CSV file, so
+     * loading the same file again keeps the version.
+     */
+    public String of(Resource csv) {
+        Resource[] sources = Arrays.copyOf(schema, schema.length + 1);
+        sources[schema.length] = csv;
+        return digest(sources);
+    }
+
+    void set(String version) {
+        this.version = version;
+    }
+
+    static String digest(Resource... sources) {
+        MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+
+        byte[] buffer = new byte[8192];
+        for (Resource source : sources) {
+            if (!source.exists()) {
+                continue;
+            }
+            sha256.update(String.valueOf(source.getFilename()).getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = new DigestInputStream(source.getInputStream(), sha256)) {
+                while (in.read(buffer) != -1) {
+                    // DigestInputStream updates the digest
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read dataset source " + source, e);
+            }
+        }
+        // 64 bits are plenty to tell dataset versions apart
+        return HexFormat.of().formatHex(sha256.digest(), 0, 8);
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.dto.AsyncExecutionStatusResponse;
+import com.example.analytics_dashboard.model.QueryExecution;
+import com.example.analytics_dashboard.model.QueryExecution.ExecutionStatus;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the state of an async execution to a client over Server-Sent Events.
+ * A {@code status} event is sent for the current state and for every change
+ * after it, and a {@code progress} event every {@code analytics.async.progress-interval}
+ * while the execution is running. The stream ends after COMPLETED, FAILED or CANCELLED.
+ */
+@Service
+public class ExecutionEventService {
+    static final String STATUS_EVENT = "status";
+    static final String PROGRESS_EVENT = "progress";
+
+    private final AsyncQueryExecutionService asyncExecutionService;
+    // Only ticks; sends run on each subscription's own virtual thread
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("execution-events").daemon().factory());
+
+    @Value("${analytics.async.events-timeout:5m}")
+    private Duration eventsTimeout = Duration.ofMinutes(5);
+
+    @Value("${analytics.async.progress-interval:1s}")
+    private Duration progressInterval = Duration.ofSeconds(1);
+
+    public ExecutionEventService(AsyncQueryExecutionService asyncExecutionService) {
+        this.asyncExecutionService = asyncExecutionService;
+    }
+
+    public SseEmitter subscribe(String executionId) {
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+
+        Optional<ExecutionProgress> progress = asyncExecutionService.getProgress(executionId);
+        if (progress.isPresent()) {
+            subscribe(emitter, progress.get());
+            return emitter;
+        }
+
+        // Already finished (or not running on this instance): the stored state is final
+        QueryExecution execution = asyncExecutionService.getExecution(executionId);
+        AsyncExecutionStatusResponse status = new AsyncExecutionStatusResponse(
+                execution.getId().toString(), execution.getStatus().toString());
+        status.setTotalRows(execution.getRowCount());
+        status.setError(execution.getErrorMessage());
+        try {
+            emitter.send(SseEmitter.event().name(STATUS_EVENT).data(status));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, ExecutionProgress progress) {
+        new Subscription(emitter, progress).start();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * One client's stream. Its sends run one at a time, in order, on a virtual
+     * thread of its own, so neither the query worker that changes the status
+     * nor other subscribers ever wait for a slow client.
+     */
+    private final class Subscription {
+        private final SseEmitter emitter;
+        private final ExecutionProgress progress;
+        private final Runnable listener = this::scheduleStatusCheck;
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean progressQueued = new AtomicBoolean();
+
+        private ExecutionStatus lastSent;
+        private ScheduledFuture<?> ticker;
+        private boolean closed;
+
+        Subscription(SseEmitter emitter, ExecutionProgress progress) {
+            this.emitter = emitter;
+            this.progress = progress;
+        }
+
+        void start() {
+            emitter.onCompletion(this::scheduleClose);
+            emitter.onTimeout(this::scheduleClose);
+            emitter.onError(e -> scheduleClose());
+            progress.addListener(listener);
+            run(() -> {
+                long interval = progressInterval.toMillis();
+                ticker = scheduler.scheduleAtFixedRate(this::scheduleProgress, interval, interval, TimeUnit.MILLISECONDS);
+                // Also covers any change that happened before the listener was added
+                sendStatusIfChanged();
+            });
+        }
+
+        private void scheduleStatusCheck() {
+            run(this::sendStatusIfChanged);
+        }
+
+        private void scheduleClose() {
+            run(this::close);
+        }
+
+        // A stalled client gets at most one progress event queued, not one per tick
+        private void scheduleProgress() {
+            if (progressQueued.compareAndSet(false, true)) {
+                run(() -> {
+                    progressQueued.set(false);
+                    sendProgress();
+                });
+            }
+        }
+
+        private void run(Runnable task) {
+            tasks.add(task);
+            if (draining.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("execution-events").start(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Runnable task;
+                while ((task = tasks.poll()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException e) {
+                        close();
+                    }
+                }
+                draining.set(false);
+                // A task added after the last poll but before the flag was cleared
+            } while (!tasks.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void sendStatusIfChanged() {
+            if (closed) {
+                return;
+            }
+            ExecutionStatus status = progress.getStatus();
+            if (status != lastSent) {
+                lastSent = status;
+                send(STATUS_EVENT);
+            }
+            if (!closed && progress.isFinished()) {
+                emitter.complete();
+                close();
+            }
+        }
+
+        private void sendProgress() {
+            if (!closed && lastSent == ExecutionStatus.RUNNING && !progress.isFinished()) {
+                send(PROGRESS_EVENT);
+            }
+        }
+
+        private void send(String eventName) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(progress.toStatusResponse()));
+            } catch (IOException | IllegalStateException e) {
+                // Client went away
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            progress.removeListener(listener);
+            if (ticker != null) {
+                ticker.cancel(false);
+            }
+        }
+    }
+}
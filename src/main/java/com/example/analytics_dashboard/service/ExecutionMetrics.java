@@ -0,0 +1,156 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Latency, row and size meters for query executions, tagged with the stored
+ * query id and how it ran ({@code sync}, {@code batch}, {@code stream} or
+ * {@code async}). Synchronous and batch latency includes cache hits, since
+ * that is what clients wait for. Percentile histograms are switched on per
+ * meter with
+ * {@code management.metrics.distribution.percentiles-histogram.*}.
+ */
+@Component
+public class ExecutionMetrics {
+    public enum Mode { SYNC, BATCH, STREAM, ASYNC }
+
+    private final MeterRegistry registry;
+
+    public ExecutionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Runs a synchronous execution and records its latency, row count and
+     * estimated result size.
+     */
+    public QueryResult timeSync(Long queryId, Supplier<QueryResult> execution) {
+        return time(queryId, Mode.SYNC, execution);
+    }
+
+    /**
+     * Same as {@link #timeSync}, for one query of a batch request.
+     */
+    public QueryResult timeBatch(Long queryId, Supplier<QueryResult> execution) {
+        return time(queryId, Mode.BATCH, execution);
+    }
+
+    /**
+     * Runs a streamed execution and records its latency (until the last row is
+     * written), the rows streamed and the bytes written.
+     */
+    public void timeStream(Long queryId, Runnable execution, LongSupplier rowCount, LongSupplier bytesWritten) {
+        long start = System.nanoTime();
+        try {
+            execution.run();
+        } catch (RuntimeException e) {
+            latency(queryId, Mode.STREAM, outcome(e)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        latency(queryId, Mode.STREAM, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rows(queryId, Mode.STREAM).record(rowCount.getAsLong());
+        bytes(queryId, Mode.STREAM).record(bytesWritten.getAsLong());
+    }
+
+    /**
+     * Records a finished async execution from its timestamps: the time from
+     * submission to completion, and how much of it was spent PENDING (queued)
+     * and RUNNING. For completed executions also the rows and compressed bytes
+     * stored.
+     */
+    public void recordAsync(QueryExecution execution) {
+        String outcome = execution.getStatus().name().toLowerCase(Locale.ROOT);
+        Long queryId = execution.getQueryId();
+        LocalDateTime submitted = execution.getStartedAt();
+        LocalDateTime running = execution.getRunningAt();
+        LocalDateTime completed = execution.getCompletedAt();
+        if (submitted == null || completed == null) {
+            return;
+        }
+
+        latency(queryId, Mode.ASYNC, outcome).record(Duration.between(submitted, completed));
+        Timer.builder("analytics.async.pending")
+                .description("Time async executions spent queued before they started running")
+                .tags("query", tagValue(queryId), "outcome", outcome)
+                .register(registry)
+                .record(Duration.between(submitted, running != null ? running : completed));
+        if (running != null) {
+            Timer.builder("analytics.async.running")
+                    .description("Time async executions spent running")
+                    .tags("query", tagValue(queryId), "outcome", outcome)
+                    .register(registry)
+                    .record(Duration.between(running, completed));
+        }
+        if (execution.getStatus() == QueryExecution.ExecutionStatus.COMPLETED) {
+            rows(queryId, Mode.ASYNC).record(execution.getRowCount() != null ? execution.getRowCount() : 0);
+            bytes(queryId, Mode.ASYNC).record(execution.getResultBytes() != null ? execution.getResultBytes() : 0);
+        }
+    }
+
+    private QueryResult time(Long queryId, Mode mode, Supplier<QueryResult> execution) {
+        long start = System.nanoTime();
+        QueryResult result;
+        try {
+            result = execution.get();
+        } catch (RuntimeException e) {
+            latency(queryId, mode, outcome(e)).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        latency(queryId, mode, "success").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        rows(queryId, mode).record(result.getRows().size());
+        bytes(queryId, mode).record(result.getEstimatedBytes());
+        return result;
+    }
+
+    private Timer latency(Long queryId, Mode mode, String outcome) {
+        return Timer.builder("analytics.query.execution")
+                .description("Query execution latency")
+                .tags("query", tagValue(queryId), "mode", mode.name().toLowerCase(Locale.ROOT), "outcome", outcome)
+                .register(registry);
+    }
+
+    private DistributionSummary rows(Long queryId, Mode mode) {
+        return DistributionSummary.builder("analytics.query.rows")
+                .description("Rows returned per execution")
+                .baseUnit("rows")
+                .tags("query", tagValue(queryId), "mode", mode.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    // sync/batch: estimated heap size of the result, stream: bytes written, async: compressed bytes stored
+    private DistributionSummary bytes(Long queryId, Mode mode) {
+        return DistributionSummary.builder("analytics.query.result.size")
+                .description("Size of the result per execution")
+                .baseUnit(BaseUnits.BYTES)
+                .tags("query", tagValue(queryId), "mode", mode.name().toLowerCase(Locale.ROOT))
+                .register(registry);
+    }
+
+    static String outcome(Throwable failure) {
+        if (failure instanceof QueryTimeoutException) {
+            return "timeout";
+        }
+        if (failure instanceof CancellationException) {
+            return "cancelled";
+        }
+        return "error";
+    }
+
+    private static String tagValue(Long queryId) {
+        return queryId == null ? "none" : queryId.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.dto.AsyncExecutionStatusResponse;
+import com.example.analytics_dashboard.model.QueryExecution.ExecutionStatus;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory state of an async execution while it is pending or running.
+ * Listeners are told about every status change, and {@link #finished()}
+ * completes once the final state has been saved, so waiting clients are woken
+ * in-process instead of polling the database.
+ */
+public final class ExecutionProgress {
+    private final UUID executionId;
+    private final long submittedNanos = System.nanoTime();
+    private final CompletableFuture<ExecutionProgress> finished = new CompletableFuture<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final QueryCancellation cancellation = new QueryCancellation();
+
+    private volatile ExecutionStatus status = ExecutionStatus.PENDING;
+    private volatile LongSupplier rowsFetched = () -> 0;
+    private volatile Long rowCount;
+    private volatile String errorMessage;
+
+    ExecutionProgress(UUID executionId) {
+        this.executionId = executionId;
+    }
+
+    void running(LongSupplier rowsFetched) {
+        this.rowsFetched = rowsFetched;
+        this.status = ExecutionStatus.RUNNING;
+        fireChange();
+    }
+
+    void finish(ExecutionStatus status, Long rowCount, String errorMessage) {
+        this.rowCount = rowCount;
+        this.errorMessage = errorMessage;
+        this.status = status;
+        finished.complete(this);
+        fireChange();
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    public QueryCancellation getCancellation() {
+        return cancellation;
+    }
+
+    /**
+     * Completes when the execution has reached COMPLETED, FAILED or CANCELLED.
+     */
+    public CompletableFuture<ExecutionProgress> finished() {
+        return finished;
+    }
+
+    public boolean isFinished() {
+        return finished.isDone();
+    }
+
+    public UUID getExecutionId() {
+        return executionId;
+    }
+
+    public ExecutionStatus getStatus() {
+        return status;
+    }
+
+    public long getRowsFetched() {
+        return rowCount != null ? rowCount : rowsFetched.getAsLong();
+    }
+
+    public long getElapsedMillis() {
+        return (System.nanoTime() - submittedNanos) / 1_000_000;
+    }
+
+    public AsyncExecutionStatusResponse toStatusResponse() {
+        AsyncExecutionStatusResponse response = new AsyncExecutionStatusResponse(executionId.toString(), status.toString());
+        response.setRowsFetched(getRowsFetched());
+        response.setElapsedMs(getElapsedMillis());
+        response.setTotalRows(rowCount);
+        response.setError(errorMessage);
+        return response;
+    }
+
+    private void fireChange() {
+        listeners.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the async executions of this instance that have not finished yet.
+ * An execution is forgotten as soon as its final state is saved; from then on
+ * the database is the source of truth.
+ */
+@Component
+public class ExecutionProgressRegistry {
+    private final ConcurrentHashMap<UUID, ExecutionProgress> active = new ConcurrentHashMap<>();
+
+    ExecutionProgress register(UUID executionId) {
+        ExecutionProgress progress = new ExecutionProgress(executionId);
+        active.put(executionId, progress);
+        return progress;
+    }
+
+    void running(UUID executionId, LongSupplier rowsFetched) {
+        ExecutionProgress progress = active.get(executionId);
+        if (progress != null) {
+            progress.running(rowsFetched);
+        }
+    }
+
+    /**
+     * Publishes the saved final state of an execution and forgets it.
+     */
+    void finish(QueryExecution execution) {
+        ExecutionProgress progress = active.remove(execution.getId());
+        if (progress != null) {
+            progress.finish(execution.getStatus(), execution.getRowCount(), execution.getErrorMessage());
+        }
+    }
+
+    void remove(UUID executionId) {
+        active.remove(executionId);
+    }
+
+    public Optional<ExecutionProgress> find(UUID executionId) {
+        return Optional.ofNullable(active.get(executionId));
+    }
+}
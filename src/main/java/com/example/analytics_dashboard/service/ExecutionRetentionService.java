@@ -0,0 +1,131 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution.ExecutionStatus;
+import com.example.analytics_dashboard.repository.QueryExecutionRepository;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Deletes finished async executions and their result chunks so the in-memory
+ * database does not grow with every run. An execution is purged once it is
+ * older than the TTL for its final status ({@code analytics.retention.ttl.*}),
+ * or once its stored query has {@code analytics.retention.keep-per-query}
+ * newer finished executions. PENDING and RUNNING executions are never touched.
+ * <p>
+ * Runs every {@code analytics.retention.interval}, deleting at most
+ * {@code analytics.retention.batch-size} executions per statement.
+ */
+@Service
+public class ExecutionRetentionService {
+    private static final Logger log = LoggerFactory.getLogger(ExecutionRetentionService.class);
+
+    private final QueryExecutionRepository executionRepository;
+    private final ResultChunkRepository resultChunkRepository;
+    private final Counter expiredCounter;
+    private final Counter overLimitCounter;
+
+    @Value("${analytics.retention.enabled:true}")
+    private boolean enabled = true;
+
+    // 0 keeps executions with that status forever
+    @Value("${analytics.retention.ttl.completed:24h}")
+    private Duration completedTtl = Duration.ofHours(24);
+
+    @Value("${analytics.retention.ttl.failed:24h}")
+    private Duration failedTtl = Duration.ofHours(24);
+
+    @Value("${analytics.retention.ttl.cancelled:1h}")
+    private Duration cancelledTtl = Duration.ofHours(1);
+
+    // 0 = no limit per query
+    @Value("${analytics.retention.keep-per-query:20}")
+    private int keepPerQuery = 20;
+
+    @Value("${analytics.retention.batch-size:500}")
+    private int batchSize = 500;
+
+    public ExecutionRetentionService(QueryExecutionRepository executionRepository,
+                                     ResultChunkRepository resultChunkRepository,
+                                     MeterRegistry meterRegistry) {
+        this.executionRepository = executionRepository;
+        this.resultChunkRepository = resultChunkRepository;
+        this.expiredCounter = Counter.builder("analytics.retention.purged")
+                .description("Async executions deleted by the retention job")
+                .tag("reason", "ttl")
+                .register(meterRegistry);
+        this.overLimitCounter = Counter.builder("analytics.retention.purged")
+                .description("Async executions deleted by the retention job")
+                .tag("reason", "keep-per-query")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.retention.interval:5m}",
+            initialDelayString = "${analytics.retention.interval:5m}")
+    public void scheduledPurge() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Purging old query executions failed", e);
+        }
+    }
+
+    /**
+     * @return number of executions deleted
+     */
+    public int purge() {
+        LocalDateTime now = LocalDateTime.now();
+        int purged = purgeExpired(ExecutionStatus.COMPLETED, completedTtl, now)
+                + purgeExpired(ExecutionStatus.FAILED, failedTtl, now)
+                + purgeExpired(ExecutionStatus.CANCELLED, cancelledTtl, now);
+        if (keepPerQuery > 0) {
+            purged += purgeInBatches(() -> executionRepository.findIdsBeyondNewest(keepPerQuery, Limit.of(batchSize)),
+                    overLimitCounter);
+        }
+        if (purged > 0) {
+            log.info("Purged {} old query executions", purged);
+        }
+        return purged;
+    }
+
+    private int purgeExpired(ExecutionStatus status, Duration ttl, LocalDateTime now) {
+        if (ttl.isZero() || ttl.isNegative()) {
+            return 0;
+        }
+        LocalDateTime cutoff = now.minus(ttl);
+        return purgeInBatches(() -> executionRepository.findIdsCompletedBefore(status, cutoff, Limit.of(batchSize)),
+                expiredCounter);
+    }
+
+    private int purgeInBatches(Supplier<List<UUID>> nextBatch, Counter counter) {
+        int purged = 0;
+        List<UUID> ids;
+        do {
+            ids = nextBatch.get();
+            if (ids.isEmpty()) {
+                break;
+            }
+            // Row first: once it is gone, readers get "Execution not found" instead of a result with missing chunks
+            executionRepository.deleteAllByIdInBatch(ids);
+            resultChunkRepository.deleteByExecutionIds(ids);
+            purged += ids.size();
+            counter.increment(ids.size());
+        } while (ids.size() == batchSize);
+        return purged;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.cache.DiskResultCache;
+import com.example.analytics_dashboard.cache.TieredResultCache;
+import com.example.analytics_dashboard.dto.CacheStatsResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Service
+public class QueryCacheService {
+    static final String CACHE_NAME = "queryResults";
+
+    private final CacheManager cacheManager;
+    private final DatasetVersion datasetVersion;
+
+    public QueryCacheService(CacheManager cacheManager, DatasetVersion datasetVersion) {
+        this.cacheManager = cacheManager;
+        this.datasetVersion = datasetVersion;
+    }
+
+    /**
+     * Current footprint and lifetime hit/eviction statistics of the result cache,
+     * and of its disk tier when that is in use.
+     */
+    public CacheStatsResponse getStats() {
+        Cache<Object, Object> cache = nativeCache();
+        CacheStats stats = cache.stats();
+        Optional<Policy.Eviction<Object, Object>> eviction = cache.policy().eviction();
+
+        long estimatedBytes = 0;
+        for (Object value : cache.asMap().values()) {
+            if (value instanceof QueryResult result) {
+                estimatedBytes += result.getEstimatedBytes();
+            }
+        }
+
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setEntries(cache.estimatedSize());
+        response.setEstimatedBytes(estimatedBytes);
+        response.setWeightedSize(eviction.map(e -> e.weightedSize().orElse(0)).orElse(null));
+        response.setMaximumWeight(eviction.map(Policy.Eviction::getMaximum).orElse(null));
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setHitRate(stats.hitRate());
+        response.setEvictionCount(stats.evictionCount());
+        response.setEvictionWeight(stats.evictionWeight());
+
+        if (cacheManager.getCache(CACHE_NAME) instanceof TieredResultCache tiered && tiered.getDiskCache().isAvailable()) {
+            DiskResultCache disk = tiered.getDiskCache();
+            response.setDiskEntries(disk.getEntryCount());
+            response.setDiskStoredBytes(disk.getStoredBytes());
+            response.setDiskFileBytes(disk.getFileBytes());
+            response.setDiskHitCount(disk.getHitCount());
+            response.setDiskMissCount(disk.getMissCount());
+        }
+        return response;
+    }
+
+    /**
+     * Looks up a result for the current dataset version without executing
+     * anything on a miss.
+     */
+    public Optional<QueryResult> getCachedResult(String cacheKey) {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cacheKey == null || cache == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(cache.get(datasetVersion.qualify(cacheKey), QueryResult.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> nativeCache() {
+        org.springframework.cache.Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (!(cache instanceof CaffeineCache caffeineCache)) {
+            throw new IllegalStateException("Cache " + CACHE_NAME + " is not a Caffeine cache");
+        }
+        return caffeineCache.getNativeCache();
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.analytics_dashboard.service;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lets another thread stop a running query. Cancelling calls
+ * {@link Statement#cancel()} on the live JDBC statement, which frees the
+ * connection and the worker thread; a query cancelled before its statement is
+ * created never starts.
+ */
+public final class QueryCancellation {
+    private static final long RETRY_NANOS = Duration.ofMillis(10).toNanos();
+
+    private volatile boolean cancelled;
+    private volatile Statement statement;
+
+    public void cancel() {
+        cancelled = true;
+        Statement current = statement;
+        if (current != null) {
+            cancelUntilDetached(current);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    void attach(Statement statement) {
+        this.statement = statement;
+        // cancel() may have run before the statement was visible to it
+        if (cancelled) {
+            cancelUntilDetached(statement);
+        }
+    }
+
+    void detach() {
+        statement = null;
+    }
+
+    void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Execution was cancelled");
+        }
+    }
+
+    /**
+     * H2 drops a cancel that arrives before the statement's command has
+     * started, because starting it resets the session's cancel deadline to the
+     * query timeout. So the statement is cancelled again until it is detached;
+     * once it has been closed a further cancel is a no-op.
+     */
+    private void cancelUntilDetached(Statement target) {
+        cancelStatement(target);
+        Thread.ofVirtual().name("query-cancel").start(() -> {
+            while (statement == target) {
+                LockSupport.parkNanos(RETRY_NANOS);
+                if (statement == target) {
+                    cancelStatement(target);
+                }
+            }
+        });
+    }
+
+    private static void cancelStatement(Statement statement) {
+        try {
+            statement.cancel();
+        } catch (SQLException e) {
+            // Statement already finished or closed
+        }
+    }
+}
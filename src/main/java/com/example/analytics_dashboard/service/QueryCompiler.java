@@ -0,0 +1,109 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.ResultColumn;
+import com.example.analytics_dashboard.model.StoredQuery;
+import com.example.analytics_dashboard.sql.NamedParameterSql;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prepares stored queries on the metadata pool when they are saved, so broken
+ * SQL is rejected up front and the result columns, H2's plan and a cost
+ * estimate are known before the first execution. Nothing is executed: H2
+ * reports result metadata for a prepared statement and plans parameterised
+ * SQL without values.
+ */
+@Component
+public class QueryCompiler {
+    // H2 marks every full scan in a plan as /* SCHEMA.TABLE.tableScan */
+    private static final Pattern TABLE_SCAN = Pattern.compile("/\\* (\\S+)\\.tableScan \\*/");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QueryCompiler(@Qualifier("metadataJdbcTemplate") JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Stores the result columns, plan and estimated cost on the query.
+     * @throws IllegalArgumentException if H2 cannot prepare the query
+     */
+    public void compile(StoredQuery storedQuery) {
+        String sql = NamedParameterSql.parse(storedQuery.getQueryText()).getJdbcSql();
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+                storedQuery.setResultColumns(resultColumns(con, sql));
+                String plan = explain(con, sql);
+                storedQuery.setQueryPlan(plan);
+                storedQuery.setEstimatedCost(estimateCost(con, plan));
+                return null;
+            });
+        } catch (DataAccessException e) {
+            throw new IllegalArgumentException("Invalid query: " + e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static List<ResultColumn> resultColumns(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql)) {
+            ResultSetMetaData metaData = ps.getMetaData();
+            List<ResultColumn> columns = new ArrayList<>(metaData.getColumnCount());
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                columns.add(new ResultColumn(metaData.getColumnLabel(i), metaData.getColumnTypeName(i)));
+            }
+            return columns;
+        }
+    }
+
+    private static String explain(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getString(1) : "";
+        }
+    }
+
+    /**
+     * Rows the plan reads: the product of the row count estimates of every
+     * table it scans in full. Index lookups count as one row, so this is a
+     * lower bound for plans that read a range of an index.
+     */
+    static long estimateCost(Connection con, String plan) throws SQLException {
+        Map<String, Long> rowCounts = null;
+        long cost = 1;
+        Matcher scan = TABLE_SCAN.matcher(plan);
+        while (scan.find()) {
+            if (rowCounts == null) {
+                rowCounts = tableRowCounts(con);
+            }
+            long rows = Math.max(1, rowCounts.getOrDefault(scan.group(1), 1L));
+            cost = cost > Long.MAX_VALUE / rows ? Long.MAX_VALUE : cost * rows;
+        }
+        return cost;
+    }
+
+    private static Map<String, Long> tableRowCounts(Connection con) throws SQLException {
+        Map<String, Long> rowCounts = new HashMap<>();
+        try (PreparedStatement ps = con.prepareStatement(
+                "SELECT TABLE_SCHEMA, TABLE_NAME, ROW_COUNT_ESTIMATE FROM INFORMATION_SCHEMA.TABLES");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rowCounts.put(rs.getString(1) + "." + rs.getString(2), rs.getLong(3));
+            }
+        }
+        return rowCounts;
+    }
+}
@@ -1,78 +1,272 @@
 package com.example.analytics_dashboard.service;
 
+import com.example.analytics_dashboard.columnar.ColumnarQueryEngine;
+import com.example.analytics_dashboard.concurrent.SingleFlight;
+import com.example.analytics_dashboard.model.ResultColumn;
+import com.example.analytics_dashboard.model.StoredQuery;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.SqlProvider;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
-public class QueryExecutionService {
-    private final JdbcTemplate jdbcTemplate;
+public class QueryExecutionService implements MeterBinder {
+    private final JdbcTemplate syncJdbcTemplate;
+    private final JdbcTemplate asyncJdbcTemplate;
+    private final ColumnarQueryEngine columnarQueryEngine;
+    private final DatasetVersion datasetVersion;
+    private final SingleFlight<String, QueryResult> inFlight = new SingleFlight<>();
 
-    public QueryExecutionService(@Qualifier("readOnlyJdbcTemplate") JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+    // Rows between cancellation/deadline checks while streaming (power of two minus one)
+    private static final int DEADLINE_CHECK_MASK = 1023;
+
+    @Value("${analytics.query.default-timeout:60s}")
+    private Duration defaultTimeout = Duration.ofSeconds(60);
+
+    @Value("${analytics.query.max-timeout:10m}")
+    private Duration maxTimeout = Duration.ofMinutes(10);
+
+    public QueryExecutionService(@Qualifier("syncJdbcTemplate") JdbcTemplate syncJdbcTemplate,
+                                 @Qualifier("asyncJdbcTemplate") JdbcTemplate asyncJdbcTemplate,
+                                 ColumnarQueryEngine columnarQueryEngine,
+                                 DatasetVersion datasetVersion) {
+        this.syncJdbcTemplate = syncJdbcTemplate;
+        this.asyncJdbcTemplate = asyncJdbcTemplate;
+        this.columnarQueryEngine = columnarQueryEngine;
+        this.datasetVersion = datasetVersion;
     }
 
     /**
-     * Executes a SQL query and returns the result as a 2D array
-     * @param sql The SQL query to execute
-     * @return 2D array where each inner array represents a row
-     * @throws SQLException if query execution fails
+     * Executes a stored query and returns the result as a 2D array.
+     * Results are cached by the dataset version, the query's SQL fingerprint
+     * and its parameter values, so queries that differ only in whitespace, keyword case,
+     * identifier quoting or comments share one cache entry, and each set of
+     * parameter values gets its own.
+     * Aggregate queries over passengers without parameters are answered by the
+     * in-memory columnar engine when it supports them; everything else runs on
+     * H2 as a prepared statement, on the sync pool and under the query's
+     * timeout (see {@link #timeoutSeconds}). Result columns prepared when the
+     * query was saved are reused instead of reading the result set metadata.
+     * Concurrent cache misses for the same key share one execution.
+     * @param query The query to execute with its parameter values bound
+     * @return the rows (each inner list is a row) with the measured execution time
+     * @throws QueryTimeoutException if the query runs past its timeout
      **/
-    @Cacheable(value = "queryResults", key = "#sql")
-    public List<List<Object>> executeQuery(String sql){
-        return jdbcTemplate.query(sql, this::mapResultSetTo2DArray);
+    @Cacheable(value = "queryResults", key = "@datasetVersion.qualify(#query.cacheKey)")
+    public QueryResult executeQuery(BoundQuery query){
+        return execute(query, datasetVersion.qualify(query.getCacheKey()));
     }
 
-    private List<List<Object>> mapResultSetTo2DArray(ResultSet rs) throws SQLException {
-        List<List<Object>> result = new ArrayList<>();
-        ResultSetMetaData rsmd = rs.getMetaData();
-        int columnCount = rsmd.getColumnCount();
+    /**
+     * Executes a stored query against the data currently loaded and caches the
+     * result for the given dataset version, which need not be the current one.
+     * Used to warm the cache for a new dataset before switching to it.
+     */
+    @CachePut(value = "queryResults", key = "T(com.example.analytics_dashboard.service.DatasetVersion).qualify(#version, #query.cacheKey)")
+    public QueryResult precompute(BoundQuery query, String version){
+        return execute(query, DatasetVersion.qualify(version, query.getCacheKey()));
+    }
+
+    private QueryResult execute(BoundQuery query, String versionedKey){
+        int timeoutSeconds = timeoutSeconds(query.getStoredQuery());
+        int storedColumnCount = query.getStoredQuery().getResultColumns().size();
+        ResultSetExtractor<List<List<Object>>> extractor = storedColumnCount > 0
+                ? rs -> mapRowsTo2DArray(rs, storedColumnCount)
+                : this::mapResultSetTo2DArray;
+
+        return inFlight.execute(versionedKey, () -> {
+            long start = System.nanoTime();
+            Optional<List<List<Object>>> columnar = query.hasParameters()
+                    ? Optional.empty()
+                    : columnarQueryEngine.tryExecute(query.getJdbcSql());
+            List<List<Object>> rows = columnar
+                    .orElseGet(() -> withTimeoutMessage(timeoutSeconds, null, () -> syncJdbcTemplate.query(
+                            new QueryStatement(query.getJdbcSql(), query.getValues(), timeoutSeconds, null),
+                            extractor)));
+            return new QueryResult(rows, System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Executes a stored query and hands every row to the given handler as soon
+     * as it is read, so memory use does not depend on the size of the result.
+     * Results are not cached. The query's timeout is a deadline for the whole
+     * stream, not only for the statement, and cancelling {@code cancellation}
+     * stops it between rows as well as inside the database.
+     * @param query The query to execute with its parameter values bound
+     * @param workload Picks the connection pool: sync for INTERACTIVE, async for BATCH
+     * @param cancellation Lets another thread stop the query
+     * @param handler Receives the column labels and then each row
+     * @throws QueryTimeoutException if the deadline passes
+     * @throws java.util.concurrent.CancellationException if cancelled between rows
+     **/
+    public void streamQuery(BoundQuery query, QueryWorkload workload,
+                            QueryCancellation cancellation, ResultRowHandler handler){
+        int timeoutSeconds = timeoutSeconds(query.getStoredQuery());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        QueryStatement statement = new QueryStatement(query.getJdbcSql(), query.getValues(), timeoutSeconds, cancellation);
+        JdbcTemplate jdbcTemplate = workload == QueryWorkload.BATCH ? asyncJdbcTemplate : syncJdbcTemplate;
 
+        try {
+            withTimeoutMessage(timeoutSeconds, cancellation, () -> jdbcTemplate.query(statement, (ResultSetExtractor<Void>) rs -> {
+                try {
+                    streamResultSet(rs, query.getStoredQuery().getResultColumns(), handler, cancellation,
+                            deadline, timeoutSeconds);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }));
+        } finally {
+            cancellation.detach();
+        }
+    }
+
+    /**
+     * Timeout for a query: its own {@code timeoutSeconds}, or
+     * {@code analytics.query.default-timeout}, capped at {@code analytics.query.max-timeout}.
+     */
+    int timeoutSeconds(StoredQuery storedQuery) {
+        long seconds = storedQuery.getTimeoutSeconds() != null
+                ? storedQuery.getTimeoutSeconds()
+                : defaultTimeout.toSeconds();
+        return (int) Math.max(1, Math.min(seconds, maxTimeout.toSeconds()));
+    }
+
+    private void streamResultSet(ResultSet rs, List<ResultColumn> storedColumns, ResultRowHandler handler,
+                                 QueryCancellation cancellation, long deadline, int timeoutSeconds)
+            throws SQLException, IOException {
+        List<String> columnNames = storedColumns.isEmpty()
+                ? columnLabels(rs.getMetaData())
+                : storedColumns.stream().map(ResultColumn::getName).toList();
+        int columnCount = columnNames.size();
+        // A cancel H2 missed must not let the rows through
+        cancellation.throwIfCancelled();
+        handler.onColumns(columnNames);
+
+        Object[] row = new Object[columnCount];
+        long rowCount = 0;
         while (rs.next()) {
-            List<Object> row = new ArrayList<>();
-            for (int i = 1; i <= columnCount; i++) {
-                row.add(rs.getObject(i));
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = rs.getObject(i + 1);
+            }
+            handler.onRow(row);
+            rowCount++;
+
+            if ((rowCount & DEADLINE_CHECK_MASK) == 0) {
+                cancellation.throwIfCancelled();
+                if (System.nanoTime() - deadline > 0) {
+                    throw new QueryTimeoutException(timeoutMessage(timeoutSeconds));
+                }
             }
-            result.add(row);
         }
+        handler.onComplete(rowCount);
+    }
 
-        return result;
+    /**
+     * Rewords the driver's timeout error, unless the query was stopped by a
+     * cancellation (H2 reports both the same way).
+     */
+    private static <T> T withTimeoutMessage(int timeoutSeconds, QueryCancellation cancellation, Supplier<T> query) {
+        try {
+            return query.get();
+        } catch (QueryTimeoutException e) {
+            if (cancellation != null && cancellation.isCancelled()) {
+                throw e;
+            }
+            throw new QueryTimeoutException(timeoutMessage(timeoutSeconds), e);
+        }
+    }
+
+    private static String timeoutMessage(int timeoutSeconds) {
+        return "Query exceeded its timeout of " + timeoutSeconds + "s";
     }
 
     /**
-     * Validates if a query is a SELECT statement (read-only)
-     * This is a basic implementation - can be improved
+     * Forward-only, read-only statement with bound values and a timeout,
+     * registered with an optional cancellation. The fetch size comes from the
+     * pool's JdbcTemplate. Exposes its SQL for logging and error translation.
      */
-    public boolean isReadOnlyQuery(String sql){
-        if(sql == null || sql.trim().isEmpty()){
-            return false;
+    private record QueryStatement(String sql, List<Object> values, int timeoutSeconds, QueryCancellation cancellation)
+            implements PreparedStatementCreator, SqlProvider {
+
+        @Override
+        public PreparedStatement createPreparedStatement(Connection con) throws SQLException {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+            ps.setQueryTimeout(timeoutSeconds);
+            if (cancellation != null) {
+                cancellation.attach(ps);
+            }
+            return ps;
+        }
+
+        @Override
+        public String getSql() {
+            return sql;
         }
+    }
 
-        String nSql = sql.trim().toUpperCase();
-        if(!nSql.startsWith("SELECT")){
-            return false;
+    private static List<String> columnLabels(ResultSetMetaData rsmd) throws SQLException {
+        int columnCount = rsmd.getColumnCount();
+        List<String> columnNames = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columnNames.add(rsmd.getColumnLabel(i));
         }
+        return columnNames;
+    }
 
-        String[] dangerousKeywords = {
-                "INSERT", "UPDATE", "DELETE", "DROP", "CREATE",
-                "ALTER", "TRUNCATE", "REPLACE", "MERGE"
-        };
+    List<List<Object>> mapResultSetTo2DArray(ResultSet rs) throws SQLException {
+        return mapRowsTo2DArray(rs, rs.getMetaData().getColumnCount());
+    }
 
-        for (String keyword : dangerousKeywords) {
-            if(nSql.contains(keyword)){
-                return false;
+    private static List<List<Object>> mapRowsTo2DArray(ResultSet rs, int columnCount) throws SQLException {
+        List<List<Object>> result = new ArrayList<>();
+
+        while (rs.next()) {
+            List<Object> row = new ArrayList<>(columnCount);
+            for (int i = 1; i <= columnCount; i++) {
+                row.add(rs.getObject(i));
             }
+            result.add(row);
         }
 
-        return true;
+        return result;
     }
 
-
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("analytics.query.coalesced", inFlight, SingleFlight::getCoalescedCount)
+                .description("Synchronous executions served by an identical execution already in progress")
+                .register(registry);
+        Gauge.builder("analytics.query.inflight", inFlight, SingleFlight::getInFlightCount)
+                .description("Distinct queries currently executing")
+                .register(registry);
+    }
 }
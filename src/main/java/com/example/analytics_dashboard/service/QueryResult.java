@@ -0,0 +1,31 @@
+package com.example.analytics_dashboard.service;
+
+import java.util.List;
+
+/**
+ * Cached result of one query execution together with what it cost to
+ * produce and roughly how much heap it retains.
+ */
+public final class QueryResult {
+    private final List<List<Object>> rows;
+    private final long executionNanos;
+    private final long estimatedBytes;
+
+    public QueryResult(List<List<Object>> rows, long executionNanos) {
+        this.rows = rows;
+        this.executionNanos = executionNanos;
+        this.estimatedBytes = ResultSizeEstimator.estimate(rows);
+    }
+
+    public List<List<Object>> getRows() {
+        return rows;
+    }
+
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+}
@@ -1,30 +1,82 @@
 package com.example.analytics_dashboard.service;
 
+import com.example.analytics_dashboard.dto.ColumnDefinition;
 import com.example.analytics_dashboard.dto.QueryListResponse;
+import com.example.analytics_dashboard.dto.QueryParameterDefinition;
+import com.example.analytics_dashboard.dto.QueryPlanResponse;
 import com.example.analytics_dashboard.dto.QueryResponse;
+import com.example.analytics_dashboard.model.QueryParameter;
 import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.repository.QueryRepository;
+import com.example.analytics_dashboard.sql.NamedParameterSql;
+import com.example.analytics_dashboard.sql.ReadOnlySqlValidator;
+import com.example.analytics_dashboard.sql.SqlFingerprinter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
 public class QueryService {
+    private static final Pattern PARAMETER_NAME = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
     private final QueryRepository queryRepository;
+    private final SqlFingerprinter sqlFingerprinter;
+    private final ReadOnlySqlValidator readOnlySqlValidator;
+    private final QueryCompiler queryCompiler;
 
-    public QueryService(QueryRepository queryRepository) {
+    public QueryService(QueryRepository queryRepository, SqlFingerprinter sqlFingerprinter,
+                        ReadOnlySqlValidator readOnlySqlValidator, QueryCompiler queryCompiler) {
         this.queryRepository = queryRepository;
+        this.sqlFingerprinter = sqlFingerprinter;
+        this.readOnlySqlValidator = readOnlySqlValidator;
+        this.queryCompiler = queryCompiler;
     }
 
     @Transactional
     public QueryResponse addQuery(String queryText){
+        return addQuery(queryText, null);
+    }
+
+    /**
+     * @param timeoutSeconds execution timeout for this query, or null for the global default
+     */
+    @Transactional
+    public QueryResponse addQuery(String queryText, Integer timeoutSeconds){
+        return addQuery(queryText, timeoutSeconds, null);
+    }
+
+    /**
+     * @param timeoutSeconds execution timeout for this query, or null for the global default
+     * @param parameters bind parameters; must match the {@code :name} placeholders in the SQL exactly
+     */
+    @Transactional
+    public QueryResponse addQuery(String queryText, Integer timeoutSeconds, List<QueryParameterDefinition> parameters){
         if(queryText == null || queryText.trim().isEmpty()){
             throw new IllegalArgumentException("Query text cannot be null or empty");
         }
+        if(timeoutSeconds != null && timeoutSeconds <= 0){
+            throw new IllegalArgumentException("timeoutSeconds must be positive");
+        }
 
         StoredQuery storedQuery = new StoredQuery(queryText.trim());
+        storedQuery.setTimeoutSeconds(timeoutSeconds);
+        storedQuery.setParameters(toParameters(storedQuery.getQueryText(), parameters));
+        storedQuery.setFingerprint(sqlFingerprinter.fingerprint(storedQuery.getQueryText()));
+        // Non-SELECT queries can be saved, but are refused when executed
+        storedQuery.setReadOnly(readOnlySqlValidator.isReadOnly(storedQuery.getQueryText()));
+        if (storedQuery.getReadOnly()) {
+            queryCompiler.compile(storedQuery);
+        }
         StoredQuery savedQuery = queryRepository.save(storedQuery);
 
         return new QueryResponse(savedQuery.getId());
@@ -34,15 +86,115 @@ public class QueryService {
     public List<QueryListResponse> getAllQueries(){
         return queryRepository.findAll()
                 .stream()
-                .map(q -> new QueryListResponse(q.getId(), q.getQueryText()))
+                .map(q -> {
+                    QueryListResponse response = new QueryListResponse(q.getId(), q.getQueryText(), q.getParameters().stream()
+                            .map(p -> new QueryParameterDefinition(p.getName(), p.getType().name()))
+                            .toList());
+                    response.setColumns(getResultColumns(q));
+                    response.setEstimatedCost(q.getEstimatedCost());
+                    return response;
+                })
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public QueryPlanResponse getQueryPlan(Long id){
+        StoredQuery storedQuery = getQueryById(id);
+        if (storedQuery.getQueryPlan() == null) {
+            throw new IllegalArgumentException("Query with id " + id + " has no plan");
+        }
+        return new QueryPlanResponse(storedQuery.getId(), storedQuery.getQueryPlan(), storedQuery.getEstimatedCost());
+    }
+
     @Transactional(readOnly = true)
     public StoredQuery getQueryById(Long id){
-        return queryRepository.findById(id)
+        StoredQuery storedQuery = queryRepository.findById(id)
                 .orElseThrow( () -> new IllegalArgumentException("Query with id " + id + " not found"));
+        return withDerivedFields(storedQuery);
+    }
+
+    /**
+     * Loads several stored queries with one query per table.
+     * @return the queries found, by id; unknown ids are left out
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, StoredQuery> getQueriesByIds(Collection<Long> ids){
+        Map<Long, StoredQuery> queries = new HashMap<>();
+        for (StoredQuery storedQuery : queryRepository.findAllById(ids)) {
+            queries.put(storedQuery.getId(), withDerivedFields(storedQuery));
+        }
+        return queries;
     }
 
+    /**
+     * Result columns prepared when the query was saved; empty for queries
+     * saved before that, or unknown ids.
+     */
+    @Transactional(readOnly = true)
+    public List<ColumnDefinition> getResultColumns(Long queryId){
+        return queryRepository.findById(queryId)
+                .map(this::getResultColumns)
+                .orElse(List.of());
+    }
 
+    public List<ColumnDefinition> getResultColumns(StoredQuery storedQuery){
+        return storedQuery.getResultColumns().stream()
+                .map(c -> new ColumnDefinition(c.getName(), c.getType()))
+                .toList();
+    }
+
+    private StoredQuery withDerivedFields(StoredQuery storedQuery) {
+        // Rows saved before fingerprints existed still need a cache key
+        if (storedQuery.getFingerprint() == null) {
+            storedQuery.setFingerprint(sqlFingerprinter.fingerprint(storedQuery.getQueryText()));
+        }
+        // ... and a read-only verdict
+        if (storedQuery.getReadOnly() == null) {
+            storedQuery.setReadOnly(readOnlySqlValidator.isReadOnly(storedQuery.getQueryText()));
+        }
+        return storedQuery;
+    }
+
+    private static List<QueryParameter> toParameters(String queryText, List<QueryParameterDefinition> definitions) {
+        List<QueryParameter> parameters = new ArrayList<>();
+        Set<String> declared = new HashSet<>();
+        for (QueryParameterDefinition definition : definitions != null ? definitions : List.<QueryParameterDefinition>of()) {
+            String name = definition.getName();
+            if (name == null || !PARAMETER_NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid parameter name: " + name);
+            }
+            // 'query' already carries the query id on the execute endpoints
+            if (name.equals("query")) {
+                throw new IllegalArgumentException("Parameter name 'query' is reserved");
+            }
+            if (!declared.add(name)) {
+                throw new IllegalArgumentException("Duplicate parameter: " + name);
+            }
+            parameters.add(new QueryParameter(name, parseType(name, definition.getType())));
+        }
+
+        Set<String> used = NamedParameterSql.parse(queryText).getDistinctNames();
+        for (String name : used) {
+            if (!declared.contains(name)) {
+                throw new IllegalArgumentException("Parameter :" + name + " is used in the query but not declared");
+            }
+        }
+        for (String name : declared) {
+            if (!used.contains(name)) {
+                throw new IllegalArgumentException("Parameter " + name + " is declared but not used in the query");
+            }
+        }
+        return parameters;
+    }
+
+    private static QueryParameter.Type parseType(String name, String type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Parameter " + name + " needs a type");
+        }
+        try {
+            return QueryParameter.Type.valueOf(type.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown type for parameter " + name + ": " + type);
+        }
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.analytics_dashboard.service;
+
+/**
+ * Which read-only connection pool a query runs on.
+ */
+public enum QueryWorkload {
+    /** A client is waiting on the request: sync executions and NDJSON streams. */
+    INTERACTIVE,
+    /** Background work such as async executions. */
+    BATCH
+}
@@ -0,0 +1,29 @@
+package com.example.analytics_dashboard.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Callback used by {@link QueryExecutionService#streamQuery} to consume rows
+ * one at a time instead of materializing the whole result.
+ */
+public interface ResultRowHandler {
+
+    /**
+     * Called once before the first row with the column labels of the result.
+     */
+    default void onColumns(List<String> columnNames) throws IOException {
+    }
+
+    /**
+     * Called for every row. The array is reused between calls, so handlers
+     * must not keep a reference to it.
+     */
+    void onRow(Object[] row) throws IOException;
+
+    /**
+     * Called once after the last row.
+     */
+    default void onComplete(long rowCount) throws IOException {
+    }
+}
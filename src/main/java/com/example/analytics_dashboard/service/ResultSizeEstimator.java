@@ -0,0 +1,93 @@
+package com.example.analytics_dashboard.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * Estimates the heap retained by a {@code List<List<Object>>} result, assuming
+ * a 64-bit JVM with compressed oops. Results over {@link #SAMPLED_ROWS} rows are
+ * measured on an evenly spaced sample and extrapolated.
+ */
+final class ResultSizeEstimator {
+    static final int SAMPLED_ROWS = 1024;
+
+    private static final int ARRAY_LIST = 24;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+
+    private ResultSizeEstimator() {
+    }
+
+    static long estimate(List<List<Object>> rows) {
+        int rowCount = rows.size();
+        long outer = ARRAY_LIST + align(ARRAY_HEADER + (long) REFERENCE * rowCount);
+        if (rowCount == 0) {
+            return outer;
+        }
+
+        int stride = Math.max(1, rowCount / SAMPLED_ROWS);
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (int i = 0; i < rowCount; i += stride) {
+            sampledBytes += rowSize(rows.get(i));
+            sampled++;
+        }
+        return outer + sampledBytes * rowCount / sampled;
+    }
+
+    private static long rowSize(List<Object> row) {
+        if (row == null) {
+            return 0;
+        }
+        long size = ARRAY_LIST + align(ARRAY_HEADER + (long) REFERENCE * row.size());
+        for (Object value : row) {
+            size += valueSize(value);
+        }
+        return size;
+    }
+
+    static long valueSize(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 0;
+        }
+        if (value instanceof String s) {
+            // Compact strings: Latin-1 text takes one byte per char
+            return 24 + align(ARRAY_HEADER + (long) s.length() * (isLatin1(s) ? 1 : 2));
+        }
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof Float) {
+            return 16;
+        }
+        if (value instanceof Long || value instanceof Double) {
+            return 24;
+        }
+        if (value instanceof BigDecimal decimal) {
+            BigInteger unscaled = decimal.unscaledValue();
+            // Values that fit in a long keep no BigInteger
+            return unscaled.bitLength() < 64 ? 40 : 40 + bigIntegerSize(unscaled);
+        }
+        if (value instanceof BigInteger integer) {
+            return bigIntegerSize(integer);
+        }
+        if (value instanceof byte[] bytes) {
+            return align(ARRAY_HEADER + bytes.length);
+        }
+        // Dates, times, UUIDs and anything else: a small object with a few fields
+        return 32;
+    }
+
+    private static long bigIntegerSize(BigInteger value) {
+        return 40 + align(ARRAY_HEADER + 4L * ((value.bitLength() + 31) / 32));
+    }
+
+    private static boolean isLatin1(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (s.charAt(i) > 0xFF) return false;
+        }
+        return true;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
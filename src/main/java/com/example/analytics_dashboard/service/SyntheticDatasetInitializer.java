@@ -0,0 +1,84 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.loader.CsvBulkLoader;
+import com.example.analytics_dashboard.loader.SyntheticPassengerGenerator;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+/**
+ * Fills the passengers table with {@code analytics.synthetic.rows} generated
+ * passengers at startup, in place of the Titanic data, so the application can
+ * be run and measured at any scale. The same seed and row count always give
+ * the same data, and the dataset version is derived from them.
+ * <p>
+ * Rows are inserted directly, or written to {@code analytics.synthetic.csv}
+ * and loaded with {@link CsvBulkLoader} when that is set.
+ */
+@Component
+@Profile("synthetic")
+@DependsOnDatabaseInitialization
+public class SyntheticDatasetInitializer implements InitializingBean {
+    private final JdbcTemplate jdbcTemplate;
+    private final CsvBulkLoader csvBulkLoader;
+    private final DatasetVersion datasetVersion;
+
+    @Value("${analytics.synthetic.rows:1000000}")
+    private int rows = 1_000_000;
+
+    @Value("${analytics.synthetic.seed:42}")
+    private long seed = 42;
+
+    @Value("${analytics.synthetic.csv:}")
+    private String csv = "";
+
+    @Value("${analytics.loader.parallelism:0}")
+    private int parallelism;
+
+    @Value("${analytics.loader.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public SyntheticDatasetInitializer(@Qualifier("primaryJdbcTemplate") JdbcTemplate jdbcTemplate,
+                                       CsvBulkLoader csvBulkLoader,
+                                       DatasetVersion datasetVersion) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.csvBulkLoader = csvBulkLoader;
+        this.datasetVersion = datasetVersion;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        if (rows < 0) {
+            throw new IllegalArgumentException("analytics.synthetic.rows must not be negative");
+        }
+        SyntheticPassengerGenerator generator = new SyntheticPassengerGenerator(seed);
+        if (csv.isBlank()) {
+            generator.insert(jdbcTemplate, "passengers", rows, batchSize, parallelism);
+        } else {
+            Path file = Path.of(csv);
+            try {
+                generator.writeCsv(file, rows);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write synthetic dataset to " + file, e);
+            }
+            csvBulkLoader.load(new FileSystemResource(file), "passengers");
+        }
+
+        // The disk result cache has already opened under the default version, so
+        // results persisted by earlier runs of this dataset are not reused
+        String description = "synthetic revision=" + SyntheticPassengerGenerator.REVISION + " seed=" + seed + " rows=" + rows;
+        byte[] bytes = description.getBytes(StandardCharsets.UTF_8);
+        datasetVersion.set(DatasetVersion.digest(new ByteArrayResource(bytes)));
+    }
+}
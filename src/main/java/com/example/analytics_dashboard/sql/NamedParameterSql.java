@@ -0,0 +1,69 @@
+package com.example.analytics_dashboard.sql;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SQL with named parameters ({@code :name}) rewritten for JDBC. Every
+ * placeholder becomes {@code ?} and {@link #getParameterNames()} says which
+ * parameter is bound at each position, so a name used twice is bound twice.
+ * Text inside string literals, quoted identifiers and comments is left alone,
+ * as are {@code ::} casts.
+ */
+public final class NamedParameterSql {
+    private final String jdbcSql;
+    private final List<String> parameterNames;
+
+    private NamedParameterSql(String jdbcSql, List<String> parameterNames) {
+        this.jdbcSql = jdbcSql;
+        this.parameterNames = parameterNames;
+    }
+
+    public static NamedParameterSql parse(String sql) {
+        StringBuilder jdbcSql = new StringBuilder(sql.length());
+        List<String> names = new ArrayList<>();
+        SqlLexer lexer = new SqlLexer(sql);
+        int copied = 0;
+        int colonStart = -1;
+
+        while (lexer.next() != SqlLexer.TokenType.EOF) {
+            // ':' directly followed by a word, with nothing in between
+            if (colonStart >= 0 && lexer.type() == SqlLexer.TokenType.WORD && lexer.start() == colonStart + 1) {
+                jdbcSql.append(sql, copied, colonStart).append('?');
+                names.add(lexer.text());
+                copied = lexer.end();
+            }
+            colonStart = lexer.isSymbol(":") ? lexer.start() : -1;
+        }
+        jdbcSql.append(sql, copied, sql.length());
+
+        return new NamedParameterSql(jdbcSql.toString(), List.copyOf(names));
+    }
+
+    /**
+     * @return the SQL with {@code ?} in place of each named parameter
+     */
+    public String getJdbcSql() {
+        return jdbcSql;
+    }
+
+    /**
+     * @return the parameter bound at each {@code ?}, in order
+     */
+    public List<String> getParameterNames() {
+        return parameterNames;
+    }
+
+    /**
+     * @return each parameter name once, in order of first use
+     */
+    public Set<String> getDistinctNames() {
+        return new LinkedHashSet<>(parameterNames);
+    }
+
+    public boolean hasParameters() {
+        return !parameterNames.isEmpty();
+    }
+}
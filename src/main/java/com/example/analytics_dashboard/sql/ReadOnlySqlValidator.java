@@ -0,0 +1,63 @@
+package com.example.analytics_dashboard.sql;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether SQL is a single read-only statement, in one pass over the
+ * tokens of {@link SqlLexer}. Accepted are statements that start with
+ * {@code SELECT} or {@code WITH}, contain no data-modifying or DDL keyword and
+ * end at most in semicolons. Keywords only count as bare words, so they may
+ * appear inside string literals, quoted identifiers and comments, and as part
+ * of longer identifiers such as {@code created_at}.
+ */
+@Component
+public class ReadOnlySqlValidator {
+    private static final String[] FORBIDDEN_KEYWORDS = {
+            "INSERT", "UPDATE", "DELETE", "DROP", "CREATE", "ALTER", "TRUNCATE", "MERGE", "GRANT", "REVOKE"
+    };
+
+    public boolean isReadOnly(String sql) {
+        if (sql == null) {
+            return false;
+        }
+
+        SqlLexer lexer = new SqlLexer(sql);
+        if (lexer.next() != SqlLexer.TokenType.WORD || !(lexer.isWord("SELECT") || lexer.isWord("WITH"))) {
+            return false;
+        }
+
+        boolean statementEnded = false;
+        boolean replacePending = false;
+        while (lexer.next() != SqlLexer.TokenType.EOF) {
+            if (lexer.isSymbol(";")) {
+                statementEnded = true;
+                continue;
+            }
+            // Anything after a semicolon is a second statement
+            if (statementEnded) {
+                return false;
+            }
+            // REPLACE(...) is a string function; REPLACE without '(' is a statement
+            if (replacePending && !lexer.isSymbol("(")) {
+                return false;
+            }
+            replacePending = lexer.isWord("REPLACE");
+            if (isForbiddenKeyword(lexer)) {
+                return false;
+            }
+        }
+        return !replacePending;
+    }
+
+    private static boolean isForbiddenKeyword(SqlLexer lexer) {
+        if (lexer.type() != SqlLexer.TokenType.WORD) {
+            return false;
+        }
+        for (String keyword : FORBIDDEN_KEYWORDS) {
+            if (lexer.isWord(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.analytics_dashboard.sql;
+
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Computes a fingerprint that is equal for SQL texts H2 treats as the same
+ * statement. The canonical form:
+ * <ul>
+ *     <li>drops comments and trailing semicolons and separates tokens by a single space</li>
+ *     <li>upper-cases keywords and unquoted identifiers (H2 folds them to upper case)</li>
+ *     <li>unquotes identifiers that would read the same unquoted, e.g. {@code "PASSENGERS"}</li>
+ *     <li>writes {@code !=} as {@code <>}</li>
+ * </ul>
+ * String and numeric literals are kept verbatim.
+ */
+@Component
+public class SqlFingerprinter {
+
+    /**
+     * @return hex SHA-256 of the canonical form
+     */
+    public String fingerprint(String sql) {
+        byte[] canonical = canonicalize(sql).getBytes(StandardCharsets.UTF_8);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public String canonicalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        SqlLexer lexer = new SqlLexer(sql);
+        int pendingSemicolons = 0;
+
+        while (lexer.next() != SqlLexer.TokenType.EOF) {
+            if (lexer.isSymbol(";")) {
+                pendingSemicolons++;
+                continue;
+            }
+            for (; pendingSemicolons > 0; pendingSemicolons--) {
+                separate(out).append(';');
+            }
+
+            separate(out);
+            switch (lexer.type()) {
+                case WORD -> {
+                    for (int i = lexer.start(); i < lexer.end(); i++) {
+                        out.append(Character.toUpperCase(lexer.charAt(i)));
+                    }
+                }
+                case QUOTED_IDENTIFIER -> appendIdentifier(out, lexer.unquotedText());
+                case SYMBOL -> out.append(lexer.isSymbol("!=") ? "<>" : lexer.text());
+                default -> out.append(lexer.text());
+            }
+        }
+        return out.toString();
+    }
+
+    private static StringBuilder separate(StringBuilder out) {
+        if (!out.isEmpty()) out.append(' ');
+        return out;
+    }
+
+    private static void appendIdentifier(StringBuilder out, String name) {
+        if (isPlainUpperCaseIdentifier(name)) {
+            out.append(name);
+        } else {
+            out.append('"').append(name.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private static boolean isPlainUpperCaseIdentifier(String name) {
+        if (name.isEmpty()) return false;
+        char first = name.charAt(0);
+        if (!((first >= 'A' && first <= 'Z') || first == '_')) return false;
+        for (int i = 1; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_')) return false;
+        }
+        return true;
+    }
+}
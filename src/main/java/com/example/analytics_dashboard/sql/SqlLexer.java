@@ -0,0 +1,163 @@
+package com.example.analytics_dashboard.sql;
+
+/**
+ * Cursor-style SQL tokenizer. {@link #next()} advances to the next token and
+ * exposes its bounds in the source text; no token objects are allocated, so
+ * callers only pay for the substrings they actually need.
+ * Whitespace and comments are skipped. Unterminated strings, quoted
+ * identifiers and block comments run to the end of the input.
+ */
+public final class SqlLexer {
+
+    public enum TokenType { WORD, QUOTED_IDENTIFIER, STRING, NUMBER, SYMBOL, EOF }
+
+    private final String sql;
+    private final int length;
+    private int pos;
+
+    private TokenType type;
+    private int start;
+    private int end;
+
+    public SqlLexer(String sql) {
+        this.sql = sql;
+        this.length = sql.length();
+    }
+
+    public TokenType next() {
+        skipWhitespaceAndComments();
+        start = pos;
+        if (pos >= length) {
+            end = pos;
+            return type = TokenType.EOF;
+        }
+
+        char c = sql.charAt(pos);
+        if (Character.isLetter(c) || c == '_') {
+            pos++;
+            while (pos < length && isWordPart(sql.charAt(pos))) pos++;
+            type = TokenType.WORD;
+        } else if (Character.isDigit(c) || (c == '.' && pos + 1 < length && Character.isDigit(sql.charAt(pos + 1)))) {
+            scanNumber();
+            type = TokenType.NUMBER;
+        } else if (c == '\'') {
+            scanQuoted('\'');
+            type = TokenType.STRING;
+        } else if (c == '"') {
+            scanQuoted('"');
+            type = TokenType.QUOTED_IDENTIFIER;
+        } else {
+            pos += isTwoCharSymbol(c) ? 2 : 1;
+            type = TokenType.SYMBOL;
+        }
+        end = pos;
+        return type;
+    }
+
+    public TokenType type() {
+        return type;
+    }
+
+    /** Start offset of the current token, including the opening quote of strings and quoted identifiers. */
+    public int start() {
+        return start;
+    }
+
+    /** End offset (exclusive) of the current token. */
+    public int end() {
+        return end;
+    }
+
+    public String text() {
+        return sql.substring(start, end);
+    }
+
+    public char charAt(int index) {
+        return sql.charAt(index);
+    }
+
+    /**
+     * @return whether the current token is the given word, ignoring case
+     */
+    public boolean isWord(String upperCaseWord) {
+        return type == TokenType.WORD
+                && end - start == upperCaseWord.length()
+                && sql.regionMatches(true, start, upperCaseWord, 0, upperCaseWord.length());
+    }
+
+    public boolean isSymbol(String symbol) {
+        return type == TokenType.SYMBOL
+                && end - start == symbol.length()
+                && sql.startsWith(symbol, start);
+    }
+
+    /**
+     * Content of the current string or quoted identifier without its quotes
+     * and with doubled quotes collapsed.
+     */
+    public String unquotedText() {
+        char quote = sql.charAt(start);
+        int contentEnd = end > start + 1 && sql.charAt(end - 1) == quote ? end - 1 : end;
+        String content = sql.substring(start + 1, contentEnd);
+        String doubled = String.valueOf(quote) + quote;
+        return content.contains(doubled) ? content.replace(doubled, String.valueOf(quote)) : content;
+    }
+
+    private void skipWhitespaceAndComments() {
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+            } else if (c == '-' && pos + 1 < length && sql.charAt(pos + 1) == '-') {
+                while (pos < length && sql.charAt(pos) != '\n') pos++;
+            } else if (c == '/' && pos + 1 < length && sql.charAt(pos + 1) == '*') {
+                int close = sql.indexOf("*/", pos + 2);
+                pos = close < 0 ? length : close + 2;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void scanNumber() {
+        while (pos < length) {
+            char c = sql.charAt(pos);
+            if ((c == '+' || c == '-') && (sql.charAt(pos - 1) == 'e' || sql.charAt(pos - 1) == 'E')) {
+                pos++;
+            } else if (Character.isLetterOrDigit(c) || c == '.' || c == '_') {
+                pos++;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void scanQuoted(char quote) {
+        pos++;
+        while (pos < length) {
+            if (sql.charAt(pos++) == quote) {
+                if (pos < length && sql.charAt(pos) == quote) {
+                    pos++;
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isTwoCharSymbol(char c) {
+        if (pos + 1 >= length) return false;
+        char d = sql.charAt(pos + 1);
+        return switch (c) {
+            case '<' -> d == '=' || d == '>';
+            case '>', '!' -> d == '=';
+            case '|' -> d == '|';
+            case ':' -> d == ':';
+            default -> false;
+        };
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
@@ -1,2 +0,0 @@
-INSERT INTO passengers
-SELECT * FROM CSVREAD('classpath:titanic.csv', null, 'fieldSeparator=,');
\ No newline at end of file
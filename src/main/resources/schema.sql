@@ -15,9 +15,62 @@ CREATE TABLE passengers
     Embarked    VARCHAR(5)
 );
 
+-- DatasetReloadService loads new data here before swapping it into passengers
+DROP TABLE IF EXISTS passengers_staging;
+CREATE TABLE passengers_staging
+(
+    PassengerId INT PRIMARY KEY,
+    Survived    INT,
+    Pclass      INT,
+    Name        VARCHAR(255),
+    Sex         VARCHAR(10),
+    Age         DECIMAL(5, 2),
+    SibSp       INT,
+    Parch       INT,
+    Ticket      VARCHAR(50),
+    Fare        DECIMAL(10, 4),
+    Cabin       VARCHAR(50),
+    Embarked    VARCHAR(5)
+);
+
 CREATE TABLE IF NOT EXISTS stored_queries
 (
     id         BIGINT AUTO_INCREMENT PRIMARY KEY,
     query_text TEXT NOT NULL,
+    fingerprint VARCHAR(64),
+    read_only  BOOLEAN,
+    timeout_seconds INT,
+    query_plan TEXT,
+    estimated_cost BIGINT,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
+
+CREATE TABLE IF NOT EXISTS stored_query_parameters
+(
+    query_id    BIGINT      NOT NULL,
+    param_index INT         NOT NULL,
+    param_name  VARCHAR(64) NOT NULL,
+    param_type  VARCHAR(16) NOT NULL,
+    PRIMARY KEY (query_id, param_index),
+    FOREIGN KEY (query_id) REFERENCES stored_queries (id)
+);
+
+CREATE TABLE IF NOT EXISTS stored_query_columns
+(
+    query_id     BIGINT       NOT NULL,
+    column_index INT          NOT NULL,
+    column_name  VARCHAR(255) NOT NULL,
+    column_type  VARCHAR(64)  NOT NULL,
+    PRIMARY KEY (query_id, column_index),
+    FOREIGN KEY (query_id) REFERENCES stored_queries (id)
+);
+
+CREATE TABLE IF NOT EXISTS query_result_chunks
+(
+    execution_id UUID   NOT NULL,
+    chunk_index  INT    NOT NULL,
+    first_row    BIGINT NOT NULL,
+    row_count    INT    NOT NULL,
+    data         BLOB   NOT NULL,
+    PRIMARY KEY (execution_id, chunk_index)
+);
@@ -0,0 +1,207 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.DatasetVersion;
+import com.example.analytics_dashboard.service.QueryResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DiskResultCacheTest {
+    private static final long SEGMENT_BYTES = 64 * 1024;
+    private static final QueryResult RESULT = new QueryResult(
+            List.of(Arrays.asList(1, "Braund, Mr. Owen Harris", 22.0), Arrays.asList(2, null, 38.0)), 1_000_000);
+
+    @TempDir
+    Path directory;
+
+    private final List<DiskResultCache> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeCaches() {
+        opened.forEach(DiskResultCache::close);
+    }
+
+    @Test
+    void get_afterReopen_shouldReturnPersistedResult() {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        assertTrue(cache.put("v1/fingerprint-1", RESULT));
+        cache.close();
+
+        // Act
+        DiskResultCache reopened = open("v1", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertEquals(RESULT.getRows(), reopened.get("v1/fingerprint-1").orElseThrow().getRows());
+        assertTrue(reopened.get("v1/fingerprint-2").isEmpty());
+        assertEquals(1, reopened.getHitCount());
+        assertEquals(1, reopened.getMissCount());
+    }
+
+    @Test
+    void get_withOtherDatasetVersion_shouldMiss() {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        cache.put("v1/fingerprint-1", RESULT);
+        cache.close();
+
+        // Act
+        DiskResultCache reopened = open("v2", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertTrue(reopened.get("v1/fingerprint-1").isEmpty());
+        assertEquals(0, reopened.getEntryCount());
+    }
+
+    @Test
+    void get_afterSwitchToVersionPutAhead_shouldReturnResult() {
+        // Arrange: a reload precomputes results under the version it is about to switch to
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        String cacheKey = DatasetVersion.qualify("v2", "fingerprint-1");
+        assertTrue(cache.put(cacheKey, RESULT));
+
+        // Act
+        Optional<QueryResult> beforeRestart = cache.get(cacheKey);
+        cache.close();
+        DiskResultCache reopened = open("v2", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertEquals(RESULT.getRows(), beforeRestart.orElseThrow().getRows());
+        assertEquals(RESULT.getRows(), reopened.get(cacheKey).orElseThrow().getRows());
+        assertEquals(1, reopened.getEntryCount());
+    }
+
+    @Test
+    void remove_shouldStayRemovedAfterReopen() {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        cache.put("v1/fingerprint-1", RESULT);
+        cache.put("v1/fingerprint-2", RESULT);
+
+        // Act
+        cache.remove("v1/fingerprint-1");
+        cache.close();
+        DiskResultCache reopened = open("v1", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertTrue(reopened.get("v1/fingerprint-1").isEmpty());
+        assertTrue(reopened.get("v1/fingerprint-2").isPresent());
+    }
+
+    @Test
+    void put_beyondMaxSize_shouldDropOldestSegment() throws IOException {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 2);
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Arrays.asList(i, "passenger-" + i));
+        }
+        QueryResult large = new QueryResult(rows, 0);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            assertTrue(cache.put("v1/fingerprint-" + i, large));
+        }
+
+        // Assert
+        assertTrue(cache.get("v1/fingerprint-0").isEmpty());
+        assertTrue(cache.get("v1/fingerprint-19").isPresent());
+        assertTrue(cache.getFileBytes() <= SEGMENT_BYTES * 2);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.filter(path -> path.toString().endsWith(".seg")).count());
+        }
+    }
+
+    @Test
+    void put_largerThanSegment_shouldNotStore() {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            rows.add(Arrays.asList(i, "passenger-" + i));
+        }
+
+        // Act & Assert
+        assertFalse(cache.put("huge", new QueryResult(rows, 0)));
+        assertTrue(cache.get("huge").isEmpty());
+    }
+
+    @Test
+    void open_withDamagedRecord_shouldKeepRecordsBeforeIt() throws IOException {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        cache.put("v1/fingerprint-1", RESULT);
+        cache.put("v1/fingerprint-2", RESULT);
+        cache.put("v1/fingerprint-3", RESULT);
+        cache.close();
+
+        // Flip the last byte of the second record
+        byte[] first = ResultCodec.encode(RESULT);
+        long secondEnd = 2L * (24 + ("v1/fingerprint-1").length() + first.length);
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("results-1.seg").toFile(), "rw")) {
+            file.seek(secondEnd - 1);
+            int b = file.read();
+            file.seek(secondEnd - 1);
+            file.write(b ^ 0xFF);
+        }
+
+        // Act
+        DiskResultCache reopened = open("v1", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertTrue(reopened.get("v1/fingerprint-1").isPresent());
+        assertTrue(reopened.get("v1/fingerprint-2").isEmpty());
+        assertTrue(reopened.get("v1/fingerprint-3").isEmpty());
+        assertTrue(reopened.put("v1/fingerprint-4", RESULT));
+    }
+
+    @Test
+    void open_whileDirectoryIsInUse_shouldStayUnavailable() {
+        // Arrange
+        DiskResultCache first = open("v1", SEGMENT_BYTES * 4);
+
+        // Act
+        DiskResultCache second = open("v1", SEGMENT_BYTES * 4);
+
+        // Assert
+        assertTrue(first.isAvailable());
+        assertFalse(second.isAvailable());
+        assertFalse(second.put("v1/fingerprint-1", RESULT));
+        assertTrue(second.get("v1/fingerprint-1").isEmpty());
+    }
+
+    @Test
+    void clear_shouldRemoveEverything() {
+        // Arrange
+        DiskResultCache cache = open("v1", SEGMENT_BYTES * 4);
+        cache.put("v1/fingerprint-1", RESULT);
+
+        // Act
+        cache.clear();
+
+        // Assert
+        assertTrue(cache.get("v1/fingerprint-1").isEmpty());
+        assertEquals(0, cache.getEntryCount());
+        assertTrue(cache.put("v1/fingerprint-2", RESULT));
+    }
+
+    private DiskResultCache open(String version, long maxBytes) {
+        DiskResultCache cache = new DiskResultCache(directory, new DatasetVersion(version), SEGMENT_BYTES, maxBytes,
+                Duration.ofHours(24));
+        opened.add(cache);
+        return cache;
+    }
+}
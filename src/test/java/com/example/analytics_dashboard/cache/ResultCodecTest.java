@@ -0,0 +1,82 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.QueryResult;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCodecTest {
+
+    @Test
+    void decode_shouldRestoreEveryValueWithItsType() {
+        // Arrange
+        List<List<Object>> rows = List.of(
+                Arrays.asList(1, 4_000_000_000L, (short) -3, 0.25d, 1.5f, true, null),
+                Arrays.asList(new BigDecimal("22.00"), new BigDecimal("-123456789012345678901234.5"), "Braund, Mr. Owen Harris", "",
+                        "Zoë", Date.valueOf("1912-04-15"), Timestamp.valueOf("1912-04-14 23:40:00.5")),
+                Arrays.asList(LocalDate.of(1912, 4, 10), LocalDateTime.of(1912, 4, 10, 12, 0), Integer.MIN_VALUE,
+                        Long.MIN_VALUE, false, Double.NaN, "male"));
+        QueryResult result = new QueryResult(rows, 1_234_567);
+
+        // Act
+        QueryResult decoded = ResultCodec.decode(ResultCodec.encode(result));
+
+        // Assert
+        assertEquals(rows, decoded.getRows());
+        assertEquals(1_234_567, decoded.getExecutionNanos());
+        assertEquals(BigDecimal.class, decoded.getRows().get(1).get(0).getClass());
+        assertEquals(2, ((BigDecimal) decoded.getRows().get(1).get(0)).scale());
+        assertEquals(Short.class, decoded.getRows().get(0).get(2).getClass());
+    }
+
+    @Test
+    void encode_shouldStoreRepeatedStringsOnce() {
+        // Arrange
+        List<List<Object>> repeated = new ArrayList<>();
+        List<List<Object>> distinct = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            repeated.add(Arrays.asList(i, i % 2 == 0 ? "female" : "male"));
+            distinct.add(Arrays.asList(i, "passenger-" + i));
+        }
+
+        // Act
+        byte[] repeatedBytes = ResultCodec.encode(new QueryResult(repeated, 0));
+        byte[] distinctBytes = ResultCodec.encode(new QueryResult(distinct, 0));
+        QueryResult decoded = ResultCodec.decode(repeatedBytes);
+
+        // Assert
+        assertTrue(repeatedBytes.length < 6000, "about 5 bytes per row, got " + repeatedBytes.length);
+        assertTrue(distinctBytes.length > repeatedBytes.length * 2);
+        assertSame(decoded.getRows().get(0).get(1), decoded.getRows().get(2).get(1));
+        assertEquals(repeated, decoded.getRows());
+    }
+
+    @Test
+    void encode_withUnsupportedType_shouldThrow() {
+        // Arrange
+        QueryResult result = new QueryResult(List.of(Arrays.<Object>asList(UUID.randomUUID())), 0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ResultCodec.encode(result));
+    }
+
+    @Test
+    void decode_withEmptyResult_shouldReturnNoRows() {
+        // Act
+        QueryResult decoded = ResultCodec.decode(ResultCodec.encode(new QueryResult(List.of(), 5)));
+
+        // Assert
+        assertTrue(decoded.getRows().isEmpty());
+        assertEquals(5, decoded.getExecutionNanos());
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.analytics_dashboard.cache;
+
+import com.example.analytics_dashboard.service.QueryResult;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TieredResultCacheTest {
+    private static final QueryResult RESULT = new QueryResult(List.of(Arrays.asList(1, "Braund, Mr. Owen Harris")), 0);
+
+    @Mock
+    private DiskResultCache diskCache;
+
+    private TieredResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TieredResultCache("queryResults", Caffeine.newBuilder().build(), diskCache, 1024 * 1024);
+    }
+
+    @Test
+    void put_shouldWriteBothTiers() {
+        // Arrange
+        when(diskCache.put("key", RESULT)).thenReturn(true);
+
+        // Act
+        cache.put("key", RESULT);
+
+        // Assert
+        verify(diskCache).put("key", RESULT);
+        assertSame(RESULT, cache.getNativeCache().getIfPresent("key"));
+    }
+
+    @Test
+    void put_withResultAboveHeapThreshold_shouldKeepItOnDiskOnly() {
+        // Arrange
+        TieredResultCache smallHeap = new TieredResultCache("queryResults", Caffeine.newBuilder().build(), diskCache, 1);
+        when(diskCache.put("key", RESULT)).thenReturn(true);
+
+        // Act
+        smallHeap.put("key", RESULT);
+
+        // Assert
+        assertNull(smallHeap.getNativeCache().getIfPresent("key"));
+    }
+
+    @Test
+    void get_onHeapMiss_shouldPromoteResultFromDisk() {
+        // Arrange
+        when(diskCache.get("key")).thenReturn(Optional.of(RESULT));
+
+        // Act
+        QueryResult first = cache.get("key", QueryResult.class);
+        QueryResult second = cache.get("key", QueryResult.class);
+
+        // Assert
+        assertSame(RESULT, first);
+        assertSame(RESULT, second);
+        verify(diskCache, times(1)).get("key");
+        verify(diskCache, never()).put(any(), any());
+    }
+
+    @Test
+    void evict_shouldRemoveFromBothTiers() {
+        // Arrange
+        cache.put("key", RESULT);
+
+        // Act
+        cache.evict("key");
+
+        // Assert
+        assertNull(cache.getNativeCache().getIfPresent("key"));
+        verify(diskCache).remove("key");
+    }
+}
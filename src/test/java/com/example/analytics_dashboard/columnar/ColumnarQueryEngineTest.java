@@ -0,0 +1,121 @@
+package com.example.analytics_dashboard.columnar;
+
+import com.example.analytics_dashboard.loader.CsvBulkLoader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarQueryEngineTest {
+    private static EmbeddedDatabase database;
+    private static JdbcTemplate jdbcTemplate;
+    private static ColumnarQueryEngine engine;
+
+    @BeforeAll
+    static void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        new CsvBulkLoader(jdbcTemplate).load(new ClassPathResource("titanic.csv"), "passengers");
+
+        ColumnarPassengerStore store = new ColumnarPassengerStore(jdbcTemplate);
+        store.load();
+        engine = new ColumnarQueryEngine(store);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        database.shutdown();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT COUNT(*) FROM passengers",
+            "select count(*) from passengers where Survived = 1",
+            "SELECT Sex, COUNT(*), COUNT(Age), SUM(Age), AVG(Age), MIN(Age), MAX(Fare) FROM passengers GROUP BY Sex",
+            "SELECT Pclass, SUM(Survived), AVG(Survived), MIN(SibSp), MAX(Parch), SUM(Fare), AVG(Fare) FROM passengers GROUP BY Pclass",
+            "SELECT Embarked, Pclass, COUNT(*) FROM passengers GROUP BY Embarked, Pclass",
+            "SELECT Pclass, Embarked, COUNT(*) AS cnt FROM passengers GROUP BY Embarked, Pclass ORDER BY cnt DESC",
+            "SELECT Cabin, COUNT(*) FROM passengers WHERE Cabin IS NOT NULL GROUP BY Cabin ORDER BY 2 DESC, 1 LIMIT 5",
+            "SELECT Embarked, AVG(Fare) FROM passengers GROUP BY Embarked ORDER BY Embarked DESC",
+            "SELECT Embarked, AVG(Fare) FROM passengers GROUP BY Embarked ORDER BY Embarked NULLS LAST",
+            "SELECT COUNT(*) FROM passengers WHERE Age > 30 AND Sex = 'female' AND Pclass <> 3",
+            "SELECT COUNT(*), AVG(Age) FROM passengers WHERE Age > 100",
+            "SELECT COUNT(*) FROM passengers WHERE Age IS NULL",
+            "SELECT COUNT(*) FROM passengers WHERE Fare BETWEEN 10 AND 50.5 AND Embarked IN ('C', 'Q')",
+            "SELECT COUNT(*) FROM passengers WHERE Pclass IN (1, 3) AND SibSp >= 1 AND Parch < 2.5",
+            "SELECT COUNT(*) FROM passengers WHERE 30 < Age AND Sex != 'male'",
+            "SELECT MIN(Sex), MAX(Cabin), MIN(Embarked) FROM passengers",
+            "SELECT p.Survived, COUNT(*) FROM passengers p GROUP BY p.Survived ORDER BY COUNT(*)",
+            "SELECT COUNT(*) FROM passengers GROUP BY Pclass ORDER BY Pclass DESC",
+            "SELECT Sex, Survived, AVG(Age) FROM passengers WHERE Embarked = 'S' GROUP BY Sex, Survived ORDER BY AVG(Age) DESC LIMIT 3",
+            "SELECT Pclass, COUNT(*) FROM passengers GROUP BY Pclass LIMIT 1 OFFSET 1",
+            "SELECT MAX(PassengerId), MIN(PassengerId) FROM passengers WHERE PassengerId <= -5"
+    })
+    void tryExecute_supportedQuery_shouldMatchH2(String sql) {
+        // Act
+        Optional<List<List<Object>>> columnar = engine.tryExecute(sql);
+
+        // Assert
+        assertTrue(columnar.isPresent(), "Expected columnar engine to handle: " + sql);
+        assertEquals(runOnH2(sql), columnar.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM passengers",
+            "SELECT Name, Age FROM passengers WHERE Survived = 1 LIMIT 5",
+            "SELECT Pclass, COUNT(*) FROM passengers GROUP BY Pclass HAVING COUNT(*) > 200",
+            "SELECT COUNT(*) FROM passengers WHERE Age > 30 OR Pclass = 1",
+            "SELECT COUNT(DISTINCT Cabin) FROM passengers",
+            "SELECT SUM(Sex) FROM passengers",
+            "SELECT Sex, COUNT(*) FROM passengers",
+            "SELECT COUNT(*) FROM nonexistent_table",
+            "SELECT COUNT(*) FROM passengers WHERE Name LIKE '%Mr%'",
+            "SELECT COUNT(*) FROM passengers; DELETE FROM passengers",
+            "SELECT Age, COUNT(*) FROM passengers GROUP BY Age",
+            "DELETE FROM passengers"
+    })
+    void tryExecute_unsupportedQuery_shouldFallBack(String sql) {
+        assertTrue(engine.tryExecute(sql).isEmpty(), "Expected fallback to H2 for: " + sql);
+    }
+
+    @Test
+    void tryExecute_beforeLoad_shouldFallBack() {
+        // Arrange
+        ColumnarQueryEngine emptyEngine = new ColumnarQueryEngine(new ColumnarPassengerStore(jdbcTemplate));
+
+        // Act & Assert
+        assertTrue(emptyEngine.tryExecute("SELECT COUNT(*) FROM passengers").isEmpty());
+    }
+
+    private static List<List<Object>> runOnH2(String sql) {
+        return jdbcTemplate.query(sql, rs -> {
+            List<List<Object>> rows = new ArrayList<>();
+            int columnCount = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                List<Object> row = new ArrayList<>();
+                for (int i = 1; i <= columnCount; i++) {
+                    row.add(rs.getObject(i));
+                }
+                rows.add(row);
+            }
+            return rows;
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.analytics_dashboard.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedVirtualThreadExecutorTest {
+
+    @Test
+    void execute_beyondConcurrencyAndQueue_shouldReject() throws Exception {
+        // Arrange
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+        Runnable blocking = () -> {
+            started.countDown();
+            await(release);
+        };
+
+        // Act
+        executor.execute(blocking);
+        executor.execute(blocking);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(blocking);
+
+        // Assert
+        assertThrows(TaskRejectedException.class, () -> executor.execute(blocking));
+        assertEquals(2, executor.getActiveCount());
+        assertEquals(1, executor.getQueueDepth());
+        assertEquals(1, executor.getRejectedCount());
+
+        release.countDown();
+    }
+
+    @Test
+    void execute_shouldNeverRunMoreThanMaxConcurrency() throws Exception {
+        // Arrange
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 3, 50);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        // Assert
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(peak.get() <= 3, "Peak concurrency was " + peak.get());
+        assertEquals(0, executor.getRejectedCount());
+    }
+
+    @Test
+    void execute_afterTasksFinish_shouldFreeSlots() throws Exception {
+        // Arrange
+        BoundedVirtualThreadExecutor executor = new BoundedVirtualThreadExecutor("test-", 1, 0);
+        CountDownLatch first = new CountDownLatch(1);
+        executor.execute(first::countDown);
+        assertTrue(first.await(5, TimeUnit.SECONDS));
+
+        // Act & Assert
+        CountDownLatch second = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                executor.execute(second::countDown);
+                break;
+            } catch (TaskRejectedException e) {
+                // The first task's thread may still be releasing its slot
+                assertTrue(System.nanoTime() < deadline);
+                Thread.sleep(1);
+            }
+        }
+        assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
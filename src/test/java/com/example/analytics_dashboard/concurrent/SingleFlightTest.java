@@ -0,0 +1,108 @@
+package com.example.analytics_dashboard.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void execute_withConcurrentCallersForSameKey_shouldComputeOnce() throws Exception {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 20;
+
+        // Act
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute("q", () -> {
+                computations.incrementAndGet();
+                leaderStarted.countDown();
+                await(release);
+                return 42;
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("q", computations::incrementAndGet)));
+            }
+            while (singleFlight.getCoalescedCount() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, computations.get());
+        assertEquals(callers - 1, singleFlight.getCoalescedCount());
+        assertEquals(0, singleFlight.getInFlightCount());
+    }
+
+    @Test
+    void execute_whenComputationFails_shouldPropagateToWaitingCallers() throws Exception {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> singleFlight.execute("q", () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = executor.submit(() -> singleFlight.execute("q", () -> 1));
+            while (singleFlight.getCoalescedCount() < 1) {
+                Thread.sleep(1);
+            }
+
+            // Act
+            release.countDown();
+
+            // Assert
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderError.getCause());
+            assertInstanceOf(IllegalStateException.class, followerError.getCause());
+        }
+    }
+
+    @Test
+    void execute_sequentialCalls_shouldNotCoalesce() {
+        // Arrange
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        AtomicInteger computations = new AtomicInteger();
+
+        // Act
+        singleFlight.execute("q", computations::incrementAndGet);
+        singleFlight.execute("q", computations::incrementAndGet);
+
+        // Assert
+        assertEquals(2, computations.get());
+        assertEquals(0, singleFlight.getCoalescedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.analytics_dashboard.config;
+
+import com.example.analytics_dashboard.service.QueryResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheConfigTest {
+    private static final long COST_UNIT = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final List<List<Object>> ROWS = Collections.singletonList(Arrays.asList(1, "Braund, Mr. Owen Harris"));
+
+    @Test
+    void weigh_withCheapResult_shouldUseEstimatedBytes() {
+        // Arrange
+        QueryResult result = new QueryResult(ROWS, TimeUnit.MILLISECONDS.toNanos(5));
+
+        // Act & Assert
+        assertEquals(result.getEstimatedBytes(), CacheConfig.weigh(result, COST_UNIT));
+    }
+
+    @Test
+    void weigh_withExpensiveResult_shouldDiscountUpToLimit() {
+        // Arrange
+        QueryResult twoUnits = new QueryResult(ROWS, 2 * COST_UNIT);
+        QueryResult hundredUnits = new QueryResult(ROWS, 100 * COST_UNIT);
+
+        // Act & Assert
+        assertEquals(twoUnits.getEstimatedBytes() / 3, CacheConfig.weigh(twoUnits, COST_UNIT));
+        assertEquals(hundredUnits.getEstimatedBytes() / CacheConfig.MAX_COST_DISCOUNT, CacheConfig.weigh(hundredUnits, COST_UNIT));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.analytics_dashboard.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourceConfigTest {
+    private static final int ROWS = 1_000_000;
+
+    private HikariDataSource primary;
+    private HikariDataSource sync;
+    private HikariDataSource async;
+
+    @BeforeEach
+    void setUp() {
+        DataSourceConfig config = new DataSourceConfig();
+        ReflectionTestUtils.setField(config, "database", "datasource-test-" + UUID.randomUUID());
+        primary = (HikariDataSource) config.primaryDataSource();
+        sync = config.syncDataSource();
+        async = config.asyncDataSource();
+        new JdbcTemplate(primary).execute(
+                "CREATE TABLE wide AS SELECT X AS id, REPEAT('x', 100) AS pad FROM SYSTEM_RANGE(1, " + ROWS + ")");
+    }
+
+    @AfterEach
+    void tearDown() {
+        sync.close();
+        async.close();
+        new JdbcTemplate(primary).execute("SHUTDOWN");
+        primary.close();
+    }
+
+    @Test
+    void syncPool_shouldReturnFirstRowBeforeBuildingTheWholeResult() throws SQLException {
+        assertFirstRowBeforeWholeResult(sync);
+    }
+
+    @Test
+    void asyncPool_shouldReturnFirstRowBeforeBuildingTheWholeResult() throws SQLException {
+        assertFirstRowBeforeWholeResult(async);
+    }
+
+    private static void assertFirstRowBeforeWholeResult(HikariDataSource pool) throws SQLException {
+        // Arrange
+        try (Connection con = pool.getConnection();
+             PreparedStatement ps = con.prepareStatement("SELECT id, pad FROM wide",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(100);
+
+            // Act
+            long start = System.nanoTime();
+            long rows = 0;
+            long firstRowNanos = 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (rows++ == 0) {
+                        firstRowNanos = System.nanoTime() - start;
+                    }
+                }
+            }
+            long totalNanos = System.nanoTime() - start;
+
+            // Assert
+            assertEquals(ROWS, rows);
+            assertTrue(firstRowNanos * 20 < totalNanos,
+                    "first row after " + firstRowNanos / 1_000_000 + " ms of " + totalNanos / 1_000_000 + " ms");
+        }
+    }
+}
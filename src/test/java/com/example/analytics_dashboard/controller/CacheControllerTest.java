@@ -0,0 +1,70 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.CacheStatsResponse;
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.service.CacheWarmupService;
+import com.example.analytics_dashboard.service.QueryCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = CacheController.class)
+class CacheControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private QueryCacheService queryCacheService;
+
+    @MockitoBean
+    private CacheWarmupService cacheWarmupService;
+
+    @Test
+    void getStats_shouldReturnCacheStatistics() throws Exception {
+        // Arrange
+        CacheStatsResponse stats = new CacheStatsResponse();
+        stats.setEntries(2L);
+        stats.setEstimatedBytes(4096L);
+        stats.setHitCount(3L);
+        stats.setMissCount(1L);
+        stats.setHitRate(0.75);
+        stats.setEvictionCount(0L);
+
+        when(queryCacheService.getStats()).thenReturn(stats);
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(2))
+                .andExpect(jsonPath("$.estimatedBytes").value(4096))
+                .andExpect(jsonPath("$.hitRate").value(0.75))
+                .andExpect(jsonPath("$.evictionCount").value(0));
+    }
+
+    @Test
+    void getWarmupReport_shouldReturnWarmupOutcome() throws Exception {
+        // Arrange
+        CacheWarmupResponse report = new CacheWarmupResponse("COMPLETED");
+        report.setDurationMs(120L);
+        report.setCandidates(3);
+        report.setWarmed(2);
+        report.setFailed(1);
+        report.setPending(0);
+
+        when(cacheWarmupService.getReport()).thenReturn(report);
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/cache/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.durationMs").value(120))
+                .andExpect(jsonPath("$.warmed").value(2))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.controller.ColumnarResultFormat.Type;
+import com.example.analytics_dashboard.dto.ColumnDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarResultFormatTest {
+
+    @Test
+    void decode_shouldRestoreSchemaAndTypedColumns() {
+        // Arrange
+        List<ColumnDefinition> columns = List.of(new ColumnDefinition("PASSENGERID", "INTEGER"),
+                new ColumnDefinition("NAME", "CHARACTER VARYING"), new ColumnDefinition("AGE", "DECIMAL"),
+                new ColumnDefinition("FARE", "DOUBLE PRECISION"), new ColumnDefinition("TOTAL", "BIGINT"),
+                new ColumnDefinition("ADULT", "BOOLEAN"), new ColumnDefinition("BOARDED", "DATE"),
+                new ColumnDefinition("SEEN", "TIMESTAMP"));
+        List<List<Object>> rows = List.of(
+                Arrays.asList(1, "Braund, Mr. Owen Harris", new BigDecimal("22.00"), 7.25, 4_000_000_000L, true,
+                        Date.valueOf("1912-04-10"), Timestamp.valueOf("1912-04-14 23:40:00.5")),
+                Arrays.asList(2, null, null, 71.2833, 3L, false, null, null),
+                Arrays.asList(null, "Heikkinen, Miss. Laina", new BigDecimal("0.5"), null, null, null,
+                        LocalDate.of(1912, 4, 11), LocalDateTime.of(1912, 4, 15, 2, 20)));
+
+        // Act
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(
+                ColumnarResultFormat.encode(columns, rows, Map.of("status", "COMPLETED")));
+
+        // Assert
+        assertEquals(Map.of("status", "COMPLETED"), decoded.metadata());
+        assertEquals("NAME", decoded.columns().get(1).getName());
+        assertEquals("DECIMAL", decoded.columns().get(2).getType());
+        assertEquals(List.of(Type.INT32, Type.STRING, Type.DECIMAL, Type.FLOAT64, Type.INT64, Type.BOOLEAN,
+                Type.DATE, Type.TIMESTAMP), decoded.types());
+        assertEquals(Arrays.asList(1, "Braund, Mr. Owen Harris", new BigDecimal("22.00"), 7.25, 4_000_000_000L, true,
+                LocalDate.of(1912, 4, 10), LocalDateTime.of(1912, 4, 14, 23, 40, 0, 500_000_000)), decoded.rows().get(0));
+        assertEquals(Arrays.asList(2, null, null, 71.2833, 3L, false, null, null), decoded.rows().get(1));
+        // Decimals share the column's largest scale
+        assertEquals(new BigDecimal("0.50"), decoded.rows().get(2).get(2));
+    }
+
+    @Test
+    void encode_shouldStoreRepeatedStringsAsOneByteCodes() {
+        // Arrange
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(Arrays.asList(i % 2 == 0 ? "male" : "female", i % 3 == 0 ? "S" : "C"));
+        }
+
+        // Act
+        byte[] encoded = ColumnarResultFormat.encode(List.of(), rows, Map.of());
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(encoded);
+
+        // Assert
+        assertTrue(encoded.length < 2100, "about one byte per value, got " + encoded.length);
+        assertEquals(rows, decoded.rows());
+        assertEquals("column1", decoded.columns().get(0).getName());
+    }
+
+    @Test
+    void encode_withMixedOrUnsupportedValues_shouldFallBackToStrings() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        List<List<Object>> rows = List.of(
+                Arrays.asList(1, new BigDecimal("123456789012345678901234.5"), id, 1),
+                Arrays.asList("two", new BigDecimal("1"), id, 2L));
+
+        // Act
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(ColumnarResultFormat.encode(List.of(), rows, Map.of()));
+
+        // Assert
+        assertEquals(List.of(Type.STRING, Type.STRING, Type.STRING, Type.INT64), decoded.types());
+        assertEquals(Arrays.asList("1", "123456789012345678901234.5", id.toString(), 1L), decoded.rows().get(0));
+        assertEquals(Arrays.asList("two", "1", id.toString(), 2L), decoded.rows().get(1));
+    }
+
+    @Test
+    void encode_withoutRows_shouldKeepTheSchema() {
+        // Act
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(ColumnarResultFormat.encode(
+                List.of(new ColumnDefinition("NAME", "CHARACTER VARYING")), List.of(), Map.of()));
+
+        // Assert
+        assertEquals(1, decoded.columns().size());
+        assertEquals(List.of(Type.NULL), decoded.types());
+        assertTrue(decoded.rows().isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.analytics_dashboard.controller;
+
+import com.example.analytics_dashboard.dto.DatasetReloadResponse;
+import com.example.analytics_dashboard.exception.DatasetReloadInProgressException;
+import com.example.analytics_dashboard.service.DatasetReloadService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = DatasetController.class)
+class DatasetControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private DatasetReloadService datasetReloadService;
+
+    @Test
+    void reload_shouldReturnNewVersion() throws Exception {
+        // Arrange
+        DatasetReloadResponse response = new DatasetReloadResponse("RELOADED", "a1", "b2");
+        response.setRows(891L);
+        when(datasetReloadService.reload()).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/dataset/reload"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RELOADED"))
+                .andExpect(jsonPath("$.previousVersion").value("a1"))
+                .andExpect(jsonPath("$.version").value("b2"))
+                .andExpect(jsonPath("$.rows").value(891));
+    }
+
+    @Test
+    void reload_whileAnotherIsRunning_shouldReturnConflict() throws Exception {
+        // Arrange
+        when(datasetReloadService.reload())
+                .thenThrow(new DatasetReloadInProgressException("A dataset reload is already running"));
+
+        // Act & Assert
+        mockMvc.perform(post("/admin/dataset/reload"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("A dataset reload is already running"));
+    }
+}
@@ -1,26 +1,58 @@
 package com.example.analytics_dashboard.controller;
 
+import com.example.analytics_dashboard.dto.AsyncExecutionStatusResponse;
+import com.example.analytics_dashboard.dto.BatchExecutionRequest;
+import com.example.analytics_dashboard.dto.BatchQueryRequest;
+import com.example.analytics_dashboard.dto.BatchQueryResult;
+import com.example.analytics_dashboard.dto.ColumnDefinition;
 import com.example.analytics_dashboard.dto.QueryListResponse;
 import com.example.analytics_dashboard.dto.QueryRequest;
 import com.example.analytics_dashboard.dto.QueryResponse;
+import com.example.analytics_dashboard.exception.ExecutionFinishedException;
+import com.example.analytics_dashboard.model.QueryExecution;
+import com.example.analytics_dashboard.model.QueryParameter;
 import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.service.QueryExecutionService;
+import com.example.analytics_dashboard.service.QueryResult;
 import com.example.analytics_dashboard.service.QueryService;
+import com.example.analytics_dashboard.service.QueryWorkload;
 import com.example.analytics_dashboard.service.AsyncQueryExecutionService;
+import com.example.analytics_dashboard.service.BatchExecutionService;
+import com.example.analytics_dashboard.service.BoundQuery;
+import com.example.analytics_dashboard.service.DatasetVersion;
+import com.example.analytics_dashboard.service.ExecutionEventService;
+import com.example.analytics_dashboard.service.ExecutionMetrics;
+import com.example.analytics_dashboard.service.ExecutionProgress;
+import com.example.analytics_dashboard.service.QueryCancellation;
+import com.example.analytics_dashboard.service.ResultRowHandler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -42,13 +74,38 @@ public class QueryControllerTest {
     @MockitoBean
     private AsyncQueryExecutionService asyncExecutionService;
 
+    @MockitoBean
+    private ExecutionEventService executionEventService;
+
+    @MockitoBean
+    private BatchExecutionService batchExecutionService;
+
+    @MockitoBean
+    private DatasetVersion datasetVersion;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ExecutionMetrics executionMetrics(MeterRegistry meterRegistry) {
+            return new ExecutionMetrics(meterRegistry);
+        }
+    }
+
     @Test
     void addQuery_withValidQuery_shouldReturnCreatedWithId() throws Exception {
         // Arrange
         QueryRequest request = new QueryRequest("SELECT * FROM passengers");
         QueryResponse expectedResponse = new QueryResponse(1L);
 
-        when(queryService.addQuery(any(String.class))).thenReturn(expectedResponse);
+        when(queryService.addQuery(any(String.class), any(), any())).thenReturn(expectedResponse);
 
         // Act & Assert
         mockMvc.perform(post("/queries")
@@ -57,7 +114,7 @@ public class QueryControllerTest {
                         .andExpect(status().isCreated())
                         .andExpect(jsonPath("$.id").value(1));
 
-        verify(queryService, times(1)).addQuery("SELECT * FROM passengers");
+        verify(queryService, times(1)).addQuery("SELECT * FROM passengers", null, null);
     }
 
     @Test
@@ -65,7 +122,7 @@ public class QueryControllerTest {
         // Arrange
         QueryRequest request = new QueryRequest("");
 
-        when(queryService.addQuery(any(String.class)))
+        when(queryService.addQuery(any(String.class), any(), any()))
                 .thenThrow(new IllegalArgumentException("Query text cannot be empty"));
 
         // Act & Assert
@@ -122,8 +179,9 @@ public class QueryControllerTest {
         );
 
         when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
-        when(executionService.isReadOnlyQuery(storedQuery.getQueryText())).thenReturn(true);
-        when(executionService.executeQuery(storedQuery.getQueryText())).thenReturn(expectedResult);
+        storedQuery.setReadOnly(true);
+        when(executionService.executeQuery(BoundQuery.of(storedQuery))).thenReturn(new QueryResult(expectedResult, 0));
+        long timedBefore = executionCount("sync", "success");
 
         // Act & Assert
         mockMvc.perform(get("/queries/execute")
@@ -138,8 +196,109 @@ public class QueryControllerTest {
                 .andExpect(jsonPath("$.result[1][0]").value(2));
 
         verify(queryService, times(1)).getQueryById(queryId);
-        verify(executionService, times(1)).isReadOnlyQuery(storedQuery.getQueryText());
-        verify(executionService, times(1)).executeQuery(storedQuery.getQueryText());
+        verify(executionService, times(1)).executeQuery(BoundQuery.of(storedQuery));
+        assertEquals(timedBefore + 1, executionCount("sync", "success"));
+    }
+
+    @Test
+    void executeQuery_withColumnarAccept_shouldReturnBinaryResultWithSchema() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT PassengerId, Sex FROM passengers LIMIT 2");
+        storedQuery.setId(1L);
+        storedQuery.setReadOnly(true);
+        List<ColumnDefinition> columns = List.of(new ColumnDefinition("PASSENGERID", "INTEGER"),
+                new ColumnDefinition("SEX", "CHARACTER VARYING"));
+        when(queryService.getQueryById(1L)).thenReturn(storedQuery);
+        when(queryService.getResultColumns(storedQuery)).thenReturn(columns);
+        when(executionService.executeQuery(BoundQuery.of(storedQuery)))
+                .thenReturn(new QueryResult(List.of(Arrays.asList(1, "male"), Arrays.asList(2, "female")), 0));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/queries/execute")
+                        .param("query", "1")
+                        .accept(ColumnarResultFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ColumnarResultFormat.MEDIA_TYPE))
+                .andReturn();
+
+        // Assert
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals(List.of("PASSENGERID", "SEX"), decoded.columns().stream().map(ColumnDefinition::getName).toList());
+        assertEquals(List.of(Arrays.asList(1, "male"), Arrays.asList(2, "female")), decoded.rows());
+    }
+
+    @Test
+    void executeQuery_withMatchingIfNoneMatch_shouldAnswerNotModifiedWithoutExecuting() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT COUNT(*) FROM passengers");
+        storedQuery.setId(1L);
+        storedQuery.setReadOnly(true);
+        when(queryService.getQueryById(1L)).thenReturn(storedQuery);
+        when(datasetVersion.get()).thenReturn("v1");
+        when(executionService.executeQuery(BoundQuery.of(storedQuery)))
+                .thenReturn(new QueryResult(List.of(Arrays.asList(891)), 0));
+
+        String eTag = mockMvc.perform(get("/queries/execute").param("query", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute").param("query", "1").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(executionService, times(1)).executeQuery(any());
+
+        // A new dataset version means a new result
+        when(datasetVersion.get()).thenReturn("v2");
+        mockMvc.perform(get("/queries/execute").param("query", "1").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void executeQuery_withParameters_shouldBindRequestParams() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT COUNT(*) FROM passengers WHERE Pclass = :pclass");
+        storedQuery.setId(1L);
+        storedQuery.setFingerprint("fp");
+        storedQuery.setParameters(List.of(new QueryParameter("pclass", QueryParameter.Type.INTEGER)));
+
+        when(queryService.getQueryById(1L)).thenReturn(storedQuery);
+        storedQuery.setReadOnly(true);
+        when(executionService.executeQuery(any())).thenReturn(new QueryResult(List.of(List.of(216)), 0));
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute")
+                        .param("query", "1")
+                        .param("pclass", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result[0][0]").value(216));
+
+        ArgumentCaptor<BoundQuery> captor = ArgumentCaptor.forClass(BoundQuery.class);
+        verify(executionService).executeQuery(captor.capture());
+        assertEquals(List.of(1L), captor.getValue().getValues());
+        assertEquals("fp?pclass=1", captor.getValue().getCacheKey());
+    }
+
+    @Test
+    void executeQuery_withMissingParameter_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT COUNT(*) FROM passengers WHERE Pclass = :pclass");
+        storedQuery.setId(1L);
+        storedQuery.setParameters(List.of(new QueryParameter("pclass", QueryParameter.Type.INTEGER)));
+
+        when(queryService.getQueryById(1L)).thenReturn(storedQuery);
+        storedQuery.setReadOnly(true);
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute")
+                        .param("query", "1"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Missing value for parameter 'pclass'"));
+
+        verify(executionService, never()).executeQuery(any());
     }
 
     @Test
@@ -150,7 +309,7 @@ public class QueryControllerTest {
         storedQuery.setId(queryId);
 
         when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
-        when(executionService.isReadOnlyQuery(storedQuery.getQueryText())).thenReturn(false);
+        storedQuery.setReadOnly(false);
 
         // Act & Assert
         mockMvc.perform(get("/queries/execute")
@@ -159,7 +318,6 @@ public class QueryControllerTest {
                 .andExpect(jsonPath("$.error").value("Only SELECT queries are allowed"));
 
         verify(queryService, times(1)).getQueryById(queryId);
-        verify(executionService, times(1)).isReadOnlyQuery(storedQuery.getQueryText());
         verify(executionService, never()).executeQuery(any());
     }
 
@@ -191,8 +349,8 @@ public class QueryControllerTest {
         List<List<Object>> emptyResult = Collections.emptyList();
 
         when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
-        when(executionService.isReadOnlyQuery(storedQuery.getQueryText())).thenReturn(true);
-        when(executionService.executeQuery(storedQuery.getQueryText())).thenReturn(emptyResult);
+        storedQuery.setReadOnly(true);
+        when(executionService.executeQuery(BoundQuery.of(storedQuery))).thenReturn(new QueryResult(emptyResult, 0));
 
         // Act & Assert
         mockMvc.perform(get("/queries/execute")
@@ -202,4 +360,263 @@ public class QueryControllerTest {
                 .andExpect(jsonPath("$.result.length()").value(0));
     }
 
+    @Test
+    void executeQuery_withNdjsonAccept_shouldStreamRows() throws Exception {
+        // Arrange
+        Long queryId = 1L;
+        StoredQuery storedQuery = new StoredQuery("SELECT * FROM passengers LIMIT 2");
+        storedQuery.setId(queryId);
+
+        when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
+        storedQuery.setReadOnly(true);
+        doAnswer(invocation -> {
+            ResultRowHandler handler = invocation.getArgument(3);
+            handler.onRow(new Object[]{1, "John", 25});
+            handler.onRow(new Object[]{2, "Jane", 30});
+            handler.onComplete(2);
+            return null;
+        }).when(executionService).streamQuery(eq(BoundQuery.of(storedQuery)), eq(QueryWorkload.INTERACTIVE), any(QueryCancellation.class), any(ResultRowHandler.class));
+        long timedBefore = executionCount("stream", "success");
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/queries/execute")
+                        .param("query", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("[1,\"John\",25]\n[2,\"Jane\",30]\n"));
+
+        verify(executionService, never()).executeQuery(any());
+        assertEquals(timedBefore + 1, executionCount("stream", "success"));
+        assertEquals(28, meterRegistry.get("analytics.query.result.size").tags("query", "1", "mode", "stream")
+                .summary().max());
+    }
+
+    @Test
+    void executeQuery_withNdjsonAcceptAndNonSelectQuery_shouldReturnBadRequest() throws Exception {
+        // Arrange
+        Long queryId = 1L;
+        StoredQuery storedQuery = new StoredQuery("DELETE FROM passengers");
+        storedQuery.setId(queryId);
+
+        when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
+        storedQuery.setReadOnly(false);
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute")
+                        .param("query", "1")
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(executionService, never()).streamQuery(any(), any(), any(), any());
+    }
+
+    @Test
+    void executeQuery_withNdjsonAcceptAndMatchingIfNoneMatch_shouldAnswerNotModifiedWithoutStreaming() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT * FROM passengers LIMIT 2");
+        storedQuery.setId(1L);
+        storedQuery.setReadOnly(true);
+        when(queryService.getQueryById(1L)).thenReturn(storedQuery);
+        when(datasetVersion.get()).thenReturn("v1");
+        when(executionService.executeQuery(BoundQuery.of(storedQuery)))
+                .thenReturn(new QueryResult(List.of(Arrays.asList(1, "John")), 0));
+
+        MvcResult streamed = mockMvc.perform(get("/queries/execute").param("query", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(streamed))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(header().string("Vary", "Accept"));
+        String eTag = streamed.getResponse().getHeader("ETag");
+        String jsonETag = mockMvc.perform(get("/queries/execute").param("query", "1"))
+                .andReturn().getResponse().getHeader("ETag");
+        clearInvocations(executionService);
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute").param("query", "1")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", eTag))
+                .andExpect(content().string(""));
+        verify(executionService, never()).streamQuery(any(), any(), any(), any());
+
+        // The JSON representation has an ETag of its own
+        assertNotEquals(jsonETag, eTag);
+        mockMvc.perform(get("/queries/execute").param("query", "1")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("If-None-Match", jsonETag))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void executeQueryAsync_whenExecutorIsFull_shouldReturnTooManyRequests() throws Exception {
+        // Arrange
+        Long queryId = 1L;
+        StoredQuery storedQuery = new StoredQuery("SELECT * FROM passengers");
+        storedQuery.setId(queryId);
+
+        when(queryService.getQueryById(queryId)).thenReturn(storedQuery);
+        storedQuery.setReadOnly(true);
+        when(asyncExecutionService.startExecution(BoundQuery.of(storedQuery))).thenThrow(new TaskRejectedException("full"));
+
+        // Act & Assert
+        mockMvc.perform(post("/queries/execute/async")
+                        .param("query", "1"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "5"))
+                .andExpect(jsonPath("$.error").value("Too many queries in progress, retry later"));
+    }
+
+    @Test
+    void getExecutionStatus_whileRunning_shouldAnswerFromProgressWithoutDatabase() throws Exception {
+        // Arrange
+        String executionId = "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11";
+        AsyncExecutionStatusResponse running = new AsyncExecutionStatusResponse(executionId, "RUNNING");
+        running.setRowsFetched(1500L);
+        running.setElapsedMs(820L);
+        ExecutionProgress progress = mock(ExecutionProgress.class);
+        when(progress.isFinished()).thenReturn(false);
+        when(progress.toStatusResponse()).thenReturn(running);
+        when(asyncExecutionService.getProgress(executionId)).thenReturn(Optional.of(progress));
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute/async/" + executionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.rowsFetched").value(1500))
+                .andExpect(jsonPath("$.elapsedMs").value(820));
+
+        verify(asyncExecutionService, never()).getExecution(any());
+    }
+
+    @Test
+    void getExecutionStatus_withColumnarAccept_shouldPutStatusIntoMetadata() throws Exception {
+        // Arrange
+        UUID executionId = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(executionId);
+        execution.setStatus(QueryExecution.ExecutionStatus.COMPLETED);
+        execution.setRowCount(2L);
+        when(asyncExecutionService.getProgress(executionId.toString())).thenReturn(Optional.empty());
+        when(asyncExecutionService.getExecution(executionId.toString())).thenReturn(execution);
+        when(asyncExecutionService.getResultRows(execution, 1, 1)).thenReturn(List.of(Arrays.asList(2, "Jane")));
+        when(queryService.getResultColumns(1L)).thenReturn(List.of(
+                new ColumnDefinition("PASSENGERID", "INTEGER"), new ColumnDefinition("NAME", "CHARACTER VARYING")));
+
+        // Act
+        MvcResult mvcResult = mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("offset", "1")
+                        .param("limit", "1")
+                        .accept(ColumnarResultFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        // Assert
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(mvcResult.getResponse().getContentAsByteArray());
+        assertEquals("COMPLETED", decoded.metadata().get("status"));
+        assertEquals("2", decoded.metadata().get("totalRows"));
+        assertEquals("1", decoded.metadata().get("offset"));
+        assertEquals(List.of(Arrays.asList(2, "Jane")), decoded.rows());
+        assertEquals("NAME", decoded.columns().get(1).getName());
+    }
+
+    @Test
+    void getExecutionStatus_whenCompletedAndNotModified_shouldNotReadResult() throws Exception {
+        // Arrange
+        UUID executionId = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(executionId);
+        execution.setStatus(QueryExecution.ExecutionStatus.COMPLETED);
+        execution.setRowCount(1L);
+        when(asyncExecutionService.getProgress(executionId.toString())).thenReturn(Optional.empty());
+        when(asyncExecutionService.getExecution(executionId.toString())).thenReturn(execution);
+        when(asyncExecutionService.getResultRows(execution, 0, null)).thenReturn(List.of(Arrays.asList(1)));
+
+        String eTag = mockMvc.perform(get("/queries/execute/async/" + executionId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=3600, private"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute/async/" + executionId).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+        verify(asyncExecutionService, times(1)).getResultRows(any(), anyLong(), any());
+    }
+
+    @Test
+    void awaitExecutionStatus_withNegativeWait_shouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute/async/a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11")
+                        .param("waitMs", "-1"))
+                .andExpect(status().isBadRequest());
+
+        verify(asyncExecutionService, never()).awaitCompletion(any(), any());
+    }
+
+    @Test
+    void cancelExecution_whileRunning_shouldReturnAccepted() throws Exception {
+        // Arrange
+        String executionId = "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11";
+        ExecutionProgress progress = mock(ExecutionProgress.class);
+        when(progress.toStatusResponse()).thenReturn(new AsyncExecutionStatusResponse(executionId, "RUNNING"));
+        when(asyncExecutionService.cancelExecution(executionId)).thenReturn(progress);
+
+        // Act & Assert
+        mockMvc.perform(delete("/queries/execute/async/" + executionId))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.executionId").value(executionId));
+
+        verify(asyncExecutionService, times(1)).cancelExecution(executionId);
+    }
+
+    @Test
+    void cancelExecution_whenAlreadyFinished_shouldReturnConflict() throws Exception {
+        // Arrange
+        String executionId = "a0eebc99-9c0b-4ef8-bb6d-6bb9bd380a11";
+        when(asyncExecutionService.cancelExecution(executionId))
+                .thenThrow(new ExecutionFinishedException("Execution is already COMPLETED"));
+
+        // Act & Assert
+        mockMvc.perform(delete("/queries/execute/async/" + executionId))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Execution is already COMPLETED"));
+    }
+
+    @Test
+    void executeBatch_shouldReturnResultOrErrorPerQuery() throws Exception {
+        // Arrange
+        BatchExecutionRequest request = new BatchExecutionRequest(List.of(
+                new BatchQueryRequest(1L), new BatchQueryRequest(2L)));
+        when(batchExecutionService.execute(any())).thenReturn(List.of(
+                BatchQueryResult.success(1L, List.of(Arrays.asList(1, "John"))),
+                BatchQueryResult.failure(2L, 400, "Query with id 2 not found")));
+
+        // Act & Assert
+        mockMvc.perform(post("/queries/execute/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].query").value(1))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].result[0][1]").value("John"))
+                .andExpect(jsonPath("$.results[0].error").doesNotExist())
+                .andExpect(jsonPath("$.results[1].status").value(400))
+                .andExpect(jsonPath("$.results[1].error").value("Query with id 2 not found"));
+    }
+
+    private long executionCount(String mode, String outcome) {
+        Timer timer = meterRegistry.find("analytics.query.execution")
+                .tags("query", "1", "mode", mode, "outcome", outcome)
+                .timer();
+        return timer == null ? 0 : timer.count();
+    }
 }
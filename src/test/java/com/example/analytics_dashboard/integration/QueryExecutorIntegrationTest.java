@@ -1,26 +1,57 @@
 package com.example.analytics_dashboard.integration;
 
+import com.example.analytics_dashboard.controller.ColumnarResultFormat;
 import com.example.analytics_dashboard.dto.AsyncExecutionResponse;
+import com.example.analytics_dashboard.dto.ColumnDefinition;
+import com.example.analytics_dashboard.dto.DatasetReloadResponse;
+import com.example.analytics_dashboard.dto.QueryParameterDefinition;
 import com.example.analytics_dashboard.dto.QueryRequest;
 import com.example.analytics_dashboard.dto.QueryResponse;
+import com.example.analytics_dashboard.model.QueryExecution;
+import com.example.analytics_dashboard.repository.QueryExecutionRepository;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
+import com.example.analytics_dashboard.service.CacheWarmupService;
+import com.example.analytics_dashboard.service.DatasetReloadService;
+import com.example.analytics_dashboard.service.ExecutionRetentionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// A directory of its own, so results persisted by earlier runs are not reused
+@SpringBootTest(properties = {
+        "analytics.cache.disk.enabled=true",
+        "analytics.cache.disk.directory=target/result-cache/${random.uuid}"
+})
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 class QueryExecutorIntegrationTest {
 
     @Autowired
@@ -29,6 +60,24 @@ class QueryExecutorIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private CacheWarmupService cacheWarmupService;
+
+    @Autowired
+    private ExecutionRetentionService retentionService;
+
+    @Autowired
+    private DatasetReloadService datasetReloadService;
+
+    @Autowired
+    private QueryExecutionRepository executionRepository;
+
+    @Autowired
+    private ResultChunkRepository resultChunkRepository;
+
     @Test
     void fullFlow_addListAndExecuteQuery_shouldWork() throws Exception {
         // Step 1: Add a query
@@ -143,6 +192,247 @@ class QueryExecutorIntegrationTest {
         assertTrue(duration2 <= duration1, "Cached query should be faster");
     }
 
+    @Test
+    void executeQuery_withFormattingVariants_shouldShareCacheEntry() throws Exception {
+        // Arrange
+        Long firstId = addQuery("SELECT Embarked, COUNT(*) FROM passengers WHERE Fare > 7 GROUP BY Embarked");
+        Long secondId = addQuery("select embarked,\n  count(*)  -- per port\nfrom \"PASSENGERS\" where fare>7 group by embarked;");
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("queryResults")).getNativeCache();
+
+        // Act
+        String first = mockMvc.perform(get("/queries/execute").param("query", firstId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long hitsBefore = nativeCache.stats().hitCount();
+        String second = mockMvc.perform(get("/queries/execute").param("query", secondId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(hitsBefore + 1, nativeCache.stats().hitCount());
+    }
+
+    @Test
+    void executeQuery_afterHeapCacheIsLost_shouldServeResultFromDisk() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Embarked, SUM(Fare), MIN(Age) FROM passengers WHERE Parch = 2 GROUP BY Embarked");
+        String fromDatabase = mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        ((CaffeineCache) cacheManager.getCache("queryResults")).getNativeCache().invalidateAll();
+        long diskHitsBefore = objectMapper.readTree(mockMvc.perform(get("/queries/cache/stats"))
+                .andReturn().getResponse().getContentAsString()).get("diskHitCount").asLong();
+
+        // Act
+        String fromDisk = mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertEquals(fromDatabase, fromDisk);
+        mockMvc.perform(get("/queries/cache/stats"))
+                .andExpect(jsonPath("$.diskHitCount").value(diskHitsBefore + 1))
+                .andExpect(jsonPath("$.diskEntries").value(greaterThan(0)));
+    }
+
+    @Test
+    void executeQuery_withParameters_shouldCacheEachValueSeparately() throws Exception {
+        // Arrange
+        QueryRequest request = new QueryRequest("SELECT COUNT(*) FROM passengers WHERE Pclass = :pclass");
+        request.setParameters(List.of(new QueryParameterDefinition("pclass", "INTEGER")));
+        MvcResult addResult = mockMvc.perform(post("/queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String queryId = objectMapper.readValue(addResult.getResponse().getContentAsString(), QueryResponse.class)
+                .getId().toString();
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("queryResults")).getNativeCache();
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute").param("query", queryId).param("pclass", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result[0][0]").value(216));
+        mockMvc.perform(get("/queries/execute").param("query", queryId).param("pclass", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result[0][0]").value(491));
+
+        long hitsBefore = nativeCache.stats().hitCount();
+        mockMvc.perform(get("/queries/execute").param("query", queryId).param("pclass", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result[0][0]").value(216));
+        assertEquals(hitsBefore + 1, nativeCache.stats().hitCount());
+
+        mockMvc.perform(get("/queries/execute").param("query", queryId).param("pclass", "first"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/queries")).andExpect(jsonPath("$[?(@.id == " + queryId + ")].parameters[0].type")
+                .value("INTEGER"));
+    }
+
+    @Test
+    void executeQuery_withColumnarAccept_shouldReturnTypedColumnsSmallerThanJson() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT PassengerId, Name, Sex, Age, Fare, Embarked FROM passengers ORDER BY PassengerId");
+
+        // Act
+        byte[] json = mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] columnar = mockMvc.perform(get("/queries/execute").param("query", queryId.toString())
+                        .accept(ColumnarResultFormat.MEDIA_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ColumnarResultFormat.MEDIA_TYPE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        ColumnarResultFormat.Decoded decoded = ColumnarResultFormat.decode(columnar);
+        assertEquals(List.of("PASSENGERID", "NAME", "SEX", "AGE", "FARE", "EMBARKED"),
+                decoded.columns().stream().map(ColumnDefinition::getName).toList());
+        assertEquals(List.of(ColumnarResultFormat.Type.INT32, ColumnarResultFormat.Type.STRING,
+                ColumnarResultFormat.Type.STRING, ColumnarResultFormat.Type.DECIMAL,
+                ColumnarResultFormat.Type.DECIMAL, ColumnarResultFormat.Type.STRING), decoded.types());
+        assertEquals(891, decoded.rows().size());
+        assertEquals(Arrays.asList(1, "Braund, Mr. Owen Harris", "male", new BigDecimal("22.00"),
+                new BigDecimal("7.2500"), "S"), decoded.rows().get(0));
+        assertTrue(columnar.length < json.length, columnar.length + " vs " + json.length + " bytes");
+    }
+
+    @Test
+    void executeQuery_withCurrentETag_shouldAnswerNotModified() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Name FROM passengers WHERE PassengerId = 3");
+        MvcResult first = mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn();
+        String eTag = first.getResponse().getHeader("ETag");
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()).header("If-None-Match", eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        // Another representation has its own ETag
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()).header("If-None-Match", eTag)
+                        .accept(ColumnarResultFormat.MEDIA_TYPE))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void executeBatch_shouldRunEveryQueryAndReportEachStatus() throws Exception {
+        // Arrange
+        Long count = addQuery("SELECT COUNT(*) FROM passengers");
+        Long names = addQuery("SELECT Name FROM passengers WHERE PassengerId <= 2 ORDER BY PassengerId");
+        String body = "{\"queries\": [{\"query\": " + count + "}, {\"query\": " + names + "}, {\"query\": 999999}]}";
+
+        // Act & Assert
+        mockMvc.perform(post("/queries/execute/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results", hasSize(3)))
+                .andExpect(jsonPath("$.results[0].status").value(200))
+                .andExpect(jsonPath("$.results[0].result[0][0]").value(891))
+                .andExpect(jsonPath("$.results[1].result", hasSize(2)))
+                .andExpect(jsonPath("$.results[1].result[0][0]").value("Braund, Mr. Owen Harris"))
+                .andExpect(jsonPath("$.results[2].status").value(400))
+                .andExpect(jsonPath("$.results[2].error").value("Query with id 999999 not found"));
+    }
+
+    @Test
+    void addQuery_shouldStoreColumnsPlanAndCost() throws Exception {
+        // Arrange
+        Long scanId = addQuery("SELECT Name, Age AS years FROM passengers WHERE Survived = 1");
+        Long crossJoinId = addQuery("SELECT COUNT(*) FROM passengers a, passengers b");
+        Long lookupId = addQuery("SELECT Name FROM passengers WHERE PassengerId = 1");
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/" + scanId + "/plan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.plan").value(containsString("PUBLIC.PASSENGERS.tableScan")))
+                .andExpect(jsonPath("$.estimatedCost").value(891));
+        mockMvc.perform(get("/queries/" + crossJoinId + "/plan"))
+                .andExpect(jsonPath("$.estimatedCost").value(891 * 891));
+        mockMvc.perform(get("/queries/" + lookupId + "/plan"))
+                .andExpect(jsonPath("$.estimatedCost").value(1));
+        mockMvc.perform(get("/queries"))
+                .andExpect(jsonPath("$[?(@.id == " + scanId + ")].columns[1].name").value("YEARS"))
+                .andExpect(jsonPath("$[?(@.id == " + scanId + ")].columns[1].type").value("DECIMAL"));
+
+        mockMvc.perform(get("/queries/execute").param("query", scanId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result", hasSize(342)));
+    }
+
+    @Test
+    void addQuery_withInvalidSql_shouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(post("/queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QueryRequest("SELECT * FROM nonexistent_table"))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value(containsString("NONEXISTENT_TABLE")));
+    }
+
+    @Test
+    void cacheStats_afterExecution_shouldReportFootprintAndHits() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Name, Ticket FROM passengers WHERE Pclass = 1");
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString())).andExpect(status().isOk());
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString())).andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entries").value(greaterThan(0)))
+                .andExpect(jsonPath("$.estimatedBytes").value(greaterThan(0)))
+                .andExpect(jsonPath("$.weightedSize").value(greaterThan(0)))
+                .andExpect(jsonPath("$.maximumWeight").value(64 * 1024 * 1024))
+                .andExpect(jsonPath("$.hitCount").value(greaterThan(0)))
+                .andExpect(jsonPath("$.hitRate").isNumber())
+                .andExpect(jsonPath("$.evictionCount").isNumber());
+    }
+
+    @Test
+    void warmUp_shouldFillCacheAndReportBeforeReadiness() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Sex, AVG(Age) FROM passengers WHERE Pclass = 2 GROUP BY Sex");
+        Cache<Object, Object> nativeCache = ((CaffeineCache) cacheManager.getCache("queryResults")).getNativeCache();
+
+        // Act
+        cacheWarmupService.warmUp();
+        long hitsBefore = nativeCache.stats().hitCount();
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(hitsBefore + 1, nativeCache.stats().hitCount());
+        mockMvc.perform(get("/queries/cache/warmup"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.durationMs").isNumber())
+                .andExpect(jsonPath("$.warmed").value(greaterThan(0)));
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+
+    private QueryExecution saveExecution(long queryId, QueryExecution.ExecutionStatus status, LocalDateTime completedAt) {
+        QueryExecution execution = new QueryExecution(queryId);
+        execution.setStatus(status);
+        execution.setCompletedAt(completedAt);
+        return executionRepository.save(execution);
+    }
+
+    private Long addQuery(String sql) throws Exception {
+        MvcResult addResult = mockMvc.perform(post("/queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QueryRequest(sql))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readValue(addResult.getResponse().getContentAsString(), QueryResponse.class).getId();
+    }
+
     @Test
     void asyncExecution_fullFlow_shouldWork() throws Exception {
         // Add a query
@@ -187,4 +477,309 @@ class QueryExecutorIntegrationTest {
                 .andExpect(jsonPath("$.result").isArray())
                 .andExpect(jsonPath("$.result", hasSize(5)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void asyncExecution_withFullTable_shouldReturnEveryStoredRow() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT * FROM passengers ORDER BY PassengerId");
+
+        // Act
+        String executionId = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/queries/execute/async")
+                        .param("query", queryId.toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.executionId");
+        String status = "PENDING";
+        for (int attempts = 0; attempts < 50 && !status.equals("COMPLETED") && !status.equals("FAILED"); attempts++) {
+            Thread.sleep(100);
+            status = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(get("/queries/execute/async/" + executionId))
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+
+        // Assert
+        mockMvc.perform(get("/queries/execute/async/" + executionId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.result", hasSize(891)))
+                .andExpect(jsonPath("$.result[0][0]").value(1))
+                .andExpect(jsonPath("$.result[890][0]").value(891));
+        mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("offset", "100")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(891))
+                .andExpect(jsonPath("$.offset").value(100))
+                .andExpect(jsonPath("$.result", hasSize(10)))
+                .andExpect(jsonPath("$.result[0][0]").value(101))
+                .andExpect(jsonPath("$.result[9][0]").value(110));
+        mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("limit", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void asyncExecution_withLongPoll_shouldAnswerOnceCompleted() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Name FROM passengers WHERE Survived = 1");
+        String executionId = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/queries/execute/async")
+                        .param("query", queryId.toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.executionId");
+
+        // Act
+        MvcResult pending = mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("waitMs", "10000")
+                        .param("limit", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.totalRows").value(342))
+                .andExpect(jsonPath("$.result", hasSize(5)));
+    }
+
+    @Test
+    void reloadDataset_shouldSwitchQueriesAndCachedResultsToTheNewData() throws Exception {
+        // Arrange
+        Long countId = addQuery("SELECT COUNT(*) FROM passengers");
+        Long nameId = addQuery("SELECT Name FROM passengers WHERE PassengerId = 1000");
+        String eTag = mockMvc.perform(get("/queries/execute").param("query", countId.toString()))
+                .andExpect(jsonPath("$.result[0][0]").value(891))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/queries/execute").param("query", nameId.toString()))
+                .andExpect(jsonPath("$.result", hasSize(0)));
+
+        try {
+            // Act
+            DatasetReloadResponse reloaded = datasetReloadService.reload(new ClassPathResource("passengers-reload.csv"));
+
+            // Assert
+            assertEquals("RELOADED", reloaded.getStatus());
+            assertEquals(3L, reloaded.getRows());
+            // Answered by the refreshed columnar store, not the cached 891
+            mockMvc.perform(get("/queries/execute").param("query", countId.toString()).header("If-None-Match", eTag))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.result[0][0]").value(3));
+            mockMvc.perform(get("/queries/execute").param("query", nameId.toString()))
+                    .andExpect(jsonPath("$.result[0][0]").value("Reloaded, Mr. New Row"));
+            assertEquals("UNCHANGED",
+                    datasetReloadService.reload(new ClassPathResource("passengers-reload.csv")).getStatus());
+        } finally {
+            datasetReloadService.reload(new ClassPathResource("titanic.csv"));
+        }
+        mockMvc.perform(get("/queries/execute").param("query", countId.toString()))
+                .andExpect(jsonPath("$.result[0][0]").value(891));
+    }
+
+    @Test
+    void reloadDataset_withStartupFile_shouldBeUnchanged() {
+        // Act
+        DatasetReloadResponse response = datasetReloadService.reload(new ClassPathResource("titanic.csv"));
+
+        // Assert
+        assertEquals("UNCHANGED", response.getStatus());
+        assertEquals(response.getPreviousVersion(), response.getVersion());
+    }
+
+    @Test
+    void reloadDataset_withInvalidFile_shouldKeepCurrentData() throws Exception {
+        // Arrange
+        Long countId = addQuery("SELECT COUNT(*) FROM passengers WHERE PassengerId > 0");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> datasetReloadService.reload(new ClassPathResource("schema.sql")));
+        mockMvc.perform(get("/queries/execute").param("query", countId.toString()))
+                .andExpect(jsonPath("$.result[0][0]").value(891));
+    }
+
+    @Test
+    void retentionPurge_shouldDropExpiredAndSurplusExecutionsWithTheirChunks() {
+        // Arrange
+        long queryId = 9_001L;
+        LocalDateTime now = LocalDateTime.now();
+        QueryExecution expired = saveExecution(queryId, QueryExecution.ExecutionStatus.COMPLETED, now.minusDays(2));
+        resultChunkRepository.save(expired.getId(), 0, 0, 1, new byte[]{1});
+        List<QueryExecution> recent = new ArrayList<>();
+        for (int i = 21; i > 0; i--) {
+            recent.add(saveExecution(queryId, QueryExecution.ExecutionStatus.COMPLETED, now.minusMinutes(i)));
+        }
+        QueryExecution running = saveExecution(queryId, QueryExecution.ExecutionStatus.RUNNING, null);
+
+        // Act
+        retentionService.purge();
+
+        // Assert
+        assertTrue(executionRepository.findById(expired.getId()).isEmpty());
+        assertTrue(resultChunkRepository.findData(expired.getId(), 0, 0).isEmpty());
+        assertTrue(executionRepository.findById(recent.get(0).getId()).isEmpty());
+        assertTrue(executionRepository.findById(recent.get(1).getId()).isPresent());
+        assertTrue(executionRepository.findById(recent.get(20).getId()).isPresent());
+        assertTrue(executionRepository.findById(running.getId()).isPresent());
+    }
+
+    @Test
+    void executionEvents_afterCompletion_shouldSendFinalStatusAndClose() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT PassengerId FROM passengers LIMIT 7");
+        String executionId = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/queries/execute/async")
+                        .param("query", queryId.toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.executionId");
+        mockMvc.perform(asyncDispatch(mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("waitMs", "10000"))
+                .andReturn()));
+
+        // Act
+        MvcResult events = mockMvc.perform(get("/queries/execute/async/" + executionId + "/events")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = events.getResponse().getContentAsString();
+        assertTrue(body.contains("event:status"));
+        assertTrue(body.contains("\"status\":\"COMPLETED\""));
+        assertTrue(body.contains("\"totalRows\":7"));
+    }
+
+    @Test
+    void executeQuery_pastItsTimeout_shouldReturnGatewayTimeout() throws Exception {
+        // Arrange
+        QueryRequest request = new QueryRequest("SELECT COUNT(*) FROM passengers a, passengers b, passengers c");
+        request.setTimeoutSeconds(1);
+        Long queryId = objectMapper.readValue(mockMvc.perform(post("/queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString(), QueryResponse.class).getId();
+
+        // Act & Assert
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.error").value("Query exceeded its timeout of 1s"));
+    }
+
+    @Test
+    void cancelExecution_whileRunning_shouldEndCancelled() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT COUNT(*) FROM passengers a, passengers b, passengers c");
+        String executionId = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(post("/queries/execute/async")
+                        .param("query", queryId.toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString(), "$.executionId");
+        // Cancel once it has left the queue; the statement may or may not have started yet
+        String status = "PENDING";
+        for (int attempts = 0; attempts < 100 && status.equals("PENDING"); attempts++) {
+            Thread.sleep(50);
+            status = com.jayway.jsonpath.JsonPath.read(mockMvc.perform(get("/queries/execute/async/" + executionId))
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+        assertEquals("RUNNING", status);
+
+        // Act
+        mockMvc.perform(delete("/queries/execute/async/" + executionId))
+                .andExpect(status().isAccepted());
+        MvcResult finished = mockMvc.perform(get("/queries/execute/async/" + executionId)
+                        .param("waitMs", "10000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(finished))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CANCELLED"));
+        mockMvc.perform(delete("/queries/execute/async/" + executionId))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void actuatorMetrics_shouldExposeExecutionMetrics() throws Exception {
+        mockMvc.perform(get("/actuator/metrics/analytics.async.queue.depth"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").isNumber());
+        mockMvc.perform(get("/actuator/metrics/analytics.async.active"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics/analytics.query.coalesced"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheus_afterExecution_shouldExposeLatencyHistogramsAndCacheMeters() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Name FROM passengers WHERE PassengerId = 2");
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "analytics_query_execution_seconds_bucket{mode=\"sync\",outcome=\"success\",query=\"" + queryId + "\"")))
+                .andExpect(content().string(containsString("analytics_query_rows_bucket{")))
+                .andExpect(content().string(containsString("cache_gets_total{cache=\"queryResults\"")))
+                .andExpect(content().string(containsString("cache_evictions_total{cache=\"queryResults\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(content().string(containsString("analytics_async_queue_depth")));
+    }
+
+    @Test
+    void actuatorMetrics_shouldExposeWaitTimeAndUsagePerReadOnlyPool() throws Exception {
+        // Arrange
+        Long queryId = addQuery("SELECT Name FROM passengers WHERE PassengerId = 1");
+        mockMvc.perform(get("/queries/execute").param("query", queryId.toString()))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        for (String pool : new String[]{"sync-read", "async-read", "metadata-read"}) {
+            mockMvc.perform(get("/actuator/metrics/hikaricp.connections.acquire").param("tag", "pool:" + pool))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/actuator/metrics/hikaricp.connections.max").param("tag", "pool:" + pool))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.max").param("tag", "pool:async-read"))
+                .andExpect(jsonPath("$.measurements[0].value").value(4.0));
+        mockMvc.perform(get("/actuator/metrics/hikaricp.connections.usage").param("tag", "pool:sync-read"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.measurements[0].value").value(greaterThan(0.0)));
+    }
+
+    @Test
+    void executeQuery_withNdjsonAccept_shouldStreamOneRowPerLine() throws Exception {
+        // Add a query
+        QueryRequest request = new QueryRequest("SELECT PassengerId, Name FROM passengers ORDER BY PassengerId LIMIT 4");
+
+        MvcResult addResult = mockMvc.perform(post("/queries")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        QueryResponse queryResponse = objectMapper.readValue(addResult.getResponse().getContentAsString(), QueryResponse.class);
+        Long queryId = queryResponse.getId();
+
+        // Stream it
+        MvcResult streamResult = mockMvc.perform(get("/queries/execute")
+                        .param("query", queryId.toString())
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(streamResult))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("[1,\"Braund, Mr. Owen Harris\"]", lines[0]);
+
+        // Wildcard Accept keeps the regular JSON response
+        mockMvc.perform(get("/queries/execute")
+                        .param("query", queryId.toString())
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.result", hasSize(4)));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.analytics_dashboard.integration;
+
+import com.example.analytics_dashboard.service.DatasetVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+// A database of its own, so the Titanic contexts keep their data
+@SpringBootTest(properties = {
+        "analytics.synthetic.rows=5000",
+        "analytics.datasource.database=synthetic",
+        "analytics.cache.disk.enabled=true",
+        "analytics.cache.disk.directory=target/result-cache/${random.uuid}"
+})
+@ActiveProfiles("synthetic")
+class SyntheticDatasetIntegrationTest {
+
+    @Autowired
+    @Qualifier("syncJdbcTemplate")
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DatasetVersion datasetVersion;
+
+    @Test
+    void syntheticProfile_shouldStartWithGeneratedPassengers() {
+        // Act
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM passengers", Integer.class);
+        Integer titanicRows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM passengers WHERE Name = 'Braund, Mr. Owen Harris'", Integer.class);
+
+        // Assert
+        assertEquals(5000, rows);
+        assertEquals(0, titanicRows);
+        assertNotEquals(new DatasetVersion("unused").get(), datasetVersion.get());
+    }
+}
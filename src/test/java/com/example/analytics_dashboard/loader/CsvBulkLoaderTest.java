@@ -0,0 +1,132 @@
+package com.example.analytics_dashboard.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvBulkLoaderTest {
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private CsvBulkLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        loader = new CsvBulkLoader(jdbcTemplate);
+        // Small chunks, so even the Titanic file is split many times
+        ReflectionTestUtils.setField(loader, "chunkSize", DataSize.ofKilobytes(4));
+        ReflectionTestUtils.setField(loader, "parallelism", 4);
+        ReflectionTestUtils.setField(loader, "batchSize", 50);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void load_shouldMatchCsvRead() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO passengers_staging SELECT * FROM CSVREAD('classpath:titanic.csv', null, 'fieldSeparator=,')");
+
+        // Act
+        CsvBulkLoader.LoadReport report = loader.load(new ClassPathResource("titanic.csv"), "passengers");
+
+        // Assert
+        assertEquals(891, report.rows());
+        assertTrue(report.chunks() > 10);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT * FROM passengers EXCEPT SELECT * FROM passengers_staging)", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT * FROM passengers_staging EXCEPT SELECT * FROM passengers)", Integer.class));
+        assertEquals("Braund, Mr. Owen Harris",
+                jdbcTemplate.queryForObject("SELECT Name FROM passengers WHERE PassengerId = 1", String.class));
+    }
+
+    @Test
+    void load_withQuotedLineBreaksAcrossChunks_shouldKeepRecordsWhole(@TempDir Path directory) throws IOException {
+        // Arrange
+        Path csv = directory.resolve("passengers.csv");
+        Files.writeString(csv, """
+                PassengerId,Name,Cabin,Fare\r
+                1,"Line one,\r
+                line two",,7.25\r
+                2,"He said ""hello""\",C85,71.2833\r
+                3,Plain,"",8\r
+                """, StandardCharsets.UTF_8);
+        ReflectionTestUtils.setField(loader, "chunkSize", DataSize.ofBytes(8));
+
+        // Act
+        CsvBulkLoader.LoadReport report = loader.load(new FileSystemResource(csv), "passengers");
+
+        // Assert
+        assertEquals(3, report.rows());
+        List<List<Object>> rows = jdbcTemplate.query("SELECT Name, Cabin, Fare, Survived FROM passengers ORDER BY PassengerId",
+                (rs, i) -> Arrays.asList(rs.getString(1), rs.getString(2), rs.getBigDecimal(3), rs.getObject(4)));
+        assertEquals(Arrays.asList("Line one,\r\nline two", null, new BigDecimal("7.2500"), null), rows.get(0));
+        assertEquals(Arrays.asList("He said \"hello\"", "C85", new BigDecimal("71.2833"), null), rows.get(1));
+        assertEquals(Arrays.asList("Plain", "", new BigDecimal("8.0000"), null), rows.get(2));
+    }
+
+    @Test
+    void load_shouldRecreateDeferredIndexes() {
+        // Arrange
+        jdbcTemplate.execute("CREATE INDEX idx_passengers_sex_fare ON passengers (Sex, Fare DESC)");
+
+        // Act
+        loader.load(new ClassPathResource("titanic.csv"), "passengers");
+
+        // Assert
+        assertEquals(List.of("SEX ASC", "FARE DESC"), jdbcTemplate.queryForList("""
+                SELECT COLUMN_NAME || ' ' || ORDERING_SPECIFICATION FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+                WHERE INDEX_NAME = 'IDX_PASSENGERS_SEX_FARE' ORDER BY ORDINAL_POSITION""", String.class));
+    }
+
+    @Test
+    void load_withInvalidValue_shouldFailAndKeepIndexes() {
+        // Arrange
+        jdbcTemplate.execute("CREATE INDEX idx_passengers_sex ON passengers (Sex)");
+        ByteArrayResource csv = new ByteArrayResource("PassengerId,Pclass\n1,1\n2,first\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> loader.load(csv, "passengers"));
+        assertTrue(e.getMessage().contains("'first' for column PCLASS"), e.getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME = 'IDX_PASSENGERS_SEX'", Integer.class));
+    }
+
+    @Test
+    void load_withUnknownColumn_shouldFail() {
+        // Arrange
+        ByteArrayResource csv = new ByteArrayResource("PassengerId,Deck\n1,B\n".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> loader.load(csv, "passengers"));
+        assertTrue(e.getMessage().contains("'Deck'"), e.getMessage());
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.analytics_dashboard.loader;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticPassengerGeneratorTest {
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("schema.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void row_shouldDependOnlyOnSeedAndPassengerId() {
+        // Arrange
+        SyntheticPassengerGenerator generator = new SyntheticPassengerGenerator(42);
+
+        // Act
+        Object[] row = generator.row(500);
+
+        // Assert
+        assertArrayEquals(row, new SyntheticPassengerGenerator(42).row(500));
+        assertEquals(500, row[0]);
+        assertEquals(SyntheticPassengerGenerator.COLUMNS.size(), row.length);
+        assertFalse(Arrays.equals(row, new SyntheticPassengerGenerator(43).row(500)));
+    }
+
+    @Test
+    void row_withSeedZero_shouldNotCorrelateNeighbouringRows() {
+        // Arrange
+        SyntheticPassengerGenerator generator = new SyntheticPassengerGenerator(0);
+        int rows = 50_000;
+        double[] male = new double[rows];
+        double[] thirdClass = new double[rows];
+        double[] survived = new double[rows];
+        for (int id = 1; id <= rows; id++) {
+            Object[] row = generator.row(id);
+            male[id - 1] = "male".equals(row[4]) ? 1 : 0;
+            thirdClass[id - 1] = (int) row[2] == 3 ? 1 : 0;
+            survived[id - 1] = (int) row[1];
+        }
+
+        // Act
+        double sexThenClass = neighbourCorrelation(male, thirdClass);
+        double survivedThenSurvived = neighbourCorrelation(survived, survived);
+
+        // Assert
+        assertEquals(0, sexThenClass, 0.03);
+        assertEquals(0, survivedThenSurvived, 0.03);
+    }
+
+    @Test
+    void insert_shouldFollowTitanicDistributions() {
+        // Arrange
+        SyntheticPassengerGenerator generator = new SyntheticPassengerGenerator(7);
+
+        // Act
+        long rows = generator.insert(jdbcTemplate, "passengers", 20_000, 500, 4);
+
+        // Assert
+        assertEquals(20_000, rows);
+        assertEquals(20_000, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT PassengerId) FROM passengers", Integer.class));
+        assertShare(0.55, "Pclass = 3");
+        assertShare(0.65, "Sex = 'male'");
+        assertShare(0.72, "Embarked = 'S'");
+        assertShare(0.77, "Cabin IS NULL");
+        assertShare(0.20, "Age IS NULL");
+        assertShare(0.38, "Survived = 1");
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM passengers WHERE Age NOT BETWEEN 0.42 AND 80 OR Fare NOT BETWEEN 0 AND 512.3292", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT AVG(Fare) FROM passengers WHERE Pclass = 1", Double.class)
+                > 4 * jdbcTemplate.queryForObject("SELECT AVG(Fare) FROM passengers WHERE Pclass = 3", Double.class));
+    }
+
+    @Test
+    void writeCsv_shouldLoadToTheSameRowsAsInsert(@TempDir Path directory) throws IOException {
+        // Arrange
+        SyntheticPassengerGenerator generator = new SyntheticPassengerGenerator(42);
+        Path csv = directory.resolve("passengers.csv");
+        generator.insert(jdbcTemplate, "passengers_staging", 2_000, 100, 2);
+
+        // Act
+        generator.writeCsv(csv, 2_000);
+        new CsvBulkLoader(jdbcTemplate).load(new FileSystemResource(csv), "passengers");
+
+        // Assert
+        assertEquals(2_000, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM passengers", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (SELECT * FROM passengers EXCEPT SELECT * FROM passengers_staging)", Integer.class));
+        assertTrue(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM passengers WHERE Name LIKE '%\"%'", Integer.class) > 0);
+    }
+
+    // Pearson correlation of x at row n with y at row n + 1
+    private static double neighbourCorrelation(double[] x, double[] y) {
+        int n = x.length - 1;
+        double meanX = 0, meanY = 0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i] / n;
+            meanY += y[i + 1] / n;
+        }
+        double covariance = 0, varianceX = 0, varianceY = 0;
+        for (int i = 0; i < n; i++) {
+            covariance += (x[i] - meanX) * (y[i + 1] - meanY);
+            varianceX += (x[i] - meanX) * (x[i] - meanX);
+            varianceY += (y[i + 1] - meanY) * (y[i + 1] - meanY);
+        }
+        return covariance / Math.sqrt(varianceX * varianceY);
+    }
+
+    private void assertShare(double expected, String condition) {
+        double share = jdbcTemplate.queryForObject(
+                "SELECT AVG(CASE WHEN " + condition + " THEN 1.0 ELSE 0 END) FROM passengers", Double.class);
+        assertEquals(expected, share, 0.03, condition);
+    }
+}
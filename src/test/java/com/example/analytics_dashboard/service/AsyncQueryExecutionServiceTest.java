@@ -1,25 +1,36 @@
 package com.example.analytics_dashboard.service;
 
+import com.example.analytics_dashboard.exception.ExecutionFinishedException;
 import com.example.analytics_dashboard.model.QueryExecution;
 import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.repository.QueryExecutionRepository;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import org.junit.jupiter.api.BeforeEach;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -31,11 +42,23 @@ class AsyncQueryExecutionServiceTest {
     @Mock
     private QueryExecutionService queryExecutionService;
 
+    @Mock
+    private ResultChunkRepository resultChunkRepository;
+
+    @Mock
+    private QueryCacheService queryCacheService;
+
     @Mock // Self-injection
     private AsyncQueryExecutionService self;
 
-    @Mock
-    private ObjectMapper objectMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private ExecutionProgressRegistry progressRegistry = new ExecutionProgressRegistry();
+
+    @Spy
+    private ExecutionMetrics executionMetrics = new ExecutionMetrics(new SimpleMeterRegistry());
 
     @InjectMocks
     private AsyncQueryExecutionService asyncService;
@@ -60,12 +83,30 @@ class AsyncQueryExecutionServiceTest {
         });
 
         // Act
-        String executionId = asyncService.startExecution(query);
+        String executionId = asyncService.startExecution(BoundQuery.of(query));
 
         // Assert
         assertNotNull(executionId);
         assertEquals(generatedId.toString(), executionId);
-        verify(self, times(1)).executeAsync(eq(generatedId.toString()), eq(query.getQueryText()));
+        verify(self, times(1)).executeAsync(eq(generatedId.toString()), eq(BoundQuery.of(query)));
+    }
+
+    @Test
+    void startExecution_whenExecutorRejects_shouldDeletePendingExecution() {
+        // Arrange
+        StoredQuery query = new StoredQuery("SELECT * FROM passengers");
+        query.setId(1L);
+
+        when(executionRepository.save(any(QueryExecution.class))).thenAnswer(invocation -> {
+            QueryExecution ex = invocation.getArgument(0);
+            ex.setId(UUID.randomUUID());
+            return ex;
+        });
+        doThrow(new TaskRejectedException("full")).when(self).executeAsync(any(), any());
+
+        // Act & Assert
+        assertThrows(TaskRejectedException.class, () -> asyncService.startExecution(BoundQuery.of(query)));
+        verify(executionRepository, times(1)).delete(any(QueryExecution.class));
     }
 
     @Test
@@ -87,23 +128,259 @@ class AsyncQueryExecutionServiceTest {
     }
 
     @Test
-    void parseResult_withValidJson_shouldReturnList() throws Exception {
+    void executeAsync_shouldStoreResultInChunksWithManifest() {
         // Arrange
-        // We only use the real mapper in a test of the method that actually uses it
-        // (In this AsyncService unit test, we mock the mapper within the class,
-        // so we must configure the mock)
-        List<List<Object>> expectedResult = Arrays.asList(
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        StoredQuery query = new StoredQuery("SELECT PassengerId, Name FROM passengers");
+        ReflectionTestUtils.setField(asyncService, "resultChunkRows", 2);
+
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+        when(executionRepository.save(any(QueryExecution.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            ResultRowHandler handler = invocation.getArgument(3);
+            handler.onRow(new Object[]{1, "John"});
+            handler.onRow(new Object[]{2, "Jane"});
+            handler.onRow(new Object[]{3, "Jim"});
+            handler.onComplete(3);
+            return null;
+        }).when(queryExecutionService).streamQuery(eq(BoundQuery.of(query)), eq(QueryWorkload.BATCH), any(), any());
+
+        // Act
+        asyncService.executeAsync(uuid.toString(), BoundQuery.of(query));
+
+        // Assert
+        assertEquals(QueryExecution.ExecutionStatus.COMPLETED, execution.getStatus());
+        assertEquals(3L, execution.getRowCount());
+        assertEquals(2, execution.getChunkCount());
+        assertEquals(2, execution.getChunkRows());
+        assertTrue(execution.getResultBytes() > 0);
+        verify(resultChunkRepository).save(eq(uuid), eq(0), eq(0L), eq(2), any(byte[].class));
+        verify(resultChunkRepository).save(eq(uuid), eq(1), eq(2L), eq(1), any(byte[].class));
+        assertNotNull(execution.getRunningAt());
+        verify(executionMetrics).recordAsync(execution);
+    }
+
+    @Test
+    void executeAsync_whenQueryFails_shouldDeleteChunksAndMarkFailed() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        StoredQuery query = new StoredQuery("SELECT * FROM nonexistent_table");
+
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+        when(executionRepository.save(any(QueryExecution.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        doThrow(new IllegalStateException("Table not found")).when(queryExecutionService).streamQuery(any(), any(), any(), any());
+
+        // Act
+        asyncService.executeAsync(uuid.toString(), BoundQuery.of(query));
+
+        // Assert
+        assertEquals(QueryExecution.ExecutionStatus.FAILED, execution.getStatus());
+        assertEquals("Table not found", execution.getErrorMessage());
+        verify(resultChunkRepository, times(1)).deleteByExecutionId(uuid);
+    }
+
+    @Test
+    void getResultRows_shouldDecodeChunksInOrder() throws Exception {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        ArgumentCaptor<byte[]> chunks = ArgumentCaptor.forClass(byte[].class);
+        ChunkedResultWriter writer = new ChunkedResultWriter(uuid, resultChunkRepository, objectMapper, 2);
+        writer.writeAll(Arrays.asList(
                 Arrays.asList(1, "John", 25),
-                Arrays.asList(2, "Jane", 30)
-        );
-        String jsonInput = "dummy-json";
+                Arrays.asList(2, "Jane", 30),
+                Arrays.asList(3, null, 41)
+        ));
+        verify(resultChunkRepository, times(2)).save(eq(uuid), anyInt(), anyLong(), anyInt(), chunks.capture());
+
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        execution.setRowCount(3L);
+        execution.setChunkRows(2);
+        when(resultChunkRepository.findData(uuid, 0, 1)).thenReturn(chunks.getAllValues());
+
+        // Act
+        List<List<Object>> result = asyncService.getResultRows(execution);
+
+        // Assert
+        assertEquals(3, result.size());
+        assertEquals(Arrays.asList(1, "John", 25), result.get(0));
+        assertEquals(Arrays.asList(3, null, 41), result.get(2));
+    }
+
+    @Test
+    void getResultRows_withRange_shouldReadOnlyOverlappingChunks() throws Exception {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        ArgumentCaptor<byte[]> chunks = ArgumentCaptor.forClass(byte[].class);
+        ChunkedResultWriter writer = new ChunkedResultWriter(uuid, resultChunkRepository, objectMapper, 2);
+        writer.writeAll(Arrays.asList(
+                Arrays.asList(1, "John"),
+                Arrays.asList(2, "Jane"),
+                Arrays.asList(3, "Mary"),
+                Arrays.asList(4, "Owen"),
+                Arrays.asList(5, "Anna")
+        ));
+        verify(resultChunkRepository, times(3)).save(eq(uuid), anyInt(), anyLong(), anyInt(), chunks.capture());
+
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        execution.setRowCount(5L);
+        execution.setChunkRows(2);
+        when(resultChunkRepository.findData(uuid, 0, 1)).thenReturn(chunks.getAllValues().subList(0, 2));
+
+        // Act
+        List<List<Object>> result = asyncService.getResultRows(execution, 1, 2);
+
+        // Assert
+        assertEquals(Arrays.asList(Arrays.asList(2, "Jane"), Arrays.asList(3, "Mary")), result);
+        verify(resultChunkRepository, times(1)).findData(uuid, 0, 1);
+    }
+
+    @Test
+    void getResultRows_withOffsetPastEnd_shouldReturnEmptyWithoutReading() {
+        // Arrange
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(UUID.randomUUID());
+        execution.setRowCount(5L);
+        execution.setChunkRows(2);
+
+        // Act
+        List<List<Object>> result = asyncService.getResultRows(execution, 10, 5);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(resultChunkRepository);
+    }
+
+    @Test
+    void getResultRows_withNegativeOffset_shouldThrowException() {
+        // Arrange
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setRowCount(5L);
 
-        when(objectMapper.readValue(eq(jsonInput), eq(List.class))).thenReturn(expectedResult);
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> asyncService.getResultRows(execution, -1, 5));
+    }
+
+    @Test
+    void executeAsync_shouldWakeWaitersAndForgetProgressWhenFinished() throws Exception {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        StoredQuery query = new StoredQuery("SELECT PassengerId FROM passengers");
+        ExecutionProgress progress = progressRegistry.register(uuid);
+
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+        when(executionRepository.save(any(QueryExecution.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            ResultRowHandler handler = invocation.getArgument(3);
+            handler.onRow(new Object[]{1});
+            handler.onRow(new Object[]{2});
+            assertEquals(QueryExecution.ExecutionStatus.RUNNING, progress.getStatus());
+            assertEquals(2, progress.getRowsFetched());
+            handler.onComplete(2);
+            return null;
+        }).when(queryExecutionService).streamQuery(eq(BoundQuery.of(query)), eq(QueryWorkload.BATCH), any(), any());
+        CompletableFuture<Void> waiter = asyncService.awaitCompletion(uuid.toString(), Duration.ofMinutes(1));
 
         // Act
-        List<List<Object>> result = asyncService.parseResult(jsonInput);
+        asyncService.executeAsync(uuid.toString(), BoundQuery.of(query));
 
         // Assert
-        assertEquals(2, result.size());
+        waiter.get(5, TimeUnit.SECONDS);
+        assertEquals(QueryExecution.ExecutionStatus.COMPLETED, progress.getStatus());
+        assertEquals(2L, progress.toStatusResponse().getTotalRows());
+        assertTrue(asyncService.getProgress(uuid.toString()).isEmpty());
+    }
+
+    @Test
+    void awaitCompletion_whenStillRunning_shouldCompleteAfterMaxWait() throws Exception {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        ExecutionProgress progress = progressRegistry.register(uuid);
+
+        // Act
+        asyncService.awaitCompletion(uuid.toString(), Duration.ofMillis(50)).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(progress.isFinished());
+        verifyNoInteractions(executionRepository);
+    }
+
+    @Test
+    void awaitCompletion_withUnknownExecution_shouldThrowException() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        when(executionRepository.findById(uuid)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> asyncService.awaitCompletion(uuid.toString(), Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void executeAsync_whenCancelledWhileRunning_shouldMarkCancelled() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        StoredQuery query = new StoredQuery("SELECT * FROM passengers a, passengers b");
+        ExecutionProgress progress = progressRegistry.register(uuid);
+
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+        when(executionRepository.save(any(QueryExecution.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        doAnswer(invocation -> {
+            asyncService.cancelExecution(uuid.toString());
+            throw new org.springframework.dao.QueryTimeoutException("Statement was canceled");
+        }).when(queryExecutionService).streamQuery(eq(BoundQuery.of(query)), eq(QueryWorkload.BATCH), same(progress.getCancellation()), any());
+
+        // Act
+        asyncService.executeAsync(uuid.toString(), BoundQuery.of(query));
+
+        // Assert
+        assertEquals(QueryExecution.ExecutionStatus.CANCELLED, execution.getStatus());
+        assertNull(execution.getErrorMessage());
+        assertEquals(QueryExecution.ExecutionStatus.CANCELLED, progress.getStatus());
+        verify(resultChunkRepository, times(1)).deleteByExecutionId(uuid);
+    }
+
+    @Test
+    void executeAsync_whenCancelledWhileQueued_shouldNotRunQuery() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        progressRegistry.register(uuid).getCancellation().cancel();
+
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+
+        // Act
+        asyncService.executeAsync(uuid.toString(), BoundQuery.of(new StoredQuery("SELECT * FROM passengers")));
+
+        // Assert
+        assertEquals(QueryExecution.ExecutionStatus.CANCELLED, execution.getStatus());
+        verifyNoInteractions(queryExecutionService);
+    }
+
+    @Test
+    void cancelExecution_whenAlreadyFinished_shouldThrowException() {
+        // Arrange
+        UUID uuid = UUID.randomUUID();
+        QueryExecution execution = new QueryExecution(1L);
+        execution.setId(uuid);
+        execution.setStatus(QueryExecution.ExecutionStatus.COMPLETED);
+        when(executionRepository.findById(uuid)).thenReturn(Optional.of(execution));
+
+        // Act & Assert
+        assertThrows(ExecutionFinishedException.class, () -> asyncService.cancelExecution(uuid.toString()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.concurrent.BoundedVirtualThreadExecutor;
+import com.example.analytics_dashboard.dto.BatchQueryRequest;
+import com.example.analytics_dashboard.dto.BatchQueryResult;
+import com.example.analytics_dashboard.model.StoredQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchExecutionServiceTest {
+
+    @Mock
+    private QueryService queryService;
+
+    @Mock
+    private QueryExecutionService queryExecutionService;
+
+    @Mock
+    private QueryCacheService queryCacheService;
+
+    private BatchExecutionService batchService;
+
+    @BeforeEach
+    void setUp() {
+        batchService = new BatchExecutionService(queryService, queryExecutionService, queryCacheService,
+                new ExecutionMetrics(new SimpleMeterRegistry()), new BoundedVirtualThreadExecutor("batch-test-", 4, 10));
+    }
+
+    @Test
+    void execute_shouldLoadQueriesOnceAndRunMissesInParallel() throws Exception {
+        // Arrange
+        StoredQuery first = storedQuery(1L, "SELECT 1");
+        StoredQuery second = storedQuery(2L, "SELECT 2");
+        when(queryService.getQueriesByIds(List.of(1L, 2L))).thenReturn(Map.of(1L, first, 2L, second));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        // Each execution waits for the other, so this only finishes if both run at once
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(queryExecutionService.executeQuery(any())).thenAnswer(invocation -> {
+            bothStarted.countDown();
+            assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+            BoundQuery query = invocation.getArgument(0);
+            return new QueryResult(List.of(Arrays.asList(query.getStoredQuery().getId())), 0);
+        });
+
+        // Act
+        List<BatchQueryResult> results = batchService.execute(List.of(new BatchQueryRequest(1L), new BatchQueryRequest(2L)));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), results.stream().map(BatchQueryResult::getQuery).toList());
+        assertEquals(List.of(Arrays.asList(1L)), results.get(0).getResult());
+        assertEquals(List.of(Arrays.asList(2L)), results.get(1).getResult());
+        verify(queryService, times(1)).getQueriesByIds(any());
+    }
+
+    @Test
+    void execute_withCachedResult_shouldNotRunQuery() {
+        // Arrange
+        StoredQuery query = storedQuery(1L, "SELECT 1");
+        when(queryService.getQueriesByIds(List.of(1L))).thenReturn(Map.of(1L, query));
+        when(queryCacheService.getCachedResult(BoundQuery.of(query).getCacheKey()))
+                .thenReturn(Optional.of(new QueryResult(List.of(Arrays.asList(1)), 0)));
+
+        // Act
+        List<BatchQueryResult> results = batchService.execute(List.of(new BatchQueryRequest(1L)));
+
+        // Assert
+        assertEquals(200, results.get(0).getStatus());
+        verifyNoInteractions(queryExecutionService);
+    }
+
+    @Test
+    void execute_shouldReportEachFailureWithItsOwnStatus() {
+        // Arrange
+        StoredQuery slow = storedQuery(1L, "SELECT 1");
+        StoredQuery write = storedQuery(2L, "DELETE FROM passengers");
+        write.setReadOnly(false);
+        StoredQuery ok = storedQuery(3L, "SELECT 3");
+        when(queryService.getQueriesByIds(List.of(1L, 2L, 3L, 4L))).thenReturn(Map.of(1L, slow, 2L, write, 3L, ok));
+        when(queryCacheService.getCachedResult(any())).thenReturn(Optional.empty());
+        when(queryExecutionService.executeQuery(BoundQuery.of(slow))).thenThrow(new QueryTimeoutException("Query timed out after 1s"));
+        when(queryExecutionService.executeQuery(BoundQuery.of(ok))).thenReturn(new QueryResult(List.of(), 0));
+
+        // Act
+        List<BatchQueryResult> results = batchService.execute(List.of(
+                new BatchQueryRequest(1L), new BatchQueryRequest(2L), new BatchQueryRequest(3L), new BatchQueryRequest(4L)));
+
+        // Assert
+        assertEquals(List.of(504, 400, 200, 400), results.stream().map(BatchQueryResult::getStatus).toList());
+        assertEquals("Query timed out after 1s", results.get(0).getError());
+        assertEquals("Only SELECT queries are allowed", results.get(1).getError());
+        assertEquals("Query with id 4 not found", results.get(3).getError());
+    }
+
+    @Test
+    void execute_withTooManyQueries_shouldThrow() {
+        // Arrange
+        List<BatchQueryRequest> requests = new ArrayList<>(Collections.nCopies(51, new BatchQueryRequest(1L)));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(requests));
+        assertThrows(IllegalArgumentException.class, () -> batchService.execute(List.of()));
+        verifyNoInteractions(queryService);
+    }
+
+    private static StoredQuery storedQuery(long id, String sql) {
+        StoredQuery query = new StoredQuery(sql);
+        query.setId(id);
+        query.setReadOnly(true);
+        query.setFingerprint(sql);
+        return query;
+    }
+}
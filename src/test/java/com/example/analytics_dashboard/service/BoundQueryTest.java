@@ -0,0 +1,92 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryParameter;
+import com.example.analytics_dashboard.model.QueryParameter.Type;
+import com.example.analytics_dashboard.model.StoredQuery;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundQueryTest {
+
+    @Test
+    void of_withoutParameters_shouldUseFingerprintAsCacheKey() {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT * FROM passengers");
+        storedQuery.setFingerprint("fp");
+
+        // Act
+        BoundQuery query = BoundQuery.of(storedQuery);
+
+        // Assert
+        assertEquals("SELECT * FROM passengers", query.getJdbcSql());
+        assertEquals(List.of(), query.getValues());
+        assertEquals("fp", query.getCacheKey());
+        assertFalse(query.hasParameters());
+    }
+
+    @Test
+    void bind_shouldConvertValuesInPlaceholderOrder() {
+        // Arrange
+        StoredQuery storedQuery = parameterised(
+                "SELECT * FROM t WHERE a = :flag AND b > :fare AND c = :day AND d = :n OR :n = 0",
+                new QueryParameter("n", Type.INTEGER),
+                new QueryParameter("fare", Type.DECIMAL),
+                new QueryParameter("day", Type.DATE),
+                new QueryParameter("flag", Type.BOOLEAN));
+
+        // Act
+        BoundQuery query = BoundQuery.bind(storedQuery,
+                Map.of("n", "3", "fare", "7.25", "day", "1912-04-15", "flag", "TRUE", "query", "1"));
+
+        // Assert
+        assertEquals("SELECT * FROM t WHERE a = ? AND b > ? AND c = ? AND d = ? OR ? = 0", query.getJdbcSql());
+        assertEquals(List.of(true, new BigDecimal("7.25"), LocalDate.of(1912, 4, 15), 3L, 3L), query.getValues());
+    }
+
+    @Test
+    void bind_shouldKeyCacheOnCanonicalValues() {
+        // Arrange
+        StoredQuery storedQuery = parameterised("SELECT * FROM passengers WHERE Fare > :fare AND Name LIKE :name",
+                new QueryParameter("fare", Type.DECIMAL),
+                new QueryParameter("name", Type.STRING));
+
+        // Act
+        BoundQuery first = BoundQuery.bind(storedQuery, Map.of("fare", "7.50", "name", "A&B%"));
+        BoundQuery same = BoundQuery.bind(storedQuery, Map.of("fare", "7.5", "name", "A&B%"));
+        BoundQuery other = BoundQuery.bind(storedQuery, Map.of("fare", "7.5", "name", "A"));
+
+        // Assert
+        assertEquals("fp?fare=7.5&name=A%26B%25", first.getCacheKey());
+        assertEquals(first.getCacheKey(), same.getCacheKey());
+        assertNotEquals(first.getCacheKey(), other.getCacheKey());
+    }
+
+    @Test
+    void bind_withMissingOrInvalidValue_shouldThrowException() {
+        // Arrange
+        StoredQuery storedQuery = parameterised("SELECT * FROM passengers WHERE Pclass = :pclass",
+                new QueryParameter("pclass", Type.INTEGER));
+
+        // Act & Assert
+        IllegalArgumentException missing = assertThrows(IllegalArgumentException.class,
+                () -> BoundQuery.bind(storedQuery, Map.of()));
+        IllegalArgumentException invalid = assertThrows(IllegalArgumentException.class,
+                () -> BoundQuery.bind(storedQuery, Map.of("pclass", "first")));
+
+        assertTrue(missing.getMessage().contains("pclass"));
+        assertTrue(invalid.getMessage().contains("INTEGER"));
+    }
+
+    private static StoredQuery parameterised(String sql, QueryParameter... parameters) {
+        StoredQuery storedQuery = new StoredQuery(sql);
+        storedQuery.setFingerprint("fp");
+        storedQuery.setParameters(List.of(parameters));
+        return storedQuery;
+    }
+}
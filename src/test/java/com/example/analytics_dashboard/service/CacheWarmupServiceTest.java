@@ -0,0 +1,158 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.model.QueryParameter;
+import com.example.analytics_dashboard.model.StoredQuery;
+import com.example.analytics_dashboard.repository.QueryRepository;
+import com.example.analytics_dashboard.sql.SqlFingerprinter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+    @Mock
+    private QueryRepository queryRepository;
+
+    @Mock
+    private QueryExecutionService queryExecutionService;
+
+    @Spy
+    private SqlFingerprinter sqlFingerprinter = new SqlFingerprinter();
+
+    @InjectMocks
+    private CacheWarmupService warmupService;
+
+    @Test
+    void warmUp_shouldRunCheapestReadOnlyQueriesWithoutParameters() {
+        // Arrange
+        StoredQuery expensive = storedQuery(1L, "SELECT * FROM passengers p1, passengers p2", 793_881L);
+        StoredQuery cheap = storedQuery(2L, "SELECT * FROM passengers WHERE passenger_id = 1", 1L);
+        StoredQuery unknownCost = storedQuery(3L, "SELECT COUNT(*) FROM passengers", null);
+        StoredQuery tooExpensive = storedQuery(4L, "SELECT * FROM passengers p1, passengers p2, passengers p3", Long.MAX_VALUE);
+        StoredQuery write = storedQuery(5L, "DELETE FROM passengers", 1L);
+        write.setReadOnly(false);
+        StoredQuery parameterised = storedQuery(6L, "SELECT * FROM passengers WHERE pclass = :pclass", 891L);
+        parameterised.setParameters(List.of(new QueryParameter("pclass", QueryParameter.Type.INTEGER)));
+
+        when(queryRepository.findAll())
+                .thenReturn(List.of(expensive, cheap, unknownCost, tooExpensive, write, parameterised));
+        ReflectionTestUtils.setField(warmupService, "parallelism", 1);
+        ReflectionTestUtils.setField(warmupService, "maxQueries", 2);
+
+        // Act
+        CacheWarmupResponse report = warmupService.warmUp();
+
+        // Assert
+        ArgumentCaptor<BoundQuery> executed = ArgumentCaptor.forClass(BoundQuery.class);
+        verify(queryExecutionService, times(2)).executeQuery(executed.capture());
+        assertEquals(List.of(cheap, expensive),
+                executed.getAllValues().stream().map(BoundQuery::getStoredQuery).toList());
+        assertNotNull(cheap.getFingerprint());
+
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(2, report.getCandidates());
+        assertEquals(2, report.getWarmed());
+        assertEquals(0, report.getPending());
+        assertSame(report, warmupService.getReport());
+    }
+
+    @Test
+    void warmUp_forDatasetVersion_shouldCacheForThatVersion() {
+        // Arrange
+        StoredQuery count = storedQuery(1L, "SELECT COUNT(*) FROM passengers", 891L);
+        when(queryRepository.findAll()).thenReturn(List.of(count));
+
+        // Act
+        CacheWarmupResponse report = warmupService.warmUp("v2");
+
+        // Assert
+        verify(queryExecutionService).precompute(argThat(query -> query.getStoredQuery() == count), eq("v2"));
+        verify(queryExecutionService, never()).executeQuery(any());
+        assertEquals(1, report.getWarmed());
+    }
+
+    @Test
+    void warmUp_shouldCountFailedQueries() {
+        // Arrange
+        StoredQuery ok = storedQuery(1L, "SELECT COUNT(*) FROM passengers", 891L);
+        StoredQuery broken = storedQuery(2L, "SELECT * FROM dropped_table", 1L);
+        when(queryRepository.findAll()).thenReturn(List.of(ok, broken));
+        when(queryExecutionService.executeQuery(any())).thenAnswer(invocation -> {
+            BoundQuery query = invocation.getArgument(0);
+            if (query.getStoredQuery() == broken) {
+                throw new IllegalStateException("Table not found");
+            }
+            return new QueryResult(List.of(), 0);
+        });
+
+        // Act
+        CacheWarmupResponse report = warmupService.warmUp();
+
+        // Assert
+        assertEquals("COMPLETED", report.getStatus());
+        assertEquals(1, report.getWarmed());
+        assertEquals(1, report.getFailed());
+    }
+
+    @Test
+    void warmUp_shouldStopWaitingAtTimeout() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(queryRepository.findAll()).thenReturn(List.of(storedQuery(1L, "SELECT * FROM passengers", 891L)));
+        when(queryExecutionService.executeQuery(any())).thenAnswer(invocation -> {
+            release.await();
+            return new QueryResult(List.of(), 0);
+        });
+        ReflectionTestUtils.setField(warmupService, "timeout", Duration.ofMillis(50));
+
+        try {
+            // Act
+            CacheWarmupResponse report = warmupService.warmUp();
+
+            // Assert
+            assertEquals("TIMED_OUT", report.getStatus());
+            assertEquals(0, report.getWarmed());
+            assertEquals(1, report.getPending());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void onApplicationReady_shouldOnlyReportWhenDisabled() {
+        // Arrange
+        ReflectionTestUtils.setField(warmupService, "enabled", false);
+
+        // Act
+        warmupService.onApplicationReady();
+
+        // Assert
+        assertEquals("DISABLED", warmupService.getReport().getStatus());
+        verifyNoInteractions(queryRepository, queryExecutionService);
+    }
+
+    private static StoredQuery storedQuery(Long id, String sql, Long estimatedCost) {
+        StoredQuery storedQuery = new StoredQuery(sql);
+        storedQuery.setId(id);
+        storedQuery.setReadOnly(true);
+        storedQuery.setEstimatedCost(estimatedCost);
+        return storedQuery;
+    }
+}
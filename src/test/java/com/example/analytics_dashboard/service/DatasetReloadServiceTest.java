@@ -0,0 +1,94 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.columnar.ColumnarPassengerStore;
+import com.example.analytics_dashboard.columnar.ColumnarTable;
+import com.example.analytics_dashboard.dto.CacheWarmupResponse;
+import com.example.analytics_dashboard.dto.DatasetReloadResponse;
+import com.example.analytics_dashboard.loader.CsvBulkLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DatasetReloadServiceTest {
+    private static final ByteArrayResource CSV =
+            new ByteArrayResource("PassengerId\n1000\n".getBytes(StandardCharsets.UTF_8));
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CsvBulkLoader csvBulkLoader;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ColumnarPassengerStore columnarStore;
+
+    @Mock
+    private CacheWarmupService cacheWarmupService;
+
+    private final DatasetVersion datasetVersion = new DatasetVersion("v1");
+    private DatasetReloadService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DatasetReloadService(jdbcTemplate, csvBulkLoader, transactionManager, datasetVersion,
+                columnarStore, cacheWarmupService);
+        when(csvBulkLoader.load(CSV, "passengers_staging"))
+                .thenReturn(new CsvBulkLoader.LoadReport("passengers_staging", 1, 1, 1, 1_000_000));
+    }
+
+    @Test
+    void reload_shouldSwitchVersionWithTheCommitAndWarmUpAfterIt() {
+        // Arrange
+        ColumnarTable snapshot = new ColumnarTable("PASSENGERS", 0, List.of());
+        when(columnarStore.prepare("passengers_staging")).thenReturn(snapshot);
+        AtomicReference<String> versionDuringWarmUp = new AtomicReference<>();
+        when(cacheWarmupService.warmUp(anyString())).thenAnswer(invocation -> {
+            versionDuringWarmUp.set(datasetVersion.get());
+            return new CacheWarmupResponse(CacheWarmupService.Status.COMPLETED.name());
+        });
+
+        // Act
+        DatasetReloadResponse response = service.reload(CSV);
+
+        // Assert
+        assertEquals("RELOADED", response.getStatus());
+        assertEquals(response.getVersion(), datasetVersion.get());
+        assertEquals(response.getVersion(), versionDuringWarmUp.get());
+        InOrder inOrder = inOrder(columnarStore, jdbcTemplate, transactionManager, cacheWarmupService);
+        inOrder.verify(columnarStore).prepare("passengers_staging");
+        inOrder.verify(jdbcTemplate).update("DELETE FROM passengers");
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(columnarStore).install(snapshot);
+        inOrder.verify(cacheWarmupService).warmUp(response.getVersion());
+    }
+
+    @Test
+    void reload_whenInstallingSnapshotFails_shouldStillSwitchVersion() {
+        // Arrange
+        doThrow(new IllegalStateException("boom")).when(columnarStore).install(any());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> service.reload(CSV));
+        assertNotEquals("v1", datasetVersion.get());
+        verify(cacheWarmupService, never()).warmUp(anyString());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution.ExecutionStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ExecutionEventServiceTest {
+    private final ExecutionEventService service = new ExecutionEventService(mock(AsyncQueryExecutionService.class));
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void subscribe_withStalledClient_shouldStillSendToOtherClients() throws Exception {
+        // Arrange
+        ExecutionProgress progress = new ExecutionProgress(UUID.randomUUID());
+        CountDownLatch unstall = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter(unstall);
+        RecordingEmitter healthy = new RecordingEmitter(new CountDownLatch(0));
+        service.subscribe(stalled, progress);
+        assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+        service.subscribe(healthy, progress);
+
+        try {
+            // Act
+            progress.running(() -> 10);
+            progress.finish(ExecutionStatus.COMPLETED, 10L, null);
+
+            // Assert
+            assertTrue(healthy.completed.await(5, TimeUnit.SECONDS));
+            assertTrue(healthy.sent.get() > 0);
+            assertEquals(1, stalled.completed.getCount());
+        } finally {
+            unstall.countDown();
+        }
+        assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    private static final class RecordingEmitter extends SseEmitter {
+        private final CountDownLatch unblocked;
+        private final CountDownLatch sending = new CountDownLatch(1);
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private final AtomicInteger sent = new AtomicInteger();
+
+        RecordingEmitter(CountDownLatch unblocked) {
+            this.unblocked = unblocked;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sending.countDown();
+            try {
+                unblocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+}
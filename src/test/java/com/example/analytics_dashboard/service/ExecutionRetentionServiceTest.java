@@ -0,0 +1,97 @@
+package com.example.analytics_dashboard.service;
+
+import com.example.analytics_dashboard.model.QueryExecution.ExecutionStatus;
+import com.example.analytics_dashboard.repository.QueryExecutionRepository;
+import com.example.analytics_dashboard.repository.ResultChunkRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExecutionRetentionServiceTest {
+
+    @Mock
+    private QueryExecutionRepository executionRepository;
+
+    @Mock
+    private ResultChunkRepository resultChunkRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ExecutionRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        retentionService = new ExecutionRetentionService(executionRepository, resultChunkRepository, meterRegistry);
+        ReflectionTestUtils.setField(retentionService, "batchSize", 2);
+    }
+
+    @Test
+    void purge_shouldDeleteExpiredExecutionsInBatches() {
+        // Arrange
+        List<UUID> first = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> second = List.of(UUID.randomUUID());
+        when(executionRepository.findIdsCompletedBefore(any(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findIdsCompletedBefore(eq(ExecutionStatus.COMPLETED), any(), eq(Limit.of(2))))
+                .thenReturn(first, second);
+        when(executionRepository.findIdsBeyondNewest(20, Limit.of(2))).thenReturn(List.of());
+
+        // Act
+        int purged = retentionService.purge();
+
+        // Assert
+        assertEquals(3, purged);
+        verify(executionRepository).deleteAllByIdInBatch(first);
+        verify(executionRepository).deleteAllByIdInBatch(second);
+        verify(resultChunkRepository).deleteByExecutionIds(first);
+        verify(resultChunkRepository).deleteByExecutionIds(second);
+        assertEquals(3.0, meterRegistry.get("analytics.retention.purged").tag("reason", "ttl").counter().count());
+    }
+
+    @Test
+    void purge_shouldKeepOnlyNewestExecutionsPerQuery() {
+        // Arrange
+        List<UUID> beyondLimit = List.of(UUID.randomUUID());
+        ReflectionTestUtils.setField(retentionService, "keepPerQuery", 5);
+        when(executionRepository.findIdsCompletedBefore(any(), any(), any())).thenReturn(List.of());
+        when(executionRepository.findIdsBeyondNewest(5, Limit.of(2))).thenReturn(beyondLimit);
+
+        // Act
+        int purged = retentionService.purge();
+
+        // Assert
+        assertEquals(1, purged);
+        verify(executionRepository).deleteAllByIdInBatch(beyondLimit);
+        assertEquals(1.0, meterRegistry.get("analytics.retention.purged").tag("reason", "keep-per-query").counter().count());
+    }
+
+    @Test
+    void purge_withZeroTtlAndNoLimit_shouldKeepEverything() {
+        // Arrange
+        ReflectionTestUtils.setField(retentionService, "completedTtl", Duration.ZERO);
+        ReflectionTestUtils.setField(retentionService, "failedTtl", Duration.ZERO);
+        ReflectionTestUtils.setField(retentionService, "cancelledTtl", Duration.ZERO);
+        ReflectionTestUtils.setField(retentionService, "keepPerQuery", 0);
+
+        // Act
+        int purged = retentionService.purge();
+
+        // Assert
+        assertEquals(0, purged);
+        verifyNoInteractions(executionRepository, resultChunkRepository);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.analytics_dashboard.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCancellationTest {
+    private static final String SLOW_QUERY =
+            "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+
+    private EmbeddedDatabase database;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void attach_afterCancel_shouldStopTheQueryOnceItStarts() throws SQLException {
+        // Arrange
+        QueryCancellation cancellation = new QueryCancellation();
+        try (Connection con = database.getConnection();
+             PreparedStatement ps = con.prepareStatement(SLOW_QUERY)) {
+            // H2 resets a pending cancel when a command with a timeout starts
+            ps.setQueryTimeout(60);
+            cancellation.cancel();
+
+            // Act
+            cancellation.attach(ps);
+
+            // Assert
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                SQLException e = assertThrows(SQLException.class, ps::executeQuery);
+                assertEquals(57014, e.getErrorCode());
+            });
+        } finally {
+            cancellation.detach();
+        }
+    }
+
+    @Test
+    void throwIfCancelled_afterCancel_shouldThrow() {
+        // Arrange
+        QueryCancellation cancellation = new QueryCancellation();
+
+        // Act
+        cancellation.cancel();
+
+        // Assert
+        assertTrue(cancellation.isCancelled());
+        assertThrows(CancellationException.class, cancellation::throwIfCancelled);
+    }
+}
@@ -1,20 +1,44 @@
 package com.example.analytics_dashboard.service;
 
+import com.example.analytics_dashboard.columnar.ColumnarQueryEngine;
+import com.example.analytics_dashboard.model.QueryParameter;
+import com.example.analytics_dashboard.model.ResultColumn;
+import com.example.analytics_dashboard.model.StoredQuery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.ResultSetExtractor;
 import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.SqlProvider;
+import org.mockito.ArgumentMatcher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -23,9 +47,20 @@ public class QueryExecutionServiceTest {
     @Mock
     private JdbcTemplate jdbcTemplate;
 
-    @InjectMocks
+    @Mock
+    private JdbcTemplate asyncJdbcTemplate;
+
+    @Mock
+    private ColumnarQueryEngine columnarQueryEngine;
+
     private QueryExecutionService executionService;
 
+    @BeforeEach
+    void setUp() {
+        executionService = new QueryExecutionService(jdbcTemplate, asyncJdbcTemplate, columnarQueryEngine,
+                new DatasetVersion("v1"));
+    }
+
     @Test
     void executeQuery_withValidQuery_shouldReturnResults() {
         // Arrange
@@ -35,16 +70,16 @@ public class QueryExecutionServiceTest {
                 Arrays.asList(2, "Jane", 30)
         );
 
-        when(jdbcTemplate.query(eq(sql), any(ResultSetExtractor.class)))
+        when(jdbcTemplate.query(argThat(statementFor(sql)), any(ResultSetExtractor.class)))
                 .thenReturn(expectedResult);
 
         // Act
-        List<List<Object>> result = executionService.executeQuery(sql);
+        List<List<Object>> result = executionService.executeQuery(BoundQuery.of(new StoredQuery(sql))).getRows();
 
         // Assert
         assertNotNull(result);
         assertEquals(2, result.size());
-        verify(jdbcTemplate, times(1)).query(eq(sql), any(ResultSetExtractor.class));
+        verify(jdbcTemplate, times(1)).query(argThat(statementFor(sql)), any(ResultSetExtractor.class));
     }
 
     @Test
@@ -52,126 +87,187 @@ public class QueryExecutionServiceTest {
         // Arrange
         String sql = "SELECT * FROM nonexistent_table";
 
-        when(jdbcTemplate.query(eq(sql), any(ResultSetExtractor.class)))
+        when(jdbcTemplate.query(argThat(statementFor(sql)), any(ResultSetExtractor.class)))
                 .thenThrow(new DataAccessException("Table not found") {});
 
         // Act & Assert
         assertThrows(DataAccessException.class, () -> {
-            executionService.executeQuery(sql);
+            executionService.executeQuery(BoundQuery.of(new StoredQuery(sql)));
         });
     }
 
     @Test
-    void isReadOnlyQuery_withSelectQuery_shouldReturnTrue() {
+    void executeQuery_whenColumnarEngineAnswers_shouldNotCallDatabase() {
         // Arrange
-        String sql = "SELECT * FROM passengers";
+        String sql = "SELECT Pclass, COUNT(*) FROM passengers GROUP BY Pclass";
+        List<List<Object>> expectedResult = Arrays.asList(
+                Arrays.asList(1, 216L),
+                Arrays.asList(2, 184L)
+        );
+
+        when(columnarQueryEngine.tryExecute(sql)).thenReturn(Optional.of(expectedResult));
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        List<List<Object>> result = executionService.executeQuery(BoundQuery.of(new StoredQuery(sql))).getRows();
 
         // Assert
-        assertTrue(result);
+        assertEquals(expectedResult, result);
+        verify(jdbcTemplate, never()).query(eq(sql), any(ResultSetExtractor.class));
     }
 
     @Test
-    void isReadOnlyQuery_withSelectQueryLowerCase_shouldReturnTrue() {
+    void executeQuery_withConcurrentCallsForSameFingerprint_shouldQueryDatabaseOnce() throws Exception {
         // Arrange
-        String sql = "select name, age from passengers where age > 30";
+        String sql = "SELECT Name FROM passengers";
+        CountDownLatch databaseEntered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Object>> expectedResult = Arrays.asList(Arrays.asList("John"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        executionService.bindTo(meterRegistry);
+
+        when(jdbcTemplate.query(argThat(statementFor(sql)), any(ResultSetExtractor.class))).thenAnswer(invocation -> {
+            databaseEntered.countDown();
+            release.await();
+            return expectedResult;
+        });
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
-
-        // Assert
-        assertTrue(result);
+        List<Future<QueryResult>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 5; i++) {
+                StoredQuery storedQuery = new StoredQuery(sql);
+                storedQuery.setFingerprint("fp");
+                results.add(executor.submit(() -> executionService.executeQuery(BoundQuery.of(storedQuery))));
+            }
+            assertTrue(databaseEntered.await(5, TimeUnit.SECONDS));
+            while (meterRegistry.get("analytics.query.coalesced").functionCounter().count() < 4) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Assert
+            for (Future<QueryResult> result : results) {
+                assertEquals(expectedResult, result.get(5, TimeUnit.SECONDS).getRows());
+            }
+        }
+        verify(jdbcTemplate, times(1)).query(argThat(statementFor(sql)), any(ResultSetExtractor.class));
     }
 
     @Test
-    void isReadOnlyQuery_withInsertQuery_shouldReturnFalse() {
+    void timeoutSeconds_shouldUseQueryTimeoutOrDefaultCappedAtMaximum() {
         // Arrange
-        String sql = "INSERT INTO passengers VALUES (1, 'John')";
-
-        // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        ReflectionTestUtils.setField(executionService, "defaultTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(executionService, "maxTimeout", Duration.ofMinutes(2));
+        StoredQuery withoutTimeout = new StoredQuery("SELECT 1");
+        StoredQuery withTimeout = new StoredQuery("SELECT 1");
+        withTimeout.setTimeoutSeconds(5);
+        StoredQuery overMaximum = new StoredQuery("SELECT 1");
+        overMaximum.setTimeoutSeconds(3600);
 
-        // Assert
-        assertFalse(result);
+        // Act & Assert
+        assertEquals(30, executionService.timeoutSeconds(withoutTimeout));
+        assertEquals(5, executionService.timeoutSeconds(withTimeout));
+        assertEquals(120, executionService.timeoutSeconds(overMaximum));
     }
 
     @Test
-    void isReadOnlyQuery_withUpdateQuery_shouldReturnFalse() {
+    void executeQuery_whenStatementTimesOut_shouldReportTheTimeout() {
         // Arrange
-        String sql = "UPDATE passengers SET age = 30 WHERE id = 1";
+        String sql = "SELECT * FROM passengers a, passengers b";
+        StoredQuery storedQuery = new StoredQuery(sql);
+        storedQuery.setTimeoutSeconds(3);
+
+        when(jdbcTemplate.query(argThat(statementFor(sql)), any(ResultSetExtractor.class)))
+                .thenThrow(new QueryTimeoutException("Statement was canceled or the session timed out"));
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        QueryTimeoutException exception = assertThrows(QueryTimeoutException.class,
+                () -> executionService.executeQuery(BoundQuery.of(storedQuery)));
 
         // Assert
-        assertFalse(result);
+        assertEquals("Query exceeded its timeout of 3s", exception.getMessage());
     }
 
     @Test
-    void isReadOnlyQuery_withDeleteQuery_shouldReturnFalse() {
+    void streamQuery_whenCancelled_shouldKeepCancellationError() {
         // Arrange
-        String sql = "DELETE FROM passengers WHERE id = 1";
+        String sql = "SELECT * FROM passengers a, passengers b";
+        QueryCancellation cancellation = new QueryCancellation();
+        when(jdbcTemplate.query(argThat(statementFor(sql)), any(ResultSetExtractor.class))).thenAnswer(invocation -> {
+            cancellation.cancel();
+            throw new QueryTimeoutException("Statement was canceled or the session timed out");
+        });
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        QueryTimeoutException exception = assertThrows(QueryTimeoutException.class,
+                () -> executionService.streamQuery(BoundQuery.of(new StoredQuery(sql)), QueryWorkload.INTERACTIVE, cancellation, mock(ResultRowHandler.class)));
 
         // Assert
-        assertFalse(result);
+        assertEquals("Statement was canceled or the session timed out", exception.getMessage());
     }
 
     @Test
-    void isReadOnlyQuery_withDropQuery_shouldReturnFalse() {
+    void streamQuery_forBatchWorkload_shouldUseAsyncPool() {
         // Arrange
-        String sql = "DROP TABLE passengers";
+        String sql = "SELECT * FROM passengers";
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        executionService.streamQuery(BoundQuery.of(new StoredQuery(sql)), QueryWorkload.BATCH, new QueryCancellation(), mock(ResultRowHandler.class));
 
         // Assert
-        assertFalse(result);
+        verify(asyncJdbcTemplate, times(1)).query(argThat(statementFor(sql)), any(ResultSetExtractor.class));
+        verifyNoInteractions(jdbcTemplate);
     }
 
     @Test
-    void isReadOnlyQuery_withCreateQuery_shouldReturnFalse() {
+    void executeQuery_withParameters_shouldBindValuesAndSkipColumnarEngine() throws Exception {
         // Arrange
-        String sql = "CREATE TABLE test (id INT)";
+        StoredQuery storedQuery = new StoredQuery("SELECT COUNT(*) FROM passengers WHERE Pclass = :pclass");
+        storedQuery.setParameters(List.of(new QueryParameter("pclass", QueryParameter.Type.INTEGER)));
+        String jdbcSql = "SELECT COUNT(*) FROM passengers WHERE Pclass = ?";
+
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(jdbcSql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY))
+                .thenReturn(statement);
+        when(jdbcTemplate.query(argThat(statementFor(jdbcSql)), any(ResultSetExtractor.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, PreparedStatementCreator.class).createPreparedStatement(connection);
+            return List.of(List.of(216));
+        });
 
         // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
+        List<List<Object>> result = executionService.executeQuery(
+                BoundQuery.bind(storedQuery, Map.of("pclass", "1"))).getRows();
 
         // Assert
-        assertFalse(result);
+        assertEquals(List.of(List.of(216)), result);
+        verify(statement).setObject(1, 1L);
+        verifyNoInteractions(columnarQueryEngine);
     }
 
     @Test
-    void isReadOnlyQuery_withSelectAndInsertInComment_shouldDetectInsert() {
-        // Arrange - tricky case where INSERT is in the query
-        String sql = "SELECT * FROM passengers; INSERT INTO passengers VALUES (1, 'John')";
-
-        // Act
-        boolean result = executionService.isReadOnlyQuery(sql);
-
-        // Assert
-        assertFalse(result, "Should detect INSERT even if SELECT comes first");
-    }
+    void streamQuery_withStoredColumns_shouldNotReadResultSetMetaData() throws Exception {
+        // Arrange
+        StoredQuery storedQuery = new StoredQuery("SELECT Name FROM passengers");
+        storedQuery.setResultColumns(List.of(new ResultColumn("NAME", "CHARACTER VARYING")));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true, false);
+        when(rs.getObject(1)).thenReturn("Braund, Mr. Owen Harris");
+        when(jdbcTemplate.query(any(PreparedStatementCreator.class), any(ResultSetExtractor.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1, ResultSetExtractor.class).extractData(rs));
+        ResultRowHandler handler = mock(ResultRowHandler.class);
 
-    @Test
-    void isReadOnlyQuery_withNullQuery_shouldReturnFalse() {
         // Act
-        boolean result = executionService.isReadOnlyQuery(null);
+        executionService.streamQuery(BoundQuery.of(storedQuery), QueryWorkload.INTERACTIVE, new QueryCancellation(), handler);
 
         // Assert
-        assertFalse(result);
+        verify(handler).onColumns(List.of("NAME"));
+        verify(handler).onRow(new Object[]{"Braund, Mr. Owen Harris"});
+        verify(handler).onComplete(1);
+        verify(rs, never()).getMetaData();
     }
 
-    @Test
-    void isReadOnlyQuery_withEmptyQuery_shouldReturnFalse() {
-        // Act
-        boolean result = executionService.isReadOnlyQuery("");
-
-        // Assert
-        assertFalse(result);
+    private static ArgumentMatcher<PreparedStatementCreator> statementFor(String sql) {
+        return creator -> creator instanceof SqlProvider provider && sql.equals(provider.getSql());
     }
 }
@@ -1,14 +1,20 @@
 package com.example.analytics_dashboard.service;
 
 import com.example.analytics_dashboard.dto.QueryListResponse;
+import com.example.analytics_dashboard.dto.QueryParameterDefinition;
 import com.example.analytics_dashboard.dto.QueryResponse;
+import com.example.analytics_dashboard.model.QueryParameter;
 import com.example.analytics_dashboard.model.StoredQuery;
 import com.example.analytics_dashboard.repository.QueryRepository;
+import com.example.analytics_dashboard.sql.ReadOnlySqlValidator;
+import com.example.analytics_dashboard.sql.SqlFingerprinter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
@@ -24,6 +30,15 @@ public class QueryServiceTest {
     @Mock
     private QueryRepository queryRepository;
 
+    @Spy
+    private SqlFingerprinter sqlFingerprinter = new SqlFingerprinter();
+
+    @Spy
+    private ReadOnlySqlValidator readOnlySqlValidator = new ReadOnlySqlValidator();
+
+    @Mock
+    private QueryCompiler queryCompiler;
+
     @InjectMocks
     private QueryService queryService;
 
@@ -45,6 +60,61 @@ public class QueryServiceTest {
         verify(queryRepository, times(1)).save(any(StoredQuery.class));
     }
 
+    @Test
+    void addQuery_withValidQuery_shouldStoreFingerprint() {
+        // Arrange
+        ArgumentCaptor<StoredQuery> captor = ArgumentCaptor.forClass(StoredQuery.class);
+        when(queryRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        queryService.addQuery("  select *  from passengers -- all\n");
+
+        // Assert
+        assertEquals(sqlFingerprinter.fingerprint("SELECT * FROM passengers"), captor.getValue().getFingerprint());
+    }
+
+    @Test
+    void addQuery_shouldStoreReadOnlyVerdict() {
+        // Arrange
+        ArgumentCaptor<StoredQuery> captor = ArgumentCaptor.forClass(StoredQuery.class);
+        when(queryRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        queryService.addQuery("SELECT Name FROM passengers WHERE Name LIKE '%Created%'");
+        queryService.addQuery("DELETE FROM passengers WHERE PassengerId = 1");
+
+        // Assert
+        assertEquals(Boolean.TRUE, captor.getAllValues().get(0).getReadOnly());
+        assertEquals(Boolean.FALSE, captor.getAllValues().get(1).getReadOnly());
+    }
+
+    @Test
+    void addQuery_shouldCompileOnlyReadOnlyQueries() {
+        // Arrange
+        ArgumentCaptor<StoredQuery> captor = ArgumentCaptor.forClass(StoredQuery.class);
+        when(queryRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        queryService.addQuery("SELECT * FROM passengers");
+        queryService.addQuery("DELETE FROM passengers WHERE PassengerId = 1");
+
+        // Assert
+        verify(queryCompiler, times(1)).compile(captor.getAllValues().get(0));
+        verifyNoMoreInteractions(queryCompiler);
+    }
+
+    @Test
+    void addQuery_whenCompileFails_shouldNotSave() {
+        // Arrange
+        doThrow(new IllegalArgumentException("Invalid query: Table \"NONEXISTENT\" not found"))
+                .when(queryCompiler).compile(any(StoredQuery.class));
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> queryService.addQuery("SELECT * FROM nonexistent"));
+
+        verify(queryRepository, never()).save(any(StoredQuery.class));
+    }
+
     @Test
     void addQuery_withEmptyQuery_shouldThrowException() {
         // Act & Assert
@@ -65,6 +135,75 @@ public class QueryServiceTest {
         verify(queryRepository, never()).save(any(StoredQuery.class));
     }
 
+    @Test
+    void addQuery_withNonPositiveTimeout_shouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            queryService.addQuery("SELECT * FROM passengers", 0);
+        });
+
+        verify(queryRepository, never()).save(any(StoredQuery.class));
+    }
+
+    @Test
+    void addQuery_withDeclaredParameters_shouldStoreThemInOrder() {
+        // Arrange
+        ArgumentCaptor<StoredQuery> captor = ArgumentCaptor.forClass(StoredQuery.class);
+        when(queryRepository.save(captor.capture())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        queryService.addQuery("SELECT * FROM passengers WHERE Pclass = :pclass AND Sex = :sex", null, List.of(
+                new QueryParameterDefinition("pclass", "integer"),
+                new QueryParameterDefinition("sex", "STRING")));
+
+        // Assert
+        List<QueryParameter> parameters = captor.getValue().getParameters();
+        assertEquals(2, parameters.size());
+        assertEquals("pclass", parameters.get(0).getName());
+        assertEquals(QueryParameter.Type.INTEGER, parameters.get(0).getType());
+        assertEquals("sex", parameters.get(1).getName());
+        assertEquals(QueryParameter.Type.STRING, parameters.get(1).getType());
+    }
+
+    @Test
+    void addQuery_withUndeclaredPlaceholder_shouldThrowException() {
+        // Act & Assert
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+                queryService.addQuery("SELECT * FROM passengers WHERE Pclass = :pclass", null, null));
+
+        assertTrue(ex.getMessage().contains("pclass"));
+        verify(queryRepository, never()).save(any(StoredQuery.class));
+    }
+
+    @Test
+    void addQuery_withUnusedParameter_shouldThrowException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () ->
+                queryService.addQuery("SELECT * FROM passengers", null,
+                        List.of(new QueryParameterDefinition("pclass", "INTEGER"))));
+
+        verify(queryRepository, never()).save(any(StoredQuery.class));
+    }
+
+    @Test
+    void addQuery_withInvalidParameterDefinitions_shouldThrowException() {
+        String sql = "SELECT * FROM passengers WHERE Pclass = :pclass";
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> queryService.addQuery(sql, null,
+                List.of(new QueryParameterDefinition("pclass", "NUMBER"))));
+        assertThrows(IllegalArgumentException.class, () -> queryService.addQuery(sql, null,
+                List.of(new QueryParameterDefinition("pclass", null))));
+        assertThrows(IllegalArgumentException.class, () -> queryService.addQuery(sql, null, List.of(
+                new QueryParameterDefinition("pclass", "INTEGER"),
+                new QueryParameterDefinition("pclass", "INTEGER"))));
+        assertThrows(IllegalArgumentException.class, () -> queryService.addQuery(
+                "SELECT * FROM passengers WHERE PassengerId = :query", null,
+                List.of(new QueryParameterDefinition("query", "INTEGER"))));
+
+        verify(queryRepository, never()).save(any(StoredQuery.class));
+    }
+
     @Test
     void getAllQueries_shouldReturnListOfQueries() {
         // Arrange
@@ -105,6 +244,22 @@ public class QueryServiceTest {
         assertEquals("SELECT * FROM passengers", result.getQueryText());
     }
 
+    @Test
+    void getQueryById_withoutStoredFingerprint_shouldComputeIt() {
+        // Arrange
+        StoredQuery query = new StoredQuery("SELECT * FROM passengers");
+        query.setId(1L);
+
+        when(queryRepository.findById(1L)).thenReturn(Optional.of(query));
+
+        // Act
+        StoredQuery result = queryService.getQueryById(1L);
+
+        // Assert
+        assertEquals(sqlFingerprinter.fingerprint("SELECT * FROM passengers"), result.getFingerprint());
+        assertEquals(Boolean.TRUE, result.getReadOnly());
+    }
+
     @Test
     void getQueryById_withNonExistingId_shouldThrowException() {
         // Arrange
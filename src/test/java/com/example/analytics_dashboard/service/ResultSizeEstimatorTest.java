@@ -0,0 +1,47 @@
+package com.example.analytics_dashboard.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultSizeEstimatorTest {
+
+    @Test
+    void estimate_withWiderRows_shouldBeLarger() {
+        // Arrange
+        List<List<Object>> narrow = Collections.singletonList(Arrays.asList(1L));
+        List<List<Object>> wide = Collections.singletonList(Arrays.asList(1, "Braund, Mr. Owen Harris", new BigDecimal("22.00"), 7.25));
+
+        // Act & Assert
+        assertTrue(ResultSizeEstimator.estimate(wide) > ResultSizeEstimator.estimate(narrow));
+    }
+
+    @Test
+    void estimate_withLargeResult_shouldExtrapolateFromSample() {
+        // Arrange
+        List<List<Object>> rows = new ArrayList<>();
+        for (int i = 0; i < ResultSizeEstimator.SAMPLED_ROWS * 10; i++) {
+            rows.add(Arrays.asList(i, "passenger"));
+        }
+        long perRow = ResultSizeEstimator.estimate(rows.subList(0, 1)) - ResultSizeEstimator.estimate(List.of());
+
+        // Act
+        long estimate = ResultSizeEstimator.estimate(rows);
+
+        // Assert
+        assertEquals(perRow * rows.size(), estimate, perRow * rows.size() / 10.0);
+    }
+
+    @Test
+    void valueSize_withNonLatinString_shouldCountTwoBytesPerChar() {
+        // Act & Assert
+        assertTrue(ResultSizeEstimator.valueSize("żółw żółw żółw") > ResultSizeEstimator.valueSize("zolw zolw zolw"));
+        assertEquals(0, ResultSizeEstimator.valueSize(null));
+    }
+}
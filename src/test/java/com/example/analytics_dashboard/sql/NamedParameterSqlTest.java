@@ -0,0 +1,46 @@
+package com.example.analytics_dashboard.sql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NamedParameterSqlTest {
+
+    @Test
+    void parse_shouldReplaceNamedParametersWithPlaceholders() {
+        // Act
+        NamedParameterSql sql = NamedParameterSql.parse(
+                "SELECT * FROM passengers WHERE Pclass = :pclass AND (Sex = :sex OR :pclass = 1)");
+
+        // Assert
+        assertEquals("SELECT * FROM passengers WHERE Pclass = ? AND (Sex = ? OR ? = 1)", sql.getJdbcSql());
+        assertEquals(List.of("pclass", "sex", "pclass"), sql.getParameterNames());
+        assertEquals(Set.of("pclass", "sex"), sql.getDistinctNames());
+        assertTrue(sql.hasParameters());
+    }
+
+    @Test
+    void parse_shouldIgnoreColonsInLiteralsCommentsAndCasts() {
+        // Arrange
+        String text = "SELECT ':notParam', \"a:b\", Age::INT -- :comment\nFROM passengers /* :block */";
+
+        // Act
+        NamedParameterSql sql = NamedParameterSql.parse(text);
+
+        // Assert
+        assertEquals(text, sql.getJdbcSql());
+        assertFalse(sql.hasParameters());
+    }
+
+    @Test
+    void parse_withSpaceAfterColon_shouldNotTreatItAsParameter() {
+        // Act
+        NamedParameterSql sql = NamedParameterSql.parse("SELECT * FROM passengers WHERE Age > : age");
+
+        // Assert
+        assertFalse(sql.hasParameters());
+    }
+}
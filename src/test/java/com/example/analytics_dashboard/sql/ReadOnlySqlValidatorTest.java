@@ -0,0 +1,158 @@
+package com.example.analytics_dashboard.sql;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReadOnlySqlValidatorTest {
+    private final ReadOnlySqlValidator validator = new ReadOnlySqlValidator();
+
+    @Test
+    void isReadOnly_withSelectQuery_shouldReturnTrue() {
+        // Arrange
+        String sql = "SELECT * FROM passengers";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    void isReadOnly_withSelectQueryLowerCase_shouldReturnTrue() {
+        // Arrange
+        String sql = "select name, age from passengers where age > 30";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    void isReadOnly_withInsertQuery_shouldReturnFalse() {
+        // Arrange
+        String sql = "INSERT INTO passengers VALUES (1, 'John')";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withUpdateQuery_shouldReturnFalse() {
+        // Arrange
+        String sql = "UPDATE passengers SET age = 30 WHERE id = 1";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withDeleteQuery_shouldReturnFalse() {
+        // Arrange
+        String sql = "DELETE FROM passengers WHERE id = 1";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withDropQuery_shouldReturnFalse() {
+        // Arrange
+        String sql = "DROP TABLE passengers";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withCreateQuery_shouldReturnFalse() {
+        // Arrange
+        String sql = "CREATE TABLE test (id INT)";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withSelectAndInsertInComment_shouldDetectInsert() {
+        // Arrange - tricky case where INSERT is in the query
+        String sql = "SELECT * FROM passengers; INSERT INTO passengers VALUES (1, 'John')";
+
+        // Act
+        boolean result = validator.isReadOnly(sql);
+
+        // Assert
+        assertFalse(result, "Should detect INSERT even if SELECT comes first");
+    }
+
+    @Test
+    void isReadOnly_withNullQuery_shouldReturnFalse() {
+        // Act
+        boolean result = validator.isReadOnly(null);
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @Test
+    void isReadOnly_withEmptyQuery_shouldReturnFalse() {
+        // Act
+        boolean result = validator.isReadOnly("");
+
+        // Assert
+        assertFalse(result);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT Name FROM passengers WHERE Name LIKE '%Created%'",
+            "SELECT \"DELETE\" FROM passengers",
+            "SELECT created_at, updated_by FROM audit",
+            "SELECT * FROM passengers -- DROP TABLE passengers",
+            "SELECT /* ; DELETE FROM passengers */ * FROM passengers",
+            "SELECT REPLACE(Name, 'Mr.', 'Mister') FROM passengers",
+            "WITH adults AS (SELECT * FROM passengers WHERE Age >= 18) SELECT COUNT(*) FROM adults",
+            "SELECT * FROM passengers;",
+            "SELECT 'it''s; DELETE' FROM passengers"
+    })
+    void isReadOnly_withReadOnlyStatements_shouldReturnTrue(String sql) {
+        // Act & Assert
+        assertTrue(validator.isReadOnly(sql));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM passengers; SELECT * FROM passengers",
+            "SELECT * FROM passengers FOR UPDATE",
+            "MERGE INTO passengers KEY (PassengerId) VALUES (1, 'John')",
+            "REPLACE INTO passengers VALUES (1, 'John')",
+            "SELECT 1; REPLACE INTO passengers VALUES (1, 'John')",
+            "WITH x AS (SELECT 1) DELETE FROM passengers",
+            "-- comment only",
+            "(SELECT * FROM passengers)"
+    })
+    void isReadOnly_withOtherStatements_shouldReturnFalse(String sql) {
+        // Act & Assert
+        assertFalse(validator.isReadOnly(sql));
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.analytics_dashboard.sql;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlFingerprinterTest {
+    private static final String CANONICAL = "SELECT NAME , AGE FROM PASSENGERS WHERE SEX = 'male' AND AGE <> 30";
+
+    private final SqlFingerprinter fingerprinter = new SqlFingerprinter();
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT Name, Age FROM passengers WHERE Sex = 'male' AND Age <> 30",
+            "select name,age from passengers where sex='male' and age!=30",
+            "SELECT  Name ,\n\tAge\nFROM passengers   WHERE Sex = 'male' AND Age <> 30;",
+            "SELECT \"NAME\", \"AGE\" FROM \"PASSENGERS\" WHERE \"SEX\" = 'male' AND \"AGE\" <> 30",
+            "-- report\nSELECT Name, /* the age */ Age FROM passengers WHERE Sex = 'male' AND Age <> 30 -- done"
+    })
+    void canonicalize_withEquivalentVariants_shouldProduceSameForm(String sql) {
+        // Act
+        String canonical = fingerprinter.canonicalize(sql);
+
+        // Assert
+        assertEquals(CANONICAL, canonical);
+        assertEquals(fingerprinter.fingerprint(CANONICAL), fingerprinter.fingerprint(sql));
+    }
+
+    @Test
+    void fingerprint_withDifferentStringLiteralCase_shouldDiffer() {
+        // Act & Assert
+        assertNotEquals(
+                fingerprinter.fingerprint("SELECT COUNT(*) FROM passengers WHERE Sex = 'male'"),
+                fingerprinter.fingerprint("SELECT COUNT(*) FROM passengers WHERE Sex = 'MALE'"));
+    }
+
+    @Test
+    void fingerprint_withCaseSensitiveQuotedIdentifier_shouldDifferFromUnquoted() {
+        // Act & Assert
+        assertNotEquals(
+                fingerprinter.fingerprint("SELECT \"name\" FROM passengers"),
+                fingerprinter.fingerprint("SELECT name FROM passengers"));
+    }
+
+    @Test
+    void fingerprint_withDifferentNumericLiteral_shouldDiffer() {
+        // Act & Assert
+        assertNotEquals(
+                fingerprinter.fingerprint("SELECT * FROM passengers LIMIT 10"),
+                fingerprinter.fingerprint("SELECT * FROM passengers LIMIT 100"));
+    }
+
+    @Test
+    void canonicalize_shouldKeepCommentMarkersInsideStringLiterals() {
+        // Act
+        String canonical = fingerprinter.canonicalize("select 'a -- b /* c */', 'it''s' from passengers");
+
+        // Assert
+        assertEquals("SELECT 'a -- b /* c */' , 'it''s' FROM PASSENGERS", canonical);
+    }
+
+    @Test
+    void canonicalize_shouldKeepSemicolonsBetweenStatements() {
+        // Act
+        String canonical = fingerprinter.canonicalize("SELECT 1; select 2;;");
+
+        // Assert
+        assertEquals("SELECT 1 ; SELECT 2", canonical);
+    }
+
+    @Test
+    void fingerprint_shouldBeHexSha256() {
+        // Act
+        String fingerprint = fingerprinter.fingerprint("SELECT * FROM passengers");
+
+        // Assert
+        assertTrue(fingerprint.matches("[0-9a-f]{64}"));
+    }
+}